@@ -75,6 +75,7 @@ dependencies {
         api("io.swagger:swagger-annotations:1.6.11")
         api("io.vertx:vertx-pg-client:$vertxVersion")
         api("io.vertx:vertx-codegen:$vertxVersion")
+        api("it.unimi.dsi:fastutil:8.5.12")
         api("jakarta.inject:jakarta.inject-api:2.0.1")
         api("net.devh:grpc-spring-boot-starter:2.15.0-SNAPSHOT") // Temporary until 2.15.0 for Jakarta compatability
         api("net.java.dev.jna:jna:5.13.0")
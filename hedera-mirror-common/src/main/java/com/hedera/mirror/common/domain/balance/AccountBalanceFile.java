@@ -45,6 +45,9 @@ public class AccountBalanceFile implements StreamFile<AccountBalance> {
 
     private Long count;
 
+    // Whether only the balances that changed since the previous file were persisted
+    private boolean delta;
+
     @ToString.Exclude
     private String fileHash;
 
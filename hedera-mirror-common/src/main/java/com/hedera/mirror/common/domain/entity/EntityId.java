@@ -35,6 +35,7 @@ import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 
 /**
  * Common encapsulation for accountID, fileID, contractID, topicID and tokenID.
@@ -66,11 +67,17 @@ public class EntityId implements Serializable, Comparable<EntityId> {
     @JsonSerialize(using = EntityTypeSerializer.class)
     private final EntityType type;
 
-    @Getter(lazy = true, value = AccessLevel.PRIVATE)
-    private final String cachedString = String.format("%d.%d.%d", shardNum, realmNum, entityNum);
+    // Computed on first use with the racy single-check idiom since String is immutable and safely published
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    private transient String cachedString;
 
     public EntityId(Long shardNum, Long realmNum, Long entityNum, EntityType type) {
-        id = EntityIdEndec.encode(shardNum, realmNum, entityNum);
+        this(EntityIdEndec.encode(shardNum, realmNum, entityNum), shardNum, realmNum, entityNum, type);
+    }
+
+    private EntityId(Long id, Long shardNum, Long realmNum, Long entityNum, EntityType type) {
+        this.id = id;
         this.shardNum = shardNum;
         this.realmNum = realmNum;
         this.entityNum = entityNum;
@@ -118,6 +125,13 @@ public class EntityId implements Serializable, Comparable<EntityId> {
         if (entityNum == 0 && entityRealm == 0 && entityShard == 0) {
             return EMPTY;
         }
+
+        // The encoded id of a 0.0.num entity is the num itself, so share one boxed value and skip the encoding
+        if ((entityShard | entityRealm) == 0 && (entityNum >>> EntityIdEndec.NUM_BITS) == 0) {
+            Long num = entityNum;
+            return new EntityId(num, 0L, 0L, num, type);
+        }
+
         return new EntityId(entityShard, entityRealm, entityNum, type);
     }
 
@@ -147,6 +161,11 @@ public class EntityId implements Serializable, Comparable<EntityId> {
 
     @Override
     public String toString() {
-        return getCachedString();
+        String value = cachedString;
+        if (value == null) {
+            value = shardNum + "." + realmNum + "." + entityNum;
+            cachedString = value;
+        }
+        return value;
     }
 }
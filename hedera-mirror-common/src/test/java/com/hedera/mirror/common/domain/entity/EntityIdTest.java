@@ -19,6 +19,7 @@ package com.hedera.mirror.common.domain.entity;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.hedera.mirror.common.exception.InvalidEntityException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -40,4 +41,28 @@ class EntityIdTest {
         assertThat(EntityId.of("0.0.1", type)).isEqualTo(EntityId.of(0, 0, 1, type));
         assertThat(EntityId.of("0.0.0", type)).isEqualTo(EntityId.EMPTY);
     }
+
+    @CsvSource({"0, 0, 1", "0, 0, 4294967295", "0, 1, 1", "1, 2, 3", "32767, 65535, 4294967295"})
+    @DisplayName("Create EntityId from parts and encoded id")
+    @ParameterizedTest(name = "with {0}.{1}.{2}")
+    void ofParts(long shard, long realm, long num) {
+        var type = EntityType.ACCOUNT;
+        var entityId = EntityId.of(shard, realm, num, type);
+        var expected = new EntityId(shard, realm, num, type);
+        assertThat(entityId)
+                .isEqualTo(expected)
+                .usingRecursiveComparison()
+                .ignoringFields("cachedString")
+                .isEqualTo(expected);
+        assertThat(entityId.toString()).isEqualTo(shard + "." + realm + "." + num).isSameAs(entityId.toString());
+        assertThat(EntityId.of(entityId.getId(), type)).isEqualTo(entityId);
+    }
+
+    @CsvSource({"0, 0, -1", "0, 0, 4294967296", "-1, 0, 1", "0, -1, 1"})
+    @DisplayName("Create EntityId from invalid parts")
+    @ParameterizedTest(name = "with {0}.{1}.{2}")
+    void ofPartsInvalid(long shard, long realm, long num) {
+        assertThatThrownBy(() -> EntityId.of(shard, realm, num, EntityType.ACCOUNT))
+                .isInstanceOf(InvalidEntityException.class);
+    }
 }
@@ -31,6 +31,7 @@ dependencies {
     implementation("io.github.mweirauch:micrometer-jvm-extras")
     implementation("io.micrometer:micrometer-registry-elastic")
     implementation("io.micrometer:micrometer-registry-prometheus")
+    implementation("it.unimi.dsi:fastutil")
     implementation("jakarta.inject:jakarta.inject-api")
     implementation("net.java.dev.jna:jna")
     implementation("org.apache.commons:commons-compress")
@@ -22,13 +22,15 @@ import com.hedera.mirror.common.domain.balance.AccountBalanceFile;
 import com.hedera.mirror.common.domain.event.EventFile;
 import com.hedera.mirror.common.domain.transaction.RecordFile;
 import com.hedera.mirror.importer.parser.ParserProperties;
-import com.hedera.mirror.importer.parser.StreamFileParser;
 import com.hedera.mirror.importer.parser.balance.AccountBalanceFileParser;
 import com.hedera.mirror.importer.parser.balance.BalanceParserProperties;
 import com.hedera.mirror.importer.parser.event.EventFileParser;
 import com.hedera.mirror.importer.parser.event.EventParserProperties;
+import com.hedera.mirror.importer.parser.record.RecordFileBatcher;
 import com.hedera.mirror.importer.parser.record.RecordFileParser;
 import com.hedera.mirror.importer.parser.record.RecordParserProperties;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.integration.channel.NullChannel;
@@ -69,17 +71,21 @@ public class MessagingConfiguration {
 
     @Bean
     IntegrationFlow integrationFlowBalance(AccountBalanceFileParser parser) {
-        return integrationFlow(parser, AccountBalanceFile.class);
+        return integrationFlow(parser.getProperties(), AccountBalanceFile.class, parser::parse);
     }
 
     @Bean
     IntegrationFlow integrationFlowEvent(EventFileParser parser) {
-        return integrationFlow(parser, EventFile.class);
+        return integrationFlow(parser.getProperties(), EventFile.class, parser::parse);
     }
 
     @Bean
-    IntegrationFlow integrationFlowRecord(RecordFileParser parser) {
-        return integrationFlow(parser, RecordFile.class);
+    IntegrationFlow integrationFlowRecord(
+            @Qualifier(CHANNEL_RECORD) MessageChannel channel,
+            RecordFileParser parser,
+            RecordParserProperties properties) {
+        var recordFileBatcher = new RecordFileBatcher(channel, parser, properties);
+        return integrationFlow(properties, RecordFile.class, recordFileBatcher);
     }
 
     @Bean
@@ -98,13 +104,12 @@ public class MessagingConfiguration {
     }
 
     private <T extends StreamFile<?>> IntegrationFlow integrationFlow(
-            StreamFileParser<T> parser, Class<T> streamFileType) {
-        ParserProperties properties = parser.getProperties();
+            ParserProperties properties, Class<T> streamFileType, Consumer<T> parser) {
         return IntegrationFlow.from(channelName(properties.getStreamType()))
                 .handle(
                         streamFileType,
                         (s, h) -> {
-                            parser.parse(s);
+                            parser.accept(s);
                             return null;
                         },
                         e -> {
@@ -173,6 +173,16 @@ public class MirrorDateRangePropertiesProcessor {
         return streamFile;
     }
 
+    /**
+     * Gets the latest stream file that has been parsed into the database, regardless of the configured date range.
+     *
+     * @param streamType What type of stream to retrieve
+     * @return The latest stream file from the database
+     */
+    public <T extends StreamFile<?>> Optional<T> getLastParsedStreamFile(StreamType streamType) {
+        return findLatest(streamType);
+    }
+
     @SuppressWarnings("unchecked")
     private <T extends StreamFile<?>> Optional<T> findLatest(StreamType streamType) {
         return (Optional<T>) getStreamFileRepository(streamType).findLatest();
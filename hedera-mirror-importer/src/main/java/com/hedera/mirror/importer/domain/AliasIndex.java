@@ -0,0 +1,378 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.domain;
+
+import com.google.common.base.Stopwatch;
+import com.hedera.mirror.importer.parser.record.entity.EntityProperties;
+import jakarta.inject.Named;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.CustomLog;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A compact index of the aliases and EVM addresses of all entities to their entity ids, sized for tens of millions of
+ * entries. The entries are appended to off-heap segments as a one byte key length, the key and the eight byte id, while
+ * the only on-heap structure is an open addressing table of longs packing a hash fingerprint of the key with the
+ * address of its entry. So besides the key and the id, an entry takes a byte off-heap and about eleven bytes on-heap
+ * at the maximum load factor.
+ * <p>
+ * The index is warmed on startup with a streaming scan of the entity table and kept current by the entity ID service.
+ * Entries are updated in place when their key is reused and removed when their entity is deleted, though the bytes of
+ * a removed entry stay in its segment. Lookups run concurrently with each other, while updates are serialized.
+ */
+@CustomLog
+@Named
+public class AliasIndex {
+
+    public static final long NOT_FOUND = -1L;
+
+    private static final int ADDRESS_BITS = 40;
+    private static final long ADDRESS_MASK = (1L << ADDRESS_BITS) - 1;
+    private static final long FINGERPRINT_MASK = (1L << (Long.SIZE - ADDRESS_BITS)) - 1;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String SELECT_ALIASES =
+            """
+            select id, alias, evm_address from entity
+            where (alias is not null or evm_address is not null) and deleted <> true""";
+
+    private final EntityProperties.AliasIndexProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final int segmentSize;
+
+    private long position;
+    // The entity ids of the keys removed while warming, so the scan doesn't add them back. Null when not warming
+    private Map<ByteBuffer, Long> removed;
+    private int size;
+    private long[] slots;
+
+    public AliasIndex(EntityProperties entityProperties, JdbcTemplate jdbcTemplate) {
+        this.properties = entityProperties.getAliasIndex();
+        this.jdbcTemplate = jdbcTemplate;
+        long segmentBytes = properties.getSegmentSize().toBytes();
+        this.segmentSize = (int) Math.min(Math.max(segmentBytes, 1 + MAX_KEY_LENGTH + Long.BYTES), Integer.MAX_VALUE);
+
+        if (properties.isEnabled()) {
+            int capacity = (int) Math.min(MAX_CAPACITY, properties.getInitialCapacity() / LOAD_FACTOR);
+            slots = new long[Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1];
+        }
+    }
+
+    public boolean isEnabled() {
+        return slots != null;
+    }
+
+    /**
+     * Gets the entity id of an alias or EVM address
+     *
+     * @param key the alias or EVM address
+     * @return the entity id, or NOT_FOUND if the index doesn't have the key
+     */
+    public long get(byte[] key) {
+        if (!isEnabled() || !isValid(key)) {
+            return NOT_FOUND;
+        }
+
+        lock.readLock().lock();
+        try {
+            long hash = hash(key);
+            int index = find(key, hash);
+            return slots[index] != 0 ? readId(address(slots[index]), key.length) : NOT_FOUND;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or updates the entity id of an alias or EVM address
+     *
+     * @param key the alias or EVM address
+     * @param id  the entity id
+     */
+    public void put(byte[] key, long id) {
+        put(key, id, true);
+    }
+
+    /**
+     * Removes an alias or EVM address if it still maps to the entity id, so a key reused by another entity is kept
+     *
+     * @param key the alias or EVM address
+     * @param id  the entity id
+     */
+    public void remove(byte[] key, long id) {
+        if (!isEnabled() || !isValid(key)) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (removed != null) {
+                removed.put(ByteBuffer.wrap(key.clone()), id);
+            }
+
+            int index = find(key, hash(key));
+            if (slots[index] == 0 || readId(address(slots[index]), key.length) != id) {
+                return;
+            }
+
+            // Shift the following entries of the probe sequence back, so lookups don't stop at the emptied slot
+            int mask = slots.length - 1;
+            for (int next = (index + 1) & mask; slots[next] != 0; next = (next + 1) & mask) {
+                int home = (int) hash(readKey(address(slots[next]))) & mask;
+                if (((next - home) & mask) >= ((next - index) & mask)) {
+                    slots[index] = slots[next];
+                    index = next;
+                }
+            }
+
+            slots[index] = 0;
+            size--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (isEnabled()) {
+            Mono.fromRunnable(this::warm)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .doOnError(t -> log.error("Unable to warm the alias index:", t))
+                    .subscribe();
+        }
+    }
+
+    /*
+     * Streams the aliases and EVM addresses of the entities from the database. The ones added concurrently by the
+     * entity ID service are more recent, so they're not overwritten, and the ones it removes concurrently are kept as
+     * tombstones until the scan ends, so they're not added back.
+     */
+    void warm() {
+        var stopwatch = Stopwatch.createStarted();
+        var dataSource = Objects.requireNonNull(jdbcTemplate.getDataSource());
+        var transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(true);
+        setRemoved(new HashMap<>());
+
+        try {
+            // The PostgreSQL driver only streams the rows with a fetch size inside a transaction
+            transactionTemplate.executeWithoutResult(s -> jdbcTemplate.query(
+                    connection -> {
+                        var statement = connection.prepareStatement(SELECT_ALIASES);
+                        statement.setFetchSize(properties.getWarmFetchSize());
+                        return statement;
+                    },
+                    rs -> {
+                        long id = rs.getLong(1);
+                        put(rs.getBytes(2), id, false);
+                        put(rs.getBytes(3), id, false);
+                    }));
+        } finally {
+            setRemoved(null);
+        }
+
+        log.info("Warmed the alias index with {} entries in {}", size(), stopwatch);
+    }
+
+    private void put(byte[] key, long id, boolean overwrite) {
+        if (!isEnabled() || !isValid(key)) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            long hash = hash(key);
+            int index = find(key, hash);
+
+            if (!overwrite && removed != null && Objects.equals(removed.get(ByteBuffer.wrap(key)), id)) {
+                return;
+            }
+
+            if (slots[index] != 0) {
+                if (overwrite) {
+                    var address = address(slots[index]);
+                    segment(address).putLong(offset(address) + 1 + key.length, id);
+                }
+                return;
+            }
+
+            if (size + 1 > slots.length * LOAD_FACTOR) {
+                resize();
+                index = find(key, hash);
+            }
+
+            long address = append(key, id);
+            slots[index] = ((hash >>> ADDRESS_BITS) & FINGERPRINT_MASK) << ADDRESS_BITS | (address + 1);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void setRemoved(Map<ByteBuffer, Long> removed) {
+        lock.writeLock().lock();
+        try {
+            this.removed = removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Finds the slot of the key, or the empty slot it would be inserted in
+     */
+    private int find(byte[] key, long hash) {
+        int mask = slots.length - 1;
+        long fingerprint = (hash >>> ADDRESS_BITS) & FINGERPRINT_MASK;
+
+        for (int index = (int) hash & mask; ; index = (index + 1) & mask) {
+            long slot = slots[index];
+            if (slot == 0 || (slot >>> ADDRESS_BITS == fingerprint && matches(address(slot), key))) {
+                return index;
+            }
+        }
+    }
+
+    private long append(byte[] key, long id) {
+        int entrySize = 1 + key.length + Long.BYTES;
+        int segment = (int) (position / segmentSize);
+        int offset = (int) (position % segmentSize);
+
+        if (offset + entrySize > segmentSize) {
+            segment++;
+            offset = 0;
+        }
+
+        while (segment >= segments.size()) {
+            segments.add(ByteBuffer.allocateDirect(segmentSize));
+        }
+
+        var buffer = segments.get(segment);
+        buffer.put(offset, (byte) key.length);
+        buffer.put(offset + 1, key);
+        buffer.putLong(offset + 1 + key.length, id);
+
+        long address = (long) segment * segmentSize + offset;
+        position = address + entrySize;
+        return address;
+    }
+
+    private void resize() {
+        if (slots.length >= MAX_CAPACITY) {
+            throw new IllegalStateException("Alias index is full with " + size + " entries");
+        }
+
+        var previous = slots;
+        slots = new long[previous.length << 1];
+        int mask = slots.length - 1;
+
+        for (long slot : previous) {
+            if (slot != 0) {
+                int index = (int) hash(readKey(address(slot))) & mask;
+                while (slots[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = slot;
+            }
+        }
+    }
+
+    private boolean matches(long address, byte[] key) {
+        var buffer = segment(address);
+        int offset = offset(address);
+
+        if (Byte.toUnsignedInt(buffer.get(offset)) != key.length) {
+            return false;
+        }
+
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(offset + 1 + i) != key[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private byte[] readKey(long address) {
+        var buffer = segment(address);
+        int offset = offset(address);
+        var key = new byte[Byte.toUnsignedInt(buffer.get(offset))];
+        buffer.get(offset + 1, key);
+        return key;
+    }
+
+    private long readId(long address, int keyLength) {
+        return segment(address).getLong(offset(address) + 1 + keyLength);
+    }
+
+    private ByteBuffer segment(long address) {
+        return segments.get((int) (address / segmentSize));
+    }
+
+    private int offset(long address) {
+        return (int) (address % segmentSize);
+    }
+
+    private static long address(long slot) {
+        return (slot & ADDRESS_MASK) - 1;
+    }
+
+    // FNV-1a followed by the MurmurHash3 finalizer, so both the low bits and the fingerprint bits are well mixed
+    private static long hash(byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static boolean isValid(byte[] key) {
+        return key != null && key.length > 0 && key.length <= MAX_KEY_LENGTH;
+    }
+}
@@ -16,10 +16,12 @@
 
 package com.hedera.mirror.importer.domain;
 
+import com.google.protobuf.GeneratedMessageV3;
 import com.hedera.mirror.common.domain.entity.Entity;
 import com.hedera.mirror.common.domain.entity.EntityId;
 import com.hederahashgraph.api.proto.java.AccountID;
 import com.hederahashgraph.api.proto.java.ContractID;
+import java.util.Collection;
 import java.util.Optional;
 
 /**
@@ -63,7 +65,16 @@ public interface EntityIdService {
     Optional<EntityId> lookup(ContractID... contractIds);
 
     /**
-     * Used to notify the system of new aliases for potential use in future lookups.
+     * Resolves the aliases and EVM addresses missing from the cache with a single query per kind ahead of their
+     * lookups. The ones that can't be resolved yet are left to the regular lookups.
+     *
+     * @param entityIdProtos The protobuf account and contract IDs, the ones without an alias or EVM address are ignored
+     */
+    void prefetch(Collection<? extends GeneratedMessageV3> entityIdProtos);
+
+    /**
+     * Used to notify the system of new aliases for potential use in future lookups, or of deleted entities whose
+     * aliases should no longer be resolved.
      *
      * @param aliasable Represents a mapping of alias to entity ID.
      */
@@ -20,7 +20,10 @@ import static com.hedera.mirror.common.domain.entity.EntityType.ACCOUNT;
 import static com.hedera.mirror.common.domain.entity.EntityType.CONTRACT;
 import static com.hedera.mirror.importer.config.CacheConfiguration.CACHE_MANAGER_ALIAS;
 import static com.hedera.mirror.importer.util.Utility.RECOVERABLE_ERROR;
+import static com.hederahashgraph.api.proto.java.AccountID.AccountCase.ALIAS;
+import static com.hederahashgraph.api.proto.java.ContractID.ContractCase.EVM_ADDRESS;
 
+import com.google.common.base.Stopwatch;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.GeneratedMessageV3;
 import com.hedera.mirror.common.domain.entity.Entity;
@@ -30,26 +33,83 @@ import com.hedera.mirror.common.util.DomainUtils;
 import com.hedera.mirror.importer.repository.EntityRepository;
 import com.hederahashgraph.api.proto.java.AccountID;
 import com.hederahashgraph.api.proto.java.ContractID;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.inject.Named;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.function.Function;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.codec.binary.Hex;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Log4j2
 @Named
 public class EntityIdServiceImpl implements EntityIdService {
 
+    private static final String METRIC_LOOKUP = "hedera.mirror.importer.entity.id.lookup";
+    private static final String SELECT_BY_ALIAS =
+            "select alias, id from entity where alias = any(?) and deleted <> true";
+    private static final String SELECT_BY_EVM_ADDRESS =
+            "select evm_address, id from entity where evm_address = any(?) and deleted <> true";
+
+    private final AliasIndex aliasIndex;
     private final Cache cache;
     private final EntityRepository entityRepository;
+    private final JdbcOperations jdbcOperations;
+
+    // The aliases and EVM addresses added or removed by the parser in the open transaction, guarded by itself
+    private final Set<ByteString> touched = new HashSet<>();
+
+    // Metrics
+    private final Counter hitMetric;
+    private final Counter missMetric;
+    private final Timer prefetchMetric;
+    private final Counter prefetchResolvedMetric;
+    private final Counter prefetchUnresolvedMetric;
 
     public EntityIdServiceImpl(
-            @Named(CACHE_MANAGER_ALIAS) CacheManager cacheManager, EntityRepository entityRepository) {
+            AliasIndex aliasIndex,
+            @Named(CACHE_MANAGER_ALIAS) CacheManager cacheManager,
+            EntityRepository entityRepository,
+            JdbcOperations jdbcOperations,
+            MeterRegistry meterRegistry) {
+        this.aliasIndex = aliasIndex;
         this.cache = cacheManager.getCache("entityId");
         this.entityRepository = entityRepository;
+        this.jdbcOperations = jdbcOperations;
+
+        hitMetric = Counter.builder(METRIC_LOOKUP)
+                .description("The number of entity ID lookups")
+                .tag("cache", "hit")
+                .register(meterRegistry);
+        missMetric = Counter.builder(METRIC_LOOKUP)
+                .description("The number of entity ID lookups")
+                .tag("cache", "miss")
+                .register(meterRegistry);
+        prefetchMetric = Timer.builder("hedera.mirror.importer.entity.id.prefetch")
+                .description("The time it takes to resolve the aliases and EVM addresses missing from the cache")
+                .register(meterRegistry);
+        prefetchResolvedMetric = Counter.builder("hedera.mirror.importer.entity.id.prefetched")
+                .description("The number of aliases and EVM addresses looked up ahead of their use")
+                .tag("resolved", "true")
+                .register(meterRegistry);
+        prefetchUnresolvedMetric = Counter.builder("hedera.mirror.importer.entity.id.prefetched")
+                .description("The number of aliases and EVM addresses looked up ahead of their use")
+                .tag("resolved", "false")
+                .register(meterRegistry);
     }
 
     @Override
@@ -77,6 +137,14 @@ public class EntityIdServiceImpl implements EntityIdService {
             return EntityId.EMPTY;
         }
 
+        var cached = cache.get(entityIdProto);
+        if (cached != null) {
+            hitMetric.increment();
+            return (EntityId) cached.get();
+        }
+
+        missMetric.increment();
+
         try {
             return cache.get(entityIdProto, loader);
         } catch (Cache.ValueRetrievalException e) {
@@ -95,9 +163,99 @@ public class EntityIdServiceImpl implements EntityIdService {
         return EntityId.EMPTY;
     }
 
+    @Override
+    @SuppressWarnings("deprecation")
+    public void prefetch(Collection<? extends GeneratedMessageV3> entityIdProtos) {
+        var aliases = new HashMap<ByteString, List<GeneratedMessageV3>>();
+        var evmAddresses = new HashMap<ByteString, List<GeneratedMessageV3>>();
+
+        for (var entityIdProto : entityIdProtos) {
+            if (entityIdProto instanceof AccountID accountId && accountId.getAccountCase() == ALIAS) {
+                var alias = accountId.getAlias();
+                if (alias.size() != DomainUtils.EVM_ADDRESS_LENGTH) {
+                    add(aliases, alias, accountId);
+                } else if (!isParsable(alias, accountId.getShardNum(), accountId.getRealmNum())) {
+                    add(evmAddresses, alias, accountId);
+                }
+            } else if (entityIdProto instanceof ContractID contractId && contractId.getContractCase() == EVM_ADDRESS) {
+                var evmAddress = contractId.getEvmAddress();
+                if (!isParsable(evmAddress, contractId.getShardNum(), contractId.getRealmNum())) {
+                    add(evmAddresses, evmAddress, contractId);
+                }
+            }
+        }
+
+        if (aliases.isEmpty() && evmAddresses.isEmpty()) {
+            return;
+        }
+
+        var stopwatch = Stopwatch.createStarted();
+        int resolved = prefetch(SELECT_BY_ALIAS, aliases) + prefetch(SELECT_BY_EVM_ADDRESS, evmAddresses);
+        int count = aliases.size() + evmAddresses.size();
+        prefetchMetric.record(stopwatch.elapsed());
+        prefetchResolvedMetric.increment(resolved);
+        prefetchUnresolvedMetric.increment((double) count - resolved);
+        log.debug("Prefetched {} of {} aliases and EVM addresses in {}", resolved, count, stopwatch);
+    }
+
+    private void add(Map<ByteString, List<GeneratedMessageV3>> keys, ByteString key, GeneratedMessageV3 entityIdProto) {
+        // The ones in the alias index are resolved by the regular lookup without a query
+        if (cache.get(entityIdProto) == null && aliasIndex.get(DomainUtils.toBytes(key)) == AliasIndex.NOT_FOUND) {
+            keys.computeIfAbsent(key, k -> new ArrayList<>()).add(entityIdProto);
+        }
+    }
+
+    /*
+     * Resolves the keys with a single query and caches the entity IDs found. The keys not found are left to the
+     * regular lookup, since their entities may be created by the record items not yet processed. The prefetch may run
+     * ahead on a decoder thread outside the parser transaction, so its results are only cached if the parser hasn't
+     * cached an entity ID meanwhile nor added or removed the key in the open transaction. They're never added to the
+     * alias index, which unlike the cache is never corrected by a later lookup.
+     */
+    private int prefetch(String sql, Map<ByteString, List<GeneratedMessageV3>> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+
+        var values = keys.keySet().stream().map(DomainUtils::toBytes).toArray(byte[][]::new);
+        var ids = new HashMap<ByteString, Long>();
+        jdbcOperations.query(
+                sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bytea", values)),
+                rs -> {
+                    ids.put(DomainUtils.fromBytes(rs.getBytes(1)), rs.getLong(2));
+                });
+
+        synchronized (touched) {
+            ids.forEach((key, id) -> {
+                if (touched.contains(key)) {
+                    return;
+                }
+
+                for (var entityIdProto : keys.get(key)) {
+                    var type = entityIdProto instanceof ContractID ? CONTRACT : ACCOUNT;
+                    cache.putIfAbsent(entityIdProto, EntityId.of(id, type));
+                }
+            });
+        }
+
+        return ids.size();
+    }
+
+    // An EVM address in the 'shard.realm.num' form of the same shard and realm doesn't need a query
+    private boolean isParsable(ByteString evmAddress, long shardNum, long realmNum) {
+        var entityId = DomainUtils.fromEvmAddress(DomainUtils.toBytes(evmAddress));
+        return entityId != null && entityId.getShardNum() == shardNum && entityId.getRealmNum() == realmNum;
+    }
+
     @Override
     public void notify(Entity entity) {
-        if (entity == null || (entity.getDeleted() != null && entity.getDeleted())) {
+        if (entity == null) {
+            return;
+        }
+
+        if (entity.getDeleted() != null && entity.getDeleted()) {
+            removeAliases(entity);
             return;
         }
 
@@ -107,6 +265,8 @@ public class EntityIdServiceImpl implements EntityIdService {
             return;
         }
 
+        touch(entity.getAlias());
+        touch(entity.getEvmAddress());
         EntityId entityId = entity.toEntityId();
         EntityType type = entity.getType();
         GeneratedMessageV3.Builder<?> builder;
@@ -131,6 +291,60 @@ public class EntityIdServiceImpl implements EntityIdService {
         }
 
         cache.put(builder.build(), entityId);
+        aliasIndex.put(entity.getAlias(), entityId.getId());
+        aliasIndex.put(entity.getEvmAddress(), entityId.getId());
+    }
+
+    /*
+     * Removes the aliases of a deleted entity from the alias index, which unlike the cache never evicts them. A deleted
+     * entity is usually an update without its aliases, so they're then read from the database.
+     */
+    private void removeAliases(Entity entity) {
+        touch(entity.getAlias());
+        touch(entity.getEvmAddress());
+
+        if (!aliasIndex.isEnabled()) {
+            return;
+        }
+
+        var aliases = entity;
+        if (entity.getAlias() == null && entity.getEvmAddress() == null) {
+            aliases = entityRepository.findById(entity.getId()).orElse(null);
+            if (aliases == null) {
+                return;
+            }
+
+            touch(aliases.getAlias());
+            touch(aliases.getEvmAddress());
+        }
+
+        aliasIndex.remove(aliases.getAlias(), entity.getId());
+        aliasIndex.remove(aliases.getEvmAddress(), entity.getId());
+    }
+
+    /*
+     * Records that the parser changed the alias or EVM address in the open transaction, so a prefetch that already
+     * queried it doesn't cache what's now stale. The keys are forgotten once the transaction completes.
+     */
+    private void touch(byte[] key) {
+        if (key == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        synchronized (touched) {
+            if (touched.isEmpty()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        synchronized (touched) {
+                            touched.clear();
+                        }
+                    }
+                });
+            }
+
+            touched.add(DomainUtils.fromBytes(key));
+        }
     }
 
     private EntityId load(AccountID accountId) {
@@ -141,8 +355,7 @@ public class EntityIdServiceImpl implements EntityIdService {
                 byte[] alias = DomainUtils.toBytes(accountId.getAlias());
                 return alias.length == DomainUtils.EVM_ADDRESS_LENGTH
                         ? findByEvmAddress(alias, accountId.getShardNum(), accountId.getRealmNum(), ACCOUNT)
-                        : entityRepository
-                                .findByAlias(alias)
+                        : findId(alias, entityRepository::findByAlias)
                                 .map(id -> EntityId.of(id, ACCOUNT))
                                 .orElseGet(() -> {
                                     log.error(
@@ -177,11 +390,22 @@ public class EntityIdServiceImpl implements EntityIdService {
         return Optional.ofNullable(DomainUtils.fromEvmAddress(evmAddress))
                 // Verify shard and realm match when assuming evmAddress is in the 'shard.realm.num' form
                 .filter(e -> e.getShardNum() == shardNum && e.getRealmNum() == realmNum)
-                .or(() -> entityRepository.findByEvmAddress(evmAddress).map(id -> EntityId.of(id, type)))
+                .or(() -> findId(evmAddress, entityRepository::findByEvmAddress).map(id -> EntityId.of(id, type)))
                 .orElseGet(() -> {
                     log.error(
                             RECOVERABLE_ERROR + "Entity not found for evmAddress {}", Hex.encodeHexString(evmAddress));
                     return null;
                 });
     }
+
+    private Optional<Long> findId(byte[] key, Function<byte[], Optional<Long>> finder) {
+        long id = aliasIndex.get(key);
+        if (id != AliasIndex.NOT_FOUND) {
+            return Optional.of(id);
+        }
+
+        var found = finder.apply(key);
+        found.ifPresent(i -> aliasIndex.put(key, i));
+        return found;
+    }
 }
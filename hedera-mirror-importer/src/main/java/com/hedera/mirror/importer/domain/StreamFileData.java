@@ -22,13 +22,16 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.time.Instant;
+import lombok.AccessLevel;
 import lombok.CustomLog;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
@@ -45,14 +48,29 @@ public class StreamFileData {
     @EqualsAndHashCode.Include
     private final StreamFilename streamFilename;
 
-    @EqualsAndHashCode.Include
-    private final byte[] bytes;
+    @Getter(AccessLevel.NONE)
+    private final ByteBuffer buffer;
 
+    @EqualsAndHashCode.Include
     @Getter(lazy = true)
-    private final byte[] decompressedBytes = decompressBytes();
+    private final byte[] bytes = toBytes();
 
     private final Instant lastModified;
 
+    public StreamFileData(StreamFilename streamFilename, byte[] bytes, Instant lastModified) {
+        this(streamFilename, ByteBuffer.wrap(bytes), lastModified);
+    }
+
+    /**
+     * Creates a StreamFileData backed by a buffer, such as a slice of a spooled segment, without copying it. The bytes are
+     * only copied out of the buffer if {@link #getBytes()} is called.
+     */
+    public StreamFileData(StreamFilename streamFilename, ByteBuffer buffer, Instant lastModified) {
+        this.streamFilename = streamFilename;
+        this.buffer = buffer;
+        this.lastModified = lastModified;
+    }
+
     private static StreamFileData readStreamFileData(File file, StreamFilename streamFilename) {
         try {
             byte[] bytes = FileUtils.readFileToByteArray(file);
@@ -85,8 +103,45 @@ public class StreamFileData {
         return new StreamFileData(StreamFilename.from(filename), bytes, Instant.now());
     }
 
+    /**
+     * Gets the decompressed bytes. The decompressed bytes aren't retained, so each invocation decompresses the file
+     * again. Prefer {@link #getInputStream()} to read the file in a single pass.
+     *
+     * @return the decompressed bytes
+     */
+    public byte[] getDecompressedBytes() {
+        if (!isCompressed()) {
+            return getBytes();
+        }
+
+        try (var inputStream = getInputStream()) {
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new InvalidStreamFileException(getFilename(), e);
+        }
+    }
+
+    /**
+     * Gets an input stream that decompresses the file as it's read, so the decompressed bytes are never fully
+     * materialized in memory.
+     *
+     * @return the input stream of the decompressed bytes
+     */
     public InputStream getInputStream() {
-        return new ByteArrayInputStream(getDecompressedBytes());
+        var inputStream = buffer.hasArray()
+                ? new ByteArrayInputStream(buffer.array(), buffer.arrayOffset(), buffer.remaining())
+                : new ByteBufferInputStream(buffer.duplicate());
+        if (!isCompressed()) {
+            return inputStream;
+        }
+
+        try {
+            return compressorStreamFactory.createCompressorInputStream(streamFilename.getCompressor(), inputStream);
+        } catch (CompressorException e) {
+            var filename = streamFilename.getFilename();
+            log.error("Failed to decompress stream file {}", filename);
+            throw new InvalidStreamFileException(filename, e);
+        }
     }
 
     public String getFilename() {
@@ -102,20 +157,48 @@ public class StreamFileData {
         return streamFilename.toString();
     }
 
-    private byte[] decompressBytes() {
-        var compressor = streamFilename.getCompressor();
-        if (StringUtils.isBlank(compressor)) {
-            return bytes;
+    private boolean isCompressed() {
+        return StringUtils.isNotBlank(streamFilename.getCompressor());
+    }
+
+    private byte[] toBytes() {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.array().length == buffer.remaining()) {
+            return buffer.array();
         }
 
-        try (var inputStream = new ByteArrayInputStream(bytes);
-                var compressorInputStream =
-                        compressorStreamFactory.createCompressorInputStream(compressor, inputStream)) {
-            return compressorInputStream.readAllBytes();
-        } catch (CompressorException | IOException e) {
-            var filename = streamFilename.getFilename();
-            log.error("Failed to decompress stream file {}", filename);
-            throw new InvalidStreamFileException(filename, e);
+        var copy = new byte[buffer.remaining()];
+        buffer.duplicate().get(copy);
+        return copy;
+    }
+
+    @RequiredArgsConstructor
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
         }
     }
 }
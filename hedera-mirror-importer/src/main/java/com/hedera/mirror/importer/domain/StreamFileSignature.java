@@ -94,6 +94,7 @@ public class StreamFileSignature implements Comparable<StreamFileSignature> {
         DOWNLOADED, // Signature has been downloaded and parsed but not verified
         VERIFIED, // Signature has been verified against the node's public key
         CONSENSUS_REACHED, // Signature verification consensus reached by a node count greater than the consensusRatio
+        DEFERRED, // Signature verification was deferred since consensus was reached by the other signatures
         NOT_FOUND, // Signature for given node was not found for download
     }
 
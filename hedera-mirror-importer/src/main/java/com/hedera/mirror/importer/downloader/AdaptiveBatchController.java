@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.downloader;
+
+import static com.hedera.mirror.importer.parser.AbstractStreamFileParser.STREAM_PARSE_DURATION_METRIC_NAME;
+
+import com.hedera.mirror.common.domain.StreamType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import lombok.CustomLog;
+
+/**
+ * Adapts the number of files downloaded per batch to the ingestion lag, which is the difference between the consensus
+ * end of the last downloaded file and the current time as recorded by the download latency metric. While the importer
+ * is more than a batch of files behind, the batch size doubles up to the configured maximum and the downloader polls
+ * again as soon as a batch completes. Near real time, the batch size shrinks back to the configured batch size. The
+ * batch size never grows while parsing a file recently took longer on average than a file takes to close, since a
+ * larger batch would only fill the parser queue. The parse duration is a decaying average of the mean parse duration of
+ * the files parsed in between batches, so it follows the recent load of the parser.
+ */
+@CustomLog
+class AdaptiveBatchController {
+
+    // The weight of the files parsed since the last batch in the decaying average parse duration
+    private static final double PARSE_DURATION_WEIGHT = 0.5;
+
+    private final CommonDownloaderProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final StreamType streamType;
+
+    private volatile int batchSize;
+    private volatile boolean catchingUp;
+    private volatile Duration lag = Duration.ZERO;
+    private double parseMillis;
+    private long parseCount;
+    private double parseTotalMillis;
+
+    AdaptiveBatchController(DownloaderProperties downloaderProperties, MeterRegistry meterRegistry) {
+        this.properties = downloaderProperties.getCommon();
+        this.meterRegistry = meterRegistry;
+        this.streamType = downloaderProperties.getStreamType();
+        this.batchSize = properties.getBatchSize();
+
+        Gauge.builder("hedera.mirror.download.adaptive.batch", this, AdaptiveBatchController::getBatchSize)
+                .description("The number of files the downloader currently lists per batch")
+                .tag("type", streamType.toString())
+                .register(meterRegistry);
+
+        Gauge.builder("hedera.mirror.download.adaptive.catchup", this, c -> c.isCatchingUp() ? 1 : 0)
+                .description("Whether the downloader is catching up and polling without delay")
+                .tag("type", streamType.toString())
+                .register(meterRegistry);
+
+        Gauge.builder("hedera.mirror.download.adaptive.lag", this, c -> c.lag.toMillis() / 1000.0)
+                .description("The ingestion lag in seconds the downloader batch size was last adapted to")
+                .tag("type", streamType.toString())
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    int getBatchSize() {
+        return properties.isAdaptive() ? batchSize : properties.getBatchSize();
+    }
+
+    boolean isCatchingUp() {
+        return properties.isAdaptive() && catchingUp;
+    }
+
+    /**
+     * Records the ingestion lag of the last verified file.
+     *
+     * @param lag the difference between the consensus end of the file and the current time
+     */
+    void onLag(Duration lag) {
+        this.lag = lag;
+    }
+
+    /**
+     * Adapts the batch size after a batch of signature files was listed and verified.
+     *
+     * @param listed the number of signature file groups listed in the batch
+     */
+    void adapt(int listed) {
+        if (!properties.isAdaptive()) {
+            return;
+        }
+
+        int minBatchSize = properties.getBatchSize();
+        int maxBatchSize = Math.max(minBatchSize, properties.getMaxBatchSize());
+        int current = Math.max(minBatchSize, Math.min(batchSize, maxBatchSize));
+        var closeInterval = streamType.getFileCloseInterval();
+        updateParseDuration();
+        long behind = closeInterval.isZero() ? 0 : lag.dividedBy(closeInterval);
+
+        if (behind < 2 || listed == 0) {
+            // Near real time or nothing new in the bucket
+            batchSize = minBatchSize;
+            catchingUp = false;
+        } else if (behind > current && listed >= current && parseMillis < closeInterval.toMillis()) {
+            batchSize = (int) Math.min((long) current * 2, maxBatchSize);
+            catchingUp = true;
+        } else {
+            batchSize = Math.max(minBatchSize, current / 2);
+            catchingUp = behind > minBatchSize && listed >= current;
+        }
+
+        if (batchSize != current) {
+            log.info("Adapted {} batch size from {} to {} with a lag of {}", streamType, current, batchSize, lag);
+        }
+    }
+
+    private void updateParseDuration() {
+        var timer = meterRegistry
+                .find(STREAM_PARSE_DURATION_METRIC_NAME)
+                .tags("type", streamType.toString(), "success", "true")
+                .timer();
+        if (timer == null || timer.count() <= parseCount) {
+            return;
+        }
+
+        long count = timer.count();
+        double totalMillis = timer.totalTime(TimeUnit.MILLISECONDS);
+        double recentMillis = (totalMillis - parseTotalMillis) / (count - parseCount);
+        parseMillis = parseCount == 0
+                ? recentMillis
+                : PARSE_DURATION_WEIGHT * recentMillis + (1 - PARSE_DURATION_WEIGHT) * parseMillis;
+        parseCount = count;
+        parseTotalMillis = totalMillis;
+    }
+}
@@ -36,6 +36,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.hibernate.validator.constraints.time.DurationMin;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 @Data
@@ -50,6 +51,8 @@ public class CommonDownloaderProperties {
 
     private String accessKey;
 
+    private boolean adaptive = false;
+
     private Boolean allowAnonymousAccess;
 
     private int batchSize = 100;
@@ -71,6 +74,13 @@ public class CommonDownloaderProperties {
 
     private String gcpProjectId;
 
+    private boolean lazyVerification = false;
+
+    // S3 lists at most 1000 keys at a time, so a larger batch of signature and data files would be truncated
+    @Max(500)
+    @Min(1)
+    private int maxBatchSize = 500;
+
     @DurationMin(seconds = 1)
     @NotNull
     private Duration pathRefreshInterval = Duration.ofSeconds(10L);
@@ -78,6 +88,13 @@ public class CommonDownloaderProperties {
     @NotNull
     private PathType pathType = PathType.ACCOUNT_ID;
 
+    private boolean pipelined = false;
+
+    private boolean predictive = false;
+
+    @Min(1)
+    private int prefetch = 1;
+
     private String region = "us-east-1";
 
     private String secretKey;
@@ -85,6 +102,9 @@ public class CommonDownloaderProperties {
     @NotNull
     private List<StreamSourceProperties> sources = new ArrayList<>();
 
+    @NotNull
+    private SpoolProperties spool = new SpoolProperties();
+
     @Min(1)
     private int threads = 30;
 
@@ -92,6 +112,9 @@ public class CommonDownloaderProperties {
     @NotNull
     private Duration timeout = Duration.ofSeconds(30L);
 
+    @Min(1)
+    private int verificationThreads = 4;
+
     @PostConstruct
     public void init() {
         if (StringUtils.isBlank(bucketName)
@@ -120,6 +143,7 @@ public class CommonDownloaderProperties {
         }
 
         validateRatios();
+        validateSpool();
     }
 
     private void validateRatios() {
@@ -134,6 +158,15 @@ public class CommonDownloaderProperties {
         }
     }
 
+    private void validateSpool() {
+        // Consumed segments are only pruned once the spool rolls over to a new segment, so it must hold at least two
+        long segmentSize = spool.getSegmentSize().toBytes();
+        if (spool.getMaxSize().toBytes() <= 2 * segmentSize) {
+            throw new IllegalArgumentException("spool.maxSize (%s) must be > 2 * spool.segmentSize (%s)"
+                    .formatted(spool.getMaxSize(), spool.getSegmentSize()));
+        }
+    }
+
     public String getBucketName() {
         return StringUtils.isNotBlank(bucketName)
                 ? bucketName
@@ -146,6 +179,23 @@ public class CommonDownloaderProperties {
                 : HederaNetwork.isAllowAnonymousAccess(mirrorProperties.getNetwork());
     }
 
+    @Data
+    @Validated
+    public static class SpoolProperties {
+
+        private boolean enabled = false;
+
+        @DurationMin(minutes = 1)
+        @NotNull
+        private Duration maxAge = Duration.ofHours(1L);
+
+        @NotNull
+        private DataSize maxSize = DataSize.ofGigabytes(1L);
+
+        @NotNull
+        private DataSize segmentSize = DataSize.ofMegabytes(64L);
+    }
+
     public enum PathType {
         ACCOUNT_ID,
         AUTO,
@@ -20,5 +20,14 @@ import com.hedera.mirror.importer.domain.StreamFileSignature;
 import java.util.Collection;
 
 public interface ConsensusValidator {
+
+    /**
+     * Checks whether the verified signatures with the same file hash already have enough stake to reach consensus.
+     *
+     * @param signatures a list of signature files which have the same filename
+     * @return true if consensus is reached
+     */
+    boolean isConsensusReached(Collection<StreamFileSignature> signatures);
+
     void validate(Collection<StreamFileSignature> signatures);
 }
@@ -25,6 +25,8 @@ import jakarta.inject.Named;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import lombok.CustomLog;
 import lombok.RequiredArgsConstructor;
 
@@ -99,6 +101,34 @@ public class ConsensusValidatorImpl implements ConsensusValidator {
                 String.format("Consensus not reached for file %s with %d/%d stake", filename, debugStake, totalStake));
     }
 
+    @Override
+    public boolean isConsensusReached(Collection<StreamFileSignature> signatures) {
+        Map<String, Long> stakeByHash = new HashMap<>();
+        BigDecimal stakeRequiredForConsensus = null;
+
+        for (var signature : signatures) {
+            if (stakeRequiredForConsensus == null) {
+                stakeRequiredForConsensus = getStakeRequiredForConsensus(signature.getNode().getTotalStake());
+            }
+
+            if (signature.getStatus() == StreamFileSignature.SignatureStatus.VERIFIED) {
+                stakeByHash.merge(signature.getFileHashAsHex(), signature.getNode().getStake(), Long::sum);
+            }
+        }
+
+        if (BigDecimal.ZERO.equals(commonDownloaderProperties.getConsensusRatio())) {
+            return !stakeByHash.isEmpty();
+        }
+
+        for (long stake : stakeByHash.values()) {
+            if (canReachConsensus(stake, stakeRequiredForConsensus)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     private boolean canReachConsensus(long stake, BigDecimal stakeRequiredForConsensus) {
         return BigDecimal.valueOf(stake).compareTo(stakeRequiredForConsensus) >= 0;
     }
@@ -35,25 +35,31 @@ import com.hedera.mirror.importer.config.MirrorDateRangePropertiesProcessor;
 import com.hedera.mirror.importer.domain.StreamFileData;
 import com.hedera.mirror.importer.domain.StreamFileSignature;
 import com.hedera.mirror.importer.domain.StreamFilename;
+import com.hedera.mirror.importer.downloader.StreamFileSpool.Entry;
 import com.hedera.mirror.importer.downloader.provider.StreamFileProvider;
 import com.hedera.mirror.importer.downloader.provider.TransientProviderException;
+import com.hedera.mirror.importer.exception.FileOperationException;
 import com.hedera.mirror.importer.exception.HashMismatchException;
+import com.hedera.mirror.importer.exception.ParserException;
 import com.hedera.mirror.importer.exception.SignatureVerificationException;
 import com.hedera.mirror.importer.reader.StreamFileReader;
 import com.hedera.mirror.importer.reader.signature.SignatureFileReader;
 import com.hedera.mirror.importer.util.ShutdownHelper;
 import com.hedera.mirror.importer.util.Utility;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -61,19 +67,30 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem> {
 
     public static final String STREAM_CLOSE_LATENCY_METRIC_NAME = "hedera.mirror.stream.close.latency";
 
+    private static final long NO_INDEX = Long.MIN_VALUE;
+    private static final String SPOOL = "spool";
+
     private static final String HASH_TYPE_FILE = "File";
     private static final String HASH_TYPE_METADATA = "Metadata";
     private static final String HASH_TYPE_RUNNING = "Running";
@@ -98,8 +115,18 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
     protected final StreamFileNotifier streamFileNotifier;
     protected final MirrorDateRangePropertiesProcessor mirrorDateRangePropertiesProcessor;
     protected final AtomicReference<Optional<T>> lastStreamFile = new AtomicReference<>(Optional.empty());
+    private final AdaptiveBatchController batchController;
     private final ConsensusNodeService consensusNodeService;
     private final ExecutorService signatureDownloadThreadPool; // One per node during the signature download process
+    private final ExecutorService signatureListThreadPool; // Lists the next batch while the current batch is verified
+    private final AtomicReference<PendingBatch> pendingBatch = new AtomicReference<>();
+    private final StreamFileSpool spool;
+    private final ExecutorService spoolThreadPool; // Hands spooled stream files to the parser
+    private final AtomicBoolean spoolConsuming = new AtomicBoolean();
+    private final AtomicReference<Exception> spoolError = new AtomicReference<>();
+    private final Map<Long, T> spoolHandoff = new ConcurrentHashMap<>(); // Verified files not yet handed to the parser
+    private volatile boolean spoolResumed;
+    private final Map<PrefetchKey, Mono<StreamFileData>> prefetchedFiles = new ConcurrentHashMap<>();
     private final MirrorProperties mirrorProperties;
     private final StreamType streamType;
     // Metrics
@@ -107,6 +134,8 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
     private final Map<Long, Counter> nodeSignatureStatusMetricMap = new ConcurrentHashMap<>();
     private final Timer cloudStorageLatencyMetric;
     private final Timer downloadLatencyMetric;
+    private final DistributionSummary prefetchWindowMetric;
+    private final Counter prefetchWasteMetric;
     private final Timer streamCloseMetric;
     private final Timer.Builder streamVerificationMetric;
 
@@ -128,14 +157,21 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
         this.nodeSignatureVerifier = nodeSignatureVerifier;
         var threads = downloaderProperties.getCommon().getThreads();
         this.signatureDownloadThreadPool = Executors.newFixedThreadPool(threads);
+        this.signatureListThreadPool = Executors.newSingleThreadExecutor();
+        this.spoolThreadPool = Executors.newSingleThreadExecutor();
         this.signatureFileReader = signatureFileReader;
         this.streamFileProvider = streamFileProvider;
         this.streamFileReader = streamFileReader;
         this.streamFileNotifier = streamFileNotifier;
         Runtime.getRuntime().addShutdownHook(new Thread(signatureDownloadThreadPool::shutdown));
+        Runtime.getRuntime().addShutdownHook(new Thread(signatureListThreadPool::shutdownNow));
+        Runtime.getRuntime().addShutdownHook(new Thread(spoolThreadPool::shutdown));
         mirrorProperties = downloaderProperties.getMirrorProperties();
 
         streamType = downloaderProperties.getStreamType();
+        var spoolPath = mirrorProperties.getDataPath().resolve(SPOOL).resolve(streamType.getPath());
+        spool = new StreamFileSpool(spoolPath, downloaderProperties.getCommon().getSpool());
+        batchController = new AdaptiveBatchController(downloaderProperties, meterRegistry);
 
         // Metrics
         cloudStorageLatencyMetric = Timer.builder("hedera.mirror.importer.cloud.latency")
@@ -155,6 +191,16 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
                 .tag("type", streamType.toString())
                 .register(meterRegistry);
 
+        prefetchWindowMetric = DistributionSummary.builder("hedera.mirror.download.prefetch.window")
+                .description("The number of data files downloaded ahead of the data file being verified")
+                .tag("type", streamType.toString())
+                .register(meterRegistry);
+
+        prefetchWasteMetric = Counter.builder("hedera.mirror.download.prefetch.waste")
+                .description("The number of prefetched files that were downloaded but not used")
+                .tag("type", streamType.toString())
+                .register(meterRegistry);
+
         streamVerificationMetric = Timer.builder("hedera.mirror.download.stream.verification")
                 .description("The duration in seconds it took to verify consensus and hash chain of a stream file")
                 .tag("type", streamType.toString());
@@ -162,13 +208,42 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
 
     public abstract void download();
 
+    /**
+     * Downloads the next batch of stream files. When the batch size is adapted to the ingestion lag, batches are
+     * downloaded one after the other without waiting for the next scheduled run while the downloader is catching up.
+     */
     protected void downloadNextBatch() {
-        if (!downloaderProperties.isEnabled()) {
-            return;
+        if (isSpooled()) {
+            consumeSpool();
         }
 
+        boolean progressed;
+
+        do {
+            if (!downloaderProperties.isEnabled()) {
+                return;
+            }
+
+            var last = lastStreamFile.get();
+            downloadBatch();
+            progressed = lastStreamFile.get() != last;
+        } while (progressed && batchController.isCatchingUp() && !ShutdownHelper.isStopping());
+    }
+
+    private void downloadBatch() {
         try {
-            var sigFilesMap = downloadAndParseSigFiles();
+            var error = spoolError.getAndSet(null);
+            if (error != null) {
+                throw new ParserException("Error handing spooled stream files to the parser", error);
+            }
+
+            if (isSpooled() && spool.isFull()) {
+                log.warn("Pausing download until the parser catches up with the full spool");
+                return;
+            }
+
+            var startAfterFilename = getStartAfterFilename();
+            var sigFilesMap = getSigFiles(startAfterFilename);
 
             // Following is a cost optimization to not unnecessarily list the public demo bucket once complete
             if (sigFilesMap.isEmpty()
@@ -177,8 +252,11 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
                 log.warn("Disabled polling after downloading all files in demo bucket");
             }
 
+            listNextBatch(sigFilesMap);
+
             // Verify signature files and download corresponding files of valid signature files
             verifySigsAndDownloadDataFiles(sigFilesMap);
+            batchController.adapt(sigFilesMap.keySet().size());
         } catch (SignatureVerificationException e) {
             log.warn(e.getMessage());
         } catch (InterruptedException e) {
@@ -210,17 +288,65 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
         return TreeMultimap.create(Ordering.natural(), STREAM_FILE_SIGNATURE_COMPARATOR);
     }
 
+    /**
+     * Gets the signature files after the provided filename, either from the batch that was listed ahead of time while
+     * the previous batch was being verified or by downloading them now. A batch listed ahead of time is discarded if it
+     * doesn't start after the same file, e.g. because a file in the previous batch failed verification.
+     *
+     * @param startAfterFilename the filename of the last verified stream file
+     * @return a multi-map of signature file objects from different nodes, grouped by filename
+     */
+    private Multimap<StreamFilename, StreamFileSignature> getSigFiles(StreamFilename startAfterFilename)
+            throws InterruptedException {
+        var pending = pendingBatch.getAndSet(null);
+
+        if (pending != null) {
+            if (pending.startAfter().equals(startAfterFilename.getFilenameAfter())) {
+                try {
+                    return pending.sigFilesMap().get();
+                } catch (ExecutionException e) {
+                    log.warn("Unable to list signature files ahead of time after {}", startAfterFilename, e);
+                }
+            } else {
+                log.debug("Discarding signature files listed after {}", pending.startAfter());
+                pending.sigFilesMap().cancel(true);
+            }
+        }
+
+        return downloadAndParseSigFiles(startAfterFilename);
+    }
+
+    /**
+     * When catching up, starts listing the batch of signature files after the last file of the current batch so that
+     * it's available once the current batch has been verified. Nothing is listed ahead of time when the current batch
+     * isn't full, since there's likely nothing new in the bucket yet and the extra list requests would only add cost.
+     *
+     * @param sigFilesMap the current batch of signature files
+     */
+    private void listNextBatch(Multimap<StreamFilename, StreamFileSignature> sigFilesMap) {
+        var batchSize = batchController.getBatchSize();
+        if (!downloaderProperties.getCommon().isPipelined() || sigFilesMap.keySet().size() < batchSize) {
+            return;
+        }
+
+        var lastFilename = Collections.max(sigFilesMap.keySet());
+        var sigFiles = signatureListThreadPool.submit(() -> downloadAndParseSigFiles(lastFilename));
+        pendingBatch.set(new PendingBatch(lastFilename.getFilenameAfter(), sigFiles));
+    }
+
     /**
      * Download and parse all signature files with a timestamp later than the last valid file. Put signature files into
      * a multi-map sorted and grouped by the timestamp.
      *
+     * @param startAfterFilename the filename to list signature files after
      * @return a multi-map of signature file objects from different nodes, grouped by filename
      */
-    private Multimap<StreamFilename, StreamFileSignature> downloadAndParseSigFiles() throws InterruptedException {
-        var startAfterFilename = getStartAfterFilename();
+    private Multimap<StreamFilename, StreamFileSignature> downloadAndParseSigFiles(StreamFilename startAfterFilename)
+            throws InterruptedException {
         var sigFilesMap = Multimaps.synchronizedMultimap(getStreamFileSignatureMultiMap());
 
         var nodes = partialCollection(consensusNodeService.getNodes());
+        var batchSize = batchController.getBatchSize();
         var tasks = new ArrayList<Callable<Object>>(nodes.size());
         var totalDownloads = new AtomicInteger();
         log.debug("Asking for new signature files created after file: {}", startAfterFilename);
@@ -235,7 +361,7 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
 
                 try {
                     var count = streamFileProvider
-                            .list(node, startAfterFilename)
+                            .list(node, startAfterFilename, batchSize)
                             .doOnNext(s -> {
                                 try {
                                     var streamFileSignature = signatureFileReader.read(s);
@@ -290,7 +416,7 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
         return lastStreamFile
                 .get()
                 .or(() -> {
-                    Optional<T> streamFile = mirrorDateRangePropertiesProcessor.getLastStreamFile(streamType);
+                    Optional<T> streamFile = getLastStreamFile();
                     lastStreamFile.compareAndSet(Optional.empty(), streamFile);
                     return streamFile;
                 })
@@ -299,6 +425,35 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
                 .orElse(StreamFilename.EPOCH);
     }
 
+    /**
+     * Gets the last stream file to resume downloading after, which is the last spooled stream file if the spool has
+     * stream files that haven't been parsed yet, so that they're not downloaded again after a restart.
+     */
+    private Optional<T> getLastStreamFile() {
+        Optional<T> streamFile = mirrorDateRangePropertiesProcessor.getLastStreamFile(streamType);
+        if (!isSpooled()) {
+            return streamFile;
+        }
+
+        var lastSpooled = spool.last();
+        if (lastSpooled.isEmpty()) {
+            return streamFile;
+        }
+
+        var entry = lastSpooled.get();
+        long consensusEnd = streamFile.map(this::getConsensusEnd).orElse(Long.MIN_VALUE);
+        if (entry.consensusEnd() <= consensusEnd) {
+            log.info("Clearing spool since its last stream file is before {}", streamFile.get().getName());
+            spool.clear();
+            spoolHandoff.clear();
+            return streamFile;
+        }
+
+        var spooled = read(entry);
+        log.info("Resuming download after spooled stream file {}", spooled.getName());
+        return Optional.of(withoutContents(spooled));
+    }
+
     /**
      * For each group of signature files with the same file name: (1) verify that the signature files are signed by
      * corresponding node's PublicKey; (2) For valid signature files, we compare their Hashes to see if at least 1/3 of
@@ -306,21 +461,44 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
      * file. (3) compare the hash of data file with Hash which has been agreed on by valid signatures, if match, move
      * the data file into `valid` directory; else download the data file from other valid node folder and compare the
      * hash until we find a match.
+     * <p>
+     * When pipelined, the data files of the next groups within the prefetch window are downloaded while the current
+     * data file is being verified. Data files are always verified in filename order so the hash chain is still verified
+     * strictly, and a data file failing verification only falls back to the next node for that file.
      *
      * @param sigFilesMap signature files grouped by filename
      */
-    @SuppressWarnings("java:S135")
     private void verifySigsAndDownloadDataFiles(Multimap<StreamFilename, StreamFileSignature> sigFilesMap) {
         var nodeIds = consensusNodeService.getNodes().stream()
                 .map(ConsensusNode::getNodeId)
                 .collect(Collectors.toSet());
+        var common = downloaderProperties.getCommon();
+        int lookahead = common.isPipelined() ? common.getPrefetch() : 0;
+        var pendingFiles = new ArrayDeque<PendingStreamFile<T>>(lookahead + 1);
+
+        try {
+            verifySignatureGroups(sigFilesMap, nodeIds, pendingFiles, lookahead);
+        } finally {
+            // Anything still prefetched was downloaded in vain, e.g. sidecars of a data file that failed verification
+            long waste = prefetchedFiles.size()
+                    + pendingFiles.stream().filter(p -> p.signature() != null).count();
+            prefetchWasteMetric.increment(waste);
+            prefetchedFiles.clear();
+        }
+    }
 
+    @SuppressWarnings("java:S135")
+    private void verifySignatureGroups(
+            Multimap<StreamFilename, StreamFileSignature> sigFilesMap,
+            Set<Long> nodeIds,
+            Deque<PendingStreamFile<T>> pendingFiles,
+            int lookahead) {
         for (var sigFilenameIter = sigFilesMap.keySet().iterator(); sigFilenameIter.hasNext(); ) {
             if (ShutdownHelper.isStopping()) {
                 return;
             }
 
-            Instant startTime = Instant.now();
+            var stopwatch = Stopwatch.createStarted();
             var sigFilename = sigFilenameIter.next();
             var signatures = sigFilesMap.get(sigFilename);
 
@@ -328,7 +506,8 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
                 nodeSignatureVerifier.verify(signatures);
 
                 var consensusCount = signatures.stream()
-                        .filter(s -> s.getStatus() == StreamFileSignature.SignatureStatus.CONSENSUS_REACHED)
+                        .filter(s -> s.getStatus() == SignatureStatus.CONSENSUS_REACHED
+                                || s.getStatus() == SignatureStatus.DEFERRED)
                         .count();
 
                 if (consensusCount == nodeIds.size()) {
@@ -346,10 +525,94 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
                     continue;
                 }
 
+                // Files ahead of the failed group are still valid
+                if (!verifyPendingFiles(pendingFiles, 0)) {
+                    return;
+                }
+
                 throw new SignatureVerificationException(ex.getMessage() + ": " + statusMapMessage);
             }
 
-            boolean valid = verifySignatures(signatures);
+            pendingFiles.add(prefetch(signatures, stopwatch.stop()));
+            if (!verifyPendingFiles(pendingFiles, lookahead)) {
+                return;
+            }
+        }
+
+        verifyPendingFiles(pendingFiles, 0);
+    }
+
+    /**
+     * Starts downloading and reading the data file from the first node whose signature reached consensus. The files the
+     * data file depends upon are prefetched from the same node as soon as it's read, so they're downloaded while the
+     * data file is verified.
+     */
+    private PendingStreamFile<T> prefetch(Collection<StreamFileSignature> signatures, Stopwatch stopwatch) {
+        var signature = signatures.stream()
+                .filter(s -> s.getStatus() == StreamFileSignature.SignatureStatus.CONSENSUS_REACHED)
+                .findFirst()
+                .orElse(null);
+
+        if (signature == null) {
+            return new PendingStreamFile<>(signatures, null, Mono.empty(), stopwatch);
+        }
+
+        var node = signature.getNode();
+        var dataFile = streamFileProvider
+                .get(node, signature.getDataFilename())
+                .publishOn(Schedulers.parallel())
+                .map(streamFileData -> read(node, streamFileData))
+                .cache();
+        dataFile.subscribe(null, e -> log.debug("Unable to prefetch {}: {}", signature, e.getMessage()));
+        return new PendingStreamFile<>(signatures, signature, dataFile, stopwatch);
+    }
+
+    private void prefetch(ConsensusNode node, StreamFilename streamFilename) {
+        var streamFileData = streamFileProvider.get(node, streamFilename).cache();
+        streamFileData.subscribe(null, e -> log.debug("Unable to prefetch {}: {}", streamFilename, e.getMessage()));
+        prefetchedFiles.put(new PrefetchKey(node.getNodeId(), streamFilename), streamFileData);
+    }
+
+    /**
+     * Gets the files the stream file depends upon and that must be downloaded from the same node before it's verified.
+     *
+     * @param streamFileData the data of the stream file
+     * @param streamFile     the stream file read from the data
+     * @return the filenames of the dependent files
+     */
+    @SuppressWarnings("java:S1172") // Unused parameters required by subclass implementations
+    protected Collection<StreamFilename> getDependencies(StreamFileData streamFileData, T streamFile) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Gets a file from the node, using the prefetched download if one exists.
+     *
+     * @param node           the consensus node to download from
+     * @param streamFilename the stream filename to download
+     * @return the downloaded stream file data, wrapped in a Mono
+     */
+    protected Mono<StreamFileData> getStreamFileData(ConsensusNode node, StreamFilename streamFilename) {
+        var prefetched = prefetchedFiles.remove(new PrefetchKey(node.getNodeId(), streamFilename));
+        return prefetched != null ? prefetched : streamFileProvider.get(node, streamFilename);
+    }
+
+    /**
+     * Verifies pending files in filename order until at most the given number of files are still pending.
+     *
+     * @return false if the download was stopped before all files were verified
+     */
+    private boolean verifyPendingFiles(Deque<PendingStreamFile<T>> pendingFiles, int remaining) {
+        while (pendingFiles.size() > remaining) {
+            if (ShutdownHelper.isStopping()) {
+                return false;
+            }
+
+            var pendingFile = pendingFiles.remove();
+            prefetchWindowMetric.record(pendingFiles.size());
+            var stopwatch = pendingFile.stopwatch().start();
+            var signatures = pendingFile.signatures();
+            boolean valid = verifySignatures(pendingFile);
             if (!valid) {
                 log.error("None of the data files could be verified, signatures: {}", signatures);
             }
@@ -357,16 +620,24 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
             streamVerificationMetric
                     .tag("success", String.valueOf(valid))
                     .register(meterRegistry)
-                    .record(Duration.between(startTime, Instant.now()));
+                    .record(stopwatch.elapsed());
         }
+
+        return true;
     }
 
-    private boolean verifySignatures(Collection<StreamFileSignature> signatures) {
+    private boolean verifySignatures(PendingStreamFile<T> pendingFile) {
         Instant endDate = mirrorProperties.getEndDate();
-
-        for (var signature : signatures) {
-            // Ignore signatures that didn't validate or weren't in the majority
-            if (signature.getStatus() != StreamFileSignature.SignatureStatus.CONSENSUS_REACHED) {
+        var signatures = pendingFile.signatures();
+        // Only fall back to signatures whose verification was deferred after trying the verified ones
+        var candidates = Stream.concat(
+                        signatures.stream().filter(s -> s.getStatus() == SignatureStatus.CONSENSUS_REACHED),
+                        signatures.stream().filter(s -> s.getStatus() == SignatureStatus.DEFERRED))
+                .toList();
+
+        for (var signature : candidates) {
+            if (signature.getStatus() == SignatureStatus.DEFERRED
+                    && !nodeSignatureVerifier.verifyDeferred(signature, pendingFile.signature())) {
                 continue;
             }
 
@@ -375,8 +646,11 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
             try {
                 var dataFilename = signature.getDataFilename();
                 var node = signature.getNode();
-                var streamFileData = streamFileProvider.get(node, dataFilename).block();
-                T streamFile = streamFileReader.read(streamFileData);
+                var dataFile = signature == pendingFile.signature()
+                        ? pendingFile.dataFile().block()
+                        : read(node, streamFileProvider.get(node, dataFilename).block());
+                var streamFileData = dataFile.streamFileData();
+                T streamFile = dataFile.streamFile();
                 streamFile.setNodeId(nodeId);
 
                 verify(streamFile, signature);
@@ -405,6 +679,9 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
                 onVerified(streamFileData, streamFile, node);
                 return true;
             } catch (HashMismatchException | TransientProviderException e) {
+                if (signature == pendingFile.signature()) {
+                    prefetchWasteMetric.increment();
+                }
                 log.warn(
                         "Failed processing signature from node {} corresponding to {}. Will retry another node: {}",
                         nodeId,
@@ -422,10 +699,41 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
         return false;
     }
 
-    @SuppressWarnings({"unchecked", "java:S1172"}) // Unused Parameter (node) required by subclass implementations
+    private DataFile<T> read(ConsensusNode node, StreamFileData streamFileData) {
+        var streamFile = streamFileReader.read(streamFileData);
+        getDependencies(streamFileData, streamFile).forEach(filename -> prefetch(node, filename));
+        return new DataFile<>(streamFileData, streamFile);
+    }
+
     protected void onVerified(StreamFileData streamFileData, T streamFile, ConsensusNode node) {
+        boolean spooled = isSpooled();
+        var dependencies = new ConcurrentLinkedQueue<StreamFileData>();
+        readDependencies(streamFileData, streamFile, filename -> getStreamFileData(node, filename)
+                .doOnNext(data -> {
+                    if (spooled) {
+                        dependencies.add(data);
+                    }
+                }));
         setStreamFileIndex(streamFile);
-        streamFileNotifier.verified(streamFile);
+
+        if (spooled) {
+            var index = Objects.requireNonNullElse(streamFile.getIndex(), NO_INDEX);
+            var nodeId = streamFile.getNodeId();
+            var consensusStart = streamFile.getConsensusStart();
+            var entry = new Entry(
+                    consensusStart, getConsensusEnd(streamFile), index, nodeId, streamFileData, dependencies);
+            spool.append(entry);
+
+            // Hand the parsed stream file to the consumer so it's only read again from the spool if the parser falls
+            // behind by more than a batch or after a restart
+            if (spoolHandoff.size() < downloaderProperties.getCommon().getBatchSize()) {
+                spoolHandoff.put(entry.consensusEnd(), streamFile);
+            }
+
+            consumeSpool();
+        } else {
+            streamFileNotifier.verified(streamFile);
+        }
 
         lastStreamFile.get().ifPresent(last -> {
             long latency = streamFile.getConsensusStart() - last.getConsensusStart();
@@ -435,13 +743,110 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
         Instant cloudStorageTime = streamFileData.getLastModified();
         Instant consensusEnd = Instant.ofEpochSecond(0, streamFile.getConsensusEnd());
         cloudStorageLatencyMetric.record(Duration.between(consensusEnd, cloudStorageTime));
-        downloadLatencyMetric.record(Duration.between(consensusEnd, Instant.now()));
+        var latency = Duration.between(consensusEnd, Instant.now());
+        downloadLatencyMetric.record(latency);
+        batchController.onLag(latency);
+
+        lastStreamFile.set(Optional.of(withoutContents(streamFile)));
+    }
+
+    /**
+     * Reads the files the stream file depends upon once it's verified.
+     *
+     * @param streamFileData the data of the stream file
+     * @param streamFile     the verified stream file
+     * @param dependencies   gets the data of a file the stream file depends upon
+     */
+    @SuppressWarnings("java:S1172") // Unused parameters required by subclass implementations
+    protected void readDependencies(
+            StreamFileData streamFileData, T streamFile, Function<StreamFilename, Mono<StreamFileData>> dependencies) {
+        // Only record files have dependencies
+    }
 
-        // Cache a copy of the streamFile with bytes and items set to null so as not to keep them in memory
+    // Cache a copy of the streamFile with bytes and items set to null so as not to keep them in memory
+    @SuppressWarnings("unchecked")
+    private T withoutContents(T streamFile) {
         var copy = (T) streamFile.copy();
         copy.setBytes(null);
         copy.setItems(null);
-        lastStreamFile.set(Optional.of(copy));
+        return copy;
+    }
+
+    private boolean isSpooled() {
+        return downloaderProperties.getCommon().getSpool().isEnabled();
+    }
+
+    /**
+     * Hands the spooled stream files to the parser on a separate thread, unless that's already in progress.
+     */
+    private void consumeSpool() {
+        if (spoolConsuming.compareAndSet(false, true)) {
+            spoolThreadPool.execute(() -> {
+                try {
+                    drainSpool();
+                } finally {
+                    spoolConsuming.set(false);
+                }
+            });
+        }
+    }
+
+    private void drainSpool() {
+        try {
+            if (!spoolResumed) {
+                long consensusEnd = getLastParsedConsensusEnd();
+                spool.seek(consensusEnd);
+                spoolHandoff.keySet().removeIf(k -> k <= consensusEnd);
+                spoolResumed = true;
+            }
+
+            for (var entry = spool.peek(); entry.isPresent() && !ShutdownHelper.isStopping(); entry = spool.peek()) {
+                var spooled = entry.get();
+                var streamFile = spoolHandoff.remove(spooled.consensusEnd());
+                streamFileNotifier.verified(streamFile != null ? streamFile : read(spooled));
+                spool.commit(spooled);
+            }
+
+            if (spool.isPrunable()) {
+                spool.prune(getLastParsedConsensusEnd());
+            }
+        } catch (Exception e) {
+            // Resume from the last parsed stream file and report the error on the next download
+            spoolResumed = false;
+            spoolError.set(e);
+        }
+    }
+
+    /**
+     * Reads a spooled stream file along with its dependencies without downloading them again.
+     */
+    private T read(Entry entry) {
+        var streamFileData = entry.data();
+        T streamFile = streamFileReader.read(streamFileData);
+        streamFile.setIndex(entry.index() != NO_INDEX ? entry.index() : null);
+        streamFile.setNodeId(entry.nodeId());
+
+        var dependencies = entry.dependencies().stream()
+                .collect(Collectors.toMap(StreamFileData::getStreamFilename, Function.identity()));
+        readDependencies(streamFileData, streamFile, filename -> Mono.justOrEmpty(dependencies.get(filename))
+                .switchIfEmpty(Mono.error(() -> new FileOperationException(filename + " is missing from spool"))));
+
+        if (!downloaderProperties.isPersistBytes()) {
+            streamFile.setBytes(null);
+        }
+
+        return streamFile;
+    }
+
+    private long getLastParsedConsensusEnd() {
+        return mirrorDateRangePropertiesProcessor
+                .<T>getLastParsedStreamFile(streamType)
+                .map(this::getConsensusEnd)
+                .orElse(Long.MIN_VALUE);
+    }
+
+    private long getConsensusEnd(T streamFile) {
+        return Objects.requireNonNullElse(streamFile.getConsensusEnd(), streamFile.getConsensusStart());
     }
 
     /**
@@ -522,8 +927,9 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
             });
         }
 
-        // remove CONSENSUS_REACHED for logging purposes
+        // remove CONSENSUS_REACHED and DEFERRED for logging purposes
         statusMap.remove(SignatureStatus.CONSENSUS_REACHED);
+        statusMap.remove(SignatureStatus.DEFERRED);
         return statusMap;
     }
 
@@ -574,4 +980,17 @@ public abstract class Downloader<T extends StreamFile<I>, I extends StreamItem>
                 totalStake);
         return nodes.subList(0, lastEntry);
     }
+
+    private record PendingBatch(
+            String startAfter, Future<Multimap<StreamFilename, StreamFileSignature>> sigFilesMap) {}
+
+    private record DataFile<S>(StreamFileData streamFileData, S streamFile) {}
+
+    private record PendingStreamFile<S>(
+            Collection<StreamFileSignature> signatures,
+            StreamFileSignature signature,
+            Mono<DataFile<S>> dataFile,
+            Stopwatch stopwatch) {}
+
+    private record PrefetchKey(long nodeId, StreamFilename streamFilename) {}
 }
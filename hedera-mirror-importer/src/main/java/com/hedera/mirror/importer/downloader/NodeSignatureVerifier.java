@@ -20,17 +20,45 @@ import com.hedera.mirror.importer.domain.StreamFileSignature;
 import com.hedera.mirror.importer.domain.StreamFileSignature.SignatureStatus;
 import com.hedera.mirror.importer.exception.SignatureVerificationException;
 import jakarta.inject.Named;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
 import java.security.Signature;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import lombok.CustomLog;
-import lombok.RequiredArgsConstructor;
 
 @Named
 @CustomLog
-@RequiredArgsConstructor
-public class NodeSignatureVerifier {
+public class NodeSignatureVerifier implements AutoCloseable {
 
+    // Bounds the number of cached Signature instances per thread in case of frequent node public key changes
+    private static final int MAX_CACHED_SIGNATURES = 1000;
+
+    private final CommonDownloaderProperties commonDownloaderProperties;
     private final ConsensusValidator consensusValidator;
+    private final ExecutorService verificationThreadPool;
+    private final ThreadLocal<Map<SignatureKey, Signature>> signatureCache = ThreadLocal.withInitial(HashMap::new);
+
+    public NodeSignatureVerifier(
+            CommonDownloaderProperties commonDownloaderProperties, ConsensusValidator consensusValidator) {
+        this.commonDownloaderProperties = commonDownloaderProperties;
+        this.consensusValidator = consensusValidator;
+        this.verificationThreadPool =
+                Executors.newFixedThreadPool(commonDownloaderProperties.getVerificationThreads());
+    }
+
+    @Override
+    public void close() {
+        verificationThreadPool.shutdown();
+    }
 
     /**
      * Verifies that the signature files satisfy the consensus requirement:
@@ -43,21 +71,72 @@ public class NodeSignatureVerifier {
      *      valid, we put the hash in its content and its file to the map, to see if at least 1/3 valid signatures have
      *      the same hash</li>
      * </ol>
+     * <p>
+     * Signatures are verified concurrently. With lazy verification enabled, the signatures that haven't been verified
+     * once the verified signatures reach consensus are marked as deferred and only verified if needed.
      *
      * @param signatures a list of signature files which have the same filename
      * @throws SignatureVerificationException
      */
     public void verify(Collection<StreamFileSignature> signatures) throws SignatureVerificationException {
+        var completionService = new ExecutorCompletionService<Boolean>(verificationThreadPool);
+        var pending = new IdentityHashMap<Future<Boolean>, StreamFileSignature>(signatures.size());
+        boolean lazy = commonDownloaderProperties.isLazyVerification();
 
         for (StreamFileSignature streamFileSignature : signatures) {
-            if (verifySignature(streamFileSignature)) {
-                streamFileSignature.setStatus(SignatureStatus.VERIFIED);
+            pending.put(completionService.submit(() -> verifySignature(streamFileSignature)), streamFileSignature);
+        }
+
+        try {
+            while (!pending.isEmpty()) {
+                var future = completionService.take();
+                var streamFileSignature = pending.remove(future);
+
+                if (Boolean.TRUE.equals(future.get())) {
+                    streamFileSignature.setStatus(SignatureStatus.VERIFIED);
+
+                    if (lazy && !pending.isEmpty() && consensusValidator.isConsensusReached(signatures)) {
+                        pending.values().forEach(s -> s.setStatus(SignatureStatus.DEFERRED));
+                        log.debug("Deferred verification of {} signatures", pending.size());
+                        break;
+                    }
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SignatureVerificationException("Interrupted while verifying signatures", e);
+        } catch (ExecutionException e) {
+            throw new SignatureVerificationException("Error verifying signatures", e);
+        } finally {
+            pending.keySet().forEach(f -> f.cancel(false));
         }
 
         consensusValidator.validate(signatures);
     }
 
+    /**
+     * Verifies a signature whose verification was deferred since consensus had already been reached.
+     *
+     * @param streamFileSignature the deferred signature
+     * @param consensusSignature  a signature that reached consensus for the same file
+     * @return true if the signature is valid and has the same file hash as the consensus signature
+     */
+    public boolean verifyDeferred(StreamFileSignature streamFileSignature, StreamFileSignature consensusSignature) {
+        if (streamFileSignature.getStatus() != SignatureStatus.DEFERRED
+                || consensusSignature == null
+                || !Arrays.equals(streamFileSignature.getFileHash(), consensusSignature.getFileHash())) {
+            return false;
+        }
+
+        if (verifySignature(streamFileSignature)) {
+            streamFileSignature.setStatus(SignatureStatus.CONSENSUS_REACHED);
+            return true;
+        }
+
+        streamFileSignature.setStatus(SignatureStatus.DOWNLOADED);
+        return false;
+    }
+
     /**
      * check whether the given signature is valid
      *
@@ -77,13 +156,14 @@ public class NodeSignatureVerifier {
             return false;
         }
 
+        SignatureKey key = null;
+
         try {
             log.trace("Verifying signature: {}", streamFileSignature);
 
-            Signature sig = Signature.getInstance(
-                    streamFileSignature.getSignatureType().getAlgorithm(),
-                    streamFileSignature.getSignatureType().getProvider());
-            sig.initVerify(publicKey);
+            var signatureType = streamFileSignature.getSignatureType();
+            key = new SignatureKey(signatureType.getAlgorithm(), signatureType.getProvider(), publicKey);
+            var sig = getSignature(key);
             sig.update(streamFileSignature.getFileHash());
 
             if (!sig.verify(streamFileSignature.getFileHashSignature())) {
@@ -97,8 +177,35 @@ public class NodeSignatureVerifier {
 
             return true;
         } catch (Exception e) {
+            // The state of the Signature is unknown after an exception, so don't reuse it
+            if (key != null) {
+                signatureCache.get().remove(key);
+            }
             log.error("Failed to verify signature with public key {}: {}", publicKey, streamFileSignature, e);
         }
         return false;
     }
+
+    /**
+     * Gets a Signature initialized for verification from the current thread's cache. A Signature is reset to its
+     * initialized state after each verify() so it can be reused without calling getInstance() and initVerify() again.
+     */
+    private Signature getSignature(SignatureKey key) throws GeneralSecurityException {
+        var cache = signatureCache.get();
+        var sig = cache.get(key);
+
+        if (sig == null) {
+            if (cache.size() >= MAX_CACHED_SIGNATURES) {
+                cache.clear();
+            }
+
+            sig = Signature.getInstance(key.algorithm(), key.provider());
+            sig.initVerify(key.publicKey());
+            cache.put(key, sig);
+        }
+
+        return sig;
+    }
+
+    private record SignatureKey(String algorithm, String provider, PublicKey publicKey) {}
 }
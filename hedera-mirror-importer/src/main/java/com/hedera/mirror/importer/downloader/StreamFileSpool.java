@@ -0,0 +1,461 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.downloader;
+
+import com.hedera.mirror.importer.domain.StreamFileData;
+import com.hedera.mirror.importer.domain.StreamFilename;
+import com.hedera.mirror.importer.downloader.CommonDownloaderProperties.SpoolProperties;
+import com.hedera.mirror.importer.exception.FileOperationException;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import lombok.CustomLog;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * An append-only spool of verified stream files on local disk. Each stream file is appended along with the files it
+ * depends upon as a single entry to the current segment file using sequential writes, and entries are read back from
+ * memory-mapped segments without copying the file contents. Segments are rolled once they reach the configured
+ * segment size and deleted once all of their entries have been parsed.
+ * <p>
+ * Each entry is a length-prefixed body followed by its CRC32 checksum, so an entry that was only partially written
+ * when the importer stopped is truncated when the spool is opened again.
+ */
+@CustomLog
+class StreamFileSpool {
+
+    private static final int CHECKSUM_SIZE = Integer.BYTES;
+    private static final int HEADER_SIZE = Integer.BYTES + 2 * Long.BYTES; // Length, consensus start and end
+    private static final String SUFFIX = ".spool";
+
+    private final Path directory;
+    private final SpoolProperties properties;
+    private final List<Segment> segments = new ArrayList<>();
+
+    private boolean opened;
+    private FileChannel writer;
+    private Position readPosition;
+
+    StreamFileSpool(Path directory, SpoolProperties properties) {
+        this.directory = directory;
+        this.properties = properties;
+    }
+
+    /**
+     * Appends the verified stream file and its dependencies as the next entry of the spool.
+     */
+    synchronized void append(Entry entry) {
+        open();
+
+        try {
+            var body = serialize(entry);
+            var checksum = new CRC32();
+            checksum.update(body);
+
+            if (writer == null || segments.get(segments.size() - 1).size >= properties.getSegmentSize().toBytes()) {
+                roll(entry.consensusStart());
+            }
+
+            var segment = segments.get(segments.size() - 1);
+            var header = ByteBuffer.allocate(Integer.BYTES).putInt(body.length).flip();
+            var footer = ByteBuffer.allocate(CHECKSUM_SIZE)
+                    .putInt((int) checksum.getValue())
+                    .flip();
+            var buffers = new ByteBuffer[] {header, ByteBuffer.wrap(body), footer};
+            long length = Integer.BYTES + (long) body.length + CHECKSUM_SIZE;
+
+            for (long written = 0; written < length; ) {
+                written += writer.write(buffers);
+            }
+
+            writer.force(false);
+            segment.size += length;
+            segment.lastConsensusEnd = entry.consensusEnd();
+            segment.lastModified = Instant.now();
+        } catch (IOException e) {
+            throw new FileOperationException("Unable to append " + entry.data() + " to spool " + directory, e);
+        }
+    }
+
+    /**
+     * @return whether the spool has reached its maximum size and no more entries should be appended until the
+     * spooled entries have been parsed
+     */
+    synchronized boolean isFull() {
+        open();
+        return getSize() >= properties.getMaxSize().toBytes();
+    }
+
+    /**
+     * Gets the last entry appended to the spool, which is the last verified stream file.
+     */
+    synchronized Optional<Entry> last() {
+        open();
+
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            var segment = segments.get(i);
+            Entry last = null;
+
+            for (long offset = 0; offset < segment.size; ) {
+                var entry = read(new Position(segment, offset));
+                last = entry;
+                offset = entry.next().offset();
+            }
+
+            if (last != null) {
+                return Optional.of(last);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the next entry to be parsed without consuming it.
+     */
+    synchronized Optional<Entry> peek() {
+        open();
+
+        if (readPosition == null) {
+            if (segments.isEmpty()) {
+                return Optional.empty();
+            }
+            readPosition = new Position(segments.get(0), 0L);
+        }
+
+        while (readPosition.offset() >= readPosition.segment().size) {
+            int index = segments.indexOf(readPosition.segment());
+            if (index < 0 || index + 1 >= segments.size()) {
+                return Optional.empty();
+            }
+            readPosition = new Position(segments.get(index + 1), 0L);
+        }
+
+        return Optional.of(read(readPosition));
+    }
+
+    /**
+     * Marks the entry returned by {@link #peek()} as consumed.
+     */
+    synchronized void commit(Entry entry) {
+        readPosition = entry.next();
+    }
+
+    /**
+     * Skips the entries of stream files that already have been parsed, e.g. when resuming after a restart.
+     *
+     * @param consensusEnd the consensus end of the last parsed stream file
+     */
+    synchronized void seek(long consensusEnd) {
+        open();
+        readPosition = null;
+
+        for (var entry = peek(); entry.isPresent(); entry = peek()) {
+            if (entry.get().consensusEnd() > consensusEnd) {
+                return;
+            }
+            commit(entry.get());
+        }
+    }
+
+    /**
+     * Deletes the segments that have been consumed and whose entries have all been parsed. Segments are kept regardless
+     * of their age until they're parsed, since the parser may still need to resume from them.
+     *
+     * @param consensusEnd the consensus end of the last parsed stream file
+     */
+    synchronized void prune(long consensusEnd) {
+        while (segments.size() > 1 && readPosition != null && readPosition.segment() != segments.get(0)) {
+            var segment = segments.get(0);
+            if (segment.lastConsensusEnd > consensusEnd) {
+                return;
+            }
+
+            delete(segment);
+        }
+    }
+
+    /**
+     * @return whether there are consumed segments that could be pruned
+     */
+    synchronized boolean isPrunable() {
+        return segments.size() > 1 && readPosition != null && readPosition.segment() != segments.get(0);
+    }
+
+    /**
+     * Deletes all segments, e.g. when the spooled stream files are older than the last parsed stream file.
+     */
+    synchronized void clear() {
+        open();
+        closeWriter();
+        new ArrayList<>(segments).forEach(this::delete);
+        readPosition = null;
+    }
+
+    synchronized long getSize() {
+        return segments.stream().mapToLong(s -> s.size).sum();
+    }
+
+    /**
+     * Lists the existing segments on first use, truncating any partially written entry at the end of the last segment
+     * and discarding the spool entirely if it hasn't been written to within the maximum age.
+     */
+    private void open() {
+        if (opened) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(directory);
+            try (var files = Files.list(directory)) {
+                files.filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+                        .sorted()
+                        .forEach(p -> segments.add(new Segment(p)));
+            }
+
+            for (int i = 0; i < segments.size(); i++) {
+                recover(segments.get(i), i == segments.size() - 1);
+            }
+
+            var expiration = Instant.now().minus(properties.getMaxAge());
+            if (!segments.isEmpty() && segments.get(segments.size() - 1).lastModified.isBefore(expiration)) {
+                log.warn("Discarding spool {} last written before {}", directory, expiration);
+                new ArrayList<>(segments).forEach(this::delete);
+            }
+
+            opened = true;
+            log.info("Opened spool {} with {} segments of {} bytes", directory, segments.size(), getSize());
+        } catch (IOException e) {
+            throw new FileOperationException("Unable to open spool " + directory, e);
+        }
+    }
+
+    private void recover(Segment segment, boolean verifyChecksums) throws IOException {
+        try (var channel = FileChannel.open(segment.path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long offset = 0;
+            var header = ByteBuffer.allocate(HEADER_SIZE);
+
+            while (offset + HEADER_SIZE + CHECKSUM_SIZE <= size) {
+                channel.read(header.clear(), offset);
+                int length = header.flip().getInt();
+                long consensusEnd = header.getLong(Integer.BYTES + Long.BYTES);
+                long next = offset + Integer.BYTES + length + CHECKSUM_SIZE;
+
+                if (length < HEADER_SIZE - Integer.BYTES
+                        || next > size
+                        || (verifyChecksums && !isValid(channel, offset, length))) {
+                    break;
+                }
+
+                segment.lastConsensusEnd = consensusEnd;
+                offset = next;
+            }
+
+            if (offset < size) {
+                log.warn("Truncating spool segment {} from {} to {} bytes", segment.path, size, offset);
+                channel.truncate(offset);
+            }
+
+            segment.size = offset;
+            segment.lastModified = Files.getLastModifiedTime(segment.path).toInstant();
+        }
+    }
+
+    private boolean isValid(FileChannel channel, long offset, int length) throws IOException {
+        var buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset + Integer.BYTES, (long) length + CHECKSUM_SIZE);
+        var checksum = new CRC32();
+        checksum.update(buffer.slice(0, length));
+        return (int) checksum.getValue() == buffer.getInt(length);
+    }
+
+    private void roll(long consensusStart) throws IOException {
+        closeWriter();
+        var path = directory.resolve("%019d%s".formatted(consensusStart, SUFFIX));
+        writer = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        var segment = new Segment(path);
+        segment.size = writer.size();
+        segment.lastModified = Instant.now();
+        segments.removeIf(s -> s.path.equals(path));
+        segments.add(segment);
+        log.debug("Rolled spool to new segment {}", path);
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Unable to close spool segment: {}", e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    private void delete(Segment segment) {
+        if (!segments.isEmpty() && segment == segments.get(segments.size() - 1)) {
+            closeWriter();
+        }
+
+        segments.remove(segment);
+        FileUtils.deleteQuietly(segment.path.toFile());
+        log.debug("Deleted spool segment {}", segment.path);
+    }
+
+    private Entry read(Position position) {
+        var segment = position.segment();
+
+        try (var channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            var header = channel.map(FileChannel.MapMode.READ_ONLY, position.offset(), Integer.BYTES);
+            int length = header.getInt();
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, position.offset() + Integer.BYTES, length);
+            var next = new Position(segment, position.offset() + Integer.BYTES + length + CHECKSUM_SIZE);
+            return deserialize(buffer, next);
+        } catch (IOException e) {
+            throw new FileOperationException("Unable to read spool segment " + segment.path, e);
+        }
+    }
+
+    private byte[] serialize(Entry entry) throws IOException {
+        var data = entry.data();
+        var streamFilename = data.getStreamFilename();
+        var bytes = new ByteArrayOutputStream(data.getBytes().length + 1024);
+
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeLong(entry.consensusStart());
+            output.writeLong(entry.consensusEnd());
+            output.writeLong(entry.index());
+            output.writeLong(entry.nodeId());
+            writeString(output, streamFilename.getPath());
+            writeString(output, streamFilename.getPathSeparator());
+            writeFile(output, data);
+            output.writeInt(entry.dependencies().size());
+
+            for (var dependency : entry.dependencies()) {
+                writeFile(output, dependency);
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private void writeFile(DataOutputStream output, StreamFileData streamFileData) throws IOException {
+        var bytes = streamFileData.getBytes();
+        writeString(output, streamFileData.getFilename());
+        output.writeLong(streamFileData.getLastModified().toEpochMilli());
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private void writeString(DataOutputStream output, String value) throws IOException {
+        var bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private Entry deserialize(ByteBuffer buffer, Position next) {
+        long consensusStart = buffer.getLong();
+        long consensusEnd = buffer.getLong();
+        long index = buffer.getLong();
+        long nodeId = buffer.getLong();
+        var path = readString(buffer);
+        var pathSeparator = readString(buffer);
+        var data = readFile(buffer, path, pathSeparator);
+        int count = buffer.getInt();
+        var dependencies = new ArrayList<StreamFileData>(count);
+
+        for (int i = 0; i < count; i++) {
+            dependencies.add(readFile(buffer, path, pathSeparator));
+        }
+
+        return new Entry(consensusStart, consensusEnd, index, nodeId, data, dependencies, next);
+    }
+
+    private StreamFileData readFile(ByteBuffer buffer, String path, String pathSeparator) {
+        var filename = readString(buffer);
+        var lastModified = Instant.ofEpochMilli(buffer.getLong());
+        int size = buffer.getInt();
+        var contents = buffer.slice(buffer.position(), size);
+        buffer.position(buffer.position() + size);
+        var streamFilename = StreamFilename.from(path, filename, pathSeparator);
+        return new StreamFileData(streamFilename, contents, lastModified);
+    }
+
+    private String readString(ByteBuffer buffer) {
+        var bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A verified stream file in the spool.
+     *
+     * @param consensusStart the consensus start of the stream file
+     * @param consensusEnd   the consensus end of the stream file
+     * @param index          the index of the stream file
+     * @param nodeId         the node the stream file was downloaded from
+     * @param data           the data of the stream file
+     * @param dependencies   the data of the files the stream file depends upon
+     * @param next           the position of the next entry
+     */
+    record Entry(
+            long consensusStart,
+            long consensusEnd,
+            long index,
+            long nodeId,
+            StreamFileData data,
+            Collection<StreamFileData> dependencies,
+            Position next) {
+
+        Entry(
+                long consensusStart,
+                long consensusEnd,
+                long index,
+                long nodeId,
+                StreamFileData data,
+                Collection<StreamFileData> dependencies) {
+            this(consensusStart, consensusEnd, index, nodeId, data, dependencies, null);
+        }
+    }
+
+    record Position(Segment segment, long offset) {}
+
+    static class Segment {
+
+        private final Path path;
+        private long lastConsensusEnd = Long.MIN_VALUE;
+        private Instant lastModified = Instant.EPOCH;
+        private long size;
+
+        private Segment(Path path) {
+            this.path = path;
+        }
+    }
+}
@@ -71,6 +71,14 @@ final class CompositeStreamFileProvider implements StreamFileProvider {
                 .retryWhen(Retry.from(s -> s.map(r -> shouldRetry(r, index))));
     }
 
+    @Override
+    public Flux<StreamFileData> list(ConsensusNode consensusNode, StreamFilename lastFilename, int batchSize) {
+        var index = new AtomicInteger(0);
+        return Mono.fromSupplier(() -> getProvider(index))
+                .flatMapMany(p -> p.list(consensusNode, lastFilename, batchSize))
+                .retryWhen(Retry.from(s -> s.map(r -> shouldRetry(r, index))));
+    }
+
     // Get the next healthy provider
     private StreamFileProvider getProvider(AtomicInteger index) {
         for (; index.get() < providers.size(); index.getAndIncrement()) {
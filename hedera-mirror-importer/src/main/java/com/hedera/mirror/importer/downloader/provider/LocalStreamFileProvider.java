@@ -28,9 +28,18 @@ import com.hedera.mirror.importer.downloader.CommonDownloaderProperties;
 import com.hedera.mirror.importer.downloader.CommonDownloaderProperties.PathType;
 import com.hedera.mirror.importer.exception.FileOperationException;
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import lombok.CustomLog;
 import lombok.RequiredArgsConstructor;
@@ -44,6 +53,7 @@ public class LocalStreamFileProvider implements StreamFileProvider {
     static final String STREAMS = "streams";
 
     private final CommonDownloaderProperties commonDownloaderProperties;
+    private final Map<Path, DirectoryIndex> indexes = new ConcurrentHashMap<>();
 
     @Override
     public Mono<StreamFileData> get(ConsensusNode node, StreamFilename streamFilename) {
@@ -56,8 +66,13 @@ public class LocalStreamFileProvider implements StreamFileProvider {
 
     @Override
     public Flux<StreamFileData> list(ConsensusNode node, StreamFilename lastFilename) {
+        return list(node, lastFilename, commonDownloaderProperties.getBatchSize());
+    }
+
+    @Override
+    public Flux<StreamFileData> list(ConsensusNode node, StreamFilename lastFilename, int signatures) {
         // Number of items we plan do download in a single batch times two for file plus signature.
-        var batchSize = commonDownloaderProperties.getBatchSize() * 2;
+        var batchSize = signatures * 2;
         var startAfter = lastFilename.getFilenameAfter();
         var streamType = lastFilename.getStreamType();
 
@@ -68,7 +83,7 @@ public class LocalStreamFileProvider implements StreamFileProvider {
 
         return Mono.fromSupplier(() -> getDirectory(basePath, prefixPathRef.get(), lastFilename))
                 .timeout(commonDownloaderProperties.getTimeout())
-                .flatMapIterable(dir -> Arrays.asList(dir.listFiles(f -> matches(startAfter, f))))
+                .flatMapIterable(dir -> list(dir, startAfter))
                 .switchIfEmpty(Flux.defer(() -> {
                     // Since local FS access is fast and cheap (unlike S3), no refresh interval, state nor
                     // complex logic is implemented for AUTO mode. Simply move on to the node ID based structure.
@@ -78,11 +93,11 @@ public class LocalStreamFileProvider implements StreamFileProvider {
                                 startAfter);
                         prefixPathRef.set(getPrefixPath(NODE_ID, node, streamType));
                         var dir = getDirectory(basePath, prefixPathRef.get(), lastFilename);
-                        return Flux.fromArray(dir.listFiles(f -> matches(startAfter, f)));
+                        return Flux.fromIterable(list(dir, startAfter));
                     }
                     return Flux.empty();
                 }))
-                .sort()
+                .filter(this::isReadable)
                 .take(batchSize)
                 .map(file -> StreamFilename.from(prefixPathRef.get().toString(), file.getName(), File.separator))
                 .map(streamFilename -> StreamFileData.from(basePath, streamFilename))
@@ -119,22 +134,110 @@ public class LocalStreamFileProvider implements StreamFileProvider {
         return file;
     }
 
-    private boolean matches(String lastFilename, File file) {
-        if (!file.isFile() || !file.canRead()) {
-            return false;
+    /**
+     * Lists the signature files in the directory starting from the given filename, in filename order. Files before the
+     * given filename have been processed, so they're deleted to keep the directory small.
+     */
+    private Collection<File> list(File dir, String startAfter) {
+        var index = indexes.computeIfAbsent(dir.toPath(), DirectoryIndex::new);
+        var filenames = index.getFilenames();
+        var processed = filenames.headSet(startAfter);
+
+        if (!processed.isEmpty()) {
+            filenames = index.delete(processed);
+        }
+
+        return filenames.tailSet(startAfter).stream()
+                .filter(name -> name.endsWith(SIGNATURE_SUFFIX))
+                .map(name -> new File(dir, name))
+                .toList();
+    }
+
+    private boolean isReadable(File file) {
+        return file.isFile() && file.canRead();
+    }
+
+    /**
+     * A sorted index of the filenames in a directory so that the directory doesn't have to be listed and sorted on
+     * every poll. The directory is only listed again when its last modified time changes. Since some file systems have
+     * a coarse last modified time, it's also listed again if it was last listed shortly after it was modified, unless
+     * the last modified time has sub-second precision. Files deleted through the index are removed from it in place,
+     * so the provider's own deletes don't cause the directory to be listed again.
+     */
+    @RequiredArgsConstructor
+    private static class DirectoryIndex {
+
+        private static final Duration MODIFIED_TIME_GRANULARITY = Duration.ofSeconds(1L);
+
+        private final Path path;
+        private NavigableSet<String> filenames = Collections.emptyNavigableSet();
+        private FileTime lastModified;
+        private Instant lastListed = Instant.EPOCH;
+
+        synchronized NavigableSet<String> getFilenames() {
+            try {
+                var modified = Files.getLastModifiedTime(path);
+                if (isCurrent(modified)) {
+                    return filenames;
+                }
+
+                var now = Instant.now();
+                var listed = new TreeSet<String>();
+                try (var directoryStream = Files.newDirectoryStream(path)) {
+                    directoryStream.forEach(p -> listed.add(p.getFileName().toString()));
+                }
+
+                filenames = Collections.unmodifiableNavigableSet(listed);
+                lastModified = modified;
+                lastListed = now;
+                return filenames;
+            } catch (IOException e) {
+                throw new FileOperationException("Unable to list local stream directory " + path, e);
+            }
         }
 
-        var name = file.getName();
-        if (name.compareTo(lastFilename) < 0) {
+        /**
+         * Deletes the files from the directory and the index. If nothing else changed the directory since it was last
+         * listed, its new last modified time is recorded so that it isn't listed again.
+         *
+         * @param processed the filenames to delete
+         * @return the filenames remaining in the index
+         */
+        synchronized NavigableSet<String> delete(Collection<String> processed) {
             try {
-                // Files before last file have been processed and can be deleted to optimize list + sort
-                Files.delete(file.toPath());
-            } catch (Exception e) {
-                log.warn("Unable to delete file {}: {}", file, e.getMessage());
+                boolean current = isCurrent(Files.getLastModifiedTime(path));
+                var remaining = new TreeSet<>(filenames);
+
+                for (var filename : processed) {
+                    var file = path.resolve(filename);
+                    try {
+                        if (Files.isRegularFile(file)) {
+                            Files.delete(file);
+                            remaining.remove(filename);
+                        }
+                    } catch (Exception e) {
+                        log.warn("Unable to delete file {}: {}", file, e.getMessage());
+                    }
+                }
+
+                filenames = Collections.unmodifiableNavigableSet(remaining);
+                if (current) {
+                    lastModified = Files.getLastModifiedTime(path);
+                }
+
+                return filenames;
+            } catch (IOException e) {
+                throw new FileOperationException("Unable to delete files from local stream directory " + path, e);
             }
-            return false;
         }
 
-        return name.endsWith(SIGNATURE_SUFFIX);
+        private boolean isCurrent(FileTime modified) {
+            if (!modified.equals(lastModified)) {
+                return false;
+            }
+
+            var instant = modified.toInstant();
+            return instant.getNano() != 0 || lastListed.isAfter(instant.plus(MODIFIED_TIME_GRANULARITY));
+        }
     }
 }
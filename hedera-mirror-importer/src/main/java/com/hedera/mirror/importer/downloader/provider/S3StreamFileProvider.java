@@ -25,15 +25,22 @@ import com.hedera.mirror.importer.domain.StreamFileData;
 import com.hedera.mirror.importer.domain.StreamFilename;
 import com.hedera.mirror.importer.downloader.CommonDownloaderProperties;
 import com.hedera.mirror.importer.downloader.CommonDownloaderProperties.PathType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import javax.annotation.Nullable;
 import lombok.CustomLog;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
@@ -51,7 +58,9 @@ public final class S3StreamFileProvider implements StreamFileProvider {
     private static final String TEMPLATE_ACCOUNT_ID_PREFIX = "%s/%s%s/";
     private static final String TEMPLATE_NODE_ID_PREFIX = "%s/%d/%d/%s/";
     private final CommonDownloaderProperties commonDownloaderProperties;
+    private final MeterRegistry meterRegistry;
     private final Map<PathKey, PathResult> paths = new ConcurrentHashMap<>();
+    private final Map<StreamType, Prediction> predictions = new ConcurrentHashMap<>();
     private final S3AsyncClient s3Client;
 
     public Mono<StreamFileData> get(ConsensusNode node, StreamFilename streamFilename) {
@@ -74,8 +83,120 @@ public final class S3StreamFileProvider implements StreamFileProvider {
 
     @Override
     public Flux<StreamFileData> list(ConsensusNode node, StreamFilename lastFilename) {
+        return list(node, lastFilename, commonDownloaderProperties.getBatchSize());
+    }
+
+    @Override
+    public Flux<StreamFileData> list(ConsensusNode node, StreamFilename lastFilename, int batchSize) {
+        if (!commonDownloaderProperties.isPredictive() || lastFilename == EPOCH) {
+            return listObjects(node, lastFilename, batchSize);
+        }
+
+        return Flux.defer(() -> predict(node, lastFilename, batchSize));
+    }
+
+    /**
+     * Avoids listing the bucket for every node. The next file can't be closed until at least one file close interval
+     * after the last file started, so the listing is skipped entirely until then. Afterwards, only the first node to be
+     * listed after the last file lists the bucket while the other nodes await its listing and get the same signature
+     * files from their own path. A node falls back to listing if the first node found no files or couldn't list, or if
+     * one of the predicted files is missing from its path.
+     * <p>
+     * A file missing from the first node would be missing from every prediction. So when the nodes are listed again
+     * after the same file and the previous predicted files didn't lead to any progress, every node lists itself.
+     */
+    private Flux<StreamFileData> predict(ConsensusNode node, StreamFilename lastFilename, int batchSize) {
+        var streamType = lastFilename.getStreamType();
+        var nextFileClosed = lastFilename.getInstant().plus(streamType.getFileCloseInterval());
+
+        if (Instant.now().isBefore(nextFileClosed)) {
+            savedListMetric(streamType).increment();
+            return Flux.empty();
+        }
+
+        var startAfter = lastFilename.getFilenameAfter();
+        var prediction = new Prediction(startAfter, node, true);
+        var current = predictions.compute(streamType, (k, v) -> {
+            if (v == null || !v.startAfter().equals(startAfter)) {
+                return prediction;
+            } else if (v.nodes().add(node)) {
+                return v;
+            }
+
+            // The node was already listed after the same file, so the previous round of listings made no progress
+            return v.enabled() && v.found().get() ? new Prediction(startAfter, node, false) : prediction;
+        });
+
+        if (!current.enabled()) {
+            return listObjects(node, lastFilename, batchSize);
+        }
+
+        if (current == prediction) {
+            return listSignatures(node, lastFilename, batchSize)
+                    .collectList()
+                    .doOnNext(streamFilenames -> {
+                        var filenames = streamFilenames.stream()
+                                .map(StreamFilename::getFilename)
+                                .toList();
+                        prediction.found().set(!filenames.isEmpty());
+                        prediction.filenames().tryEmitValue(filenames);
+                    })
+                    .doFinally(signal -> prediction.filenames().tryEmitValue(List.of()))
+                    .flatMapIterable(Function.identity())
+                    .flatMapSequential(streamFilename -> get(node, streamFilename));
+        }
+
+        var key = new PathKey(node, streamType);
+        var pathResult = paths.computeIfAbsent(key, k -> new PathResult());
+        var prefix = getPrefix(key, pathResult.getPathType());
+
+        // The listing of the first node is bounded by the timeout, so this only guards against it never being listed
+        return current.filenames()
+                .asMono()
+                .timeout(commonDownloaderProperties.getTimeout())
+                .flatMapMany(Flux::fromIterable)
+                .map(filename -> StreamFilename.from(prefix + filename, SEPARATOR))
+                .flatMapSequential(streamFilename -> get(node, streamFilename))
+                .collectList()
+                .filter(files -> !files.isEmpty())
+                .doOnNext(files -> {
+                    predictionMetric(streamType, true).increment();
+                    savedListMetric(streamType).increment();
+                })
+                .flatMapIterable(Function.identity())
+                .onErrorResume(e -> {
+                    log.debug("Unable to get predicted signature files for node {}: {}", node, e.getMessage());
+                    return Flux.empty();
+                })
+                .switchIfEmpty(Flux.defer(() -> {
+                    predictionMetric(streamType, false).increment();
+                    return listObjects(node, lastFilename, batchSize);
+                }));
+    }
+
+    private Counter predictionMetric(StreamType streamType, boolean hit) {
+        return Counter.builder("hedera.mirror.download.prediction")
+                .description("The number of times the signature files of a node were predicted from another node")
+                .tag("result", hit ? "hit" : "miss")
+                .tag("type", streamType.toString())
+                .register(meterRegistry);
+    }
+
+    private Counter savedListMetric(StreamType streamType) {
+        return Counter.builder("hedera.mirror.download.list.saved")
+                .description("The number of bucket list requests avoided by predicting the signature files")
+                .tag("type", streamType.toString())
+                .register(meterRegistry);
+    }
+
+    private Flux<StreamFileData> listObjects(ConsensusNode node, StreamFilename lastFilename, int signatures) {
+        return listSignatures(node, lastFilename, signatures)
+                .flatMapSequential(streamFilename -> get(node, streamFilename));
+    }
+
+    private Flux<StreamFilename> listSignatures(ConsensusNode node, StreamFilename lastFilename, int signatures) {
         // Number of items we plan do download in a single batch times 2 for file + sig.
-        int batchSize = commonDownloaderProperties.getBatchSize() * 2;
+        int batchSize = signatures * 2;
 
         var key = new PathKey(node, lastFilename.getStreamType());
         var pathResult = paths.computeIfAbsent(key, k -> new PathResult());
@@ -100,13 +221,13 @@ public final class S3StreamFileProvider implements StreamFileProvider {
                 .flatMapIterable(ListObjectsV2Response::contents)
                 .map(this::toStreamFilename)
                 .filter(s -> s != EPOCH && s.getFileType() == SIGNATURE)
-                .flatMapSequential(streamFilename -> get(node, streamFilename))
                 .doOnSubscribe(s -> log.debug(
                         "Searching for the next {} files after {}/{}",
                         batchSize,
                         commonDownloaderProperties.getBucketName(),
                         startAfter))
-                .switchIfEmpty(Flux.defer(() -> pathResult.fallback() ? list(node, lastFilename) : Flux.empty()));
+                .switchIfEmpty(Flux.defer(
+                        () -> pathResult.fallback() ? listSignatures(node, lastFilename, signatures) : Flux.empty()));
     }
 
     private String getAccountIdPrefix(PathKey key) {
@@ -142,6 +263,22 @@ public final class S3StreamFileProvider implements StreamFileProvider {
 
     record PathKey(ConsensusNode node, StreamType type) {}
 
+    /*
+     * A round of listings after the same file. Nodes only share the filenames of the first node if it's enabled and
+     * found is set once the first node found files.
+     */
+    private record Prediction(
+            String startAfter,
+            Sinks.One<List<String>> filenames,
+            Set<ConsensusNode> nodes,
+            boolean enabled,
+            AtomicBoolean found) {
+        private Prediction(String startAfter, ConsensusNode node, boolean enabled) {
+            this(startAfter, Sinks.one(), ConcurrentHashMap.newKeySet(), enabled, new AtomicBoolean());
+            nodes.add(node);
+        }
+    }
+
     @Data
     private class PathResult {
 
@@ -45,4 +45,17 @@ public interface StreamFileProvider {
      * @return The data associated with one or more stream files, wrapped in a Flux
      */
     Flux<StreamFileData> list(ConsensusNode node, StreamFilename lastFilename);
+
+    /**
+     * Lists and downloads up to the given number of signature files for a particular node upon subscription. Providers
+     * that don't support a variable batch size use the configured batch size.
+     *
+     * @param node         the consensus node to search
+     * @param lastFilename the filename of the last downloaded stream file
+     * @param batchSize    the number of signature files to list
+     * @return The data associated with one or more stream files, wrapped in a Flux
+     */
+    default Flux<StreamFileData> list(ConsensusNode node, StreamFilename lastFilename, int batchSize) {
+        return list(node, lastFilename);
+    }
 }
@@ -16,14 +16,10 @@
 
 package com.hedera.mirror.importer.downloader.record;
 
-import static com.hedera.mirror.importer.util.Utility.RECOVERABLE_ERROR;
-
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimaps;
 import com.hedera.mirror.common.domain.transaction.RecordFile;
 import com.hedera.mirror.common.domain.transaction.RecordItem;
 import com.hedera.mirror.common.domain.transaction.SidecarFile;
-import com.hedera.mirror.importer.addressbook.ConsensusNode;
+import com.hedera.mirror.common.util.DomainUtils;
 import com.hedera.mirror.importer.addressbook.ConsensusNodeService;
 import com.hedera.mirror.importer.config.MirrorDateRangePropertiesProcessor;
 import com.hedera.mirror.importer.domain.StreamFileData;
@@ -39,16 +35,22 @@ import com.hedera.mirror.importer.reader.record.ProtoRecordFileReader;
 import com.hedera.mirror.importer.reader.record.RecordFileReader;
 import com.hedera.mirror.importer.reader.record.sidecar.SidecarFileReader;
 import com.hedera.mirror.importer.reader.signature.SignatureFileReader;
-import com.hedera.services.stream.proto.SidecarType;
 import com.hedera.services.stream.proto.TransactionSidecarRecord;
 import io.micrometer.core.instrument.MeterRegistry;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import jakarta.inject.Named;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.springframework.scheduling.annotation.Scheduled;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Named
 public class RecordFileDownloader extends Downloader<RecordFile, RecordItem> {
@@ -91,9 +93,19 @@ public class RecordFileDownloader extends Downloader<RecordFile, RecordItem> {
     }
 
     @Override
-    protected void onVerified(StreamFileData streamFileData, RecordFile recordFile, ConsensusNode node) {
-        downloadSidecars(streamFileData.getStreamFilename(), recordFile, node);
-        super.onVerified(streamFileData, recordFile, node);
+    protected Collection<StreamFilename> getDependencies(StreamFileData streamFileData, RecordFile recordFile) {
+        var recordFilename = streamFileData.getStreamFilename();
+        return getAcceptedSidecars(recordFile)
+                .map(sidecar -> StreamFilename.from(recordFilename, sidecar.getName()))
+                .toList();
+    }
+
+    @Override
+    protected void readDependencies(
+            StreamFileData streamFileData,
+            RecordFile recordFile,
+            Function<StreamFilename, Mono<StreamFileData>> dependencies) {
+        readSidecars(streamFileData.getStreamFilename(), recordFile, dependencies);
     }
 
     @Override
@@ -105,41 +117,50 @@ public class RecordFileDownloader extends Downloader<RecordFile, RecordItem> {
         }
     }
 
-    private void downloadSidecars(StreamFilename recordFilename, RecordFile recordFile, ConsensusNode node) {
+    /**
+     * Reads the sidecars, which were already prefetched once the record file was read or spooled along with it, and
+     * attaches their records to the record items with the same consensus timestamp. The sidecars are read concurrently
+     * and only the records of the accepted types are kept.
+     */
+    private void readSidecars(
+            StreamFilename recordFilename,
+            RecordFile recordFile,
+            Function<StreamFilename, Mono<StreamFileData>> dependencies) {
         if (!sidecarProperties.isEnabled() || recordFile.getSidecars().isEmpty()) {
             return;
         }
 
-        var acceptedTypes =
-                sidecarProperties.getTypes().stream().map(Enum::ordinal).collect(Collectors.toSet());
-
-        var records = Flux.fromIterable(recordFile.getSidecars())
-                .filter(sidecar ->
-                        acceptedTypes.isEmpty() || sidecar.getTypes().stream().anyMatch(acceptedTypes::contains))
-                .flatMap(sidecar -> getSidecar(node, recordFilename, sidecar))
+        var records = Flux.fromStream(getAcceptedSidecars(recordFile))
+                .flatMapSequential(sidecar -> getSidecar(recordFilename, sidecar, dependencies))
                 .flatMapIterable(SidecarFile::getRecords)
-                .filter(t -> acceptedTypes.isEmpty() || acceptedTypes.contains(getSidecarType(t)))
-                .collect(Multimaps.toMultimap(
-                        TransactionSidecarRecord::getConsensusTimestamp,
-                        Function.identity(),
-                        ArrayListMultimap::create))
+                .collect(Long2ObjectOpenHashMap<List<TransactionSidecarRecord>>::new, (map, sidecarRecord) -> {
+                    long timestamp = DomainUtils.timestampInNanosMax(sidecarRecord.getConsensusTimestamp());
+                    map.computeIfAbsent(timestamp, t -> new ArrayList<>()).add(sidecarRecord);
+                })
                 .block();
 
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+
         recordFile
                 .getItems()
                 .doOnNext(recordItem -> {
-                    var timestamp = recordItem.getTransactionRecord().getConsensusTimestamp();
-                    if (records.containsKey(timestamp)) {
-                        recordItem.setSidecarRecords(records.get(timestamp));
+                    var sidecarRecords = records.get(recordItem.getConsensusTimestamp());
+                    if (sidecarRecords != null) {
+                        recordItem.setSidecarRecords(sidecarRecords);
                     }
                 })
                 .blockLast();
     }
 
-    private Mono<SidecarFile> getSidecar(ConsensusNode node, StreamFilename recordFilename, SidecarFile sidecar) {
+    private Mono<SidecarFile> getSidecar(
+            StreamFilename recordFilename,
+            SidecarFile sidecar,
+            Function<StreamFilename, Mono<StreamFileData>> dependencies) {
         var sidecarFilename = StreamFilename.from(recordFilename, sidecar.getName());
-        return streamFileProvider.get(node, sidecarFilename).map(streamFileData -> {
-            sidecarFileReader.read(sidecar, streamFileData);
+        return dependencies.apply(sidecarFilename).publishOn(Schedulers.parallel()).map(streamFileData -> {
+            sidecarFileReader.read(sidecar, streamFileData, sidecarProperties.getTypes());
 
             if (!Arrays.equals(sidecar.getHash(), sidecar.getActualHash())) {
                 throw new HashMismatchException(
@@ -157,18 +178,18 @@ public class RecordFileDownloader extends Downloader<RecordFile, RecordItem> {
         });
     }
 
-    private int getSidecarType(TransactionSidecarRecord transactionSidecarRecord) {
-        return switch (transactionSidecarRecord.getSidecarRecordsCase()) {
-            case ACTIONS -> SidecarType.CONTRACT_ACTION_VALUE;
-            case BYTECODE -> SidecarType.CONTRACT_BYTECODE_VALUE;
-            case STATE_CHANGES -> SidecarType.CONTRACT_STATE_CHANGE_VALUE;
-            default -> {
-                log.error(
-                        RECOVERABLE_ERROR + "Unknown sidecar transaction record type at {}: {}",
-                        transactionSidecarRecord.getConsensusTimestamp(),
-                        transactionSidecarRecord.getSidecarRecordsCase());
-                yield SidecarType.SIDECAR_TYPE_UNKNOWN_VALUE;
-            }
-        };
+    private Set<Integer> getAcceptedTypes() {
+        return sidecarProperties.getTypes().stream().map(Enum::ordinal).collect(Collectors.toSet());
+    }
+
+    private Stream<SidecarFile> getAcceptedSidecars(RecordFile recordFile) {
+        if (!sidecarProperties.isEnabled()) {
+            return Stream.empty();
+        }
+
+        var acceptedTypes = getAcceptedTypes();
+        return recordFile.getSidecars().stream()
+                .filter(sidecar ->
+                        acceptedTypes.isEmpty() || sidecar.getTypes().stream().anyMatch(acceptedTypes::contains));
     }
 }
@@ -30,18 +30,25 @@ public class InitializeEntityBalanceMigration extends RepeatableMigration {
             """
             with timestamp_range as (
               select
-                consensus_timestamp as snapshot_timestamp,
-                consensus_timestamp + time_offset as from_timestamp,
+                abf.consensus_timestamp as snapshot_timestamp,
+                coalesce((
+                  select max(consensus_timestamp)
+                  from account_balance_file
+                  where consensus_timestamp <= abf.consensus_timestamp and delta is false
+                ), 0) as full_snapshot_timestamp,
+                abf.consensus_timestamp + abf.time_offset as from_timestamp,
                 consensus_end as to_timestamp
-              from account_balance_file
+              from account_balance_file abf
               join (select consensus_end from record_file order by consensus_end desc limit 1) last_record_file
-                on consensus_timestamp + time_offset <= consensus_end
-              order by consensus_timestamp desc
+                on abf.consensus_timestamp + abf.time_offset <= consensus_end
+              order by abf.consensus_timestamp desc
               limit 1
             ), snapshot as (
-              select account_id, balance
+              select distinct on (account_id) account_id, balance
               from account_balance
-              join timestamp_range on snapshot_timestamp = consensus_timestamp
+              join timestamp_range
+                on consensus_timestamp <= snapshot_timestamp and consensus_timestamp >= full_snapshot_timestamp
+              order by account_id, consensus_timestamp desc
             ), change as (
               select entity_id, sum(amount) as amount
               from crypto_transfer
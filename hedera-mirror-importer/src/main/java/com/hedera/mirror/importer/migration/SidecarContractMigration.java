@@ -17,8 +17,10 @@
 package com.hedera.mirror.importer.migration;
 
 import com.google.common.base.Stopwatch;
+import com.hedera.mirror.common.domain.entity.Entity;
 import com.hedera.mirror.common.domain.entity.EntityId;
 import com.hedera.mirror.common.util.DomainUtils;
+import com.hedera.mirror.importer.parser.record.entity.sql.UpsertableStateCache;
 import com.hedera.mirror.importer.repository.EntityHistoryRepository;
 import com.hedera.mirror.importer.repository.EntityRepository;
 import com.hedera.services.stream.proto.ContractBytecode;
@@ -28,6 +30,7 @@ import java.util.HashSet;
 import java.util.List;
 import lombok.CustomLog;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.jdbc.core.JdbcOperations;
 
 @CustomLog
@@ -47,6 +50,7 @@ public class SidecarContractMigration {
     private final EntityHistoryRepository entityHistoryRepository;
     private final EntityRepository entityRepository;
     private final JdbcOperations jdbcOperations;
+    private final ObjectProvider<UpsertableStateCache> upsertableStateCache;
 
     public void migrate(List<ContractBytecode> contractBytecodes) {
         if (contractBytecodes == null || contractBytecodes.isEmpty()) {
@@ -81,6 +85,7 @@ public class SidecarContractMigration {
         if (!contractIds.isEmpty()) {
             entityRepository.updateContractType(contractIds);
             entityHistoryRepository.updateContractType(contractIds);
+            upsertableStateCache.ifAvailable(c -> c.evict(Entity.class, contractIds));
             contractIds.clear();
         }
     }
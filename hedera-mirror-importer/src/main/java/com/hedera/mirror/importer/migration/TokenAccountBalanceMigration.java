@@ -28,19 +28,26 @@ public class TokenAccountBalanceMigration extends RepeatableMigration {
     private static final String UPDATE_TOKEN_ACCOUNT_SQL =
             """
              with timestamp_range as (
-                select consensus_timestamp as snapshot_timestamp,
-                    consensus_timestamp + time_offset as from_timestamp,
+                select abf.consensus_timestamp as snapshot_timestamp,
+                    coalesce((
+                        select max(consensus_timestamp)
+                        from account_balance_file
+                        where consensus_timestamp <= abf.consensus_timestamp and delta is false
+                    ), 0) as full_snapshot_timestamp,
+                    abf.consensus_timestamp + abf.time_offset as from_timestamp,
                     consensus_end as to_timestamp
-                from account_balance_file
+                from account_balance_file abf
                 join (select consensus_end from record_file order by consensus_end desc limit 1) last_record_file
-                  on consensus_timestamp + time_offset <= consensus_end
-                order by consensus_timestamp desc
+                  on abf.consensus_timestamp + abf.time_offset <= consensus_end
+                order by abf.consensus_timestamp desc
                 limit 1
             ),
             token_balance as (
-                select *
+                select distinct on (account_id, token_id) *
                 from token_balance
-                join timestamp_range on snapshot_timestamp = consensus_timestamp
+                join timestamp_range
+                  on consensus_timestamp <= snapshot_timestamp and consensus_timestamp >= full_snapshot_timestamp
+                order by account_id, token_id, consensus_timestamp desc
             ),
             token_transfer as (
                 select account_id, token_id, sum(amount) as amount
@@ -24,6 +24,8 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -84,8 +86,7 @@ public abstract class AbstractStreamFileParser<T extends StreamFile<?>> implemen
                         streamFile.getName(),
                         stopwatch);
                 success = true;
-                Instant consensusInstant = Instant.ofEpochSecond(0L, streamFile.getConsensusEnd());
-                parseLatencyMetric.record(Duration.between(consensusInstant, Instant.now()));
+                recordLatency(streamFile);
             } catch (Throwable e) {
                 log.error("Error parsing file {} after {}", streamFile.getName(), stopwatch, e);
                 throw e;
@@ -96,20 +97,95 @@ public abstract class AbstractStreamFileParser<T extends StreamFile<?>> implemen
         }
     }
 
+    /**
+     * Parses consecutive stream files together. The files are verified against the last parsed stream file and each
+     * other in memory, so the database is queried for the last stream file only once for the whole batch. The parse
+     * duration metric is recorded once per file with the average duration of the files in the batch.
+     *
+     * @param streamFiles the consecutive stream files to parse
+     */
+    protected void parse(List<T> streamFiles) {
+        if (streamFiles.size() == 1) {
+            parse(streamFiles.get(0));
+            return;
+        }
+
+        if (!parserProperties.isEnabled() || streamFiles.isEmpty()) {
+            return;
+        }
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        boolean success = false;
+        var last = streamFileRepository.findLatest().orElse(null);
+        var batch = new ArrayList<T>(streamFiles.size());
+
+        for (var streamFile : streamFiles) {
+            if (shouldParse(streamFile, last)) {
+                batch.add(streamFile);
+                last = streamFile;
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        var first = batch.get(0).getName();
+        var lastName = batch.get(batch.size() - 1).getName();
+
+        try {
+            doParse(batch);
+
+            long count = batch.stream().mapToLong(StreamFile::getCount).sum();
+            log.info(
+                    "Successfully processed {} items from {} files {} to {} in {}",
+                    count,
+                    batch.size(),
+                    first,
+                    lastName,
+                    stopwatch);
+            success = true;
+            batch.forEach(this::recordLatency);
+        } catch (Throwable e) {
+            log.error("Error parsing {} files {} to {} after {}", batch.size(), first, lastName, stopwatch, e);
+            throw e;
+        } finally {
+            // Record the average duration of each file in the batch, so the timer keeps measuring individual files
+            Timer timer = success ? parseDurationMetricSuccess : parseDurationMetricFailure;
+            var duration = stopwatch.elapsed().dividedBy(batch.size());
+            batch.forEach(s -> timer.record(duration));
+        }
+    }
+
     protected abstract void doParse(T streamFile);
 
+    /**
+     * Parses the verified stream files of a batch, by default one after another
+     *
+     * @param streamFiles the stream files to parse
+     */
+    protected void doParse(List<T> streamFiles) {
+        streamFiles.forEach(this::doParse);
+    }
+
+    private void recordLatency(T streamFile) {
+        Instant consensusInstant = Instant.ofEpochSecond(0L, streamFile.getConsensusEnd());
+        parseLatencyMetric.record(Duration.between(consensusInstant, Instant.now()));
+    }
+
     private boolean shouldParse(T streamFile) {
         if (!parserProperties.isEnabled()) {
             return false;
         }
 
-        var last = streamFileRepository.findLatest();
+        return shouldParse(streamFile, streamFileRepository.findLatest().orElse(null));
+    }
 
-        if (last.isEmpty()) {
+    private boolean shouldParse(T streamFile, T lastStreamFile) {
+        if (lastStreamFile == null) {
             return true;
         }
 
-        var lastStreamFile = last.get();
         var name = streamFile.getName();
 
         if (lastStreamFile.getConsensusEnd() >= streamFile.getConsensusStart()) {
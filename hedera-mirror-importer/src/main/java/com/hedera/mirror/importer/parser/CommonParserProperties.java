@@ -29,6 +29,7 @@ import lombok.Data;
 import lombok.Getter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 @Data
@@ -39,15 +40,27 @@ public class CommonParserProperties {
     @Min(8192)
     private int bufferSize = 32768; // tested max byte size of buffer used by PGCopyOutputStream
 
+    @NotNull
+    private CopyFormat copyFormat = CopyFormat.CSV;
+
     @NotNull
     private Collection<TransactionFilter> exclude = new ArrayList<>();
 
     @NotNull
     private Collection<TransactionFilter> include = new ArrayList<>();
 
+    @Min(0)
+    private int insertConcurrency = 0; // Auxiliary connections to copy insert-only tables with, 0 to disable
+
+    @NotNull
+    private DataSize streamBufferSize = DataSize.ofMegabytes(1L); // Encoded rows to buffer per table when streaming
+
     @Min(1)
     private int tempTableBufferSize = 256; // Size in MB
 
+    @NotNull
+    private TempTableMode tempTableMode = TempTableMode.TRANSACTION;
+
     @Getter(lazy = true)
     private final Predicate<TransactionFilterFields> filter = includeFilter().and(excludeFilter());
 
@@ -69,6 +82,16 @@ public class CommonParserProperties {
         return include.stream().map(TransactionFilter::getFilter).reduce(a -> false, Predicate::or);
     }
 
+    public enum CopyFormat {
+        BINARY,
+        CSV
+    }
+
+    public enum TempTableMode {
+        SESSION, // Temporary tables are kept per connection and their rows deleted on commit
+        TRANSACTION // Temporary tables are created in each transaction and dropped on commit
+    }
+
     @Data
     @Validated
     public static class TransactionFilter {
@@ -25,6 +25,7 @@ import com.hedera.mirror.common.domain.balance.TokenBalance;
 import com.hedera.mirror.importer.config.MirrorDateRangePropertiesProcessor;
 import com.hedera.mirror.importer.leader.Leader;
 import com.hedera.mirror.importer.parser.AbstractStreamFileParser;
+import com.hedera.mirror.importer.parser.batch.BalanceBatchInserter;
 import com.hedera.mirror.importer.parser.batch.BatchPersister;
 import com.hedera.mirror.importer.repository.StreamFileRepository;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -46,6 +47,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class AccountBalanceFileParser extends AbstractStreamFileParser<AccountBalanceFile> {
 
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final BalanceBatchInserter balanceBatchInserter;
+    private final BalanceDeltaTracker balanceDeltaTracker;
     private final BatchPersister batchPersister;
     private final MirrorDateRangePropertiesProcessor mirrorDateRangePropertiesProcessor;
     private final BalanceStreamFileListener streamFileListener;
@@ -57,9 +60,13 @@ public class AccountBalanceFileParser extends AbstractStreamFileParser<AccountBa
             BalanceParserProperties parserProperties,
             StreamFileRepository<AccountBalanceFile, Long> accountBalanceFileRepository,
             MirrorDateRangePropertiesProcessor mirrorDateRangePropertiesProcessor,
-            BalanceStreamFileListener streamFileListener) {
+            BalanceStreamFileListener streamFileListener,
+            BalanceBatchInserter balanceBatchInserter,
+            BalanceDeltaTracker balanceDeltaTracker) {
         super(meterRegistry, parserProperties, accountBalanceFileRepository);
         this.applicationEventPublisher = applicationEventPublisher;
+        this.balanceBatchInserter = balanceBatchInserter;
+        this.balanceDeltaTracker = balanceDeltaTracker;
         this.batchPersister = batchPersister;
         this.mirrorDateRangePropertiesProcessor = mirrorDateRangePropertiesProcessor;
         this.streamFileListener = streamFileListener;
@@ -86,38 +93,53 @@ public class AccountBalanceFileParser extends AbstractStreamFileParser<AccountBa
     protected void doParse(AccountBalanceFile accountBalanceFile) {
         log.info("Starting processing account balances file {}", accountBalanceFile.getName());
         DateRangeFilter filter = mirrorDateRangePropertiesProcessor.getDateRangeFilter(StreamType.BALANCE);
-        int batchSize = ((BalanceParserProperties) parserProperties).getBatchSize();
+        var balanceParserProperties = (BalanceParserProperties) parserProperties;
+        int batchSize = balanceParserProperties.getBatchSize();
+        var persister = balanceParserProperties.getCopyConcurrency() > 1 ? balanceBatchInserter : batchPersister;
         long count = 0L;
 
         if (filter.filter(accountBalanceFile.getConsensusTimestamp())) {
             List<AccountBalance> accountBalances = new ArrayList<>(batchSize);
             Map<TokenBalance.Id, TokenBalance> tokenBalances = new HashMap<>(batchSize);
+            accountBalanceFile.setDelta(balanceDeltaTracker.begin(accountBalanceFile));
 
+            // The count is the number of account balances persisted, which are only the changed ones for a delta
             count = accountBalanceFile
                     .getItems()
                     .doOnNext(accountBalance -> {
-                        accountBalances.add(accountBalance);
                         for (var tokenBalance : accountBalance.getTokenBalances()) {
+                            if (!balanceDeltaTracker.isChanged(tokenBalance)) {
+                                continue;
+                            }
+
                             if (tokenBalances.putIfAbsent(tokenBalance.getId(), tokenBalance) != null) {
                                 log.warn("Skipping duplicate token balance: {}", tokenBalance);
                             }
                         }
 
-                        if (accountBalances.size() >= batchSize) {
-                            batchPersister.persist(accountBalances);
-                            accountBalances.clear();
-                        }
-
                         if (tokenBalances.size() >= batchSize) {
-                            batchPersister.persist(tokenBalances.values());
+                            persister.persist(tokenBalances.values());
                             tokenBalances.clear();
                         }
                     })
+                    .filter(balanceDeltaTracker::isChanged)
+                    .doOnNext(accountBalance -> {
+                        accountBalances.add(accountBalance);
+
+                        if (accountBalances.size() >= batchSize) {
+                            persister.persist(accountBalances);
+                            accountBalances.clear();
+                        }
+                    })
                     .count()
                     .block();
 
-            batchPersister.persist(accountBalances);
-            batchPersister.persist(tokenBalances.values());
+            var removedAccountBalances = balanceDeltaTracker.getRemovedAccountBalances();
+            accountBalances.addAll(removedAccountBalances);
+            count += removedAccountBalances.size();
+            balanceDeltaTracker.getRemovedTokenBalances().forEach(t -> tokenBalances.put(t.getId(), t));
+            persister.persist(accountBalances);
+            persister.persist(tokenBalances.values());
         }
 
         Instant loadEnd = Instant.now();
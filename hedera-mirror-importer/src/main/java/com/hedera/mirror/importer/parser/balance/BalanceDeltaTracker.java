@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.balance;
+
+import static com.hedera.mirror.common.domain.entity.EntityType.ACCOUNT;
+import static com.hedera.mirror.common.domain.entity.EntityType.TOKEN;
+
+import com.hedera.mirror.common.domain.balance.AccountBalance;
+import com.hedera.mirror.common.domain.balance.AccountBalanceFile;
+import com.hedera.mirror.common.domain.balance.TokenBalance;
+import com.hedera.mirror.common.domain.entity.EntityId;
+import com.hedera.mirror.importer.repository.AccountBalanceFileRepository;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import jakarta.inject.Named;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.CustomLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the balances of the last loaded balance file in primitive maps so that a balance file can be loaded as a delta
+ * of the previous one, with only the balances that changed. Balances that are no longer in the file are persisted with
+ * a zero balance. A full snapshot is loaded instead when there's no previous state, when another balance file was
+ * loaded since, or every configured number of files.
+ */
+@CustomLog
+@Named
+@RequiredArgsConstructor
+public class BalanceDeltaTracker {
+
+    private static final long MISSING = Long.MIN_VALUE;
+
+    private final AccountBalanceFileRepository accountBalanceFileRepository;
+    private final BalanceParserProperties properties;
+
+    private Long2LongMap accountBalances = newMap(0);
+    private Long2LongMap tokenBalances = newMap(0);
+    private long consensusTimestamp;
+    private int deltaCount;
+
+    // The state of the balance file being loaded
+    private boolean delta;
+    private boolean enabled;
+    private long nextConsensusTimestamp;
+    private Long2LongMap nextAccountBalances;
+    private Long2LongMap nextTokenBalances;
+    private boolean valid;
+
+    /**
+     * Starts loading a balance file in the current transaction. The state is only updated if the transaction commits.
+     *
+     * @param accountBalanceFile the balance file to load
+     * @return whether the balance file is loaded as a delta of the previous balance file
+     */
+    public boolean begin(AccountBalanceFile accountBalanceFile) {
+        var deltaProperties = properties.getDelta();
+        enabled = deltaProperties.isEnabled();
+        delta = false;
+
+        if (!enabled) {
+            reset();
+            return false;
+        }
+
+        long latest = accountBalanceFileRepository
+                .findLatest()
+                .map(AccountBalanceFile::getConsensusTimestamp)
+                .orElse(0L);
+        delta = consensusTimestamp != 0
+                && consensusTimestamp == latest
+                && deltaCount + 1 < deltaProperties.getFullSnapshotInterval();
+
+        nextAccountBalances = newMap(accountBalances.size());
+        nextTokenBalances = newMap(tokenBalances.size());
+        nextConsensusTimestamp = accountBalanceFile.getConsensusTimestamp();
+        valid = true;
+
+        if (!delta) {
+            // The previous balances aren't compared with for a full snapshot
+            accountBalances = newMap(0);
+            tokenBalances = newMap(0);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(status == STATUS_COMMITTED);
+            }
+        });
+
+        log.info(
+                "Loading balance file {} as a {}",
+                accountBalanceFile.getName(),
+                delta ? "delta of the previous balance file" : "full snapshot");
+        return delta;
+    }
+
+    /**
+     * Tracks the account balance and checks whether it needs to be persisted
+     *
+     * @param accountBalance the account balance from the balance file being loaded
+     * @return whether the account balance changed or a full snapshot is loaded
+     */
+    public boolean isChanged(AccountBalance accountBalance) {
+        if (!enabled) {
+            return true;
+        }
+
+        long accountId = accountBalance.getId().getAccountId().getId();
+        long balance = accountBalance.getBalance();
+        if (nextAccountBalances.putIfAbsent(accountId, balance) != MISSING) {
+            return false;
+        }
+
+        return !delta || accountBalances.get(accountId) != balance;
+    }
+
+    /**
+     * Tracks the token balance and checks whether it needs to be persisted. A duplicate token balance in the same
+     * balance file is logged and only persisted the first time.
+     *
+     * @param tokenBalance the token balance from the balance file being loaded
+     * @return whether the token balance changed or a full snapshot is loaded
+     */
+    public boolean isChanged(TokenBalance tokenBalance) {
+        if (!enabled) {
+            return true;
+        }
+
+        long accountId = tokenBalance.getId().getAccountId().getId();
+        long tokenId = tokenBalance.getId().getTokenId().getId();
+        if (((accountId | tokenId) >>> Integer.SIZE) != 0) {
+            // Can't be packed into a key, so persist it and load a full snapshot next time
+            valid = false;
+            return true;
+        }
+
+        long balance = tokenBalance.getBalance();
+        long key = accountId << Integer.SIZE | tokenId;
+        if (nextTokenBalances.putIfAbsent(key, balance) != MISSING) {
+            log.warn("Skipping duplicate token balance: {}", tokenBalance);
+            return false;
+        }
+
+        return !delta || tokenBalances.get(key) != balance;
+    }
+
+    /**
+     * Gets the zero account balances to persist for the accounts in the previous balance file that are no longer in
+     * the balance file being loaded
+     *
+     * @return the zero account balances
+     */
+    public List<AccountBalance> getRemovedAccountBalances() {
+        if (!delta) {
+            return Collections.emptyList();
+        }
+
+        var removed = new ArrayList<AccountBalance>();
+        for (var iterator = accountBalances.keySet().iterator(); iterator.hasNext(); ) {
+            long accountId = iterator.nextLong();
+            if (!nextAccountBalances.containsKey(accountId)) {
+                var id = new AccountBalance.Id(nextConsensusTimestamp, EntityId.of(accountId, ACCOUNT));
+                removed.add(new AccountBalance(0L, Collections.emptyList(), id));
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Gets the zero token balances to persist for the token balances in the previous balance file that are no longer
+     * in the balance file being loaded
+     *
+     * @return the zero token balances
+     */
+    public List<TokenBalance> getRemovedTokenBalances() {
+        if (!delta) {
+            return Collections.emptyList();
+        }
+
+        var removed = new ArrayList<TokenBalance>();
+        for (var iterator = tokenBalances.keySet().iterator(); iterator.hasNext(); ) {
+            long key = iterator.nextLong();
+            if (!nextTokenBalances.containsKey(key)) {
+                var accountId = EntityId.of(key >>> Integer.SIZE, ACCOUNT);
+                var tokenId = EntityId.of(key & 0xFFFFFFFFL, TOKEN);
+                removed.add(new TokenBalance(0L, new TokenBalance.Id(nextConsensusTimestamp, accountId, tokenId)));
+            }
+        }
+
+        return removed;
+    }
+
+    private void complete(boolean committed) {
+        if (committed && valid) {
+            accountBalances = nextAccountBalances;
+            tokenBalances = nextTokenBalances;
+            consensusTimestamp = nextConsensusTimestamp;
+            deltaCount = delta ? deltaCount + 1 : 0;
+            nextAccountBalances = null;
+            nextTokenBalances = null;
+        } else {
+            reset();
+        }
+    }
+
+    private void reset() {
+        accountBalances = newMap(0);
+        tokenBalances = newMap(0);
+        consensusTimestamp = 0L;
+        deltaCount = 0;
+        nextAccountBalances = null;
+        nextTokenBalances = null;
+    }
+
+    private static Long2LongMap newMap(int expected) {
+        var map = new Long2LongOpenHashMap(expected);
+        map.defaultReturnValue(MISSING);
+        return map;
+    }
+}
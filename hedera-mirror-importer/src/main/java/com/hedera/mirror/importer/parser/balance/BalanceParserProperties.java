@@ -18,7 +18,9 @@ package com.hedera.mirror.importer.parser.balance;
 
 import com.hedera.mirror.common.domain.StreamType;
 import com.hedera.mirror.importer.parser.AbstractParserProperties;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 import java.time.Duration;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -40,6 +42,13 @@ public class BalanceParserProperties extends AbstractParserProperties {
     @Min(1)
     private int batchSize = 200_000;
 
+    @Min(1)
+    private int copyConcurrency = 1;
+
+    @NotNull
+    @Valid
+    private DeltaProperties delta = new DeltaProperties();
+
     @Min(1)
     private int fileBufferSize = 200_000;
 
@@ -47,4 +56,15 @@ public class BalanceParserProperties extends AbstractParserProperties {
     public StreamType getStreamType() {
         return StreamType.BALANCE;
     }
+
+    @Data
+    public static class DeltaProperties {
+
+        // Whether to only persist the balances that changed since the previous balance file
+        private boolean enabled = false;
+
+        // How often, in number of balance files, to persist a full snapshot of all balances
+        @Min(1)
+        private int fullSnapshotInterval = 96;
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.batch;
+
+import com.google.common.base.Stopwatch;
+import com.hedera.mirror.common.domain.balance.AccountBalance;
+import com.hedera.mirror.common.domain.balance.TokenBalance;
+import com.hedera.mirror.importer.parser.CommonParserProperties;
+import com.hedera.mirror.importer.parser.CommonParserProperties.CopyFormat;
+import com.hedera.mirror.importer.parser.balance.BalanceParserProperties;
+import com.hedera.mirror.importer.repository.upsert.EntityMetadata;
+import com.hedera.mirror.importer.repository.upsert.EntityMetadataRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.inject.Named;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import lombok.CustomLog;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Copies account and token balances with several COPY writers in parallel. Each writer copies the balances of a slice
+ * of the accounts on its own connection, and the connections are committed or rolled back with the parser transaction.
+ */
+@CustomLog
+@Named
+public class BalanceBatchInserter implements BatchPersister {
+
+    private final Map<Class<?>, BatchInserter> batchInserters = new ConcurrentHashMap<>();
+    private final CommonParserProperties commonParserProperties;
+    private final int concurrency;
+    private final DataSource dataSource;
+    private final EntityMetadataRegistry entityMetadataRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Scheduler scheduler;
+    private final MultiConnectionTxManager transactionManager;
+
+    public BalanceBatchInserter(
+            BalanceParserProperties balanceParserProperties,
+            CommonParserProperties commonParserProperties,
+            DataSource dataSource,
+            EntityMetadataRegistry entityMetadataRegistry,
+            MeterRegistry meterRegistry) {
+        this.commonParserProperties = commonParserProperties;
+        this.concurrency = Math.max(1, balanceParserProperties.getCopyConcurrency());
+        this.dataSource = dataSource;
+        this.entityMetadataRegistry = entityMetadataRegistry;
+        this.meterRegistry = meterRegistry;
+        this.scheduler = Schedulers.newParallel("balance_inserter", concurrency, true);
+        this.transactionManager = new MultiConnectionTxManager(dataSource);
+    }
+
+    @Override
+    public void persist(Collection<?> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+
+        var stopwatch = Stopwatch.createStarted();
+        var item = items.iterator().next();
+        var batchInserter = batchInserters.computeIfAbsent(item.getClass(), this::create);
+        var slices = new ArrayList<List<Object>>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            slices.add(new ArrayList<>(items.size() / concurrency + 1));
+        }
+
+        for (var balance : items) {
+            slices.get(Math.floorMod(getAccountId(balance), concurrency)).add(balance);
+        }
+
+        // After the parser transaction completes, commit or roll back the connections of all writers
+        transactionManager.initialize(items.size(), getConsensusTimestamp(item), batchInserter.tableName);
+
+        Flux.range(0, concurrency)
+                .filter(slice -> !slices.get(slice).isEmpty())
+                .flatMap(
+                        slice -> Mono.fromRunnable(() -> copy(batchInserter, slice, slices.get(slice)))
+                                .subscribeOn(scheduler),
+                        concurrency)
+                .then()
+                .block();
+
+        log.debug(
+                "Copied {} rows in {} slices to {} table in {}",
+                items.size(),
+                concurrency,
+                batchInserter.tableName,
+                stopwatch);
+    }
+
+    private void copy(BatchInserter batchInserter, int slice, List<Object> items) {
+        var threadState = transactionManager.updateAndGetThreadState(slice);
+        batchInserter.persist(items, threadState.getConnection());
+    }
+
+    private BatchInserter create(Class<?> domainClass) {
+        if (domainClass != AccountBalance.class && domainClass != TokenBalance.class) {
+            throw new UnsupportedOperationException("Object does not support balance insertion: " + domainClass);
+        }
+
+        EntityMetadata entityMetadata = null;
+        if (commonParserProperties.getCopyFormat() == CopyFormat.BINARY) {
+            entityMetadata = entityMetadataRegistry.lookupEntity(domainClass);
+        }
+
+        var tableName = domainClass.getSimpleName();
+        return new BatchInserter(
+                domainClass, dataSource, meterRegistry, commonParserProperties, tableName, entityMetadata);
+    }
+
+    private long getAccountId(Object balance) {
+        return balance instanceof AccountBalance accountBalance
+                ? accountBalance.getId().getAccountId().getId()
+                : ((TokenBalance) balance).getId().getAccountId().getId();
+    }
+
+    private long getConsensusTimestamp(Object balance) {
+        return balance instanceof AccountBalance accountBalance
+                ? accountBalance.getId().getConsensusTimestamp()
+                : ((TokenBalance) balance).getId().getConsensusTimestamp();
+    }
+}
@@ -16,27 +16,19 @@
 
 package com.hedera.mirror.importer.parser.batch;
 
-import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.module.SimpleModule;
-import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
-import com.fasterxml.jackson.dataformat.csv.CsvMapper;
-import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import com.google.common.base.CaseFormat;
 import com.google.common.base.Stopwatch;
-import com.google.common.collect.Lists;
-import com.hedera.mirror.common.converter.EntityIdSerializer;
-import com.hedera.mirror.common.converter.ListToStringSerializer;
-import com.hedera.mirror.common.converter.RangeToStringSerializer;
-import com.hedera.mirror.importer.converter.ByteArrayToHexSerializer;
 import com.hedera.mirror.importer.exception.ParserException;
 import com.hedera.mirror.importer.parser.CommonParserProperties;
+import com.hedera.mirror.importer.parser.CommonParserProperties.CopyFormat;
+import com.hedera.mirror.importer.repository.upsert.EntityMetadata;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Collection;
-import java.util.stream.Collectors;
 import javax.sql.DataSource;
 import lombok.extern.log4j.Log4j2;
 import org.postgresql.PGConnection;
@@ -45,7 +37,8 @@ import org.postgresql.copy.PGCopyOutputStream;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 
 /**
- * Stateless writer to insert rows into PostgreSQL using COPY.
+ * Stateless writer to insert rows into PostgreSQL using COPY. Rows are copied in the binary format if the entity
+ * metadata is provided and all of its columns are supported by the binary writer, otherwise they're copied as CSV.
  */
 @Log4j2
 public class BatchInserter implements BatchPersister {
@@ -54,8 +47,8 @@ public class BatchInserter implements BatchPersister {
     protected final MeterRegistry meterRegistry;
     protected final String tableName;
     protected final Timer insertDurationMetric;
+    private final CopyWriter copyWriter;
     private final String sql;
-    private final ObjectWriter writer;
     private final CommonParserProperties properties;
 
     public BatchInserter(
@@ -72,26 +65,22 @@ public class BatchInserter implements BatchPersister {
             MeterRegistry meterRegistry,
             CommonParserProperties properties,
             String tableName) {
+        this(entityClass, dataSource, meterRegistry, properties, tableName, null);
+    }
+
+    public BatchInserter(
+            Class<?> entityClass,
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            CommonParserProperties properties,
+            String tableName,
+            EntityMetadata entityMetadata) {
         this.dataSource = dataSource;
         this.properties = properties;
         this.meterRegistry = meterRegistry;
         this.tableName = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, tableName);
-        var mapper = new CsvMapper();
-        SimpleModule module = new SimpleModule();
-        module.addSerializer(byte[].class, ByteArrayToHexSerializer.INSTANCE);
-        module.addSerializer(EntityIdSerializer.INSTANCE);
-        module.addSerializer(ListToStringSerializer.INSTANCE);
-        module.addSerializer(RangeToStringSerializer.INSTANCE);
-        mapper.registerModule(module);
-        mapper.configure(CsvGenerator.Feature.ALWAYS_QUOTE_EMPTY_STRINGS, true);
-        var schema = mapper.schemaFor(entityClass);
-        writer = mapper.writer(schema);
-        String columnsCsv = Lists.newArrayList(schema.iterator()).stream()
-                .map(CsvSchema.Column::getName)
-                .distinct()
-                .map(name -> CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, name))
-                .collect(Collectors.joining(", "));
-        sql = String.format("COPY %s(%s) FROM STDIN WITH CSV", this.tableName, columnsCsv);
+        copyWriter = createCopyWriter(entityClass, entityMetadata);
+        sql = copyWriter.getSql(this.tableName);
         insertDurationMetric = Timer.builder("hedera.mirror.importer.parse.insert")
                 .description("Time to insert transactions into table")
                 .tag("table", this.tableName)
@@ -106,6 +95,20 @@ public class BatchInserter implements BatchPersister {
 
         Connection connection = DataSourceUtils.getConnection(dataSource);
 
+        try {
+            persist(items, connection);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Copies the items using the provided connection instead of the one bound to the current transaction
+     *
+     * @param items      the items to copy
+     * @param connection the connection to copy with
+     */
+    void persist(Collection<?> items, Connection connection) {
         try {
             Stopwatch stopwatch = Stopwatch.createStarted();
             persistItems(items, connection);
@@ -113,8 +116,6 @@ public class BatchInserter implements BatchPersister {
             log.info("Copied {} rows to {} table in {}", items.size(), tableName, stopwatch);
         } catch (Exception e) {
             throw new ParserException(String.format("Error copying %d items to table %s", items.size(), tableName), e);
-        } finally {
-            DataSourceUtils.releaseConnection(connection, dataSource);
         }
     }
 
@@ -123,16 +124,143 @@ public class BatchInserter implements BatchPersister {
         CopyIn copyIn = pgConnection.getCopyAPI().copyIn(sql);
 
         if (log.isTraceEnabled()) {
-            String csv = writer.writeValueAsString(items);
-            log.trace("Generated SQL: {}\n{}", sql, csv);
+            if (copyWriter instanceof CsvCopyWriter csvCopyWriter) {
+                log.trace("Generated SQL: {}\n{}", sql, csvCopyWriter.writeValueAsString(items));
+            } else {
+                log.trace("Generated SQL: {}", sql);
+            }
         }
 
         try (var pgCopyOutputStream = new PGCopyOutputStream(copyIn, properties.getBufferSize())) {
-            writer.writeValue(pgCopyOutputStream, items);
+            copyWriter.write(pgCopyOutputStream, items);
         } finally {
             if (copyIn.isActive()) {
                 copyIn.cancelCopy();
             }
         }
     }
+
+    /**
+     * Opens a stream that encodes rows into a reusable buffer as they're produced and copies them to the table using
+     * the connection of the current transaction whenever the buffer grows past the given size.
+     *
+     * @param bufferSize the size in bytes of the encoded rows to buffer before copying them
+     * @return the row stream
+     */
+    RowStream openStream(int bufferSize) throws IOException {
+        return new RowStream(bufferSize);
+    }
+
+    private void copy(byte[] rows, int length, int count) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+
+        try {
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+
+            try (var pgCopyOutputStream = new PGCopyOutputStream(copyIn, properties.getBufferSize())) {
+                copyWriter.writeHeader(pgCopyOutputStream);
+                pgCopyOutputStream.write(rows, 0, length);
+                copyWriter.writeTrailer(pgCopyOutputStream);
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+
+            insertDurationMetric.record(stopwatch.elapsed());
+            log.debug("Copied {} streamed rows to {} table in {}", count, tableName, stopwatch);
+        } catch (Exception e) {
+            throw new ParserException(String.format("Error copying %d items to table %s", count, tableName), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private CopyWriter createCopyWriter(Class<?> entityClass, EntityMetadata entityMetadata) {
+        var csvCopyWriter = new CsvCopyWriter(entityClass);
+        if (entityMetadata == null || properties.getCopyFormat() != CopyFormat.BINARY) {
+            return csvCopyWriter;
+        }
+
+        try {
+            return BinaryCopyWriter.create(entityMetadata, csvCopyWriter.getColumns());
+        } catch (UnsupportedOperationException e) {
+            log.info("Copying to table {} as CSV: {}", tableName, e.getMessage());
+            return csvCopyWriter;
+        }
+    }
+
+    /**
+     * Rows of the table that are encoded as they're written and held in a buffer that's reused after each copy, so the
+     * domain objects don't have to be kept until the end of the batch.
+     */
+    class RowStream {
+
+        private final RowBuffer buffer;
+        private final int bufferSize;
+        private CopyWriter.RowWriter rowWriter;
+        private int count;
+
+        private RowStream(int bufferSize) throws IOException {
+            this.buffer = new RowBuffer(bufferSize);
+            this.bufferSize = bufferSize;
+            this.rowWriter = copyWriter.rowWriter(buffer);
+        }
+
+        void write(Object item) throws IOException {
+            int size = buffer.size();
+
+            try {
+                rowWriter.write(item);
+            } catch (IOException | RuntimeException e) {
+                // Don't let the partially written row leak into the next copy, whether it's still held by the writer or
+                // was already flushed by it to the buffer
+                buffer.truncate(size);
+                rowWriter = copyWriter.rowWriter(buffer);
+                throw e;
+            }
+
+            count++;
+
+            if (buffer.size() >= bufferSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Copies the buffered rows to the table
+         */
+        void flush() {
+            if (count == 0) {
+                return;
+            }
+
+            copy(buffer.array(), buffer.size(), count);
+            clear();
+        }
+
+        /**
+         * Discards the buffered rows without copying them
+         */
+        void clear() {
+            buffer.reset();
+            count = 0;
+        }
+    }
+
+    private static class RowBuffer extends ByteArrayOutputStream {
+
+        private RowBuffer(int size) {
+            super(size);
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+
+        private void truncate(int size) {
+            count = size;
+        }
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.batch;
+
+import com.hedera.mirror.importer.exception.ParserException;
+import com.hedera.mirror.importer.parser.CommonParserProperties;
+import jakarta.inject.Named;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.CustomLog;
+
+/**
+ * Streams insert-only domain objects to their tables as they're produced instead of collecting them until the end of
+ * the batch. Each table has a reusable buffer of encoded rows that is copied using the connection of the current
+ * transaction whenever it's full, so memory stays bounded by the buffer size regardless of the size of the batch while
+ * the rows are still committed or rolled back with the transaction. Not thread-safe, it's meant to be used by the
+ * single parser thread.
+ */
+@CustomLog
+@Named
+public class BatchStreamer {
+
+    private final CompositeBatchPersister compositeBatchPersister;
+    private final CommonParserProperties properties;
+    private final Map<Class<?>, BatchInserter.RowStream> streams = new LinkedHashMap<>();
+
+    public BatchStreamer(CompositeBatchPersister compositeBatchPersister, CommonParserProperties properties) {
+        this.compositeBatchPersister = compositeBatchPersister;
+        this.properties = properties;
+    }
+
+    /**
+     * Buffers the item, copying the buffered rows of its table if the buffer is full
+     *
+     * @param item the insert-only domain object
+     * @throws UnsupportedOperationException if the domain object isn't insert-only
+     */
+    public void write(Object item) {
+        try {
+            streams.computeIfAbsent(item.getClass(), this::open).write(item);
+        } catch (IOException e) {
+            throw new ParserException(e);
+        }
+    }
+
+    /**
+     * Copies the remaining buffered rows of all tables
+     */
+    public void flush() {
+        streams.values().forEach(BatchInserter.RowStream::flush);
+    }
+
+    /**
+     * Discards the buffered rows of all tables, for example after the transaction is rolled back
+     */
+    public void clear() {
+        streams.values().forEach(BatchInserter.RowStream::clear);
+    }
+
+    private BatchInserter.RowStream open(Class<?> domainClass) {
+        var batchPersister = compositeBatchPersister.getBatchPersister(domainClass);
+        if (!(batchPersister instanceof BatchInserter batchInserter) || batchInserter instanceof BatchUpserter) {
+            throw new UnsupportedOperationException("Unable to stream non insert-only " + domainClass.getSimpleName());
+        }
+
+        try {
+            int bufferSize = (int) properties.getStreamBufferSize().toBytes();
+            log.info("Streaming {} with a buffer size of {} bytes", domainClass.getSimpleName(), bufferSize);
+            return batchInserter.openStream(bufferSize);
+        } catch (IOException e) {
+            throw new ParserException(e);
+        }
+    }
+}
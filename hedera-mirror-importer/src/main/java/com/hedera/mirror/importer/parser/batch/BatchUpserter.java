@@ -18,6 +18,8 @@ package com.hedera.mirror.importer.parser.batch;
 
 import com.hedera.mirror.importer.exception.ParserException;
 import com.hedera.mirror.importer.parser.CommonParserProperties;
+import com.hedera.mirror.importer.parser.CommonParserProperties.TempTableMode;
+import com.hedera.mirror.importer.repository.upsert.EntityMetadata;
 import com.hedera.mirror.importer.repository.upsert.UpsertQueryGenerator;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -25,13 +27,25 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 import lombok.extern.log4j.Log4j2;
+import org.postgresql.PGConnection;
+import org.postgresql.PGStatement;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.CollectionUtils;
 
 /**
- * Stateless writer to upsert rows into PostgreSQL using COPY into a temp table then insert and update into final table
+ * Stateless writer to upsert rows into PostgreSQL using COPY into a temp table then insert and update into final table.
+ * <p>
+ * In the transaction temp table mode, the temp table is created in each transaction and dropped on commit. In the
+ * session temp table mode, the temp table is created once per database session and only its rows are deleted on
+ * commit, so it's only truncated when it's reused within a transaction. The upsert query is then also prepared on the
+ * server once per session since its plan is no longer invalidated by dropping the temp table.
  */
 @Log4j2
 public class BatchUpserter extends BatchInserter {
@@ -42,6 +56,9 @@ public class BatchUpserter extends BatchInserter {
     private final String upsertSql;
     private final String setTempBuffersSql;
     private final String truncateSql;
+    private final boolean session;
+    private final Map<PGConnection, SessionState> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Timer setupMetric;
     private final Timer upsertMetric;
 
     public BatchUpserter(
@@ -50,13 +67,35 @@ public class BatchUpserter extends BatchInserter {
             MeterRegistry meterRegistry,
             CommonParserProperties properties,
             UpsertQueryGenerator upsertQueryGenerator) {
-        super(entityClass, dataSource, meterRegistry, properties, upsertQueryGenerator.getTemporaryTableName());
+        this(entityClass, dataSource, meterRegistry, properties, upsertQueryGenerator, null);
+    }
+
+    public BatchUpserter(
+            Class<?> entityClass,
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            CommonParserProperties properties,
+            UpsertQueryGenerator upsertQueryGenerator,
+            EntityMetadata entityMetadata) {
+        super(
+                entityClass,
+                dataSource,
+                meterRegistry,
+                properties,
+                upsertQueryGenerator.getTemporaryTableName(),
+                entityMetadata);
+        session = properties.getTempTableMode() == TempTableMode.SESSION;
         createTempIndexSql = upsertQueryGenerator.getCreateTempIndexQuery();
-        createTempTableSql = upsertQueryGenerator.getCreateTempTableQuery();
+        createTempTableSql = upsertQueryGenerator.getCreateTempTableQuery(session);
         setTempBuffersSql = String.format("set temp_buffers = '%dMB'", properties.getTempTableBufferSize());
         truncateSql = String.format("truncate table %s restart identity cascade", tableName);
         finalTableName = upsertQueryGenerator.getFinalTableName();
         upsertSql = upsertQueryGenerator.getUpsertQuery();
+        setupMetric = Timer.builder("hedera.mirror.importer.parse.upsert.setup")
+                .description("Time to create or reuse the temp table before copying into it")
+                .tag("mode", properties.getTempTableMode().name().toLowerCase())
+                .tag("table", finalTableName)
+                .register(meterRegistry);
         upsertMetric = Timer.builder("hedera.mirror.importer.parse.upsert")
                 .description("Time to insert transaction information from temp to final table")
                 .tag("table", finalTableName)
@@ -71,7 +110,13 @@ public class BatchUpserter extends BatchInserter {
 
         try {
             // create temp table to copy into
-            createTempTable(connection);
+            var startTime = System.nanoTime();
+            if (session) {
+                prepareSessionTempTable(connection);
+            } else {
+                createTempTable(connection);
+            }
+            setupMetric.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
 
             // copy items to temp table
             super.persistItems(items, connection);
@@ -106,14 +151,61 @@ public class BatchUpserter extends BatchInserter {
         log.trace("Created temp table {}", tableName);
     }
 
+    /**
+     * Creates the temp table the first time it's used in the session in a single round trip. Afterwards, the temp table
+     * is empty at the start of each transaction and only has to be truncated if it's reused in the same transaction.
+     */
+    private void prepareSessionTempTable(Connection connection) throws SQLException {
+        var sessionState = sessions.computeIfAbsent(connection.unwrap(PGConnection.class), c -> new SessionState());
+        boolean created = false;
+
+        if (!sessionState.created) {
+            try (var statement = connection.createStatement()) {
+                statement.execute(String.join(";", setTempBuffersSql, createTempTableSql, createTempIndexSql));
+            }
+            sessionState.created = true;
+            created = true;
+            log.debug("Created session temp table {}", tableName);
+        } else if (sessionState.dirty) {
+            try (var statement = connection.createStatement()) {
+                statement.executeUpdate(truncateSql);
+            }
+        }
+
+        sessionState.dirty = true;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            boolean rollbackCreation = created;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // The rows are deleted on commit, while a rollback also undoes the creation of the temp table
+                    sessionState.dirty = false;
+                    if (status != STATUS_COMMITTED && rollbackCreation) {
+                        sessionState.created = false;
+                    }
+                }
+            });
+        }
+    }
+
     private void upsert(Connection connection) throws SQLException {
         var startTime = System.nanoTime();
 
         try (PreparedStatement preparedStatement = connection.prepareStatement(upsertSql)) {
+            if (session) {
+                preparedStatement.unwrap(PGStatement.class).setPrepareThreshold(1);
+            }
+
             int count = preparedStatement.executeUpdate();
             log.debug("Inserted {} rows from {} table to {} table", count, tableName, finalTableName);
         } finally {
             upsertMetric.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
         }
     }
+
+    private static class SessionState {
+        private volatile boolean created;
+        private volatile boolean dirty;
+    }
 }
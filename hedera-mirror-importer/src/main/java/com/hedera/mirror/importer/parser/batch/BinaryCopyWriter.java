@@ -0,0 +1,449 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.batch;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+import com.hedera.mirror.common.converter.ObjectToStringSerializer;
+import com.hedera.mirror.common.domain.entity.EntityId;
+import com.hedera.mirror.importer.repository.upsert.ColumnMetadata;
+import com.hedera.mirror.importer.repository.upsert.EntityMetadata;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.Getter;
+
+/**
+ * Writes domain objects in the PostgreSQL binary COPY format. The encoder of each column is chosen once from the entity
+ * metadata based on the column's data type and the Java type of its attribute, so values are written directly into the
+ * output buffer without first converting them to text for the database to parse again.
+ */
+class BinaryCopyWriter implements CopyWriter {
+
+    private static final int BUFFER_SIZE = 65536;
+    private static final int ROW_BUFFER_SIZE = 8192;
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final int NULL_LENGTH = -1;
+    private static final short TRAILER = -1;
+    private static final int HEADER_SIZE = SIGNATURE.length + 2 * Integer.BYTES;
+
+    // Range flags from PostgreSQL's rangetypes.h
+    private static final byte RANGE_EMPTY = 0x01;
+    private static final byte RANGE_LB_INC = 0x02;
+    private static final byte RANGE_UB_INC = 0x04;
+    private static final byte RANGE_LB_INF = 0x08;
+    private static final byte RANGE_UB_INF = 0x10;
+
+    private static final Map<String, Integer> ARRAY_ELEMENT_OIDS = Map.of("_int2", 21, "_int4", 23, "_int8", 20);
+    private static final Set<Class<?>> INTEGRAL_TYPES = Set.of(
+            byte.class, Byte.class, short.class, Short.class, int.class, Integer.class, long.class, Long.class);
+    private static final Set<String> INTEGRAL_DATA_TYPES = Set.of("int2", "int4", "int8");
+    private static final Set<String> TEXT_DATA_TYPES = Set.of("bpchar", "text", "varchar");
+
+    @Getter
+    private final List<String> columns;
+
+    private final List<Function<Object, Object>> getters;
+    private final FieldEncoder[] encoders;
+
+    private BinaryCopyWriter(List<ColumnMetadata> columnMetadata) {
+        this.columns = columnMetadata.stream().map(ColumnMetadata::getName).toList();
+        this.getters = columnMetadata.stream().map(ColumnMetadata::getGetter).toList();
+        this.encoders = columnMetadata.stream()
+                .map(BinaryCopyWriter::encoder)
+                .toArray(FieldEncoder[]::new);
+    }
+
+    /**
+     * Creates a binary writer for the given columns of the entity, which should be the same columns written by the CSV
+     * writer so that both formats behave the same with respect to database defaults.
+     *
+     * @param entityMetadata the metadata of the entity
+     * @param columns        the names of the columns to write
+     * @return the binary writer
+     * @throws UnsupportedOperationException if a column is missing from the metadata or has an unsupported data type
+     */
+    static BinaryCopyWriter create(EntityMetadata entityMetadata, List<String> columns) {
+        var columnMetadata = entityMetadata.getColumns().stream()
+                .collect(Collectors.toMap(ColumnMetadata::getName, Function.identity()));
+        var selected = columns.stream()
+                .map(name -> {
+                    var column = columnMetadata.get(name);
+                    if (column == null) {
+                        throw new UnsupportedOperationException(
+                                "Missing column " + name + " in table " + entityMetadata.getTableName());
+                    }
+                    return column;
+                })
+                .toList();
+        return new BinaryCopyWriter(selected);
+    }
+
+    @Override
+    public String getOptions() {
+        return "(FORMAT binary)";
+    }
+
+    @Override
+    public void write(OutputStream outputStream, Collection<?> items) throws IOException {
+        var output = new Output(outputStream);
+        writeHeader(output);
+
+        for (var item : items) {
+            writeRow(output, item);
+        }
+
+        output.putShort(TRAILER);
+        output.flush();
+    }
+
+    @Override
+    public RowWriter rowWriter(OutputStream outputStream) {
+        var output = new Output(outputStream, ROW_BUFFER_SIZE);
+        return item -> {
+            writeRow(output, item);
+            output.flushBuffer();
+        };
+    }
+
+    @Override
+    public void writeHeader(OutputStream outputStream) throws IOException {
+        var output = new Output(outputStream, HEADER_SIZE);
+        writeHeader(output);
+        output.flush();
+    }
+
+    @Override
+    public void writeTrailer(OutputStream outputStream) throws IOException {
+        var output = new Output(outputStream, Short.BYTES);
+        output.putShort(TRAILER);
+        output.flush();
+    }
+
+    private void writeHeader(Output output) throws IOException {
+        output.put(SIGNATURE);
+        output.putInt(0); // Flags
+        output.putInt(0); // Header extension length
+    }
+
+    private void writeRow(Output output, Object item) throws IOException {
+        output.putShort((short) encoders.length);
+
+        for (int i = 0; i < encoders.length; i++) {
+            var value = getters.get(i).apply(item);
+            if (value == null) {
+                output.putInt(NULL_LENGTH);
+            } else {
+                encoders[i].encode(output, value);
+            }
+        }
+    }
+
+    private static FieldEncoder encoder(ColumnMetadata column) {
+        var dataType = column.getDataType();
+        var type = column.getType();
+
+        if (type.isEnum()) {
+            return enumEncoder(column, type);
+        }
+
+        if (ARRAY_ELEMENT_OIDS.containsKey(dataType) && List.class.isAssignableFrom(type)) {
+            return arrayEncoder(ARRAY_ELEMENT_OIDS.get(dataType), dataType);
+        }
+
+        if (TEXT_DATA_TYPES.contains(dataType) && type == String.class) {
+            return (output, value) -> output.putBytes(((String) value).getBytes(StandardCharsets.UTF_8));
+        }
+
+        if (INTEGRAL_DATA_TYPES.contains(dataType) && (INTEGRAL_TYPES.contains(type) || type == EntityId.class)) {
+            return integralEncoder(dataType, type);
+        }
+
+        return switch (dataType) {
+            case "bool" -> {
+                requireType(column, type == boolean.class || type == Boolean.class);
+                yield (output, value) -> {
+                    output.putInt(1);
+                    output.put((Boolean) value ? (byte) 1 : (byte) 0);
+                };
+            }
+            case "bytea" -> {
+                requireType(column, type == byte[].class);
+                yield (output, value) -> output.putBytes((byte[]) value);
+            }
+            case "int8range" -> {
+                requireType(column, type == Range.class);
+                yield BinaryCopyWriter::encodeRange;
+            }
+            case "json" -> (output, value) -> output.putBytes(toJson(value));
+            case "jsonb" -> (output, value) -> {
+                var json = toJson(value);
+                output.putInt(json.length + 1);
+                output.put((byte) 1); // jsonb version
+                output.put(json);
+            };
+            default -> throw unsupported(column);
+        };
+    }
+
+    private static FieldEncoder enumEncoder(ColumnMetadata column, Class<?> type) {
+        boolean customValue =
+                Arrays.stream(type.getDeclaredMethods()).anyMatch(m -> m.isAnnotationPresent(JsonValue.class));
+        if (customValue || INTEGRAL_DATA_TYPES.contains(column.getDataType())) {
+            throw unsupported(column);
+        }
+
+        // Enums are received by their label, so encode each constant's name once up front
+        var labels = Arrays.stream(type.getEnumConstants())
+                .map(e -> ((Enum<?>) e).name().getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        return (output, value) -> output.putBytes(labels[((Enum<?>) value).ordinal()]);
+    }
+
+    private static FieldEncoder integralEncoder(String dataType, Class<?> type) {
+        if (type == EntityId.class) {
+            if (!"int8".equals(dataType)) {
+                throw new UnsupportedOperationException("Unsupported entity ID data type " + dataType);
+            }
+
+            return (output, value) -> {
+                var entityId = (EntityId) value;
+                if (EntityId.isEmpty(entityId)) {
+                    output.putInt(NULL_LENGTH);
+                } else {
+                    output.putInt(Long.BYTES);
+                    output.putLong(entityId.getId());
+                }
+            };
+        }
+
+        return switch (dataType) {
+            case "int2" -> (output, value) -> {
+                output.putInt(Short.BYTES);
+                output.putShort(toShort((Number) value));
+            };
+            case "int4" -> (output, value) -> {
+                output.putInt(Integer.BYTES);
+                output.putInt(Math.toIntExact(((Number) value).longValue()));
+            };
+            default -> (output, value) -> {
+                output.putInt(Long.BYTES);
+                output.putLong(((Number) value).longValue());
+            };
+        };
+    }
+
+    private static FieldEncoder arrayEncoder(int elementOid, String dataType) {
+        var elementType = dataType.substring(1);
+        var elementEncoder = integralEncoder(elementType, Long.class);
+        int elementSize =
+                switch (elementType) {
+                    case "int2" -> Short.BYTES;
+                    case "int4" -> Integer.BYTES;
+                    default -> Long.BYTES;
+                };
+
+        return (output, value) -> {
+            var list = (List<?>) value;
+            int size = list.size();
+            int nulls = 0;
+            for (var element : list) {
+                if (element == null) {
+                    nulls++;
+                }
+            }
+
+            if (size == 0) {
+                output.putInt(3 * Integer.BYTES);
+                output.putInt(0); // Dimensions
+                output.putInt(0); // Has nulls
+                output.putInt(elementOid);
+                return;
+            }
+
+            int length = 5 * Integer.BYTES + size * Integer.BYTES + (size - nulls) * elementSize;
+            output.putInt(length);
+            output.putInt(1); // Dimensions
+            output.putInt(nulls > 0 ? 1 : 0);
+            output.putInt(elementOid);
+            output.putInt(size);
+            output.putInt(1); // Lower bound
+
+            for (var element : list) {
+                if (element == null) {
+                    output.putInt(NULL_LENGTH);
+                } else {
+                    elementEncoder.encode(output, element);
+                }
+            }
+        };
+    }
+
+    private static void encodeRange(Output output, Object value) throws IOException {
+        var range = (Range<?>) value;
+        if (range.isEmpty()) {
+            output.putInt(1);
+            output.put(RANGE_EMPTY);
+            return;
+        }
+
+        byte flags = 0;
+        int length = 1;
+
+        if (range.hasLowerBound()) {
+            flags |= range.lowerBoundType() == BoundType.CLOSED ? RANGE_LB_INC : 0;
+            length += Integer.BYTES + Long.BYTES;
+        } else {
+            flags |= RANGE_LB_INF;
+        }
+
+        if (range.hasUpperBound()) {
+            flags |= range.upperBoundType() == BoundType.CLOSED ? RANGE_UB_INC : 0;
+            length += Integer.BYTES + Long.BYTES;
+        } else {
+            flags |= RANGE_UB_INF;
+        }
+
+        output.putInt(length);
+        output.put(flags);
+
+        if (range.hasLowerBound()) {
+            output.putInt(Long.BYTES);
+            output.putLong(((Number) range.lowerEndpoint()).longValue());
+        }
+
+        if (range.hasUpperBound()) {
+            output.putInt(Long.BYTES);
+            output.putLong(((Number) range.upperEndpoint()).longValue());
+        }
+    }
+
+    private static byte[] toJson(Object value) throws IOException {
+        if (value instanceof String json) {
+            return json.getBytes(StandardCharsets.UTF_8);
+        }
+
+        return ObjectToStringSerializer.OBJECT_MAPPER.writeValueAsBytes(value);
+    }
+
+    private static short toShort(Number number) {
+        long value = number.longValue();
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new ArithmeticException("smallint out of range: " + value);
+        }
+        return (short) value;
+    }
+
+    private static void requireType(ColumnMetadata column, boolean supported) {
+        if (!supported) {
+            throw unsupported(column);
+        }
+    }
+
+    private static UnsupportedOperationException unsupported(ColumnMetadata column) {
+        return new UnsupportedOperationException("Unsupported binary copy of column " + column.getName() + " of type "
+                + column.getType().getSimpleName() + " to " + column.getDataType());
+    }
+
+    @FunctionalInterface
+    private interface FieldEncoder {
+        // Writes the length followed by the binary representation of the non-null value
+        void encode(Output output, Object value) throws IOException;
+    }
+
+    /**
+     * Buffers the binary output so that the many small writes of each row don't each go through the output stream.
+     */
+    private static class Output {
+
+        private final ByteBuffer buffer;
+        private final OutputStream outputStream;
+
+        private Output(OutputStream outputStream) {
+            this(outputStream, BUFFER_SIZE);
+        }
+
+        private Output(OutputStream outputStream, int bufferSize) {
+            this.buffer = ByteBuffer.allocate(bufferSize);
+            this.outputStream = outputStream;
+        }
+
+        void put(byte value) throws IOException {
+            ensure(Byte.BYTES);
+            buffer.put(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            if (bytes.length > buffer.remaining()) {
+                flushBuffer();
+            }
+
+            if (bytes.length > buffer.capacity()) {
+                outputStream.write(bytes);
+            } else {
+                buffer.put(bytes);
+            }
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            putInt(bytes.length);
+            put(bytes);
+        }
+
+        void putShort(short value) throws IOException {
+            ensure(Short.BYTES);
+            buffer.putShort(value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void flush() throws IOException {
+            flushBuffer();
+            outputStream.flush();
+        }
+
+        private void ensure(int size) throws IOException {
+            if (buffer.remaining() < size) {
+                flushBuffer();
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            if (buffer.position() > 0) {
+                outputStream.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+        }
+    }
+}
@@ -19,6 +19,9 @@ package com.hedera.mirror.importer.parser.batch;
 import com.hedera.mirror.common.domain.Upsertable;
 import com.hedera.mirror.common.domain.transaction.TransactionHash;
 import com.hedera.mirror.importer.parser.CommonParserProperties;
+import com.hedera.mirror.importer.parser.CommonParserProperties.CopyFormat;
+import com.hedera.mirror.importer.repository.upsert.EntityMetadata;
+import com.hedera.mirror.importer.repository.upsert.EntityMetadataRegistry;
 import com.hedera.mirror.importer.repository.upsert.UpsertQueryGenerator;
 import com.hedera.mirror.importer.repository.upsert.UpsertQueryGeneratorFactory;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -29,29 +32,35 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.sql.DataSource;
+import lombok.CustomLog;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.annotation.AnnotationUtils;
 
+@CustomLog
 @Named
 @Primary
 public class CompositeBatchPersister implements BatchPersister {
 
     private final Map<Class<?>, BatchPersister> batchPersisters = new ConcurrentHashMap<>();
+    private final Map<Class<?>, BatchPersister> completeBatchPersisters = new ConcurrentHashMap<>();
     private final DataSource dataSource;
     private final MeterRegistry meterRegistry;
     private final CommonParserProperties properties;
     private final UpsertQueryGeneratorFactory upsertQueryGeneratorFactory;
+    private final EntityMetadataRegistry entityMetadataRegistry;
 
     public CompositeBatchPersister(
             DataSource dataSource,
             MeterRegistry meterRegistry,
             CommonParserProperties properties,
             UpsertQueryGeneratorFactory upsertQueryGeneratorFactory,
+            EntityMetadataRegistry entityMetadataRegistry,
             Optional<TransactionHashBatchInserter> transactionHashV1BatchPersister) {
         this.dataSource = dataSource;
         this.meterRegistry = meterRegistry;
         this.properties = properties;
         this.upsertQueryGeneratorFactory = upsertQueryGeneratorFactory;
+        this.entityMetadataRegistry = entityMetadataRegistry;
 
         transactionHashV1BatchPersister.ifPresent(
                 batchPersister -> batchPersisters.put(TransactionHash.class, batchPersister));
@@ -68,8 +77,26 @@ public class CompositeBatchPersister implements BatchPersister {
             throw new UnsupportedOperationException("Object does not support batch insertion: " + item);
         }
 
-        BatchPersister batchPersister = batchPersisters.computeIfAbsent(item.getClass(), this::create);
-        batchPersister.persist(items);
+        getBatchPersister(item.getClass()).persist(items);
+    }
+
+    /**
+     * Upserts complete rows of a history upsertable as is, without merging them with the existing rows. The rows must
+     * include the closed existing rows to move to the history table.
+     *
+     * @param items the complete rows
+     */
+    public void persistComplete(Collection<?> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+
+        var domainClass = items.iterator().next().getClass();
+        completeBatchPersisters.computeIfAbsent(domainClass, this::createComplete).persist(items);
+    }
+
+    BatchPersister getBatchPersister(Class<?> domainClass) {
+        return batchPersisters.computeIfAbsent(domainClass, this::create);
     }
 
     private BatchPersister create(Class<?> domainClass) {
@@ -80,11 +107,33 @@ public class CompositeBatchPersister implements BatchPersister {
         }
 
         Upsertable upsertable = AnnotationUtils.findAnnotation(domainClass, Upsertable.class);
+        var entityMetadata = getEntityMetadata(domainClass);
         if (upsertable != null) {
             UpsertQueryGenerator generator = upsertQueryGeneratorFactory.get(domainClass);
-            return new BatchUpserter(domainClass, dataSource, meterRegistry, properties, generator);
+            return new BatchUpserter(domainClass, dataSource, meterRegistry, properties, generator, entityMetadata);
         } else {
-            return new BatchInserter(domainClass, dataSource, meterRegistry, properties);
+            var tableName = domainClass.getSimpleName();
+            return new BatchInserter(domainClass, dataSource, meterRegistry, properties, tableName, entityMetadata);
+        }
+    }
+
+    private BatchPersister createComplete(Class<?> domainClass) {
+        var generator = upsertQueryGeneratorFactory.getComplete(domainClass);
+        var entityMetadata = getEntityMetadata(domainClass);
+        return new BatchUpserter(domainClass, dataSource, meterRegistry, properties, generator, entityMetadata);
+    }
+
+    // The entity metadata is only needed to copy in the binary format
+    private EntityMetadata getEntityMetadata(Class<?> domainClass) {
+        if (properties.getCopyFormat() != CopyFormat.BINARY) {
+            return null;
+        }
+
+        try {
+            return entityMetadataRegistry.lookupEntity(domainClass);
+        } catch (Exception e) {
+            log.warn("Unable to copy {} in the binary format: {}", domainClass.getSimpleName(), e.getMessage());
+            return null;
         }
     }
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.batch;
+
+import com.google.common.base.Stopwatch;
+import com.hedera.mirror.importer.exception.ParserException;
+import com.hedera.mirror.importer.parser.CommonParserProperties;
+import jakarta.inject.Named;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
+import lombok.CustomLog;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Copies insert-only tables concurrently over a pool of auxiliary connections while the caller keeps using the
+ * connection of the parser transaction. The auxiliary transactions are managed by a {@link MultiConnectionTxManager}
+ * that only commits them once the parser transaction has committed and rolls them back otherwise, so the rows are never
+ * visible without their record file. Tables are only copied concurrently when there's an active parser transaction and
+ * insertConcurrency is positive, otherwise they're copied sequentially using the connection of the current transaction.
+ */
+@CustomLog
+@Named
+public class ConcurrentBatchPersister implements AutoCloseable {
+
+    private final CompositeBatchPersister compositeBatchPersister;
+    private final CommonParserProperties properties;
+    private final Scheduler scheduler;
+    private final List<String> tableNames = new CopyOnWriteArrayList<>();
+    private final MultiConnectionTxManager transactionManager;
+
+    public ConcurrentBatchPersister(
+            CompositeBatchPersister compositeBatchPersister,
+            DataSource dataSource,
+            CommonParserProperties properties) {
+        this.compositeBatchPersister = compositeBatchPersister;
+        this.properties = properties;
+        int concurrency = Math.max(1, properties.getInsertConcurrency());
+        this.scheduler = Schedulers.newParallel("concurrent_batch_persister", concurrency, true);
+        this.transactionManager = new MultiConnectionTxManager(dataSource);
+    }
+
+    /**
+     * Copies the insert-only items concurrently and runs the task using the connection of the parser transaction in the
+     * meantime. Waits for all copies to finish before returning, even if the task fails.
+     *
+     * @param insertOnlyItems    the collections of insert-only domain objects, one per table
+     * @param consensusTimestamp the consensus timestamp of the file the items are from, for logging
+     * @param task               the work to do on the connection of the parser transaction
+     */
+    public void persist(Collection<? extends Collection<?>> insertOnlyItems, long consensusTimestamp, Runnable task) {
+        if (properties.getInsertConcurrency() < 1 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            insertOnlyItems.forEach(compositeBatchPersister::persist);
+            task.run();
+            return;
+        }
+
+        var stopwatch = Stopwatch.createStarted();
+        var copies = new ArrayList<Mono<Void>>();
+        int count = 0;
+
+        for (var items : insertOnlyItems) {
+            if (items == null || items.isEmpty()) {
+                continue;
+            }
+
+            var domainClass = items.iterator().next().getClass();
+            if (compositeBatchPersister.getBatchPersister(domainClass) instanceof BatchInserter batchInserter
+                    && !(batchInserter instanceof BatchUpserter)) {
+                int shard = getShard(batchInserter.tableName);
+                transactionManager.initialize(items.size(), consensusTimestamp, batchInserter.tableName);
+                copies.add(Mono.fromRunnable(() -> copy(batchInserter, shard, items))
+                        .subscribeOn(scheduler)
+                        .then());
+                count += items.size();
+            } else {
+                compositeBatchPersister.persist(items);
+            }
+        }
+
+        // Wait for all copies, so none is still running when the caller clears the items or the transaction completes
+        var result = Mono.whenDelayError(copies).toFuture();
+        RuntimeException taskException = null;
+
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            taskException = e;
+        }
+
+        try {
+            result.join();
+        } catch (Exception e) {
+            var exception = new ParserException("Error copying insert-only tables concurrently", e.getCause());
+            if (taskException != null) {
+                taskException.addSuppressed(exception);
+            } else {
+                throw exception;
+            }
+        }
+
+        if (taskException != null) {
+            throw taskException;
+        }
+
+        log.debug("Copied {} rows to {} tables concurrently in {}", count, copies.size(), stopwatch);
+    }
+
+    @Override
+    public void close() {
+        scheduler.dispose();
+    }
+
+    private void copy(BatchInserter batchInserter, int shard, Collection<?> items) {
+        var threadState = transactionManager.updateAndGetThreadState(shard);
+        batchInserter.persist(items, threadState.getConnection());
+    }
+
+    private int getShard(String tableName) {
+        int shard = tableNames.indexOf(tableName);
+        if (shard < 0) {
+            tableNames.add(tableName);
+            shard = tableNames.size() - 1;
+        }
+
+        return shard;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.batch;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes domain objects as rows in a format understood by PostgreSQL COPY.
+ */
+interface CopyWriter {
+
+    /**
+     * @return the column names in the order they are written
+     */
+    List<String> getColumns();
+
+    /**
+     * @return the options of the COPY statement that describe the format
+     */
+    String getOptions();
+
+    void write(OutputStream outputStream, Collection<?> items) throws IOException;
+
+    /**
+     * Opens a writer that encodes one row at a time without the header and trailer of the format, so that rows can be
+     * buffered as they're produced and copied in several chunks.
+     *
+     * @param outputStream the stream to write the rows to
+     * @return the row writer
+     */
+    RowWriter rowWriter(OutputStream outputStream) throws IOException;
+
+    default void writeHeader(OutputStream outputStream) throws IOException {}
+
+    default void writeTrailer(OutputStream outputStream) throws IOException {}
+
+    default String getSql(String tableName) {
+        var columns = String.join(", ", getColumns());
+        return String.format("COPY %s(%s) FROM STDIN WITH %s", tableName, columns, getOptions());
+    }
+
+    @FunctionalInterface
+    interface RowWriter {
+
+        // Writes the complete row to the output stream before returning
+        void write(Object item) throws IOException;
+    }
+}
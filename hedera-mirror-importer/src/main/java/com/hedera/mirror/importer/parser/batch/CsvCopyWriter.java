@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.google.common.base.CaseFormat;
+import com.google.common.collect.Lists;
+import com.hedera.mirror.common.converter.EntityIdSerializer;
+import com.hedera.mirror.common.converter.ListToStringSerializer;
+import com.hedera.mirror.common.converter.RangeToStringSerializer;
+import com.hedera.mirror.importer.converter.ByteArrayToHexSerializer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * Writes domain objects as CSV using Jackson.
+ */
+class CsvCopyWriter implements CopyWriter {
+
+    @Getter
+    private final List<String> columns;
+
+    private final ObjectWriter writer;
+
+    CsvCopyWriter(Class<?> entityClass) {
+        var mapper = new CsvMapper();
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(byte[].class, ByteArrayToHexSerializer.INSTANCE);
+        module.addSerializer(EntityIdSerializer.INSTANCE);
+        module.addSerializer(ListToStringSerializer.INSTANCE);
+        module.addSerializer(RangeToStringSerializer.INSTANCE);
+        mapper.registerModule(module);
+        mapper.configure(CsvGenerator.Feature.ALWAYS_QUOTE_EMPTY_STRINGS, true);
+        var schema = mapper.schemaFor(entityClass);
+        writer = mapper.writer(schema);
+        columns = Lists.newArrayList(schema.iterator()).stream()
+                .map(CsvSchema.Column::getName)
+                .distinct()
+                .map(name -> CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, name))
+                .toList();
+    }
+
+    @Override
+    public String getOptions() {
+        return "CSV";
+    }
+
+    @Override
+    public void write(OutputStream outputStream, Collection<?> items) throws IOException {
+        writer.writeValue(outputStream, items);
+    }
+
+    @Override
+    public RowWriter rowWriter(OutputStream outputStream) throws IOException {
+        var sequenceWriter = writer.writeValues(outputStream);
+        return item -> {
+            sequenceWriter.write(item);
+            sequenceWriter.flush();
+        };
+    }
+
+    String writeValueAsString(Collection<?> items) throws JsonProcessingException {
+        return writer.writeValueAsString(items);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.record;
+
+import com.google.protobuf.GeneratedMessageV3;
+import com.hedera.mirror.common.domain.transaction.RecordItem;
+import com.hedera.mirror.importer.domain.EntityIdService;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.ContractID;
+import com.hederahashgraph.api.proto.java.TokenTransferList;
+import com.hederahashgraph.api.proto.java.TransferList;
+import jakarta.inject.Named;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.CustomLog;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Collects the account IDs in alias form and the contract IDs in EVM address form of a chunk of record items and
+ * resolves them ahead of their processing, so the ones not cached yet are looked up with a single query instead of one
+ * query each in the middle of the processing.
+ */
+@CustomLog
+@Named
+@RequiredArgsConstructor
+public class EntityIdPrefetcher {
+
+    private final EntityIdService entityIdService;
+
+    public void prefetch(Collection<RecordItem> recordItems) {
+        var entityIds = new ArrayList<GeneratedMessageV3>();
+
+        for (var recordItem : recordItems) {
+            try {
+                collect(recordItem, entityIds);
+            } catch (Exception e) {
+                // Leave the error to the sequential processing, so it's handled the same way as without prefetching
+            }
+        }
+
+        if (!entityIds.isEmpty()) {
+            try {
+                entityIdService.prefetch(entityIds);
+            } catch (Exception e) {
+                log.warn("Unable to prefetch {} entity IDs: {}", entityIds.size(), e.getMessage());
+            }
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void collect(RecordItem recordItem, List<GeneratedMessageV3> entityIds) {
+        var body = recordItem.getTransactionBody();
+        var transactionRecord = recordItem.getTransactionRecord();
+
+        collect(transactionRecord.getTransferList(), entityIds);
+        transactionRecord.getTokenTransferListsList().forEach(t -> collect(t, entityIds));
+        collect(transactionRecord.getReceipt().getContractID(), entityIds);
+        collect(transactionRecord.getContractCallResult().getContractID(), entityIds);
+
+        if (body.hasCryptoTransfer()) {
+            var cryptoTransfer = body.getCryptoTransfer();
+            collect(cryptoTransfer.getTransfers(), entityIds);
+            cryptoTransfer.getTokenTransfersList().forEach(t -> collect(t, entityIds));
+        } else if (body.hasContractCall()) {
+            collect(body.getContractCall().getContractID(), entityIds);
+        } else if (body.hasContractUpdateInstance()) {
+            collect(body.getContractUpdateInstance().getContractID(), entityIds);
+        } else if (body.hasContractDeleteInstance()) {
+            var contractDelete = body.getContractDeleteInstance();
+            collect(contractDelete.getContractID(), entityIds);
+            collect(contractDelete.getTransferAccountID(), entityIds);
+            collect(contractDelete.getTransferContractID(), entityIds);
+        } else if (body.hasCryptoDelete()) {
+            collect(body.getCryptoDelete().getTransferAccountID(), entityIds);
+        } else if (body.hasCryptoApproveAllowance()) {
+            var approveAllowance = body.getCryptoApproveAllowance();
+            approveAllowance.getCryptoAllowancesList().forEach(a -> collect(a.getOwner(), entityIds));
+            approveAllowance.getNftAllowancesList().forEach(a -> collect(a.getOwner(), entityIds));
+            approveAllowance.getTokenAllowancesList().forEach(a -> collect(a.getOwner(), entityIds));
+        }
+    }
+
+    private void collect(TransferList transferList, List<GeneratedMessageV3> entityIds) {
+        transferList.getAccountAmountsList().forEach(a -> collect(a.getAccountID(), entityIds));
+    }
+
+    private void collect(TokenTransferList tokenTransferList, List<GeneratedMessageV3> entityIds) {
+        tokenTransferList.getTransfersList().forEach(a -> collect(a.getAccountID(), entityIds));
+        tokenTransferList.getNftTransfersList().forEach(n -> {
+            collect(n.getSenderAccountID(), entityIds);
+            collect(n.getReceiverAccountID(), entityIds);
+        });
+    }
+
+    private void collect(AccountID accountId, List<GeneratedMessageV3> entityIds) {
+        if (accountId.getAccountCase() == AccountID.AccountCase.ALIAS) {
+            entityIds.add(accountId);
+        }
+    }
+
+    private void collect(ContractID contractId, List<GeneratedMessageV3> entityIds) {
+        if (contractId.getContractCase() == ContractID.ContractCase.EVM_ADDRESS) {
+            entityIds.add(contractId);
+        }
+    }
+}
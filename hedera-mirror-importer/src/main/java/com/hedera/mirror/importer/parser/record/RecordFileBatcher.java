@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.record;
+
+import com.hedera.mirror.common.domain.transaction.RecordFile;
+import com.hedera.mirror.common.util.DomainUtils;
+import com.hedera.mirror.importer.exception.ParserException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.CustomLog;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.PollableChannel;
+
+/**
+ * Groups record files queued for parsing into batches that are parsed in a single transaction while the importer is
+ * catching up. A record file is only batched if its consensus end lags behind the current time by more than the
+ * configured catch-up lag, so record files are parsed individually once the importer is near real time. The batch is
+ * filled with the record files already queued in the channel, waiting at most the configured time for more to arrive,
+ * until it reaches the maximum number of files, record items or bytes.
+ * Batching requires a queue channel, so it's disabled with a warning if queueCapacity isn't positive.
+ */
+@CustomLog
+public class RecordFileBatcher implements Consumer<RecordFile> {
+
+    private final MessageChannel channel;
+    private final RecordFileParser parser;
+    private final RecordParserProperties properties;
+
+    public RecordFileBatcher(MessageChannel channel, RecordFileParser parser, RecordParserProperties properties) {
+        this.channel = channel;
+        this.parser = parser;
+        this.properties = properties;
+
+        if (properties.getBatch().isEnabled() && !(channel instanceof PollableChannel)) {
+            log.warn(
+                    "Record file batching is enabled but won't be used since queueCapacity is {}",
+                    properties.getQueueCapacity());
+        }
+    }
+
+    @Override
+    public void accept(RecordFile recordFile) {
+        var next = recordFile;
+        while (next != null) {
+            next = batch(next);
+        }
+    }
+
+    /**
+     * Parses a batch starting with the record file
+     *
+     * @param first the first record file of the batch
+     * @return the received record file that didn't fit in the batch, if any
+     */
+    private RecordFile batch(RecordFile first) {
+        var batchProperties = properties.getBatch();
+        if (!batchProperties.isEnabled()
+                || !(channel instanceof PollableChannel pollableChannel)
+                || !isCatchingUp(first)) {
+            parser.parse(first);
+            return null;
+        }
+
+        var batch = new ArrayList<RecordFile>();
+        batch.add(first);
+        long maxItems = batchProperties.getMaxItems();
+        long maxSize = batchProperties.getMaxSize().toBytes();
+        long items = getItems(first);
+        long size = getSize(first);
+        long deadline = System.nanoTime() + batchProperties.getMaxWait().toNanos();
+
+        while (batch.size() < batchProperties.getMaxFiles()) {
+            long timeout = Math.max(0L, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+            var message = pollableChannel.receive(timeout);
+            if (message == null) {
+                break;
+            }
+
+            if (!(message.getPayload() instanceof RecordFile recordFile)) {
+                parse(batch, null);
+                throw new ParserException("Unable to batch unexpected payload " + message.getPayload());
+            }
+
+            long recordFileItems = getItems(recordFile);
+            long recordFileSize = getSize(recordFile);
+            if (items + recordFileItems > maxItems || size + recordFileSize > maxSize) {
+                parse(batch, recordFile);
+                return recordFile;
+            }
+
+            batch.add(recordFile);
+            items += recordFileItems;
+            size += recordFileSize;
+        }
+
+        parse(batch, null);
+        return null;
+    }
+
+    private boolean isCatchingUp(RecordFile recordFile) {
+        var catchUpLag = properties.getBatch().getCatchUpLag();
+        long threshold = DomainUtils.convertToNanosMax(Instant.now().minus(catchUpLag));
+        return recordFile.getConsensusEnd() != null && recordFile.getConsensusEnd() < threshold;
+    }
+
+    /**
+     * Parses the batch, failing with the names of its record files and of the record file already received after it
+     * since neither can be parsed once retries are exhausted
+     *
+     * @param batch   the record files to parse
+     * @param pending the record file received after the batch, if any
+     */
+    private void parse(List<RecordFile> batch, RecordFile pending) {
+        log.debug("Parsing a batch of {} record files", batch.size());
+
+        try {
+            parser.parse(batch);
+        } catch (Exception e) {
+            var message = String.format(
+                    "Error parsing a batch of %d record files %s to %s%s",
+                    batch.size(),
+                    batch.get(0).getName(),
+                    batch.get(batch.size() - 1).getName(),
+                    pending != null ? ", record file " + pending.getName() + " received after it was not parsed" : "");
+            log.error(message);
+            throw new ParserException(message, e);
+        }
+    }
+
+    private long getItems(RecordFile recordFile) {
+        return recordFile.getCount() != null ? recordFile.getCount() : 0L;
+    }
+
+    private long getSize(RecordFile recordFile) {
+        return recordFile.getSize() != null ? recordFile.getSize() : 0L;
+    }
+}
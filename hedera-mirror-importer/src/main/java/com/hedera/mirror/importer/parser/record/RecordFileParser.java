@@ -36,21 +36,29 @@ import io.micrometer.core.instrument.Timer;
 import jakarta.inject.Named;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import org.apache.logging.log4j.Level;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 @Named
 public class RecordFileParser extends AbstractStreamFileParser<RecordFile> {
 
+    private final EntityIdPrefetcher entityIdPrefetcher;
     private final AtomicReference<RecordFile> last;
     private final RecordItemListener recordItemListener;
     private final RecordStreamFileListener recordStreamFileListener;
     private final MirrorDateRangePropertiesProcessor mirrorDateRangePropertiesProcessor;
+    private final RecordParserProperties recordParserProperties;
+    private final Scheduler decodeScheduler;
 
     // Metrics
     private final Map<Integer, Timer> latencyMetrics;
@@ -64,12 +72,17 @@ public class RecordFileParser extends AbstractStreamFileParser<RecordFile> {
             StreamFileRepository<RecordFile, Long> streamFileRepository,
             RecordItemListener recordItemListener,
             RecordStreamFileListener recordStreamFileListener,
-            MirrorDateRangePropertiesProcessor mirrorDateRangePropertiesProcessor) {
+            MirrorDateRangePropertiesProcessor mirrorDateRangePropertiesProcessor,
+            EntityIdPrefetcher entityIdPrefetcher) {
         super(meterRegistry, parserProperties, streamFileRepository);
+        this.entityIdPrefetcher = entityIdPrefetcher;
         this.last = new AtomicReference<>();
         this.recordItemListener = recordItemListener;
         this.recordStreamFileListener = recordStreamFileListener;
         this.mirrorDateRangePropertiesProcessor = mirrorDateRangePropertiesProcessor;
+        this.recordParserProperties = parserProperties;
+        int decodeConcurrency = Math.max(1, parserProperties.getDecode().getConcurrency());
+        this.decodeScheduler = Schedulers.newParallel("record_decoder", decodeConcurrency, true);
 
         // build transaction latency metrics
         ImmutableMap.Builder<Integer, Timer> latencyMetricsBuilder = ImmutableMap.builder();
@@ -118,37 +131,121 @@ public class RecordFileParser extends AbstractStreamFileParser<RecordFile> {
         super.parse(recordFile);
     }
 
+    /**
+     * Parses consecutive record files in a single transaction with a single flush of their changes, to avoid paying the
+     * fixed cost of each transaction for every record file when catching up.
+     *
+     * @param recordFiles consecutive record files to be processed
+     */
+    @Override
+    @Leader
+    @Retryable(
+            backoff =
+                    @Backoff(
+                            delayExpression = "#{@recordParserProperties.getRetry().getMinBackoff().toMillis()}",
+                            maxDelayExpression = "#{@recordParserProperties.getRetry().getMaxBackoff().toMillis()}",
+                            multiplierExpression = "#{@recordParserProperties.getRetry().getMultiplier()}"),
+            retryFor = Throwable.class,
+            noRetryFor = OutOfMemoryError.class,
+            maxAttemptsExpression = "#{@recordParserProperties.getRetry().getMaxAttempts()}")
+    @Transactional(timeoutString = "#{@recordParserProperties.getTransactionTimeout().toSeconds()}")
+    public void parse(List<RecordFile> recordFiles) {
+        super.parse(recordFiles);
+    }
+
     @Override
     protected void doParse(RecordFile recordFile) {
+        doParse(List.of(recordFile));
+    }
+
+    @Override
+    protected void doParse(List<RecordFile> recordFiles) {
         DateRangeFilter dateRangeFilter =
                 mirrorDateRangePropertiesProcessor.getDateRangeFilter(parserProperties.getStreamType());
 
         try {
-            Flux<RecordItem> recordItems = recordFile.getItems();
+            recordStreamFileListener.onStart();
 
-            if (log.getLevel().isInRange(Level.DEBUG, Level.TRACE)) {
-                recordItems = recordItems.doOnNext(this::logItem);
-            }
+            for (int i = 0; i < recordFiles.size(); i++) {
+                var recordFile = recordFiles.get(i);
+                Flux<RecordItem> recordItems = decode(recordFile.getItems());
 
-            recordStreamFileListener.onStart();
+                if (log.getLevel().isInRange(Level.DEBUG, Level.TRACE)) {
+                    recordItems = recordItems.doOnNext(this::logItem);
+                }
+
+                long count = recordItems
+                        .doOnNext(recordFile::processItem)
+                        .filter(r -> dateRangeFilter.filter(r.getConsensusTimestamp()))
+                        .doOnNext(recordItemListener::onItem)
+                        .doOnNext(this::recordMetrics)
+                        .count()
+                        .block();
 
-            long count = recordItems
-                    .doOnNext(recordFile::processItem)
-                    .filter(r -> dateRangeFilter.filter(r.getConsensusTimestamp()))
-                    .doOnNext(recordItemListener::onItem)
-                    .doOnNext(this::recordMetrics)
-                    .count()
-                    .block();
-
-            recordFile.finishLoad(count);
-            updateIndex(recordFile);
-            recordStreamFileListener.onEnd(recordFile);
+                recordFile.finishLoad(count);
+                updateIndex(recordFile);
+
+                // Only the last record file flushes the changes of the whole batch
+                if (i < recordFiles.size() - 1) {
+                    recordStreamFileListener.onIntermediateEnd(recordFile);
+                } else {
+                    recordStreamFileListener.onEnd(recordFile);
+                }
+            }
         } catch (Exception ex) {
             recordStreamFileListener.onError();
             throw ex;
         }
     }
 
+    /**
+     * Decodes the transaction of the record items and computes their stateless derived fields in chunks on the decode
+     * scheduler, ahead of the sequential processing. The chunks are emitted in their original order, so the listeners
+     * still receive the record items one at a time in consensus order on the parser thread. The aliases and EVM
+     * addresses of each chunk are also resolved together before the chunk is processed.
+     */
+    private Flux<RecordItem> decode(Flux<RecordItem> recordItems) {
+        var decodeProperties = recordParserProperties.getDecode();
+        int concurrency = decodeProperties.getConcurrency();
+        boolean prefetch = decodeProperties.isPrefetch();
+        if (concurrency < 1) {
+            return !prefetch
+                    ? recordItems
+                    : recordItems
+                            .buffer(decodeProperties.getChunkSize())
+                            .doOnNext(entityIdPrefetcher::prefetch)
+                            .flatMapIterable(Function.identity());
+        }
+
+        var chunks = recordItems
+                .buffer(decodeProperties.getChunkSize())
+                .flatMapSequential(
+                        chunk -> Mono.fromCallable(() -> {
+                                    chunk.forEach(RecordFileParser::decode);
+                                    if (prefetch) {
+                                        entityIdPrefetcher.prefetch(chunk);
+                                    }
+                                    return chunk;
+                                })
+                                .subscribeOn(decodeScheduler),
+                        concurrency);
+
+        // Consume the decoded chunks on the parser thread since the listeners rely on its transaction
+        return Flux.fromStream(() -> chunks.toStream(concurrency)).flatMapIterable(Function.identity());
+    }
+
+    private static void decode(RecordItem recordItem) {
+        try {
+            // The lazy getters are thread-safe and cache the result for the listeners
+            recordItem.getConsensusTimestamp();
+            recordItem.getTransactionType();
+            recordItem.getPayerAccountId();
+            recordItem.isSuccessful();
+        } catch (Exception e) {
+            // Leave the error to the sequential processing, so it's handled the same way as without decoding ahead
+        }
+    }
+
     private void logItem(RecordItem recordItem) {
         if (log.isTraceEnabled()) {
             log.trace(
@@ -18,9 +18,15 @@ package com.hedera.mirror.importer.parser.record;
 
 import com.hedera.mirror.common.domain.StreamType;
 import com.hedera.mirror.importer.parser.AbstractParserProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
 import lombok.Data;
+import org.hibernate.validator.constraints.time.DurationMin;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 @Component("recordParserProperties")
@@ -29,8 +35,59 @@ import org.springframework.validation.annotation.Validated;
 @ConfigurationProperties("hedera.mirror.importer.parser.record")
 public class RecordParserProperties extends AbstractParserProperties {
 
+    @NotNull
+    @Valid
+    private BatchProperties batch = new BatchProperties();
+
+    @NotNull
+    @Valid
+    private DecodeProperties decode = new DecodeProperties();
+
     @Override
     public StreamType getStreamType() {
         return StreamType.RECORD;
     }
+
+    @Data
+    @Validated
+    public static class BatchProperties {
+
+        // Only batch record files whose consensus end is older than this, so batching stops once caught up
+        @DurationMin(seconds = 0)
+        @NotNull
+        private Duration catchUpLag = Duration.ofMinutes(1L);
+
+        private boolean enabled = false;
+
+        @Min(1)
+        private int maxFiles = 10;
+
+        // The maximum total number of record items, so a few busy record files don't make a batch too large to parse
+        @Min(1)
+        private long maxItems = 100_000L;
+
+        @NotNull
+        private DataSize maxSize = DataSize.ofMegabytes(50L);
+
+        // Maximum time to wait for queued record files to fill a batch
+        @DurationMin(millis = 0)
+        @NotNull
+        private Duration maxWait = Duration.ofSeconds(1L);
+    }
+
+    @Data
+    @Validated
+    public static class DecodeProperties {
+
+        // The number of record items decoded together by a decoder thread
+        @Min(1)
+        private int chunkSize = 256;
+
+        // The number of threads decoding record items ahead of the parser thread, zero to disable
+        @Min(0)
+        private int concurrency = 0;
+
+        // Whether to resolve the aliases and EVM addresses of each chunk with a single query before it's processed
+        private boolean prefetch = true;
+    }
 }
@@ -17,6 +17,19 @@
 package com.hedera.mirror.importer.parser.record;
 
 import com.hedera.mirror.common.domain.transaction.RecordFile;
+import com.hedera.mirror.importer.exception.ImporterException;
 import com.hedera.mirror.importer.parser.StreamFileListener;
 
-public interface RecordStreamFileListener extends StreamFileListener<RecordFile> {}
+public interface RecordStreamFileListener extends StreamFileListener<RecordFile> {
+
+    /**
+     * Called instead of {@link #onEnd(RecordFile)} when a record file that isn't the last of a batch of record files
+     * parsed in the same transaction has been processed. Listeners that buffer changes can keep accumulating them
+     * until the end of the batch.
+     *
+     * @param recordFile the processed record file
+     */
+    default void onIntermediateEnd(RecordFile recordFile) throws ImporterException {
+        onEnd(recordFile);
+    }
+}
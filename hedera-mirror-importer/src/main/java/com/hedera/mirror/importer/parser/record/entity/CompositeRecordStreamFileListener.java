@@ -45,6 +45,13 @@ public class CompositeRecordStreamFileListener implements RecordStreamFileListen
         }
     }
 
+    @Override
+    public void onIntermediateEnd(RecordFile streamFile) throws ImporterException {
+        for (var listener : listeners) {
+            listener.onIntermediateEnd(streamFile);
+        }
+    }
+
     @Override
     public void onError() {
         onEach(StreamFileListener::onError);
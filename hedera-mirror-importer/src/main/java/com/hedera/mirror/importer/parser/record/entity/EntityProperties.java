@@ -21,19 +21,43 @@ import static com.hedera.mirror.common.domain.transaction.TransactionType.SCHEDU
 import static com.hedera.mirror.common.domain.transaction.TransactionType.SCHEDULESIGN;
 
 import com.hedera.mirror.common.domain.transaction.TransactionType;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import java.util.EnumSet;
 import java.util.Set;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 @Data
 @ConfigurationProperties("hedera.mirror.importer.parser.record.entity")
 public class EntityProperties {
 
+    @NotNull
+    private AliasIndexProperties aliasIndex = new AliasIndexProperties();
+
     @NotNull
     private PersistProperties persist = new PersistProperties();
 
+    @Data
+    public static class AliasIndexProperties {
+
+        // Whether to keep the aliases and EVM addresses of all entities in a compact off-heap index
+        private boolean enabled = false;
+
+        // The initial number of entries the index can hold before growing its table
+        @Min(1)
+        private int initialCapacity = 1 << 20;
+
+        // The size of the off-heap segments the entries are appended to
+        @NotNull
+        private DataSize segmentSize = DataSize.ofMegabytes(64L);
+
+        // The number of rows fetched at a time when warming the index with a scan of the entity table
+        @Min(1)
+        private int warmFetchSize = 10_000;
+    }
+
     @Data
     public static class PersistProperties {
 
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.record.entity.sql;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A map for domain objects identified by a pair of longs. Pairs that both fit in 32 bits, as is the case for shard 0
+ * realm 0 entity ids and most serial numbers, are packed into a single primitive key so merging doesn't allocate an id
+ * object or box a key. Any other pair falls back to a regular map keyed by the domain object's id.
+ */
+class PairKeyMap<K, V> {
+
+    private final Function<V, K> idFunction;
+    private final Map<K, V> fallback = new HashMap<>();
+    private final Long2ObjectOpenHashMap<V> packed = new Long2ObjectOpenHashMap<>();
+
+    PairKeyMap(Function<V, K> idFunction) {
+        this.idFunction = idFunction;
+    }
+
+    V merge(long first, long second, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (((first | second) >>> Integer.SIZE) == 0) {
+            return packed.merge(first << Integer.SIZE | second, value, remappingFunction);
+        }
+
+        return fallback.merge(idFunction.apply(value), value, remappingFunction);
+    }
+
+    void clear() {
+        fallback.clear();
+        packed.clear();
+    }
+
+    int size() {
+        return fallback.size() + packed.size();
+    }
+}
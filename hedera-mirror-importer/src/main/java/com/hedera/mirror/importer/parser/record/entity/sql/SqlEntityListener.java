@@ -62,6 +62,8 @@ import com.hedera.mirror.importer.domain.EntityIdService;
 import com.hedera.mirror.importer.exception.ImporterException;
 import com.hedera.mirror.importer.exception.ParserException;
 import com.hedera.mirror.importer.parser.batch.BatchPersister;
+import com.hedera.mirror.importer.parser.batch.BatchStreamer;
+import com.hedera.mirror.importer.parser.batch.ConcurrentBatchPersister;
 import com.hedera.mirror.importer.parser.record.RecordStreamFileListener;
 import com.hedera.mirror.importer.parser.record.entity.ConditionOnEntityRecordParser;
 import com.hedera.mirror.importer.parser.record.entity.EntityBatchCleanupEvent;
@@ -72,10 +74,13 @@ import com.hedera.mirror.importer.repository.NftRepository;
 import com.hedera.mirror.importer.repository.RecordFileRepository;
 import com.hedera.mirror.importer.repository.SidecarFileRepository;
 import com.hedera.mirror.importer.util.Utility;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import jakarta.inject.Named;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import lombok.CustomLog;
@@ -92,6 +97,8 @@ import org.springframework.util.CollectionUtils;
 public class SqlEntityListener implements EntityListener, RecordStreamFileListener {
 
     private final BatchPersister batchPersister;
+    private final BatchStreamer batchStreamer;
+    private final ConcurrentBatchPersister concurrentBatchPersister;
     private final EntityIdService entityIdService;
     private final EntityProperties entityProperties;
     private final ApplicationEventPublisher eventPublisher;
@@ -100,6 +107,7 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
     private final SidecarFileRepository sidecarFileRepository;
     private final SqlProperties sqlProperties;
     private final BatchPersister tokenDissociateTransferBatchPersister;
+    private final UpsertableStateCache upsertableStateCache;
 
     // lists of insert only domains
     private final Collection<AssessedCustomFee> assessedCustomFees;
@@ -135,22 +143,27 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
     // maps of upgradable domains
     private final Map<ContractState.Id, ContractState> contractStates;
     private final Map<AbstractCryptoAllowance.Id, CryptoAllowance> cryptoAllowanceState;
-    private final Map<Long, Entity> entityState;
-    private final Map<AbstractNft.Id, Nft> nftState;
+    private final Long2ObjectMap<Entity> entityState;
+    private final PairKeyMap<AbstractNft.Id, Nft> nftState;
     private final Map<AbstractNftAllowance.Id, NftAllowance> nftAllowanceState;
-    private final Map<Long, Schedule> schedules;
-    private final Map<Long, Token> tokenState;
+    private final Long2ObjectMap<Schedule> schedules;
+    private final Long2ObjectMap<Token> tokenState;
     private final Map<AbstractTokenAllowance.Id, TokenAllowance> tokenAllowanceState;
 
     // tracks the state of <token, account> relationships in a batch, the initial state before the batch is in db.
     // for each <token, account> update, merge the state and the update, save the merged state to the batch.
     // during batch upsert, the merged state at time T is again merged with the initial state before the batch to
     // get the full state at time T
-    private final Map<AbstractTokenAccount.Id, TokenAccount> tokenAccountState;
+    private final PairKeyMap<AbstractTokenAccount.Id, TokenAccount> tokenAccountState;
+
+    private long consensusTimestamp; // of the last transaction, for logging
+    private int transactionCount;
 
     @SuppressWarnings("java:S107")
     public SqlEntityListener(
             BatchPersister batchPersister,
+            BatchStreamer batchStreamer,
+            ConcurrentBatchPersister concurrentBatchPersister,
             EntityIdService entityIdService,
             EntityProperties entityProperties,
             ApplicationEventPublisher eventPublisher,
@@ -158,8 +171,11 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
             RecordFileRepository recordFileRepository,
             SidecarFileRepository sidecarFileRepository,
             SqlProperties sqlProperties,
-            @Qualifier(DELETED_TOKEN_DISSOCIATE_BATCH_PERSISTER) BatchPersister tokenDissociateTransferBatchPersister) {
+            @Qualifier(DELETED_TOKEN_DISSOCIATE_BATCH_PERSISTER) BatchPersister tokenDissociateTransferBatchPersister,
+            UpsertableStateCache upsertableStateCache) {
         this.batchPersister = batchPersister;
+        this.batchStreamer = batchStreamer;
+        this.concurrentBatchPersister = concurrentBatchPersister;
         this.entityIdService = entityIdService;
         this.entityProperties = entityProperties;
         this.eventPublisher = eventPublisher;
@@ -168,6 +184,7 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
         this.sidecarFileRepository = sidecarFileRepository;
         this.sqlProperties = sqlProperties;
         this.tokenDissociateTransferBatchPersister = tokenDissociateTransferBatchPersister;
+        this.upsertableStateCache = upsertableStateCache;
 
         assessedCustomFees = new ArrayList<>();
         contracts = new ArrayList<>();
@@ -201,12 +218,12 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
 
         contractStates = new HashMap<>();
         cryptoAllowanceState = new HashMap<>();
-        entityState = new HashMap<>();
-        nftState = new HashMap<>();
+        entityState = new Long2ObjectOpenHashMap<>();
+        nftState = new PairKeyMap<>(Nft::getId);
         nftAllowanceState = new HashMap<>();
-        schedules = new HashMap<>();
-        tokenState = new HashMap<>();
-        tokenAccountState = new HashMap<>();
+        schedules = new Long2ObjectOpenHashMap<>();
+        tokenState = new Long2ObjectOpenHashMap<>();
+        tokenAccountState = new PairKeyMap<>(TokenAccount::getId);
         tokenAllowanceState = new HashMap<>();
     }
 
@@ -223,15 +240,13 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
     @Override
     public void onEnd(RecordFile recordFile) {
         flush();
-        if (recordFile != null) {
-            var sidecars = recordFile.getSidecars();
-            recordFileRepository.save(recordFile);
+        saveRecordFile(recordFile);
+    }
 
-            if (!sidecars.isEmpty()) {
-                sidecarFileRepository.saveAll(sidecars);
-                log.info("Processed {} sidecars", sidecars.size());
-            }
-        }
+    @Override
+    public void onIntermediateEnd(RecordFile recordFile) {
+        // The buffered changes are flushed once at the end of the batch of record files
+        saveRecordFile(recordFile);
     }
 
     @Override
@@ -241,7 +256,7 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
 
     @Override
     public void onAssessedCustomFee(AssessedCustomFee assessedCustomFee) throws ImporterException {
-        assessedCustomFees.add(assessedCustomFee);
+        insertOnly(assessedCustomFees, assessedCustomFee);
     }
 
     @Override
@@ -251,22 +266,22 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
 
     @Override
     public void onContractAction(ContractAction contractAction) {
-        contractActions.add(contractAction);
+        insertOnly(contractActions, contractAction);
     }
 
     @Override
     public void onContractLog(ContractLog contractLog) {
-        contractLogs.add(contractLog);
+        insertOnly(contractLogs, contractLog);
     }
 
     @Override
     public void onContractResult(ContractResult contractResult) throws ImporterException {
-        contractResults.add(contractResult);
+        insertOnly(contractResults, contractResult);
     }
 
     @Override
     public void onContractStateChange(ContractStateChange contractStateChange) {
-        contractStateChanges.add(contractStateChange);
+        insertOnly(contractStateChanges, contractStateChange);
 
         var valueRead = contractStateChange.getValueRead();
         var valueWritten = contractStateChange.getValueWritten();
@@ -297,7 +312,7 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
             onEntity(entity);
         }
 
-        cryptoTransfers.add(cryptoTransfer);
+        insertOnly(cryptoTransfers, cryptoTransfer);
     }
 
     @Override
@@ -312,7 +327,7 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
             return;
         }
 
-        Entity merged = entityState.merge(entity.getId(), entity, this::mergeEntity);
+        Entity merged = entityState.merge(id, entity, this::mergeEntity);
         if (merged == entity) {
             // only add the merged object to the collection if the state is replaced with the new entity object, i.e.,
             // attributes only in the previous state are merged into the new entity object
@@ -323,7 +338,7 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
 
     @Override
     public void onEthereumTransaction(EthereumTransaction ethereumTransaction) throws ImporterException {
-        ethereumTransactions.add(ethereumTransaction);
+        insertOnly(ethereumTransactions, ethereumTransaction);
     }
 
     @Override
@@ -343,7 +358,7 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
 
     @Override
     public void onNft(Nft nft) throws ImporterException {
-        var merged = nftState.merge(nft.getId(), nft, this::mergeNft);
+        var merged = nftState.merge(nft.getTokenId(), nft.getSerialNumber(), nft, this::mergeNft);
         if (merged == nft) {
             // only add the merged object to the collection if the state is replaced with the new nft object, i.e.,
             // attributes only in the previous state are merged into the new nft object
@@ -369,13 +384,13 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
 
     @Override
     public void onPrng(Prng prng) {
-        prngs.add(prng);
+        insertOnly(prngs, prng);
     }
 
     @Override
     public void onSchedule(Schedule schedule) throws ImporterException {
         // schedules could experience multiple updates in a single record file, handle updates in memory for this case
-        schedules.merge(schedule.getScheduleId(), schedule, this::mergeSchedule);
+        schedules.merge(schedule.getScheduleId().longValue(), schedule, this::mergeSchedule);
     }
 
     @Override
@@ -408,13 +423,14 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
 
     @Override
     public void onToken(Token token) throws ImporterException {
-        var merged = tokenState.merge(token.getTokenId(), token, this::mergeToken);
+        var merged = tokenState.merge(token.getTokenId().longValue(), token, this::mergeToken);
         tokens.add(merged);
     }
 
     @Override
     public void onTokenAccount(TokenAccount tokenAccount) throws ImporterException {
-        var merged = tokenAccountState.merge(tokenAccount.getId(), tokenAccount, this::mergeTokenAccount);
+        var merged = tokenAccountState.merge(
+                tokenAccount.getTokenId(), tokenAccount.getAccountId(), tokenAccount, this::mergeTokenAccount);
         if (merged == tokenAccount) {
             tokenAccounts.add(merged);
         }
@@ -448,12 +464,13 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
 
     @Override
     public void onTopicMessage(TopicMessage topicMessage) throws ImporterException {
-        topicMessages.add(topicMessage);
+        insertOnly(topicMessages, topicMessage);
     }
 
     @Override
     public void onTransaction(Transaction transaction) throws ImporterException {
-        transactions.add(transaction);
+        insertOnly(transactions, transaction);
+        consensusTimestamp = transaction.getConsensusTimestamp();
 
         if (entityProperties.getPersist().shouldPersistTransactionHash(TransactionType.of(transaction.getType()))) {
             transactionHashes.add(transaction.toTransactionHash());
@@ -461,14 +478,26 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
 
         onNftTransferList(transaction);
 
-        if (transactions.size() == sqlProperties.getBatchSize()) {
+        if (++transactionCount == sqlProperties.getBatchSize()) {
             flush();
         }
     }
 
     @Override
     public void onTransactionSignature(TransactionSignature transactionSignature) throws ImporterException {
-        transactionSignatures.add(transactionSignature);
+        insertOnly(transactionSignatures, transactionSignature);
+    }
+
+    private void saveRecordFile(RecordFile recordFile) {
+        if (recordFile != null) {
+            var sidecars = recordFile.getSidecars();
+            recordFileRepository.save(recordFile);
+
+            if (!sidecars.isEmpty()) {
+                sidecarFileRepository.saveAll(sidecars);
+                log.info("Processed {} sidecars", sidecars.size());
+            }
+        }
     }
 
     private void cleanup() {
@@ -511,6 +540,12 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
             transactions.clear();
             transactionHashes.clear();
             transactionSignatures.clear();
+            transactionCount = 0;
+
+            if (sqlProperties.isStreaming()) {
+                batchStreamer.clear();
+            }
+
             eventPublisher.publishEvent(new EntityBatchCleanupEvent(this));
         } catch (BeanCreationNotAllowedException e) {
             // This error can occur during shutdown
@@ -524,45 +559,24 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
 
             Stopwatch stopwatch = Stopwatch.createStarted();
 
-            // insert only operations
-            batchPersister.persist(assessedCustomFees);
-            batchPersister.persist(contractActions);
-            batchPersister.persist(contractLogs);
-            batchPersister.persist(contractResults);
-            batchPersister.persist(contractStateChanges);
-            batchPersister.persist(cryptoTransfers);
-            batchPersister.persist(customFees);
-            batchPersister.persist(ethereumTransactions);
-            batchPersister.persist(fileData);
-            batchPersister.persist(liveHashes);
-            batchPersister.persist(networkStakes);
-            batchPersister.persist(nodeStakes);
-            batchPersister.persist(prngs);
-            batchPersister.persist(topicMessages);
-            batchPersister.persist(transactions);
-            batchPersister.persist(transactionHashes);
-            batchPersister.persist(transactionSignatures);
-
-            // insert operations with conflict management
-            batchPersister.persist(contracts);
-            batchPersister.persist(contractStates.values());
-            batchPersister.persist(cryptoAllowances);
-            batchPersister.persist(entities);
-            batchPersister.persist(nftAllowances);
-            batchPersister.persist(tokens);
-            // ingest tokenAccounts after tokens since some fields of token accounts depends on the associated token
-            batchPersister.persist(tokenAccounts);
-            batchPersister.persist(tokenAllowances);
-            batchPersister.persist(nfts); // persist nft after token entity
-            batchPersister.persist(schedules.values());
-
-            // transfers operations should be last to ensure insert logic completeness, entities should already exist
-            batchPersister.persist(nonFeeTransfers);
-            batchPersister.persist(stakingRewardTransfers);
-            batchPersister.persist(tokenTransfers);
-
-            // handle the transfers from token dissociate transactions after nft is processed
-            tokenDissociateTransferBatchPersister.persist(deletedTokenDissociateTransfers);
+            // copy the remaining rows of the streamed insert only operations
+            if (sqlProperties.isStreaming()) {
+                batchStreamer.flush();
+            }
+
+            // insert only operations that nothing in the parser transaction reads back, copied concurrently if enabled
+            var insertOnlyItems = List.of(
+                    assessedCustomFees,
+                    contractActions,
+                    contractLogs,
+                    contractResults,
+                    contractStateChanges,
+                    cryptoTransfers,
+                    ethereumTransactions,
+                    prngs,
+                    topicMessages,
+                    transactionSignatures);
+            concurrentBatchPersister.persist(insertOnlyItems, consensusTimestamp, this::flushMain);
 
             log.info("Completed batch inserts in {}", stopwatch);
         } catch (ParserException e) {
@@ -574,11 +588,53 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
         }
     }
 
+    // Insert only items that nothing reads back before the end of the batch can be streamed as they're produced
+    private <T> void insertOnly(Collection<T> items, T item) {
+        if (sqlProperties.isStreaming()) {
+            batchStreamer.write(item);
+        } else {
+            items.add(item);
+        }
+    }
+
+    private void flushMain() {
+        // insert only operations
+        batchPersister.persist(customFees);
+        batchPersister.persist(fileData);
+        batchPersister.persist(liveHashes);
+        batchPersister.persist(networkStakes);
+        batchPersister.persist(nodeStakes);
+        batchPersister.persist(transactionHashes);
+        // the deleted token dissociate transfers below update the nft transfers of these transactions
+        batchPersister.persist(transactions);
+
+        // insert operations with conflict management
+        batchPersister.persist(contracts);
+        batchPersister.persist(contractStates.values());
+        batchPersister.persist(cryptoAllowances);
+        upsertableStateCache.persist(entities);
+        batchPersister.persist(nftAllowances);
+        upsertableStateCache.persist(tokens);
+        // ingest tokenAccounts after tokens since some fields of token accounts depends on the associated token
+        upsertableStateCache.persist(tokenAccounts);
+        batchPersister.persist(tokenAllowances);
+        batchPersister.persist(nfts); // persist nft after token entity
+        batchPersister.persist(schedules.values());
+
+        // transfers operations should be last to ensure insert logic completeness, entities should already exist
+        batchPersister.persist(nonFeeTransfers);
+        batchPersister.persist(stakingRewardTransfers);
+        batchPersister.persist(tokenTransfers);
+
+        // handle the transfers from token dissociate transactions after nft is processed
+        tokenDissociateTransferBatchPersister.persist(deletedTokenDissociateTransfers);
+    }
+
     private void flushNftState() {
         try {
             // flush tables required for an accurate nft state in database to ensure correct state-dependent changes
-            batchPersister.persist(tokens);
-            batchPersister.persist(tokenAccounts);
+            upsertableStateCache.persist(tokens);
+            upsertableStateCache.persist(tokenAccounts);
             batchPersister.persist(nfts);
         } catch (ParserException e) {
             throw e;
@@ -926,6 +982,8 @@ public class SqlEntityListener implements EntityListener, RecordStreamFileListen
                         nftTransfer.getReceiverAccountId().getId(),
                         nftTransfer.getSenderAccountId().getId(),
                         nftTransfer.getTokenId().getId());
+                // The treasury update changes the token account balances outside the upsert
+                upsertableStateCache.evictAll(TokenAccount.class);
                 return;
             }
 
@@ -30,4 +30,12 @@ public class SqlProperties {
     private int batchSize = 20_000;
 
     private boolean enabled = true;
+
+    // The maximum number of entities, tokens and token accounts each whose committed state is cached across record
+    // files, so their updates can be upserted without merging them with the existing rows. Disabled when zero.
+    @Min(0)
+    private long stateCacheSize = 0;
+
+    // Stream insert-only rows to the database as they're produced instead of collecting them for the whole batch
+    private boolean streaming = false;
 }
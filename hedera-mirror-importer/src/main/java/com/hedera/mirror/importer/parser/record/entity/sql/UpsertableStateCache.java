@@ -0,0 +1,464 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.record.entity.sql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.base.Stopwatch;
+import com.hedera.mirror.common.domain.History;
+import com.hedera.mirror.common.domain.entity.Entity;
+import com.hedera.mirror.common.domain.entity.EntityType;
+import com.hedera.mirror.common.domain.token.Token;
+import com.hedera.mirror.common.domain.token.TokenAccount;
+import com.hedera.mirror.importer.exception.ParserException;
+import com.hedera.mirror.importer.parser.batch.BatchPersister;
+import com.hedera.mirror.importer.parser.batch.CompositeBatchPersister;
+import com.hedera.mirror.importer.parser.record.entity.ConditionOnEntityRecordParser;
+import com.hedera.mirror.importer.repository.EntityRepository;
+import com.hedera.mirror.importer.repository.TokenAccountRepository;
+import com.hedera.mirror.importer.repository.TokenRepository;
+import com.hedera.mirror.importer.repository.upsert.ColumnMetadata;
+import com.hedera.mirror.importer.repository.upsert.EntityMetadataRegistry;
+import jakarta.inject.Named;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.CustomLog;
+import org.springframework.context.event.EventListener;
+import org.springframework.integration.leader.event.AbstractLeaderEvent;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caches the last committed state of hot entities, tokens and token accounts across record files. Partial updates of
+ * cached rows are completed in memory the same way the upsert queries merge them with the existing rows, so they can
+ * be upserted as is without the database joining and merging the existing rows. The rows of uncached or ineligible ids
+ * take the regular upsert path, and ids that take it a second time are loaded from the database after their upsert,
+ * so only ids that are touched repeatedly are admitted into the cache.
+ * <p>
+ * The state changes of a transaction are only applied to the cache once it's committed, while a rollback invalidates
+ * the whole cache. Rows updated outside the upsert path must be evicted by their writer. Not thread-safe except for the
+ * evictions, it's meant to be used by the single parser thread.
+ */
+@ConditionOnEntityRecordParser
+@CustomLog
+@Named
+public class UpsertableStateCache {
+
+    private final BatchPersister batchPersister;
+    private final CompositeBatchPersister compositeBatchPersister;
+    private final Map<Class<?>, StateType<?, ?>> stateTypes = new HashMap<>();
+
+    @SuppressWarnings("java:S107")
+    public UpsertableStateCache(
+            BatchPersister batchPersister,
+            CompositeBatchPersister compositeBatchPersister,
+            EntityMetadataRegistry entityMetadataRegistry,
+            EntityRepository entityRepository,
+            SqlProperties sqlProperties,
+            TokenAccountRepository tokenAccountRepository,
+            TokenRepository tokenRepository) {
+        this.batchPersister = batchPersister;
+        this.compositeBatchPersister = compositeBatchPersister;
+
+        long maximumSize = sqlProperties.getStateCacheSize();
+        if (maximumSize <= 0) {
+            return;
+        }
+
+        var entities = new StateType<>(Entity.class, Entity::getId, entityRepository::findAllById, maximumSize);
+        entities.completers.put("balance", (current, existing, column) -> {
+            // Only accounts and contracts have a balance, which is the existing balance plus the change
+            var type = existing.getType() != null ? existing.getType() : current.getType();
+            if (type == EntityType.ACCOUNT || type == EntityType.CONTRACT) {
+                current.setBalance(value(existing.getBalance()) + value(current.getBalance()));
+            } else {
+                current.setBalance(null);
+            }
+        });
+        entities.completers.put("ethereum_nonce", (current, existing, column) -> {
+            coalesce(current, existing, column);
+            var type = existing.getType() != null ? existing.getType() : current.getType();
+            if (current.getEthereumNonce() == null && type == EntityType.ACCOUNT) {
+                current.setEthereumNonce(defaultValue(column));
+            }
+        });
+
+        var tokens = new StateType<>(Token.class, Token::getTokenId, tokenRepository::findAllById, maximumSize);
+        tokens.completers.put("total_supply", (current, existing, column) -> {
+            // A negative total supply is a change to the existing total supply
+            var totalSupply = current.getTotalSupply();
+            if (totalSupply == null || totalSupply < 0) {
+                var change = totalSupply != null ? totalSupply : defaultValue(column);
+                var existingTotalSupply = existing.getTotalSupply();
+                var completed = existingTotalSupply != null && change != null ? existingTotalSupply + change : null;
+                current.setTotalSupply(completed);
+            }
+        });
+
+        var tokenAccounts = new StateType<>(
+                TokenAccount.class, TokenAccount::getId, tokenAccountRepository::findAllById, maximumSize);
+        tokenAccounts.completers.put("balance", (current, existing, column) -> {
+            // The balance of an update to an existing association is a change to the existing balance
+            current.setBalance(existing.getBalance() + current.getBalance());
+        });
+        // The state of a new association depends on its token, so it's left to the regular upsert
+        tokenAccounts.eligibility = tokenAccount -> tokenAccount.getCreatedTimestamp() == null;
+
+        for (var stateType : List.of(entities, tokens, tokenAccounts)) {
+            try {
+                stateType.init(entityMetadataRegistry);
+                stateTypes.put(stateType.domainClass, stateType);
+            } catch (UnsupportedOperationException e) {
+                log.warn("Unable to cache the state of {}: {}", stateType.domainClass.getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Upserts the rows of a domain class, taking the complete row path for the ids whose state is cached. Falls back to
+     * the regular upsert if the state of the domain class isn't cached or there's no active transaction.
+     *
+     * @param items the rows to upsert
+     */
+    public void persist(Collection<?> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+
+        var stateType = stateTypes.get(items.iterator().next().getClass());
+        if (stateType == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            batchPersister.persist(items);
+            return;
+        }
+
+        stateType.persist(items, getTransactionState());
+    }
+
+    /**
+     * Evicts the cached state of the ids, for example after they're updated outside the upsert path
+     *
+     * @param domainClass the domain class
+     * @param ids         the ids to evict
+     */
+    public void evict(Class<?> domainClass, Collection<?> ids) {
+        var stateType = stateTypes.get(domainClass);
+        if (stateType != null) {
+            stateType.committed.invalidateAll(ids);
+            var transactionState = getTransactionStateIfPresent();
+            if (transactionState != null) {
+                transactionState.get(domainClass).keySet().removeAll(ids);
+            }
+        }
+    }
+
+    /**
+     * Evicts the whole cached state of the domain class
+     *
+     * @param domainClass the domain class
+     */
+    public void evictAll(Class<?> domainClass) {
+        var stateType = stateTypes.get(domainClass);
+        if (stateType != null) {
+            stateType.committed.invalidateAll();
+            var transactionState = getTransactionStateIfPresent();
+            if (transactionState != null) {
+                transactionState.get(domainClass).clear();
+            }
+        }
+    }
+
+    // Another importer may have updated the rows while this one wasn't the leader
+    @EventListener
+    public void onLeaderEvent(AbstractLeaderEvent event) {
+        invalidateAll();
+    }
+
+    private void invalidateAll() {
+        stateTypes.values().forEach(stateType -> {
+            stateType.candidates.invalidateAll();
+            stateType.committed.invalidateAll();
+        });
+    }
+
+    private TransactionState getTransactionState() {
+        var transactionState = getTransactionStateIfPresent();
+
+        if (transactionState == null) {
+            transactionState = new TransactionState();
+            TransactionSynchronizationManager.bindResource(this, transactionState);
+            TransactionSynchronizationManager.registerSynchronization(transactionState);
+        }
+
+        return transactionState;
+    }
+
+    private TransactionState getTransactionStateIfPresent() {
+        return (TransactionState) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private static void coalesce(Object current, Object existing, ColumnMetadata column) {
+        if (column.getGetter().apply(current) == null) {
+            column.getSetter().accept(current, column.getGetter().apply(existing));
+        }
+    }
+
+    private static Long defaultValue(ColumnMetadata column) {
+        var defaultValue = column.getDefaultValue();
+        return defaultValue != null ? Long.valueOf(defaultValue.toString()) : null;
+    }
+
+    private static long value(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    @FunctionalInterface
+    private interface ColumnCompleter<T> {
+        void complete(T current, T existing, ColumnMetadata column);
+    }
+
+    /**
+     * The state of the rows upserted in the current transaction, which overrides the cache until it's committed
+     */
+    private class TransactionState implements TransactionSynchronization {
+
+        private final Map<Class<?>, Map<Object, Object>> states = new HashMap<>();
+
+        private Map<Object, Object> get(Class<?> domainClass) {
+            return states.computeIfAbsent(domainClass, c -> new HashMap<>());
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(UpsertableStateCache.this);
+
+            if (status == STATUS_COMMITTED) {
+                states.forEach((domainClass, state) -> stateTypes.get(domainClass).commit(state));
+            } else {
+                invalidateAll();
+            }
+        }
+    }
+
+    private class StateType<T extends History, I> {
+
+        private final Cache<Object, Boolean> candidates;
+        private final Cache<Object, T> committed;
+        private final Map<String, ColumnCompleter<T>> completers = new HashMap<>();
+        private final Class<T> domainClass;
+        private final Function<T, I> idFunction;
+        private final Function<Iterable<I>, Iterable<T>> loader;
+        private List<ColumnMetadata> columns;
+        private Constructor<T> constructor;
+        private Predicate<T> eligibility = t -> true;
+
+        private StateType(
+                Class<T> domainClass,
+                Function<T, I> idFunction,
+                Function<Iterable<I>, Iterable<T>> loader,
+                long maximumSize) {
+            this.candidates = Caffeine.newBuilder().maximumSize(maximumSize).build();
+            this.committed = Caffeine.newBuilder().maximumSize(maximumSize).build();
+            this.domainClass = domainClass;
+            this.idFunction = idFunction;
+            this.loader = loader;
+        }
+
+        private void init(EntityMetadataRegistry entityMetadataRegistry) {
+            var entityMetadata = entityMetadataRegistry.lookup(domainClass);
+            if (!entityMetadata.getUpsertable().history()) {
+                throw new UnsupportedOperationException("not a history table");
+            }
+
+            for (var column : entityMetadata.getColumns()) {
+                if (column.getUpsertColumn() != null && !completers.containsKey(column.getName())) {
+                    throw new UnsupportedOperationException("unsupported column " + column.getName());
+                }
+            }
+
+            try {
+                constructor = domainClass.getConstructor();
+            } catch (NoSuchMethodException e) {
+                throw new UnsupportedOperationException("missing no-args constructor");
+            }
+
+            columns = List.copyOf(entityMetadata.getColumns());
+        }
+
+        private void persist(Collection<?> items, TransactionState transactionState) {
+            var stopwatch = Stopwatch.createStarted();
+            var staged = staged(transactionState);
+            var rowsById = new LinkedHashMap<I, List<T>>();
+
+            for (var item : items) {
+                var row = domainClass.cast(item);
+                rowsById.computeIfAbsent(idFunction.apply(row), k -> new ArrayList<>()).add(row);
+            }
+
+            var completeRows = new ArrayList<T>();
+            var partialRows = new ArrayList<T>();
+            var missing = new ArrayList<I>();
+            var states = new HashMap<Object, T>();
+
+            for (var entry : rowsById.entrySet()) {
+                var id = entry.getKey();
+                var rows = entry.getValue();
+                var existing = staged.containsKey(id) ? staged.get(id) : committed.getIfPresent(id);
+
+                if (existing != null && isEligible(rows, existing)) {
+                    states.put(id, complete(rows, existing, completeRows));
+                } else {
+                    staged.remove(id);
+                    committed.invalidate(id);
+                    missing.add(id);
+                    partialRows.addAll(rows);
+                }
+            }
+
+            compositeBatchPersister.persistComplete(completeRows);
+            batchPersister.persist(partialRows);
+            staged.putAll(states);
+            load(missing, staged);
+
+            log.debug(
+                    "Upserted {} complete and {} partial {} rows in {}",
+                    completeRows.size(),
+                    partialRows.size(),
+                    domainClass.getSimpleName(),
+                    stopwatch);
+        }
+
+        private boolean isEligible(List<T> rows, T existing) {
+            if (existing.getTimestampUpper() != null) {
+                return false;
+            }
+
+            int current = 0;
+
+            for (var row : rows) {
+                if (!eligibility.test(row)) {
+                    return false;
+                }
+
+                if (row.getTimestampUpper() == null) {
+                    current++;
+                }
+
+                // The upsert would fall back to the column default, which may be an expression
+                for (var column : columns) {
+                    if (column.getDefaultValue() != null
+                            && !completers.containsKey(column.getName())
+                            && column.getGetter().apply(row) == null
+                            && column.getGetter().apply(existing) == null) {
+                        return false;
+                    }
+                }
+            }
+
+            return current == 1;
+        }
+
+        /**
+         * Completes the rows of an id with its existing state the same way the upsert query merges them. The existing
+         * row is closed by the lower timestamp of the earliest history row and moved to the history table.
+         *
+         * @return the new state of the id
+         */
+        private T complete(List<T> rows, T existing, List<T> completeRows) {
+            Long firstLower = null;
+            for (var row : rows) {
+                var lower = row.getTimestampLower();
+                if (lower != null && (firstLower == null || lower < firstLower)) {
+                    firstLower = lower;
+                }
+            }
+
+            if (firstLower != null) {
+                var closed = copy(existing);
+                closed.setTimestampUpper(firstLower);
+                completeRows.add(closed);
+            }
+
+            T state = null;
+
+            for (var row : rows) {
+                boolean current = row.getTimestampUpper() == null;
+
+                for (var column : columns) {
+                    var completer = completers.get(column.getName());
+                    if (completer != null) {
+                        completer.complete(row, existing, column);
+                    } else {
+                        coalesce(row, existing, column);
+                    }
+                }
+
+                completeRows.add(row);
+                if (current) {
+                    state = row;
+                }
+            }
+
+            return state;
+        }
+
+        private T copy(T row) {
+            try {
+                var copy = constructor.newInstance();
+                columns.forEach(c -> c.getSetter().accept(copy, c.getGetter().apply(row)));
+                return copy;
+            } catch (ReflectiveOperationException e) {
+                throw new ParserException(e);
+            }
+        }
+
+        /*
+         * Loads the state of the ids missing for the second time after their regular upsert
+         */
+        private void load(List<I> missing, Map<Object, T> staged) {
+            var ids = new ArrayList<I>();
+
+            for (var id : missing) {
+                if (candidates.getIfPresent(id) != null) {
+                    candidates.invalidate(id);
+                    ids.add(id);
+                } else {
+                    candidates.put(id, Boolean.TRUE);
+                }
+            }
+
+            if (!ids.isEmpty()) {
+                loader.apply(ids).forEach(row -> staged.put(idFunction.apply(row), row));
+            }
+        }
+
+        private void commit(Map<Object, Object> state) {
+            state.forEach((id, row) -> committed.put(id, domainClass.cast(row)));
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map<Object, T> staged(TransactionState transactionState) {
+            return (Map<Object, T>) (Map<Object, ?>) transactionState.get(domainClass);
+        }
+    }
+}
@@ -111,6 +111,11 @@ public class TopicMessageLookupEntityListener implements EntityListener, RecordS
         }
     }
 
+    @Override
+    public void onIntermediateEnd(RecordFile recordFile) throws ImporterException {
+        // Keep merging the lookups until the end of the batch
+    }
+
     @Override
     public void onError() {
         cleanup();
@@ -16,9 +16,10 @@
 
 package com.hedera.mirror.importer.reader.balance;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.ExtensionRegistryLite;
-import com.google.protobuf.UnknownFieldSet;
 import com.hedera.mirror.common.domain.balance.AccountBalance;
 import com.hedera.mirror.common.domain.balance.AccountBalanceFile;
 import com.hedera.mirror.common.domain.balance.TokenBalance;
@@ -30,26 +31,55 @@ import com.hedera.mirror.importer.exception.StreamFileReaderException;
 import com.hedera.services.stream.proto.SingleAccountBalances;
 import com.hederahashgraph.api.proto.java.Timestamp;
 import jakarta.inject.Named;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ForkJoinPool;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
 import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+/**
+ * Reads a protobuf account balance file without keeping its decompressed bytes in memory. The file is first streamed
+ * to read its consensus timestamp and hash it, since both are needed to verify the file before its items are read.
+ * The items are then read lazily when subscribed to, splitting the repeated balance records into chunks at their tag
+ * boundaries only as fast as the chunks are decoded in parallel on the common ForkJoin pool. The account balances are
+ * emitted in file order and the hash of the bytes they were read from is checked when the items complete.
+ */
 @Log4j2
 @Named
 public class ProtoBalanceFileReader implements BalanceFileReader {
 
+    private static final int CHUNK_SIZE = 1024 * 1024;
     private static final String FILE_EXTENSION = "pb";
     private static final int TAG_EOF = 0;
     private static final int TAG_TIMESTAMP = 10;
     private static final int TAG_BALANCE = 18;
 
+    private final int chunkSize;
+    private final int concurrency = ForkJoinPool.getCommonPoolParallelism();
+    private final Scheduler scheduler = Schedulers.fromExecutorService(ForkJoinPool.commonPool(), "balance_decoder");
+
+    public ProtoBalanceFileReader() {
+        this(CHUNK_SIZE);
+    }
+
+    @VisibleForTesting
+    ProtoBalanceFileReader(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
     @Override
     public boolean supports(StreamFileData streamFileData) {
         return FILE_EXTENSION.equals(
@@ -59,67 +89,81 @@ public class ProtoBalanceFileReader implements BalanceFileReader {
     @Override
     public AccountBalanceFile read(StreamFileData streamFileData) {
         Instant loadStart = Instant.now();
-        Flux<AccountBalance> items = toFlux(streamFileData);
-        long consensusTimestamp = items.map(AccountBalance::getId)
-                .map(AccountBalance.Id::getConsensusTimestamp)
-                .blockFirst();
+        MessageDigest messageDigest = DigestUtils.getSha384Digest();
+
+        try (InputStream inputStream = new DigestInputStream(streamFileData.getInputStream(), messageDigest)) {
+            var input = CodedInputStream.newInstance(inputStream);
+            long consensusTimestamp = 0L;
+            boolean done = false;
+
+            while (!done) {
+                int tag = input.readTag();
+                switch (tag) {
+                    case TAG_EOF:
+                        done = true;
+                        break;
+                    case TAG_TIMESTAMP:
+                        Timestamp timestamp =
+                                input.readMessage(Timestamp.parser(), ExtensionRegistryLite.getEmptyRegistry());
+                        consensusTimestamp = DomainUtils.timestampInNanosMax(timestamp);
+                        break;
+                    case TAG_BALANCE:
+                        Assert.state(consensusTimestamp > 0, "Missing consensus timestamp)");
+                        input.skipField(tag);
+                        break;
+                    default:
+                        log.warn("Unsupported tag: {}", tag);
+                        done = !input.skipField(tag);
+                }
+            }
+
+            Assert.state(consensusTimestamp > 0, "Missing consensus timestamp)");
+            IOUtils.consume(inputStream);
+            var fileHash = DomainUtils.bytesToHex(messageDigest.digest());
 
-        try (InputStream inputStream = streamFileData.getInputStream()) {
             AccountBalanceFile accountBalanceFile = new AccountBalanceFile();
             accountBalanceFile.setBytes(streamFileData.getBytes());
             accountBalanceFile.setConsensusTimestamp(consensusTimestamp);
-            accountBalanceFile.setFileHash(DigestUtils.sha384Hex(inputStream));
-            accountBalanceFile.setItems(items);
+            accountBalanceFile.setFileHash(fileHash);
+            accountBalanceFile.setItems(readItems(streamFileData, consensusTimestamp, fileHash));
             accountBalanceFile.setLoadStart(loadStart.getEpochSecond());
             accountBalanceFile.setName(streamFileData.getFilename());
             return accountBalanceFile;
         } catch (IOException e) {
             throw new StreamFileReaderException(e);
+        } catch (IllegalStateException e) {
+            throw new InvalidStreamFileException(e);
         }
     }
 
-    private Flux<AccountBalance> toFlux(StreamFileData streamFileData) {
-        return Flux.defer(() -> {
-            InputStream inputStream = streamFileData.getInputStream();
-            ExtensionRegistryLite extensionRegistry = ExtensionRegistryLite.getEmptyRegistry();
-            CodedInputStream input = CodedInputStream.newInstance(inputStream);
-            AtomicLong consensusTimestamp = new AtomicLong(0L);
-            UnknownFieldSet.Builder unknownFieldSet = UnknownFieldSet.newBuilder();
-
-            return Flux.<AccountBalance>generate(sink -> {
-                        try {
-                            boolean done = false;
-                            while (!done) {
-                                int tag = input.readTag();
-                                switch (tag) {
-                                    case TAG_EOF:
-                                        done = true;
-                                        break;
-                                    case TAG_TIMESTAMP:
-                                        Timestamp timestamp = input.readMessage(Timestamp.parser(), extensionRegistry);
-                                        consensusTimestamp.set(DomainUtils.timestampInNanosMax(timestamp));
-                                        break;
-                                    case TAG_BALANCE:
-                                        Assert.state(consensusTimestamp.get() > 0, "Missing consensus timestamp)");
-                                        var ab = input.readMessage(SingleAccountBalances.parser(), extensionRegistry);
-                                        sink.next(toAccountBalance(consensusTimestamp.get(), ab));
-                                        return;
-                                    default:
-                                        log.warn("Unsupported tag: {}", tag);
-                                        done = !unknownFieldSet.mergeFieldFrom(tag, input);
-                                }
-                            }
-
-                            Assert.state(consensusTimestamp.get() > 0, "Missing consensus timestamp)");
-                            sink.complete();
-                        } catch (IOException e) {
-                            sink.error(new StreamFileReaderException(e));
-                        } catch (IllegalStateException e) {
-                            sink.error(new InvalidStreamFileException(e));
-                        }
-                    })
-                    .doFinally(s -> IOUtils.closeQuietly(inputStream));
-        });
+    private Flux<AccountBalance> readItems(StreamFileData streamFileData, long consensusTimestamp, String fileHash) {
+        // Each subscription, for example a retry of the parser, reads the file again
+        return Flux.<byte[], ChunkReader>generate(
+                        () -> new ChunkReader(streamFileData, fileHash, chunkSize),
+                        ChunkReader::next,
+                        ChunkReader::close)
+                .flatMapSequential(
+                        c -> Mono.fromCallable(() -> decode(consensusTimestamp, c))
+                                .subscribeOn(scheduler),
+                        concurrency)
+                .flatMapIterable(accountBalances -> accountBalances);
+    }
+
+    private List<AccountBalance> decode(long consensusTimestamp, byte[] chunk) {
+        try {
+            var extensionRegistry = ExtensionRegistryLite.getEmptyRegistry();
+            var input = CodedInputStream.newInstance(chunk);
+            var accountBalances = new ArrayList<AccountBalance>();
+
+            while (!input.isAtEnd()) {
+                var balances = input.readMessage(SingleAccountBalances.parser(), extensionRegistry);
+                accountBalances.add(toAccountBalance(consensusTimestamp, balances));
+            }
+
+            return accountBalances;
+        } catch (IOException e) {
+            throw new StreamFileReaderException(e);
+        }
     }
 
     private AccountBalance toAccountBalance(long consensusTimestamp, SingleAccountBalances balances) {
@@ -134,4 +178,72 @@ public class ProtoBalanceFileReader implements BalanceFileReader {
         return new AccountBalance(
                 balances.getHbarBalance(), tokenBalances, new AccountBalance.Id(consensusTimestamp, accountId));
     }
+
+    /**
+     * Splits the balance records of the file into chunks one at a time, hashing the bytes as they're read
+     */
+    private static class ChunkReader {
+
+        private final int chunkSize;
+        private final String fileHash;
+        private final CodedInputStream input;
+        private final InputStream inputStream;
+        private final MessageDigest messageDigest = DigestUtils.getSha384Digest();
+        private final String name;
+
+        private ChunkReader(StreamFileData streamFileData, String fileHash, int chunkSize) {
+            this.chunkSize = chunkSize;
+            this.fileHash = fileHash;
+            this.inputStream = new DigestInputStream(streamFileData.getInputStream(), messageDigest);
+            this.input = CodedInputStream.newInstance(inputStream);
+            this.name = streamFileData.getFilename();
+        }
+
+        private ChunkReader next(SynchronousSink<byte[]> sink) {
+            try {
+                var chunk = new ByteArrayOutputStream(chunkSize);
+                var output = CodedOutputStream.newInstance(chunk);
+                boolean done = false;
+
+                while (!done && chunk.size() < chunkSize) {
+                    int tag = input.readTag();
+                    if (tag == TAG_BALANCE) {
+                        // Copy the length delimited record as is so that it's only decoded once, in parallel
+                        int length = input.readRawVarint32();
+                        output.writeUInt32NoTag(length);
+                        output.writeRawBytes(input.readRawBytes(length));
+                        output.flush();
+                    } else {
+                        done = tag == TAG_EOF || !input.skipField(tag);
+                    }
+                }
+
+                if (chunk.size() > 0) {
+                    sink.next(chunk.toByteArray());
+                } else {
+                    complete(sink);
+                }
+            } catch (IOException e) {
+                sink.error(new StreamFileReaderException(e));
+            }
+
+            return this;
+        }
+
+        private void complete(SynchronousSink<byte[]> sink) throws IOException {
+            IOUtils.consume(inputStream);
+            var actualHash = DomainUtils.bytesToHex(messageDigest.digest());
+
+            if (actualHash.equals(fileHash)) {
+                sink.complete();
+            } else {
+                sink.error(new InvalidStreamFileException(
+                        "Hash of balance file " + name + " changed from " + fileHash + " to " + actualHash));
+            }
+        }
+
+        private void close() {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
 }
@@ -18,6 +18,11 @@ package com.hedera.mirror.importer.reader.record;
 
 import static java.lang.String.format;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
 import com.hedera.mirror.common.domain.DigestAlgorithm;
 import com.hedera.mirror.common.domain.transaction.RecordFile;
 import com.hedera.mirror.common.domain.transaction.RecordItem;
@@ -29,11 +34,13 @@ import com.hedera.mirror.importer.exception.InvalidStreamFileException;
 import com.hedera.mirror.importer.exception.StreamFileReaderException;
 import com.hedera.services.stream.proto.HashAlgorithm;
 import com.hedera.services.stream.proto.RecordStreamFile;
+import com.hedera.services.stream.proto.RecordStreamItem;
 import jakarta.inject.Named;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -44,6 +51,7 @@ import java.util.Objects;
 import java.util.stream.Stream;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.data.util.Version;
 import reactor.core.publisher.Flux;
 
@@ -53,13 +61,18 @@ public class ProtoRecordFileReader implements RecordFileReader {
 
     public static final int VERSION = 6;
 
+    private static final DigestAlgorithm DEFAULT_DIGEST_ALGORITHM = DigestAlgorithm.SHA_384;
+
     @Override
     public RecordFile read(StreamFileData streamFileData) {
         var filename = streamFileData.getFilename();
         var loadStart = Instant.now().getEpochSecond();
 
-        try (var inputStream = streamFileData.getInputStream()) {
-            var recordStreamFile = readRecordStreamFile(filename, inputStream);
+        // Hash the file while it's decompressed and parsed instead of digesting the decompressed bytes separately
+        try (var inputStream = new DigestInputStream(
+                streamFileData.getInputStream(), createMessageDigest(DEFAULT_DIGEST_ALGORITHM))) {
+            var items = new ArrayList<RecordStreamItemBytes>();
+            var recordStreamFile = readRecordStreamFile(filename, inputStream, items);
             var startObjectRunningHash = recordStreamFile.getStartObjectRunningHash();
             var endObjectRunningHash = recordStreamFile.getEndObjectRunningHash();
             var startHashAlgorithm = startObjectRunningHash.getAlgorithm();
@@ -74,26 +87,26 @@ public class ProtoRecordFileReader implements RecordFileReader {
             }
 
             var bytes = streamFileData.getBytes();
-            var items = readItems(filename, recordStreamFile);
-            int count = items.size();
-            long consensusEnd = items.get(count - 1).getConsensusTimestamp();
+            var recordItems = readItems(filename, recordStreamFile, items);
+            int count = recordItems.size();
+            long consensusEnd = recordItems.get(count - 1).getConsensusTimestamp();
             var digestAlgorithm = getDigestAlgorithm(filename, startHashAlgorithm, endHashAlgorithm);
             var hapiProtoVersion = recordStreamFile.getHapiProtoVersion();
             var sidecars = getSidecars(consensusEnd, recordStreamFile, streamFileData.getStreamFilename());
 
             return RecordFile.builder()
                     .bytes(bytes)
-                    .consensusStart(items.get(0).getConsensusTimestamp())
+                    .consensusStart(recordItems.get(0).getConsensusTimestamp())
                     .consensusEnd(consensusEnd)
                     .count((long) count)
                     .digestAlgorithm(digestAlgorithm)
-                    .fileHash(getFileHash(digestAlgorithm, streamFileData.getDecompressedBytes()))
+                    .fileHash(getFileHash(digestAlgorithm, inputStream, streamFileData))
                     .hapiVersionMajor(hapiProtoVersion.getMajor())
                     .hapiVersionMinor(hapiProtoVersion.getMinor())
                     .hapiVersionPatch(hapiProtoVersion.getPatch())
                     .hash(DomainUtils.bytesToHex(DomainUtils.getHashBytes(endObjectRunningHash)))
                     .index(recordStreamFile.getBlockNumber())
-                    .items(Flux.fromIterable(items))
+                    .items(Flux.fromIterable(recordItems))
                     .loadStart(loadStart)
                     .metadataHash(getMetadataHash(digestAlgorithm, recordStreamFile))
                     .name(filename)
@@ -136,9 +149,19 @@ public class ProtoRecordFileReader implements RecordFileReader {
                 });
     }
 
-    private String getFileHash(DigestAlgorithm algorithm, byte[] fileData) {
-        var messageDigest = createMessageDigest(algorithm);
-        return DomainUtils.bytesToHex(messageDigest.digest(fileData));
+    private String getFileHash(
+            DigestAlgorithm algorithm, DigestInputStream digestInputStream, StreamFileData streamFileData)
+            throws IOException {
+        if (algorithm == DEFAULT_DIGEST_ALGORITHM) {
+            return DomainUtils.bytesToHex(digestInputStream.getMessageDigest().digest());
+        }
+
+        // The file hash algorithm is only known after parsing, so the file needs to be read again in the rare case it
+        // differs from the default
+        try (var inputStream = new DigestInputStream(streamFileData.getInputStream(), createMessageDigest(algorithm))) {
+            inputStream.transferTo(NullOutputStream.INSTANCE);
+            return DomainUtils.bytesToHex(inputStream.getMessageDigest().digest());
+        }
     }
 
     private String getMetadataHash(DigestAlgorithm algorithm, RecordStreamFile recordStreamFile) throws IOException {
@@ -178,8 +201,9 @@ public class ProtoRecordFileReader implements RecordFileReader {
         }
     }
 
-    private List<RecordItem> readItems(String filename, RecordStreamFile recordStreamFile) {
-        int count = recordStreamFile.getRecordStreamItemsCount();
+    private List<RecordItem> readItems(
+            String filename, RecordStreamFile recordStreamFile, List<RecordStreamItemBytes> recordStreamItems) {
+        int count = recordStreamItems.size();
         if (count == 0) {
             throw new InvalidStreamFileException("No record stream objects in record file " + filename);
         }
@@ -189,12 +213,12 @@ public class ProtoRecordFileReader implements RecordFileReader {
                 new Version(hapiProtoVersion.getMajor(), hapiProtoVersion.getMinor(), hapiProtoVersion.getPatch());
         var items = new ArrayList<RecordItem>(count);
         RecordItem previousItem = null;
-        for (var recordStreamItem : recordStreamFile.getRecordStreamItemsList()) {
+        for (var recordStreamItem : recordStreamItems) {
             var recordItem = RecordItem.builder()
                     .hapiVersion(hapiVersion)
                     .previous(previousItem)
-                    .transactionRecordBytes(recordStreamItem.getRecord().toByteArray())
-                    .transactionBytes(recordStreamItem.getTransaction().toByteArray())
+                    .transactionRecordBytes(recordStreamItem.recordBytes())
+                    .transactionBytes(recordStreamItem.transactionBytes())
                     .transactionIndex(items.size())
                     .build();
             items.add(recordItem);
@@ -204,15 +228,60 @@ public class ProtoRecordFileReader implements RecordFileReader {
         return items;
     }
 
-    private RecordStreamFile readRecordStreamFile(String filename, InputStream inputStream) throws IOException {
-        try (var dataInputStream = new DataInputStream(inputStream)) {
-            int version = dataInputStream.readInt();
-            if (version != VERSION) {
-                throw new InvalidStreamFileException(
-                        format("Expected file %s with version %d, got %d.", filename, VERSION, version));
+    /**
+     * Reads the record stream file without parsing its record stream items. Instead, the raw bytes of each item's
+     * transaction and record are captured so RecordItem only parses them once, avoiding parsing the items as part of
+     * the RecordStreamFile and then serializing them again.
+     */
+    @VisibleForTesting
+    RecordStreamFile readRecordStreamFile(
+            String filename, InputStream inputStream, List<RecordStreamItemBytes> items) throws IOException {
+        // Don't close the DataInputStream since the caller still needs the digest of the underlying stream
+        var dataInputStream = new DataInputStream(inputStream);
+        int version = dataInputStream.readInt();
+        if (version != VERSION) {
+            throw new InvalidStreamFileException(
+                    format("Expected file %s with version %d, got %d.", filename, VERSION, version));
+        }
+
+        var input = CodedInputStream.newInstance(dataInputStream);
+        var otherFields = ByteString.newOutput();
+        var output = CodedOutputStream.newInstance(otherFields);
+
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (WireFormat.getTagFieldNumber(tag) == RecordStreamFile.RECORD_STREAM_ITEMS_FIELD_NUMBER
+                    && WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                items.add(readRecordStreamItem(input));
+            } else {
+                input.skipField(tag, output);
             }
+        }
 
-            return RecordStreamFile.parseFrom(dataInputStream);
+        output.flush();
+        return RecordStreamFile.parseFrom(otherFields.toByteString());
+    }
+
+    private RecordStreamItemBytes readRecordStreamItem(CodedInputStream input) throws IOException {
+        int limit = input.pushLimit(input.readRawVarint32());
+        byte[] recordBytes = ArrayUtils.EMPTY_BYTE_ARRAY;
+        byte[] transactionBytes = ArrayUtils.EMPTY_BYTE_ARRAY;
+
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (WireFormat.getTagWireType(tag) != WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                input.skipField(tag);
+                continue;
+            }
+
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case RecordStreamItem.RECORD_FIELD_NUMBER -> recordBytes = input.readByteArray();
+                case RecordStreamItem.TRANSACTION_FIELD_NUMBER -> transactionBytes = input.readByteArray();
+                default -> input.skipField(tag);
+            }
         }
+
+        input.popLimit(limit);
+        return new RecordStreamItemBytes(recordBytes, transactionBytes);
     }
+
+    record RecordStreamItemBytes(byte[] recordBytes, byte[] transactionBytes) {}
 }
@@ -18,8 +18,20 @@ package com.hedera.mirror.importer.reader.record.sidecar;
 
 import com.hedera.mirror.common.domain.transaction.SidecarFile;
 import com.hedera.mirror.importer.domain.StreamFileData;
+import com.hedera.services.stream.proto.SidecarType;
+import java.util.Set;
 
 public interface SidecarFileReader {
 
     void read(SidecarFile sidecarFile, StreamFileData streamFileData);
+
+    /**
+     * Reads the sidecar file, only keeping the transaction sidecar records of the given types. The hash and count still
+     * cover every record in the file.
+     *
+     * @param sidecarFile    the sidecar file to populate
+     * @param streamFileData the data of the sidecar file
+     * @param types          the sidecar types to keep, or empty to keep all of them
+     */
+    void read(SidecarFile sidecarFile, StreamFileData streamFileData, Set<SidecarType> types);
 }
@@ -16,27 +16,76 @@
 
 package com.hedera.mirror.importer.reader.record.sidecar;
 
+import static com.hedera.mirror.importer.util.Utility.RECOVERABLE_ERROR;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.WireFormat;
 import com.hedera.mirror.common.domain.transaction.SidecarFile;
 import com.hedera.mirror.importer.domain.StreamFileData;
 import com.hedera.mirror.importer.exception.InvalidStreamFileException;
+import com.hedera.services.stream.proto.SidecarType;
+import com.hedera.services.stream.proto.TransactionSidecarRecord;
 import jakarta.inject.Named;
+import java.io.IOException;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import lombok.CustomLog;
 
+@CustomLog
 @Named
 public class SidecarFileReaderImpl implements SidecarFileReader {
 
+    private static final int SIDECAR_RECORDS_TAG = WireFormat.makeTag(
+            com.hedera.services.stream.proto.SidecarFile.SIDECAR_RECORDS_FIELD_NUMBER,
+            WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
     @Override
     public void read(SidecarFile sidecarFile, StreamFileData streamFileData) {
+        read(sidecarFile, streamFileData, Collections.emptySet());
+    }
+
+    /**
+     * Reads the sidecar records one at a time. When only some types are kept, the type of each record is determined
+     * from its raw bytes so that records of other types are never parsed.
+     */
+    @Override
+    public void read(SidecarFile sidecarFile, StreamFileData streamFileData, Set<SidecarType> types) {
         try (var digestInputStream = new DigestInputStream(
                 streamFileData.getInputStream(),
                 MessageDigest.getInstance(sidecarFile.getHashAlgorithm().getName()))) {
-            var protoSidecarFile = com.hedera.services.stream.proto.SidecarFile.parseFrom(digestInputStream);
+            var input = CodedInputStream.newInstance(digestInputStream);
+            var records = new ArrayList<TransactionSidecarRecord>();
+            int count = 0;
+
+            for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+                if (tag != SIDECAR_RECORDS_TAG) {
+                    input.skipField(tag);
+                    continue;
+                }
+
+                count++;
+                if (types.isEmpty()) {
+                    records.add(input.readMessage(
+                            TransactionSidecarRecord.parser(), ExtensionRegistryLite.getEmptyRegistry()));
+                    continue;
+                }
+
+                var recordBytes = input.readBytes();
+                if (types.contains(getType(sidecarFile, recordBytes))) {
+                    records.add(TransactionSidecarRecord.parseFrom(recordBytes));
+                }
+            }
+
             var bytes = streamFileData.getBytes();
             sidecarFile.setActualHash(digestInputStream.getMessageDigest().digest());
             sidecarFile.setBytes(bytes);
-            sidecarFile.setCount(protoSidecarFile.getSidecarRecordsCount());
-            sidecarFile.setRecords(protoSidecarFile.getSidecarRecordsList());
+            sidecarFile.setCount(count);
+            sidecarFile.setRecords(records);
             sidecarFile.setSize(bytes.length);
         } catch (InvalidStreamFileException e) {
             throw e;
@@ -44,4 +93,26 @@ public class SidecarFileReaderImpl implements SidecarFileReader {
             throw new InvalidStreamFileException("Error reading sidecar file " + sidecarFile.getName(), e);
         }
     }
+
+    private SidecarType getType(SidecarFile sidecarFile, ByteString recordBytes) throws IOException {
+        var input = recordBytes.newCodedInput();
+
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case TransactionSidecarRecord.ACTIONS_FIELD_NUMBER -> {
+                    return SidecarType.CONTRACT_ACTION;
+                }
+                case TransactionSidecarRecord.BYTECODE_FIELD_NUMBER -> {
+                    return SidecarType.CONTRACT_BYTECODE;
+                }
+                case TransactionSidecarRecord.STATE_CHANGES_FIELD_NUMBER -> {
+                    return SidecarType.CONTRACT_STATE_CHANGE;
+                }
+                default -> input.skipField(tag);
+            }
+        }
+
+        log.error(RECOVERABLE_ERROR + "Unknown sidecar transaction record type in {}", sidecarFile.getName());
+        return SidecarType.SIDECAR_TYPE_UNKNOWN;
+    }
 }
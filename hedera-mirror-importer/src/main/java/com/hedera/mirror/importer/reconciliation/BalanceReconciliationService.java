@@ -27,6 +27,7 @@ import static com.hedera.mirror.importer.reconciliation.ReconciliationProperties
 import static com.hedera.mirror.importer.reconciliation.ReconciliationProperties.RemediationStrategy.FAIL;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.MapDifference;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.hedera.mirror.common.domain.balance.AccountBalanceFile;
@@ -38,22 +39,32 @@ import com.hedera.mirror.importer.repository.AccountBalanceFileRepository;
 import com.hedera.mirror.importer.repository.ReconciliationJobRepository;
 import com.hedera.mirror.importer.repository.RecordFileRepository;
 import io.micrometer.core.instrument.MeterRegistry;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMaps;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
 import jakarta.inject.Named;
+import java.sql.ResultSet;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import lombok.Builder;
 import lombok.CustomLog;
 import lombok.Value;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @CustomLog
 @Named
@@ -66,6 +77,15 @@ class BalanceReconciliationService {
     private static final String BALANCE_QUERY =
             "select account_id, balance from account_balance " + "where consensus_timestamp = ?";
 
+    // A delta balance file only has the balances that changed since the last full snapshot
+    private static final String BALANCE_AS_OF_QUERY =
+            """
+            select distinct on (account_id) account_id, balance from account_balance
+            where consensus_timestamp <= ? and consensus_timestamp >= coalesce((
+              select max(consensus_timestamp) from account_balance_file
+              where consensus_timestamp <= ? and delta is false), 0)
+            order by account_id, consensus_timestamp desc""";
+
     private static final String CRYPTO_TRANSFER_QUERY =
             """
             select entity_id, sum(amount) balance from crypto_transfer
@@ -75,6 +95,14 @@ class BalanceReconciliationService {
     private static final String TOKEN_BALANCE_QUERY =
             "select account_id, token_id, balance from token_balance " + "where consensus_timestamp = ?";
 
+    private static final String TOKEN_BALANCE_AS_OF_QUERY =
+            """
+            select distinct on (account_id, token_id) account_id, token_id, balance from token_balance
+            where consensus_timestamp <= ? and consensus_timestamp >= coalesce((
+              select max(consensus_timestamp) from account_balance_file
+              where consensus_timestamp <= ? and delta is false), 0)
+            order by account_id, token_id, consensus_timestamp desc""";
+
     private static final String TOKEN_TRANSFER_QUERY =
             """
             select account_id, token_id, sum(amount) as balance
@@ -84,31 +112,42 @@ class BalanceReconciliationService {
     final AtomicReference<ReconciliationStatus> status;
 
     private final AccountBalanceFileRepository accountBalanceFileRepository;
+    private final ObjectProvider<ContinuousBalanceReconciler> continuousBalanceReconciler;
     private final JdbcOperations jdbcOperations;
     private final RecordFileRepository recordFileRepository;
     private final ReconciliationProperties reconciliationProperties;
     private final ReconciliationJobRepository reconciliationJobRepository;
+    private final TransactionOperations transactionOperations;
 
     BalanceReconciliationService(
             AccountBalanceFileRepository accountBalanceFileRepository,
+            ObjectProvider<ContinuousBalanceReconciler> continuousBalanceReconciler,
             JdbcOperations jdbcOperations,
             MeterRegistry meterRegistry,
             RecordFileRepository recordFileRepository,
             ReconciliationProperties reconciliationProperties,
-            ReconciliationJobRepository reconciliationJobRepository) {
+            ReconciliationJobRepository reconciliationJobRepository,
+            PlatformTransactionManager transactionManager) {
         this.accountBalanceFileRepository = accountBalanceFileRepository;
+        this.continuousBalanceReconciler = continuousBalanceReconciler;
         this.jdbcOperations = jdbcOperations;
         this.recordFileRepository = recordFileRepository;
         this.reconciliationProperties = reconciliationProperties;
         this.reconciliationJobRepository = reconciliationJobRepository;
         this.status = meterRegistry.gauge(
                 METRIC, new AtomicReference<>(UNKNOWN), s -> s.get().ordinal());
+
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        this.transactionOperations = transactionTemplate;
     }
 
     @Scheduled(cron = "${hedera.mirror.importer.reconciliation.cron:0 0 0 * * *}")
     @SuppressWarnings("java:S3776")
     public synchronized void reconcile() {
-        if (!reconciliationProperties.isEnabled()) {
+        // The continuous mode reconciles each balance file as it's parsed instead, if the record parser is enabled
+        var continuous = continuousBalanceReconciler.getIfAvailable();
+        if (!reconciliationProperties.isEnabled() || (continuous != null && continuous.isEnabled())) {
             return;
         }
 
@@ -141,7 +180,7 @@ class BalanceReconciliationService {
                     reconciliationJob.setConsensusTimestamp(consensusTimestamp);
 
                     // Periodically update progress
-                    if (reconciliationJob.getCount() % 100 == 0) {
+                    if (reconciliationJob.getCount() % reconciliationProperties.getCheckpointInterval() == 0) {
                         reconciliationJobRepository.save(reconciliationJob);
                     }
                 }
@@ -166,7 +205,11 @@ class BalanceReconciliationService {
             }
         } catch (Exception e) {
             var errorStatus = e instanceof ReconciliationException re ? re.getStatus() : FAILURE_UNKNOWN;
-            reconciliationJob.setError(e.getMessage());
+            var suppressed = Stream.of(e.getSuppressed()).filter(ReconciliationException.class::isInstance);
+            var errors = Stream.concat(Stream.of(e), suppressed)
+                    .map(Throwable::getMessage)
+                    .toList();
+            reconciliationJob.setError(StringUtils.join(errors, "\n"));
             reconciliationJob.setStatus(errorStatus);
             log.warn(
                     "Reconciliation completed unsuccessfully after {} balance files in {}: {}",
@@ -201,8 +244,26 @@ class BalanceReconciliationService {
     }
 
     private void reconcile(BalanceSnapshot previous, BalanceSnapshot current) {
-        reconcileCryptoTransfers(previous, current);
-        reconcileTokenTransfers(previous, current);
+        // Account and token balances are independent, so they're reconciled concurrently. Both are waited for so that
+        // when both fail, the crypto transfers failure is reported with the token transfers failure suppressed.
+        try {
+            Mono.whenDelayError(
+                            async(() -> reconcileCryptoTransfers(previous, current)),
+                            async(() -> reconcileTokenTransfers(previous, current)))
+                    .block();
+        } catch (RuntimeException e) {
+            var exceptions = Exceptions.unwrapMultiple(e);
+            if (exceptions.size() < 2) {
+                throw e;
+            }
+
+            var exception = exceptions.stream()
+                    .filter(t -> t instanceof ReconciliationException re && re.getStatus() == FAILURE_CRYPTO_TRANSFERS)
+                    .findFirst()
+                    .orElseGet(() -> exceptions.get(0));
+            exceptions.stream().filter(t -> t != exception).forEach(exception::addSuppressed);
+            throw Exceptions.propagate(exception);
+        }
 
         long elapsed = System.currentTimeMillis() - current.getStartTime();
         String name = current.getAccountBalanceFile().getName();
@@ -221,17 +282,24 @@ class BalanceReconciliationService {
     private void reconcileCryptoTransfers(BalanceSnapshot previous, BalanceSnapshot current) {
         var transfersBalance = previous.getBalances();
 
-        jdbcOperations.query(
+        query(
                 CRYPTO_TRANSFER_QUERY,
                 rs -> {
                     long accountId = rs.getLong(1);
                     long balance = rs.getLong(2);
-                    transfersBalance.merge(accountId, balance, Math::addExact);
+                    transfersBalance.put(accountId, Math.addExact(transfersBalance.get(accountId), balance));
                 },
                 previous.getTimestamp(),
                 current.getTimestamp());
 
-        reconcileTransfers(FAILURE_CRYPTO_TRANSFERS, BalanceSnapshot::getBalances, previous, current);
+        var currentBalances = current.getBalances();
+        if (!equals(transfersBalance, currentBalances)) {
+            onFailure(
+                    FAILURE_CRYPTO_TRANSFERS,
+                    previous,
+                    current,
+                    () -> Maps.difference(transfersBalance, currentBalances));
+        }
     }
 
     private void reconcileTokenTransfers(BalanceSnapshot previous, BalanceSnapshot current) {
@@ -241,57 +309,58 @@ class BalanceReconciliationService {
 
         var tokenBalances = previous.getTokenBalances();
 
-        jdbcOperations.query(
+        query(
                 TOKEN_TRANSFER_QUERY,
                 rs -> {
                     long accountId = rs.getLong(1);
                     long tokenId = rs.getLong(2);
                     long balance = rs.getLong(3);
-                    var tokenAccountId = new TokenAccountId(accountId, tokenId);
-                    tokenBalances.merge(tokenAccountId, balance, Math::addExact);
+                    tokenBalances.add(accountId, tokenId, balance);
                 },
                 previous.getTimestamp(),
                 current.getTimestamp());
 
-        reconcileTransfers(FAILURE_TOKEN_TRANSFERS, BalanceSnapshot::getTokenBalances, previous, current);
+        var currentBalances = current.getTokenBalances();
+        if (!tokenBalances.matches(currentBalances)) {
+            onFailure(
+                    FAILURE_TOKEN_TRANSFERS,
+                    previous,
+                    current,
+                    () -> Maps.difference(tokenBalances.toMap(), currentBalances.toMap()));
+        }
     }
 
-    private <K> void reconcileTransfers(
+    private void onFailure(
             ReconciliationStatus failureStatus,
-            Function<BalanceSnapshot, Map<K, Long>> mapper,
             BalanceSnapshot previous,
-            BalanceSnapshot current) {
-        var transfersBalance = mapper.apply(previous);
-        var currentBalances = mapper.apply(current);
-
-        if (!equals(transfersBalance, currentBalances)) {
-            long fromTimestamp = previous.getTimestamp();
-            long toTimestamp = current.getTimestamp();
-            var difference = Maps.difference(transfersBalance, currentBalances);
-
-            if (reconciliationProperties.getRemediationStrategy() == FAIL) {
-                throw new ReconciliationException(failureStatus, fromTimestamp, toTimestamp, difference);
-            }
+            BalanceSnapshot current,
+            Supplier<MapDifference<?, ?>> differenceSupplier) {
+        long fromTimestamp = previous.getTimestamp();
+        long toTimestamp = current.getTimestamp();
+        var difference = differenceSupplier.get();
+
+        if (reconciliationProperties.getRemediationStrategy() == FAIL) {
+            throw new ReconciliationException(failureStatus, fromTimestamp, toTimestamp, difference);
+        }
 
-            var error = String.format(failureStatus.getMessage(), fromTimestamp, toTimestamp, difference);
-            log.warn(error);
+        var error = String.format(failureStatus.getMessage(), fromTimestamp, toTimestamp, difference);
+        log.warn(error);
 
-            var reconciliationJob = previous.getReconciliationJob();
+        var reconciliationJob = previous.getReconciliationJob();
+        synchronized (reconciliationJob) {
             reconciliationJob.setError(StringUtils.joinWith("\n", reconciliationJob.getError(), error));
             reconciliationJob.setStatus(failureStatus);
         }
     }
 
-    private <T> boolean equals(Map<T, Long> previous, Map<T, Long> current) {
-        for (var previousEntry : previous.entrySet()) {
-            long currentValue = current.getOrDefault(previousEntry.getKey(), 0L);
-            if (previousEntry.getValue() != currentValue) {
+    static boolean equals(Long2LongMap previous, Long2LongMap current) {
+        for (var previousEntry : Long2LongMaps.fastIterable(previous)) {
+            if (previousEntry.getLongValue() != current.get(previousEntry.getLongKey())) {
                 return false;
             }
         }
-        for (var currentEntry : current.entrySet()) {
-            long previousValue = previous.getOrDefault(currentEntry.getKey(), 0L);
-            if (currentEntry.getValue() != previousValue) {
+        for (var currentEntry : Long2LongMaps.fastIterable(current)) {
+            if (currentEntry.getLongValue() != previous.get(currentEntry.getLongKey())) {
                 return false;
             }
         }
@@ -312,57 +381,83 @@ class BalanceReconciliationService {
                 .findNextInRange(fromTimestamp, toTimestamp)
                 .map(accountBalanceFile -> {
                     var timestamp = accountBalanceFile.getConsensusTimestamp();
-                    var balances = getAccountBalances(accountBalanceFile);
+                    var balances = new Long2LongOpenHashMap();
+                    var tokenBalances = new TokenBalanceMap();
+                    Mono.when(
+                                    async(() -> getAccountBalances(accountBalanceFile, balances)),
+                                    async(() -> getTokenBalances(accountBalanceFile, tokenBalances)))
+                            .block();
                     var recordFile = recordFileRepository.findNextBetween(timestamp - 1L, Long.MAX_VALUE);
-                    var tokenBalances = getTokenBalances(accountBalanceFile);
                     return new BalanceSnapshot(
                             accountBalanceFile, balances, recordFile, reconciliationJob, startTime, tokenBalances);
                 });
     }
 
-    private Map<Long, Long> getAccountBalances(AccountBalanceFile accountBalanceFile) {
-        Map<Long, Long> balances = new HashMap<>();
+    void getAccountBalances(AccountBalanceFile accountBalanceFile, Long2LongMap balances) {
         AtomicLong total = new AtomicLong(0L);
         long consensusTimestamp = accountBalanceFile.getConsensusTimestamp();
 
-        jdbcOperations.query(
-                BALANCE_QUERY,
-                rs -> {
-                    long accountId = rs.getLong(1);
-                    long balance = rs.getLong(2);
-                    balances.put(accountId, balance);
-                    total.addAndGet(balance);
-                },
-                consensusTimestamp);
+        RowCallbackHandler rowCallbackHandler = rs -> {
+            long accountId = rs.getLong(1);
+            long balance = rs.getLong(2);
+            balances.put(accountId, balance);
+            total.addAndGet(balance);
+        };
+
+        if (accountBalanceFile.isDelta()) {
+            query(BALANCE_AS_OF_QUERY, rowCallbackHandler, consensusTimestamp, consensusTimestamp);
+        } else {
+            query(BALANCE_QUERY, rowCallbackHandler, consensusTimestamp);
+        }
 
         if (total.get() != FIFTY_BILLION_HBARS) {
             String name = accountBalanceFile.getName();
             throw new ReconciliationException(FAILURE_FIFTY_BILLION, name, total.get());
         }
-
-        return balances;
     }
 
-    private Map<TokenAccountId, Long> getTokenBalances(AccountBalanceFile accountBalanceFile) {
+    void getTokenBalances(AccountBalanceFile accountBalanceFile, TokenBalanceMap balances) {
         if (!reconciliationProperties.isToken()) {
-            return Collections.emptyMap();
+            return;
         }
 
-        Map<TokenAccountId, Long> balances = new HashMap<>();
         long consensusTimestamp = accountBalanceFile.getConsensusTimestamp();
 
-        jdbcOperations.query(
-                TOKEN_BALANCE_QUERY,
-                rs -> {
-                    long accountId = rs.getLong(1);
-                    long tokenId = rs.getLong(2);
-                    long balance = rs.getLong(3);
-                    var tokenAccountId = new TokenAccountId(accountId, tokenId);
-                    balances.put(tokenAccountId, balance);
-                },
-                consensusTimestamp);
+        RowCallbackHandler rowCallbackHandler = rs -> {
+            long accountId = rs.getLong(1);
+            long tokenId = rs.getLong(2);
+            long balance = rs.getLong(3);
+            balances.put(accountId, tokenId, balance);
+        };
+
+        if (accountBalanceFile.isDelta()) {
+            query(TOKEN_BALANCE_AS_OF_QUERY, rowCallbackHandler, consensusTimestamp, consensusTimestamp);
+        } else {
+            query(TOKEN_BALANCE_QUERY, rowCallbackHandler, consensusTimestamp);
+        }
+    }
 
-        return balances;
+    private Mono<Void> async(Runnable runnable) {
+        return Mono.fromRunnable(runnable).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    /*
+     * Streams the rows through a forward only cursor instead of loading the whole result set into memory. The
+     * PostgreSQL driver only honors the fetch size inside a transaction.
+     */
+    private void query(String sql, RowCallbackHandler rowCallbackHandler, Object... arguments) {
+        int fetchSize = reconciliationProperties.getFetchSize();
+        transactionOperations.executeWithoutResult(s -> jdbcOperations.query(
+                connection -> {
+                    var statement =
+                            connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    for (int i = 0; i < arguments.length; i++) {
+                        statement.setObject(i + 1, arguments[i]);
+                    }
+                    return statement;
+                },
+                rowCallbackHandler));
     }
 
     @Value
@@ -376,11 +471,11 @@ class BalanceReconciliationService {
     private static class BalanceSnapshot {
 
         private final AccountBalanceFile accountBalanceFile;
-        private final Map<Long, Long> balances;
+        private final Long2LongMap balances;
         private final Optional<RecordFile> recordFile;
         private final ReconciliationJob reconciliationJob;
         private final long startTime;
-        private final Map<TokenAccountId, Long> tokenBalances;
+        private final TokenBalanceMap tokenBalances;
 
         private long getTimestamp() {
             return accountBalanceFile.getConsensusTimestamp() + accountBalanceFile.getTimeOffset();
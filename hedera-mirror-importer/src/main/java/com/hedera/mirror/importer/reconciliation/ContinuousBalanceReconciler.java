@@ -0,0 +1,492 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.reconciliation;
+
+import static com.hedera.mirror.common.domain.job.ReconciliationStatus.FAILURE_CRYPTO_TRANSFERS;
+import static com.hedera.mirror.common.domain.job.ReconciliationStatus.FAILURE_TOKEN_TRANSFERS;
+import static com.hedera.mirror.common.domain.job.ReconciliationStatus.FAILURE_UNKNOWN;
+import static com.hedera.mirror.common.domain.job.ReconciliationStatus.RUNNING;
+import static com.hedera.mirror.importer.reconciliation.ReconciliationProperties.RemediationStrategy.ACCUMULATE;
+import static com.hedera.mirror.importer.reconciliation.ReconciliationProperties.RemediationStrategy.FAIL;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.MapDifference;
+import com.google.common.collect.Maps;
+import com.hedera.mirror.common.domain.balance.AccountBalanceFile;
+import com.hedera.mirror.common.domain.job.ReconciliationJob;
+import com.hedera.mirror.common.domain.job.ReconciliationStatus;
+import com.hedera.mirror.common.domain.token.TokenTransfer;
+import com.hedera.mirror.common.domain.transaction.CryptoTransfer;
+import com.hedera.mirror.common.domain.transaction.ErrataType;
+import com.hedera.mirror.common.domain.transaction.RecordFile;
+import com.hedera.mirror.common.util.DomainUtils;
+import com.hedera.mirror.importer.exception.ImporterException;
+import com.hedera.mirror.importer.parser.balance.AccountBalanceFileParsedEvent;
+import com.hedera.mirror.importer.parser.record.RecordStreamFileListener;
+import com.hedera.mirror.importer.parser.record.entity.ConditionOnEntityRecordParser;
+import com.hedera.mirror.importer.parser.record.entity.EntityListener;
+import com.hedera.mirror.importer.repository.AccountBalanceFileRepository;
+import com.hedera.mirror.importer.repository.ReconciliationJobRepository;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import jakarta.inject.Named;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+import lombok.CustomLog;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reconciles each balance file as soon as it's parsed. The record parser feeds the crypto and token transfers of each
+ * committed record file into memory, which are applied to the running balances of the last reconciled balance file and
+ * compared with the new balance file. This avoids aggregating the transfers of the whole interval in the database.
+ */
+@ConditionOnEntityRecordParser
+@CustomLog
+@Named
+@RequiredArgsConstructor
+class ContinuousBalanceReconciler implements EntityListener, RecordStreamFileListener {
+
+    private final AccountBalanceFileRepository accountBalanceFileRepository;
+    private final BalanceReconciliationService balanceReconciliationService;
+    private final ReconciliationJobRepository reconciliationJobRepository;
+    private final ReconciliationProperties reconciliationProperties;
+    private final Scheduler scheduler = Schedulers.newSingle("reconciliation", true);
+    private volatile boolean balanceFileParsed;
+
+    // The transfers of the record files in the current transaction, only accessed by the record parser
+    private Transfers uncommitted = new Transfers();
+    private long uncommittedStart;
+
+    // The transfers of the committed record files, guarded by the lock of this object
+    private final Transfers committed = new Transfers();
+    private long committedStart;
+    private long committedEnd;
+
+    // The state of the reconciliation, only accessed by the scheduler
+    private final Deque<AccountBalanceFile> balanceFiles = new ArrayDeque<>();
+    private Long2LongMap balances;
+    private TokenBalanceMap tokenBalances;
+    volatile long balanceTimestamp;
+    private long lastBalanceFileTimestamp;
+    private ReconciliationJob reconciliationJob;
+
+    @Override
+    public boolean isEnabled() {
+        return reconciliationProperties.isEnabled() && reconciliationProperties.getContinuous().isEnabled();
+    }
+
+    @Override
+    public void onCryptoTransfer(CryptoTransfer cryptoTransfer) throws ImporterException {
+        if (cryptoTransfer.getErrata() != ErrataType.DELETE) {
+            long consensusTimestamp = cryptoTransfer.getConsensusTimestamp();
+            uncommitted.add(consensusTimestamp, cryptoTransfer.getEntityId(), 0L, cryptoTransfer.getAmount());
+        }
+    }
+
+    @Override
+    public void onTokenTransfer(TokenTransfer tokenTransfer) throws ImporterException {
+        if (!reconciliationProperties.isToken()) {
+            return;
+        }
+
+        var id = tokenTransfer.getId();
+        // The amount of a dissociate from a deleted token is only known in the database, but it clears the balance
+        long amount = tokenTransfer.isDeletedTokenDissociate() ? Transfers.CLEAR : tokenTransfer.getAmount();
+        uncommitted.add(id.getConsensusTimestamp(), id.getAccountId().getId(), id.getTokenId().getId(), amount);
+    }
+
+    @Override
+    public void onStart() throws ImporterException {
+        cleanup();
+    }
+
+    @Override
+    public void onEnd(RecordFile recordFile) throws ImporterException {
+        if (recordFile == null) {
+            return;
+        }
+
+        if (!isEnabled()) {
+            cleanup();
+            reset();
+            return;
+        }
+
+        onIntermediateEnd(recordFile);
+        var transfers = uncommitted;
+        long start = uncommittedStart;
+        long end = recordFile.getConsensusEnd();
+        uncommitted = new Transfers();
+        uncommittedStart = 0L;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            commit(transfers, start, end);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    commit(transfers, start, end);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onIntermediateEnd(RecordFile recordFile) throws ImporterException {
+        if (uncommittedStart == 0L) {
+            uncommittedStart = recordFile.getConsensusStart();
+        }
+    }
+
+    @Override
+    public void onError() {
+        cleanup();
+    }
+
+    @TransactionalEventListener(classes = AccountBalanceFileParsedEvent.class)
+    public void onBalanceFileParsed() {
+        if (isEnabled()) {
+            balanceFileParsed = true;
+            scheduler.schedule(this::reconcile);
+        }
+    }
+
+    private void cleanup() {
+        uncommitted.clear();
+        uncommittedStart = 0L;
+    }
+
+    private synchronized void commit(Transfers transfers, long start, long end) {
+        if (committedStart == 0L) {
+            committedStart = start;
+        }
+
+        committed.addAll(transfers);
+        committedEnd = end;
+
+        if (committed.size() > reconciliationProperties.getContinuous().getMaxTransfers()) {
+            log.warn("Dropping {} transfers over the maximum until the next base balance file", committed.size());
+            reset();
+        }
+
+        scheduler.schedule(this::reconcile);
+    }
+
+    /*
+     * Drops the committed transfers. They're tracked again from the next committed record file, so the running balances
+     * are only reconciled again once there's a base balance file after that.
+     */
+    private synchronized void reset() {
+        committed.clear();
+        committedStart = 0L;
+        committedEnd = 0L;
+    }
+
+    private void reconcile() {
+        try {
+            if (balanceFileParsed) {
+                balanceFileParsed = false;
+                queueBalanceFiles();
+            }
+
+            while (!balanceFiles.isEmpty()) {
+                var accountBalanceFile = balanceFiles.peek();
+                long timestamp = getTimestamp(accountBalanceFile);
+                Transfers transfers;
+                long start;
+
+                synchronized (this) {
+                    // Wait for the record parser to commit all the transfers up to the balance file
+                    if (committedEnd < timestamp) {
+                        return;
+                    }
+
+                    start = committedStart;
+                    transfers = committed.removeUntil(timestamp);
+                }
+
+                balanceFiles.remove();
+                reconcile(accountBalanceFile, transfers, start);
+            }
+        } catch (Exception e) {
+            log.warn("Unable to reconcile balance files continuously: {}", e.getMessage());
+            balances = null;
+            tokenBalances = null;
+            if (reconciliationJob != null) {
+                var status = e instanceof ReconciliationException re ? re.getStatus() : FAILURE_UNKNOWN;
+                fail(reconciliationJob, status, e.getMessage());
+            }
+        }
+    }
+
+    private void queueBalanceFiles() {
+        if (lastBalanceFileTimestamp == 0L) {
+            // Start with the latest balance file instead of the whole history
+            accountBalanceFileRepository.findLatest().ifPresent(this::queue);
+        }
+
+        long endDate = DomainUtils.convertToNanosMax(reconciliationProperties.getEndDate());
+        var next = accountBalanceFileRepository.findNextInRange(lastBalanceFileTimestamp + 1L, endDate);
+        while (next.isPresent()) {
+            queue(next.get());
+            next = accountBalanceFileRepository.findNextInRange(lastBalanceFileTimestamp + 1L, endDate);
+        }
+    }
+
+    private void queue(AccountBalanceFile accountBalanceFile) {
+        long startDate = DomainUtils.convertToNanosMax(reconciliationProperties.getStartDate());
+        lastBalanceFileTimestamp = accountBalanceFile.getConsensusTimestamp();
+        if (lastBalanceFileTimestamp >= startDate) {
+            balanceFiles.add(accountBalanceFile);
+        }
+    }
+
+    private void reconcile(AccountBalanceFile accountBalanceFile, Transfers transfers, long start) {
+        var stopwatch = Stopwatch.createStarted();
+        long timestamp = getTimestamp(accountBalanceFile);
+        var currentBalances = new Long2LongOpenHashMap();
+        var currentTokenBalances = new TokenBalanceMap();
+
+        // Reconciling requires every transfer after the previous balance file, otherwise this one becomes the base
+        if (balances == null || start == 0L || start > balanceTimestamp + 1L) {
+            if (start != 0L && start <= timestamp + 1L) {
+                loadBalances(accountBalanceFile, currentBalances, currentTokenBalances);
+                setBase(timestamp, currentBalances, currentTokenBalances);
+                log.info("Using balance file {} as the base to reconcile continuously", accountBalanceFile.getName());
+            } else {
+                balances = null;
+                tokenBalances = null;
+            }
+            return;
+        }
+
+        transfers.apply(balanceTimestamp, balances, tokenBalances);
+        loadBalances(accountBalanceFile, currentBalances, currentTokenBalances);
+        var job = getReconciliationJob();
+        long previousTimestamp = balanceTimestamp;
+        var runningBalances = balances;
+        var runningTokenBalances = tokenBalances;
+        boolean success = true;
+        job.increment();
+
+        if (!BalanceReconciliationService.equals(runningBalances, currentBalances)) {
+            success = false;
+            onFailure(
+                    job,
+                    FAILURE_CRYPTO_TRANSFERS,
+                    previousTimestamp,
+                    timestamp,
+                    () -> Maps.difference(runningBalances, currentBalances));
+        }
+
+        if (!runningTokenBalances.matches(currentTokenBalances)) {
+            success = false;
+            onFailure(
+                    job,
+                    FAILURE_TOKEN_TRANSFERS,
+                    previousTimestamp,
+                    timestamp,
+                    () -> Maps.difference(runningTokenBalances.toMap(), currentTokenBalances.toMap()));
+        }
+
+        if (success) {
+            log.info(
+                    "Reconciled balance file {} with {} transfers in {}",
+                    accountBalanceFile.getName(),
+                    transfers.size(),
+                    stopwatch);
+        }
+
+        if (!job.hasErrors()) {
+            job.setConsensusTimestamp(accountBalanceFile.getConsensusTimestamp());
+            if (job.getCount() % reconciliationProperties.getCheckpointInterval() == 0) {
+                reconciliationJobRepository.save(job);
+            }
+        }
+
+        if (success || reconciliationProperties.getRemediationStrategy() != ACCUMULATE) {
+            setBase(timestamp, currentBalances, currentTokenBalances);
+        } else {
+            balanceTimestamp = timestamp;
+        }
+    }
+
+    private void loadBalances(
+            AccountBalanceFile accountBalanceFile, Long2LongMap accountBalances, TokenBalanceMap tokenBalanceMap) {
+        balanceReconciliationService.getAccountBalances(accountBalanceFile, accountBalances);
+        balanceReconciliationService.getTokenBalances(accountBalanceFile, tokenBalanceMap);
+    }
+
+    private void setBase(long timestamp, Long2LongMap accountBalances, TokenBalanceMap tokenBalanceMap) {
+        balanceTimestamp = timestamp;
+        balances = accountBalances;
+        tokenBalances = tokenBalanceMap;
+    }
+
+    private void onFailure(
+            ReconciliationJob job,
+            ReconciliationStatus failureStatus,
+            long fromTimestamp,
+            long toTimestamp,
+            Supplier<MapDifference<?, ?>> differenceSupplier) {
+        var error = String.format(failureStatus.getMessage(), fromTimestamp, toTimestamp, differenceSupplier.get());
+        log.warn(error);
+        fail(job, failureStatus, error);
+    }
+
+    /*
+     * Records the failure in the job. With the FAIL remediation strategy the job ends and the next reconciled balance
+     * file starts a new one.
+     */
+    private void fail(ReconciliationJob job, ReconciliationStatus failureStatus, String error) {
+        job.setError(StringUtils.joinWith("\n", job.getError(), error));
+        job.setStatus(failureStatus);
+
+        if (reconciliationProperties.getRemediationStrategy() == FAIL) {
+            job.setTimestampEnd(Instant.now());
+            if (reconciliationJob == job) {
+                reconciliationJob = null;
+            }
+        }
+
+        balanceReconciliationService.status.set(failureStatus);
+        reconciliationJobRepository.save(job);
+    }
+
+    private ReconciliationJob getReconciliationJob() {
+        if (reconciliationJob == null) {
+            reconciliationJob = ReconciliationJob.builder()
+                    .consensusTimestamp(lastBalanceFileTimestamp)
+                    .count(0)
+                    .error("")
+                    .status(RUNNING)
+                    .timestampStart(Instant.now())
+                    .build();
+            reconciliationJobRepository.save(reconciliationJob);
+            balanceReconciliationService.status.set(RUNNING);
+        }
+
+        return reconciliationJob;
+    }
+
+    private static long getTimestamp(AccountBalanceFile accountBalanceFile) {
+        return accountBalanceFile.getConsensusTimestamp() + accountBalanceFile.getTimeOffset();
+    }
+
+    /**
+     * Crypto and token transfers in consensus order stored in parallel primitive lists. A crypto transfer has a zero
+     * token ID.
+     */
+    static class Transfers {
+
+        // The amount of a token transfer that clears the token balance
+        static final long CLEAR = Long.MIN_VALUE;
+
+        private final LongArrayList consensusTimestamps = new LongArrayList();
+        private final LongArrayList accountIds = new LongArrayList();
+        private final LongArrayList tokenIds = new LongArrayList();
+        private final LongArrayList amounts = new LongArrayList();
+
+        void add(long consensusTimestamp, long accountId, long tokenId, long amount) {
+            consensusTimestamps.add(consensusTimestamp);
+            accountIds.add(accountId);
+            tokenIds.add(tokenId);
+            amounts.add(amount);
+        }
+
+        void addAll(Transfers other) {
+            consensusTimestamps.addAll(other.consensusTimestamps);
+            accountIds.addAll(other.accountIds);
+            tokenIds.addAll(other.tokenIds);
+            amounts.addAll(other.amounts);
+        }
+
+        /**
+         * Applies the transfers after the given timestamp to the balances
+         *
+         * @param fromTimestamp the exclusive timestamp to apply the transfers from
+         * @param balances      the account balances
+         * @param tokenBalances the token balances
+         */
+        void apply(long fromTimestamp, Long2LongMap balances, TokenBalanceMap tokenBalances) {
+            for (int i = 0; i < size(); i++) {
+                if (consensusTimestamps.getLong(i) <= fromTimestamp) {
+                    continue;
+                }
+
+                long accountId = accountIds.getLong(i);
+                long tokenId = tokenIds.getLong(i);
+                long amount = amounts.getLong(i);
+
+                if (tokenId == 0L) {
+                    balances.put(accountId, Math.addExact(balances.get(accountId), amount));
+                } else if (amount == CLEAR) {
+                    tokenBalances.put(accountId, tokenId, 0L);
+                } else {
+                    tokenBalances.add(accountId, tokenId, amount);
+                }
+            }
+        }
+
+        void clear() {
+            consensusTimestamps.clear();
+            accountIds.clear();
+            tokenIds.clear();
+            amounts.clear();
+        }
+
+        /**
+         * Removes the transfers up to and including the timestamp
+         *
+         * @param timestamp the inclusive timestamp
+         * @return the removed transfers
+         */
+        Transfers removeUntil(long timestamp) {
+            int count = 0;
+            while (count < size() && consensusTimestamps.getLong(count) <= timestamp) {
+                count++;
+            }
+
+            var removed = new Transfers();
+            removed.consensusTimestamps.addElements(0, consensusTimestamps.elements(), 0, count);
+            removed.accountIds.addElements(0, accountIds.elements(), 0, count);
+            removed.tokenIds.addElements(0, tokenIds.elements(), 0, count);
+            removed.amounts.addElements(0, amounts.elements(), 0, count);
+            consensusTimestamps.removeElements(0, count);
+            accountIds.removeElements(0, count);
+            tokenIds.removeElements(0, count);
+            amounts.removeElements(0, count);
+            return removed;
+        }
+
+        int size() {
+            return consensusTimestamps.size();
+        }
+    }
+}
@@ -17,6 +17,8 @@
 package com.hedera.mirror.importer.reconciliation;
 
 import com.hedera.mirror.importer.util.Utility;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.Duration;
@@ -31,6 +33,14 @@ import org.springframework.validation.annotation.Validated;
 @ConfigurationProperties("hedera.mirror.importer.reconciliation")
 class ReconciliationProperties {
 
+    // How many balance files to reconcile in between saving the progress of the job
+    @Min(1)
+    private int checkpointInterval = 10;
+
+    @NotNull
+    @Valid
+    private ContinuousProperties continuous = new ContinuousProperties();
+
     @NotBlank
     private String cron = "0 0 0 * * *"; // Every day at midnight
 
@@ -42,6 +52,10 @@ class ReconciliationProperties {
     @NotNull
     private Instant endDate = Utility.MAX_INSTANT_LONG;
 
+    // How many rows to fetch at a time when streaming balances and transfers from the database
+    @Min(1)
+    private int fetchSize = 10_000;
+
     private RemediationStrategy remediationStrategy = RemediationStrategy.FAIL;
 
     @NotNull
@@ -59,6 +73,18 @@ class ReconciliationProperties {
         this.startDate = startDate;
     }
 
+    @Data
+    public static class ContinuousProperties {
+
+        // Whether to reconcile each balance file once it's parsed against transfers tracked by the record parser
+        private boolean enabled = false;
+
+        // How many transfers to hold in memory before they're dropped and the next balance file is used as a new base.
+        // Each transfer takes 32 bytes of heap, so the default can take up to 320MB.
+        @Min(1)
+        private int maxTransfers = 10_000_000;
+    }
+
     public enum RemediationStrategy {
         ACCUMULATE, // Continue processing after transfer failures without resetting balances for the next iteration
         FAIL, // Halt processing on any reconciliation failure
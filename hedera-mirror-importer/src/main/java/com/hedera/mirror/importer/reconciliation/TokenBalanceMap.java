@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.reconciliation;
+
+import com.hedera.mirror.importer.reconciliation.BalanceReconciliationService.TokenAccountId;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMaps;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMaps;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token balances keyed by the token and account IDs packed into a primitive long, which avoids boxing a key and a value
+ * per token balance. IDs that don't fit in 32 bits fall back to an object key. A missing token balance is zero.
+ */
+class TokenBalanceMap {
+
+    private final Long2LongMap packed = new Long2LongOpenHashMap();
+    private final Object2LongMap<TokenAccountId> unpacked = new Object2LongOpenHashMap<>();
+
+    void add(long accountId, long tokenId, long amount) {
+        if (isPackable(accountId, tokenId)) {
+            long key = pack(accountId, tokenId);
+            packed.put(key, Math.addExact(packed.get(key), amount));
+        } else {
+            var key = new TokenAccountId(accountId, tokenId);
+            unpacked.put(key, Math.addExact(unpacked.getLong(key), amount));
+        }
+    }
+
+    void put(long accountId, long tokenId, long balance) {
+        if (isPackable(accountId, tokenId)) {
+            packed.put(pack(accountId, tokenId), balance);
+        } else {
+            unpacked.put(new TokenAccountId(accountId, tokenId), balance);
+        }
+    }
+
+    int size() {
+        return packed.size() + unpacked.size();
+    }
+
+    /**
+     * Compares the token balances, treating a missing token balance as zero
+     *
+     * @param other the token balances to compare with
+     * @return whether all token balances are equal
+     */
+    boolean matches(TokenBalanceMap other) {
+        return contains(packed, other.packed)
+                && contains(other.packed, packed)
+                && contains(unpacked, other.unpacked)
+                && contains(other.unpacked, unpacked);
+    }
+
+    /**
+     * Converts the token balances to a boxed map. Only meant for reporting differences since it's expensive.
+     *
+     * @return the token balances keyed by TokenAccountId
+     */
+    Map<TokenAccountId, Long> toMap() {
+        var map = new HashMap<TokenAccountId, Long>(size());
+        for (var entry : Long2LongMaps.fastIterable(packed)) {
+            long key = entry.getLongKey();
+            map.put(new TokenAccountId(key & 0xFFFFFFFFL, key >>> Integer.SIZE), entry.getLongValue());
+        }
+        for (var entry : Object2LongMaps.fastIterable(unpacked)) {
+            map.put(entry.getKey(), entry.getLongValue());
+        }
+        return map;
+    }
+
+    private static boolean contains(Long2LongMap source, Long2LongMap target) {
+        for (var entry : Long2LongMaps.fastIterable(source)) {
+            if (entry.getLongValue() != target.get(entry.getLongKey())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <K> boolean contains(Object2LongMap<K> source, Object2LongMap<K> target) {
+        for (var entry : Object2LongMaps.fastIterable(source)) {
+            if (entry.getLongValue() != target.getLong(entry.getKey())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPackable(long accountId, long tokenId) {
+        return ((accountId | tokenId) >>> Integer.SIZE) == 0;
+    }
+
+    private static long pack(long accountId, long tokenId) {
+        return tokenId << Integer.SIZE | accountId;
+    }
+}
@@ -24,6 +24,32 @@ import org.springframework.data.jpa.repository.Query;
 public interface AccountBalanceFileRepository
         extends StreamFileRepository<AccountBalanceFile, Long>, RetentionRepository {
 
+    /**
+     * The timestamp of the last full snapshot at or before the balance file with the timestamp ?1. The balances as of a
+     * delta balance file are the latest balance of each account or token account since it.
+     */
+    String FULL_SNAPSHOT_TIMESTAMP =
+            """
+            coalesce((
+              select max(consensus_timestamp) from account_balance_file
+              where consensus_timestamp <= ?1 and delta is false
+            ), 0)""";
+
+    /**
+     * The condition to prune the rows at or before the timestamp ?1. If the next balance file is a delta, the rows
+     * since the last full snapshot before it are kept since they hold the balances the delta didn't change.
+     */
+    String PRUNE_CONDITION =
+            """
+            consensus_timestamp <= ?1 and consensus_timestamp < coalesce((
+              select max(consensus_timestamp) from account_balance_file
+              where consensus_timestamp <= ?1 and delta is false and (
+                select delta from account_balance_file
+                where consensus_timestamp > ?1
+                order by consensus_timestamp
+                limit 1)
+            ), ?1 + 1)""";
+
     @Override
     @Query(value = "select * from account_balance_file order by consensus_timestamp desc limit 1", nativeQuery = true)
     Optional<AccountBalanceFile> findLatest();
@@ -37,6 +63,6 @@ public interface AccountBalanceFileRepository
 
     @Modifying
     @Override
-    @Query("delete from AccountBalanceFile where consensusTimestamp <= ?1")
+    @Query(nativeQuery = true, value = "delete from account_balance_file where " + PRUNE_CONDITION)
     int prune(long consensusTimestamp);
 }
@@ -33,8 +33,25 @@ public interface AccountBalanceRepository
     @EntityGraph("AccountBalance.tokenBalances")
     List<AccountBalance> findByIdConsensusTimestamp(long consensusTimestamp);
 
+    /**
+     * Finds the balance of each account as of the balance file with the given timestamp, including the balances of a
+     * delta balance file that are unchanged since the previous balance files. The token balances aren't fetched.
+     *
+     * @param consensusTimestamp the timestamp of the balance file
+     * @return the account balances
+     */
+    @Query(
+            nativeQuery = true,
+            value = "select distinct on (account_id) * from account_balance "
+                    + "where consensus_timestamp <= ?1 and consensus_timestamp >= "
+                    + AccountBalanceFileRepository.FULL_SNAPSHOT_TIMESTAMP
+                    + " order by account_id, consensus_timestamp desc")
+    List<AccountBalance> findAsOf(long consensusTimestamp);
+
     @Modifying
     @Override
-    @Query(nativeQuery = true, value = "delete from account_balance where consensus_timestamp <= ?1")
+    @Query(
+            nativeQuery = true,
+            value = "delete from account_balance where " + AccountBalanceFileRepository.PRUNE_CONDITION)
     int prune(long consensusTimestamp);
 }
@@ -17,14 +17,32 @@
 package com.hedera.mirror.importer.repository;
 
 import com.hedera.mirror.common.domain.balance.TokenBalance;
+import java.util.List;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
 public interface TokenBalanceRepository extends CrudRepository<TokenBalance, TokenBalance.Id>, RetentionRepository {
 
+    /**
+     * Finds the balance of each token account as of the balance file with the given timestamp, including the balances
+     * of a delta balance file that are unchanged since the previous balance files.
+     *
+     * @param consensusTimestamp the timestamp of the balance file
+     * @return the token balances
+     */
+    @Query(
+            nativeQuery = true,
+            value = "select distinct on (account_id, token_id) * from token_balance "
+                    + "where consensus_timestamp <= ?1 and consensus_timestamp >= "
+                    + AccountBalanceFileRepository.FULL_SNAPSHOT_TIMESTAMP
+                    + " order by account_id, token_id, consensus_timestamp desc")
+    List<TokenBalance> findAsOf(long consensusTimestamp);
+
     @Modifying
     @Override
-    @Query(nativeQuery = true, value = "delete from token_balance where consensus_timestamp <= ?1")
+    @Query(
+            nativeQuery = true,
+            value = "delete from token_balance where " + AccountBalanceFileRepository.PRUNE_CONDITION)
     int prune(long consensusTimestamp);
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.repository.upsert;
+
+import java.io.StringWriter;
+import java.text.MessageFormat;
+import lombok.RequiredArgsConstructor;
+import org.apache.velocity.Template;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader;
+
+/**
+ * Generates the upsert query of complete rows of a history upsertable whose existing state is already known, so they
+ * can be inserted or updated as is instead of being merged with the existing rows. The closed existing rows are part of
+ * the rows to upsert and are moved to the history table along with any other closed rows. It uses a temp table distinct
+ * from the one of the partial rows, so both can be upserted in the same transaction.
+ */
+@RequiredArgsConstructor
+public class CompleteUpsertQueryGenerator implements UpsertQueryGenerator {
+
+    private static final String UPSERT_COMPLETE_TEMPLATE = "/db/template/upsert_complete.vm";
+
+    private final EntityMetadata metadata;
+
+    @Override
+    public String getCreateTempIndexQuery() {
+        String columns = metadata.columns(ColumnMetadata::isId, "{0}");
+        return MessageFormat.format(
+                "create index if not exists {0}_idx on {0} ({1})", getTemporaryTableName(), columns);
+    }
+
+    @Override
+    public String getFinalTableName() {
+        return metadata.getTableName();
+    }
+
+    @Override
+    public String getTemporaryTableName() {
+        return getFinalTableName() + "_complete" + TEMP_SUFFIX;
+    }
+
+    @Override
+    public String getUpsertQuery() {
+        if (!metadata.getUpsertable().history()) {
+            throw new UnsupportedOperationException("Unable to upsert complete rows of " + getFinalTableName());
+        }
+
+        VelocityEngine velocityEngine = new VelocityEngine();
+        velocityEngine.setProperty(RuntimeConstants.RESOURCE_LOADERS, RuntimeConstants.RESOURCE_LOADER_CLASS);
+        velocityEngine.setProperty("resource.loader.class.class", ClasspathResourceLoader.class.getName());
+        velocityEngine.init();
+
+        Template template = velocityEngine.getTemplate(UPSERT_COMPLETE_TEMPLATE);
+        VelocityContext velocityContext = new VelocityContext();
+        velocityContext.put("finalTable", getFinalTableName());
+        velocityContext.put("historyTable", getFinalTableName() + "_history");
+        velocityContext.put("tempTable", getTemporaryTableName());
+        velocityContext.put("conflictColumns", metadata.columns(ColumnMetadata::isId, "{0}"));
+        velocityContext.put("insertColumns", metadata.columns("{0}"));
+        velocityContext.put("updateColumns", metadata.columns(ColumnMetadata::isUpdatable, "{0} = excluded.{0}"));
+
+        StringWriter writer = new StringWriter();
+        template.merge(velocityContext, writer);
+        return writer.toString();
+    }
+}
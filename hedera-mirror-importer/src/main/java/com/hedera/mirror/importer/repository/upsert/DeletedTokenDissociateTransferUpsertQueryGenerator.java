@@ -84,13 +84,6 @@ public class DeletedTokenDissociateTransferUpsertQueryGenerator implements Upser
                 "create index if not exists {0}_idx on {0} (token_id, account_id)", TEMP_TABLE_NAME);
     }
 
-    @Override
-    public String getCreateTempTableQuery() {
-        return MessageFormat.format(
-                "create temporary table if not exists {0} on commit drop as table {1} limit 0",
-                TEMP_TABLE_NAME, FINAL_TABLE_NAME);
-    }
-
     @Override
     public String getFinalTableName() {
         return FINAL_TABLE_NAME;
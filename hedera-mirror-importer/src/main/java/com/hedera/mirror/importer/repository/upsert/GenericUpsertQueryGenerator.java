@@ -42,13 +42,6 @@ public class GenericUpsertQueryGenerator implements UpsertQueryGenerator {
                 "create index if not exists {0}_idx on {0} ({1})", getTemporaryTableName(), columns);
     }
 
-    @Override
-    public String getCreateTempTableQuery() {
-        return String.format(
-                "create temporary table if not exists %s on commit drop as table %s limit 0",
-                getTemporaryTableName(), metadata.getTableName());
-    }
-
     @Override
     public String getFinalTableName() {
         return metadata.getTableName();
@@ -23,9 +23,18 @@ public interface UpsertQueryGenerator {
     String getCreateTempIndexQuery();
 
     default String getCreateTempTableQuery() {
+        return getCreateTempTableQuery(false);
+    }
+
+    /**
+     * @param session whether the temporary table is kept for the rest of the session and only its rows are deleted on
+     *                commit, instead of dropping it on commit
+     * @return the query to create the temporary table
+     */
+    default String getCreateTempTableQuery(boolean session) {
         return String.format(
-                "create temporary table if not exists %s on commit drop as table %s limit 0",
-                getTemporaryTableName(), getFinalTableName());
+                "create temporary table if not exists %s on commit %s as table %s limit 0",
+                getTemporaryTableName(), session ? "delete rows" : "drop", getFinalTableName());
     }
 
     String getFinalTableName();
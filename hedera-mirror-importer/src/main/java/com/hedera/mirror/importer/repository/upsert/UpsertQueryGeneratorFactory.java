@@ -36,6 +36,13 @@ public class UpsertQueryGeneratorFactory {
         return upsertQueryGenerators.computeIfAbsent(domainClass, this::findOrCreate);
     }
 
+    /**
+     * Gets the generator of the upsert query of complete rows that don't need to be merged with the existing rows
+     */
+    public UpsertQueryGenerator getComplete(Class<?> domainClass) {
+        return new CompleteUpsertQueryGenerator(entityMetadataRegistry.lookup(domainClass));
+    }
+
     /**
      * This method relies on the convention that the domain class and its associated UpsertQueryGenerator have the same
      * prefix. Otherwise, it falls back to creating a generic upsert query generator.
@@ -50,9 +50,16 @@ with end_period as (
          order by id, timestamp_range desc
        ) as latest_history
 ), balance_snapshot as (
-  select account_id, balance
+  -- the balances as of a delta balance file are the latest since the last full snapshot
+  select distinct on (account_id) account_id, balance
   from account_balance ab
-         join balance_timestamp bt on bt.consensus_timestamp = ab.consensus_timestamp
+         join balance_timestamp bt on ab.consensus_timestamp <= bt.consensus_timestamp
+  where ab.consensus_timestamp >= coalesce((
+    select max(consensus_timestamp)
+    from account_balance_file
+    where consensus_timestamp <= bt.consensus_timestamp and delta is false
+  ), 0)
+  order by account_id, ab.consensus_timestamp desc
 )
 select
     coalesce(balance, 0) + coalesce(change, 0) as balance,
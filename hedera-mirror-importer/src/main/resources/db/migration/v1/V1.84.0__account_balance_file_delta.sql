@@ -0,0 +1,3 @@
+-- Balance files can be loaded as a delta of the previous file, with only the balances that changed
+alter table if exists account_balance_file
+    add column if not exists delta boolean default false not null;
@@ -24,6 +24,7 @@ create table if not exists account_balance_file
     bytes               bytea         null,
     consensus_timestamp bigint        not null,
     count               bigint        not null,
+    delta               boolean default false not null,
     file_hash           varchar(96)   null,
     load_end            bigint        not null,
     load_start          bigint        not null,
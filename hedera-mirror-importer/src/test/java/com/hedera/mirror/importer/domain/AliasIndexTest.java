@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+import com.hedera.mirror.importer.IntegrationTest;
+import com.hedera.mirror.importer.parser.record.entity.EntityProperties;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.util.unit.DataSize;
+
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class AliasIndexTest extends IntegrationTest {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private EntityProperties entityProperties;
+
+    @BeforeEach
+    void setup() {
+        entityProperties = new EntityProperties();
+        var properties = entityProperties.getAliasIndex();
+        properties.setEnabled(true);
+        properties.setInitialCapacity(4);
+        properties.setSegmentSize(DataSize.ofKilobytes(1L));
+        properties.setWarmFetchSize(2);
+    }
+
+    @Test
+    void disabled() {
+        entityProperties.getAliasIndex().setEnabled(false);
+        var aliasIndex = new AliasIndex(entityProperties, jdbcTemplate);
+        var key = RandomUtils.nextBytes(20);
+
+        aliasIndex.put(key, 1L);
+
+        assertThat(aliasIndex.isEnabled()).isFalse();
+        assertThat(aliasIndex.get(key)).isEqualTo(AliasIndex.NOT_FOUND);
+        assertThat(aliasIndex.size()).isZero();
+    }
+
+    @Test
+    void putAndGet() {
+        // given
+        var aliasIndex = new AliasIndex(entityProperties, jdbcTemplate);
+        var expected = new HashMap<byte[], Long>();
+
+        // when the entries span multiple segments and table resizes
+        for (long id = 1; id <= 1000; id++) {
+            var key = RandomUtils.nextBytes(id % 2 == 0 ? 20 : 35);
+            aliasIndex.put(key, id);
+            expected.put(key, id);
+        }
+
+        // then
+        assertThat(aliasIndex.size()).isEqualTo(expected.size());
+        for (Map.Entry<byte[], Long> entry : expected.entrySet()) {
+            assertThat(aliasIndex.get(entry.getKey().clone())).isEqualTo(entry.getValue());
+        }
+        assertThat(aliasIndex.get(RandomUtils.nextBytes(20))).isEqualTo(AliasIndex.NOT_FOUND);
+        assertThat(aliasIndex.get(new byte[0])).isEqualTo(AliasIndex.NOT_FOUND);
+        assertThat(aliasIndex.get(null)).isEqualTo(AliasIndex.NOT_FOUND);
+    }
+
+    @Test
+    void update() {
+        var aliasIndex = new AliasIndex(entityProperties, jdbcTemplate);
+        var key = RandomUtils.nextBytes(33);
+
+        aliasIndex.put(key, 1L);
+        aliasIndex.put(key, 2L);
+
+        assertThat(aliasIndex.get(key)).isEqualTo(2L);
+        assertThat(aliasIndex.size()).isOne();
+    }
+
+    @Test
+    void remove() {
+        // given
+        var aliasIndex = new AliasIndex(entityProperties, jdbcTemplate);
+        var expected = new HashMap<byte[], Long>();
+        var removed = new ArrayList<byte[]>();
+
+        for (long id = 1; id <= 1000; id++) {
+            var key = RandomUtils.nextBytes(20);
+            aliasIndex.put(key, id);
+            if (id % 3 == 0) {
+                removed.add(key);
+            } else {
+                expected.put(key, id);
+            }
+        }
+
+        // when
+        removed.forEach(key -> aliasIndex.remove(key, aliasIndex.get(key)));
+
+        // then the entries after the removed ones in their probe sequences are still found
+        assertThat(aliasIndex.size()).isEqualTo(expected.size());
+        removed.forEach(key -> assertThat(aliasIndex.get(key)).isEqualTo(AliasIndex.NOT_FOUND));
+        for (Map.Entry<byte[], Long> entry : expected.entrySet()) {
+            assertThat(aliasIndex.get(entry.getKey())).isEqualTo(entry.getValue());
+        }
+    }
+
+    @Test
+    void removeReused() {
+        var aliasIndex = new AliasIndex(entityProperties, jdbcTemplate);
+        var key = RandomUtils.nextBytes(33);
+
+        aliasIndex.put(key, 1L);
+        aliasIndex.put(key, 2L);
+        aliasIndex.remove(key, 1L);
+
+        assertThat(aliasIndex.get(key)).isEqualTo(2L);
+        assertThat(aliasIndex.size()).isOne();
+    }
+
+    @Test
+    void warm() {
+        // given
+        var account = domainBuilder.entity().persist();
+        var contract = domainBuilder
+                .entity()
+                .customize(e -> e.alias(null).evmAddress(domainBuilder.evmAddress()))
+                .persist();
+        var deleted = domainBuilder.entity().customize(e -> e.deleted(true)).persist();
+        domainBuilder.entity().customize(e -> e.alias(null).evmAddress(null)).persist();
+        var aliasIndex = new AliasIndex(entityProperties, jdbcTemplate);
+        var updatedAlias = RandomUtils.nextBytes(33);
+        aliasIndex.put(updatedAlias, 100L);
+
+        // when
+        aliasIndex.warm();
+
+        // then
+        assertThat(aliasIndex.get(account.getAlias())).isEqualTo(account.getId());
+        assertThat(aliasIndex.get(account.getEvmAddress())).isEqualTo(account.getId());
+        assertThat(aliasIndex.get(contract.getEvmAddress())).isEqualTo(contract.getId());
+        assertThat(aliasIndex.get(deleted.getAlias())).isEqualTo(AliasIndex.NOT_FOUND);
+        assertThat(aliasIndex.get(updatedAlias)).isEqualTo(100L);
+    }
+
+    @Test
+    void warmConcurrentRemove() {
+        // given
+        var account = domainBuilder.entity().persist();
+        var removed = domainBuilder.entity().persist();
+        var spyJdbcTemplate = spy(jdbcTemplate);
+        var aliasIndex = new AliasIndex(entityProperties, spyJdbcTemplate);
+
+        // when the entity ID service removes an entity's aliases after the scan started but before it reached them
+        doAnswer(invocation -> {
+                    aliasIndex.remove(removed.getAlias(), removed.getId());
+                    aliasIndex.remove(removed.getEvmAddress(), removed.getId());
+                    return invocation.callRealMethod();
+                })
+                .when(spyJdbcTemplate)
+                .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        aliasIndex.warm();
+
+        // then
+        assertThat(aliasIndex.get(account.getAlias())).isEqualTo(account.getId());
+        assertThat(aliasIndex.get(removed.getAlias())).isEqualTo(AliasIndex.NOT_FOUND);
+        assertThat(aliasIndex.get(removed.getEvmAddress())).isEqualTo(AliasIndex.NOT_FOUND);
+
+        // and the removals are forgotten once the scan ends
+        doAnswer(invocation -> invocation.callRealMethod())
+                .when(spyJdbcTemplate)
+                .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        aliasIndex.warm();
+        assertThat(aliasIndex.get(removed.getAlias())).isEqualTo(removed.getId());
+    }
+}
@@ -19,6 +19,7 @@ package com.hedera.mirror.importer.domain;
 import static com.hedera.mirror.common.domain.entity.EntityType.ACCOUNT;
 import static com.hedera.mirror.common.domain.entity.EntityType.CONTRACT;
 import static com.hedera.mirror.common.domain.entity.EntityType.UNKNOWN;
+import static com.hedera.mirror.importer.config.CacheConfiguration.CACHE_MANAGER_ALIAS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -26,14 +27,22 @@ import com.hedera.mirror.common.domain.entity.Entity;
 import com.hedera.mirror.common.domain.entity.EntityId;
 import com.hedera.mirror.common.util.DomainUtils;
 import com.hedera.mirror.importer.IntegrationTest;
+import com.hedera.mirror.importer.parser.record.entity.EntityProperties;
 import com.hedera.mirror.importer.repository.EntityRepository;
 import com.hederahashgraph.api.proto.java.AccountID;
 import com.hederahashgraph.api.proto.java.ContractID;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 class EntityIdServiceImplTest extends IntegrationTest {
@@ -45,8 +54,13 @@ class EntityIdServiceImplTest extends IntegrationTest {
         0, 0, 0, 0, 0, 0, 0, 100, // num
     };
 
+    @Qualifier(CACHE_MANAGER_ALIAS)
+    private final CacheManager cacheManager;
+
     private final EntityRepository entityRepository;
     private final EntityIdService entityIdService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
 
     @Test
     void cache() {
@@ -298,6 +312,35 @@ class EntityIdServiceImplTest extends IntegrationTest {
         assertThat(entityIdService.lookup(contractId)).isEmpty();
     }
 
+    @Test
+    void storeDeletedRemovesAliases() {
+        // given
+        var entityProperties = new EntityProperties();
+        entityProperties.getAliasIndex().setEnabled(true);
+        var aliasIndex = new AliasIndex(entityProperties, jdbcTemplate);
+        var service = new EntityIdServiceImpl(
+                aliasIndex, cacheManager, entityRepository, jdbcTemplate, new SimpleMeterRegistry());
+        var created = domainBuilder.entity().get();
+        var persisted = domainBuilder.entity().persist();
+        var reused = domainBuilder.entity().persist();
+        service.notify(created);
+        service.notify(persisted);
+        aliasIndex.put(reused.getAlias(), reused.getId() + 1);
+
+        // when the entity deleted in the batch has its aliases, while the persisted ones are looked up
+        service.notify(created.toBuilder().deleted(true).build());
+        service.notify(Entity.builder().id(persisted.getId()).deleted(true).build());
+        service.notify(Entity.builder().id(reused.getId()).deleted(true).build());
+
+        // then
+        assertThat(aliasIndex.get(created.getAlias())).isEqualTo(AliasIndex.NOT_FOUND);
+        assertThat(aliasIndex.get(created.getEvmAddress())).isEqualTo(AliasIndex.NOT_FOUND);
+        assertThat(aliasIndex.get(persisted.getAlias())).isEqualTo(AliasIndex.NOT_FOUND);
+        assertThat(aliasIndex.get(persisted.getEvmAddress())).isEqualTo(AliasIndex.NOT_FOUND);
+        assertThat(aliasIndex.get(reused.getAlias())).isEqualTo(reused.getId() + 1);
+        assertThat(aliasIndex.size()).isOne();
+    }
+
     @Test
     void storeNull() {
         assertDoesNotThrow(() -> entityIdService.notify(null));
@@ -324,6 +367,68 @@ class EntityIdServiceImplTest extends IntegrationTest {
         assertThat(entityIdService.lookup(accountId)).hasValue(EntityId.of(100, CONTRACT));
     }
 
+    @Test
+    void prefetch() {
+        // given
+        var account = domainBuilder.entity().persist();
+        var contract = domainBuilder
+                .entity()
+                .customize(e -> e.alias(null).type(CONTRACT))
+                .persist();
+        var accountId = getProtoAccountId(account);
+        var contractId = getProtoContractId(contract);
+        var unknownAccountId = AccountID.newBuilder()
+                .setAlias(DomainUtils.fromBytes(domainBuilder.key()))
+                .build();
+
+        // when
+        entityIdService.prefetch(List.of(accountId, contractId, unknownAccountId));
+        entityRepository.deleteAll();
+
+        // then the prefetched entity IDs are cached, while the unknown one is left to the lookup
+        assertThat(entityIdService.lookup(accountId)).hasValue(account.toEntityId());
+        assertThat(entityIdService.lookup(contractId)).hasValue(contract.toEntityId());
+        assertThat(entityIdService.lookup(unknownAccountId)).isEmpty();
+    }
+
+    @Test
+    void prefetchIgnored() {
+        // given
+        var account = domainBuilder
+                .entity()
+                .customize(e -> e.alias(null))
+                .persist();
+        var parsable = ContractID.newBuilder()
+                .setEvmAddress(DomainUtils.fromBytes(PARSABLE_EVM_ADDRESS))
+                .build();
+
+        // when
+        entityIdService.prefetch(List.of(getProtoAccountId(account), parsable));
+
+        // then
+        assertThat(entityIdService.lookup(getProtoAccountId(account))).hasValue(account.toEntityId());
+        assertThat(entityIdService.lookup(parsable)).hasValue(EntityId.of(100, CONTRACT));
+    }
+
+    @Test
+    void prefetchDeletedInTransaction() {
+        // given
+        var account = domainBuilder.entity().persist();
+        var accountId = getProtoAccountId(account);
+
+        transactionTemplate.executeWithoutResult(s -> {
+            account.setDeleted(true);
+            entityRepository.save(account);
+            entityIdService.notify(account);
+
+            // when a decoder thread prefetches the account still committed as not deleted
+            CompletableFuture.runAsync(() -> entityIdService.prefetch(List.of(accountId))).join();
+
+            // then the stale entity ID isn't cached
+            assertThat(entityIdService.lookup(accountId)).isEmpty();
+        });
+    }
+
     private AccountID getProtoAccountId(Entity account) {
         var accountId = AccountID.newBuilder().setShardNum(account.getShard()).setRealmNum(account.getRealm());
         if (account.getAlias() == null) {
@@ -96,6 +96,33 @@ class StreamFileDataTest {
         }
     }
 
+    @Test
+    void getInputStreamMultipleTimes() throws IOException {
+        String filename = "2021-03-10T16_00_00Z.rcd.gz";
+        byte[] uncompressedBytes = {1, 2, 3};
+
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            try (OutputStream os = new GZIPOutputStream(baos)) {
+                os.write(uncompressedBytes);
+            }
+
+            StreamFileData streamFileData = StreamFileData.from(filename, baos.toByteArray());
+
+            try (InputStream is1 = streamFileData.getInputStream();
+                    InputStream is2 = streamFileData.getInputStream()) {
+                assertThat(is1.readAllBytes()).isEqualTo(uncompressedBytes);
+                assertThat(is2.readAllBytes()).isEqualTo(uncompressedBytes);
+            }
+        }
+    }
+
+    @Test
+    void createWithUncompressedData() {
+        byte[] bytes = {1, 2, 3};
+        StreamFileData streamFileData = StreamFileData.from(FILENAME, bytes);
+        assertThat(streamFileData.getDecompressedBytes()).isSameAs(bytes);
+    }
+
     @Test
     void createWithCompressorAndUncompressedData() {
         String filename = "2021-03-10T16_00_00Z.rcd.gz";
@@ -23,7 +23,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mock.Strictness.LENIENT;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -44,12 +47,14 @@ import com.hedera.mirror.importer.config.MirrorDateRangePropertiesProcessor;
 import com.hedera.mirror.importer.domain.ConsensusNodeStub;
 import com.hedera.mirror.importer.domain.StreamFilename;
 import com.hedera.mirror.importer.downloader.CommonDownloaderProperties.PathType;
+import com.hedera.mirror.importer.exception.ParserException;
 import com.hedera.mirror.importer.reader.signature.CompositeSignatureFileReader;
 import com.hedera.mirror.importer.reader.signature.ProtoSignatureFileReader;
 import com.hedera.mirror.importer.reader.signature.SignatureFileReader;
 import com.hedera.mirror.importer.reader.signature.SignatureFileReaderV2;
 import com.hedera.mirror.importer.reader.signature.SignatureFileReaderV5;
 import com.hederahashgraph.api.proto.java.NodeAddressBook;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.File;
@@ -91,6 +96,7 @@ import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
@@ -249,7 +255,7 @@ public abstract class AbstractDownloaderTest<T extends StreamFile<?>> {
         signatureFileReader = new CompositeSignatureFileReader(
                 new SignatureFileReaderV2(), new SignatureFileReaderV5(), new ProtoSignatureFileReader());
         var consensusValidator = new ConsensusValidatorImpl(commonDownloaderProperties);
-        nodeSignatureVerifier = new NodeSignatureVerifier(consensusValidator);
+        nodeSignatureVerifier = new NodeSignatureVerifier(commonDownloaderProperties, consensusValidator);
         downloader = getDownloader();
         streamType = downloaderProperties.getStreamType();
 
@@ -262,6 +268,7 @@ public abstract class AbstractDownloaderTest<T extends StreamFile<?>> {
 
     @AfterEach
     void after() throws Exception {
+        nodeSignatureVerifier.close();
         s3Proxy.stop();
     }
 
@@ -593,6 +600,72 @@ public abstract class AbstractDownloaderTest<T extends StreamFile<?>> {
         verifyStreamFiles(List.of(file1));
     }
 
+    @Test
+    void pipelined() {
+        commonDownloaderProperties.setBatchSize(1);
+        commonDownloaderProperties.setPipelined(true);
+        mirrorProperties.setStartBlockNumber(null);
+        fileCopier.copy();
+        expectLastStreamFile(Instant.EPOCH);
+
+        downloader.download();
+        downloader.download();
+
+        verifyForSuccess();
+        // The listed ahead batch and prefetched data files are still verified in file order
+        assertThat(streamFileCaptor.getAllValues()).extracting(StreamFile::getName).containsExactly(file1, file2);
+    }
+
+    @Test
+    void spool() {
+        commonDownloaderProperties.getSpool().setEnabled(true);
+        mirrorProperties.setStartBlockNumber(null);
+        fileCopier.copy();
+        expectLastStreamFile(Instant.EPOCH);
+
+        downloader.download();
+
+        verify(streamFileNotifier, timeout(5000L).times(2)).verified(streamFileCaptor.capture());
+        assertThat(streamFileCaptor.getAllValues()).extracting(StreamFile::getName).containsExactly(file1, file2);
+    }
+
+    @Test
+    void spoolParserError() {
+        commonDownloaderProperties.getSpool().setEnabled(true);
+        mirrorProperties.setStartBlockNumber(null);
+        fileCopier.copy();
+        expectLastStreamFile(Instant.EPOCH);
+        doThrow(new ParserException("error")).doNothing().when(streamFileNotifier).verified(any());
+
+        // The failed stream file is handed to the parser again from the spool after the error is reported
+        await().atMost(Duration.ofSeconds(5L)).untilAsserted(() -> {
+            downloader.download();
+            verify(streamFileNotifier, times(3)).verified(any());
+        });
+
+        verify(streamFileNotifier, times(3)).verified(streamFileCaptor.capture());
+        assertThat(streamFileCaptor.getAllValues())
+                .extracting(StreamFile::getName)
+                .containsExactly(file1, file1, file2);
+    }
+
+    @ParameterizedTest(name = "Prefetch {0} data files")
+    @ValueSource(ints = {1, 2, 10})
+    void prefetch(int prefetch) {
+        commonDownloaderProperties.setPipelined(true);
+        commonDownloaderProperties.setPrefetch(prefetch);
+        mirrorProperties.setStartBlockNumber(null);
+        fileCopier.copy();
+        expectLastStreamFile(Instant.EPOCH);
+
+        downloader.download();
+
+        verifyForSuccess();
+        assertThat(meterRegistry.find("hedera.mirror.download.prefetch.waste").counter())
+                .isNotNull()
+                .returns(0.0, Counter::count);
+    }
+
     @Test
     void noDataFiles() throws IOException {
         fileCopier.copy();
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.downloader;
+
+import static com.hedera.mirror.importer.parser.AbstractStreamFileParser.STREAM_PARSE_DURATION_METRIC_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hedera.mirror.common.domain.StreamType;
+import com.hedera.mirror.importer.MirrorProperties;
+import com.hedera.mirror.importer.downloader.record.RecordDownloaderProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveBatchControllerTest {
+
+    private static final Duration CATCHING_UP = Duration.ofDays(1L);
+    private static final Duration REAL_TIME = Duration.ofSeconds(1L);
+
+    private CommonDownloaderProperties commonDownloaderProperties;
+    private MeterRegistry meterRegistry;
+    private AdaptiveBatchController batchController;
+
+    @BeforeEach
+    void setup() {
+        var mirrorProperties = new MirrorProperties();
+        commonDownloaderProperties = new CommonDownloaderProperties(mirrorProperties);
+        commonDownloaderProperties.setAdaptive(true);
+        commonDownloaderProperties.setBatchSize(10);
+        commonDownloaderProperties.setMaxBatchSize(40);
+        meterRegistry = new SimpleMeterRegistry();
+        var downloaderProperties = new RecordDownloaderProperties(mirrorProperties, commonDownloaderProperties);
+        batchController = new AdaptiveBatchController(downloaderProperties, meterRegistry);
+    }
+
+    @Test
+    void disabled() {
+        commonDownloaderProperties.setAdaptive(false);
+        batchController.onLag(CATCHING_UP);
+        batchController.adapt(10);
+        assertThat(batchController.getBatchSize()).isEqualTo(10);
+        assertThat(batchController.isCatchingUp()).isFalse();
+    }
+
+    @Test
+    void grow() {
+        batchController.onLag(CATCHING_UP);
+
+        batchController.adapt(10);
+        assertThat(batchController.getBatchSize()).isEqualTo(20);
+        assertThat(batchController.isCatchingUp()).isTrue();
+
+        batchController.adapt(20);
+        assertThat(batchController.getBatchSize()).isEqualTo(40);
+
+        batchController.adapt(40);
+        assertThat(batchController.getBatchSize()).isEqualTo(40);
+        assertThat(batchController.isCatchingUp()).isTrue();
+        assertThat(meterRegistry
+                        .find("hedera.mirror.download.adaptive.batch")
+                        .tag("type", StreamType.RECORD.toString())
+                        .gauge()
+                        .value())
+                .isEqualTo(40.0);
+        assertThat(meterRegistry
+                        .find("hedera.mirror.download.adaptive.catchup")
+                        .gauge()
+                        .value())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shrink() {
+        batchController.onLag(CATCHING_UP);
+        batchController.adapt(10);
+        batchController.adapt(20);
+
+        // Fewer files available than the batch size
+        batchController.adapt(5);
+        assertThat(batchController.getBatchSize()).isEqualTo(20);
+        assertThat(batchController.isCatchingUp()).isFalse();
+
+        batchController.onLag(REAL_TIME);
+        batchController.adapt(1);
+        assertThat(batchController.getBatchSize()).isEqualTo(10);
+        assertThat(batchController.isCatchingUp()).isFalse();
+    }
+
+    @Test
+    void noFiles() {
+        batchController.onLag(CATCHING_UP);
+        batchController.adapt(10);
+        batchController.adapt(0);
+        assertThat(batchController.getBatchSize()).isEqualTo(10);
+        assertThat(batchController.isCatchingUp()).isFalse();
+    }
+
+    @Test
+    void parserBehind() {
+        parseTimer().record(Duration.ofSeconds(5L));
+        batchController.onLag(CATCHING_UP);
+
+        batchController.adapt(10);
+        assertThat(batchController.getBatchSize()).isEqualTo(10);
+        assertThat(batchController.isCatchingUp()).isTrue();
+    }
+
+    @Test
+    void parserSlowedDown() {
+        var timer = parseTimer();
+        for (int i = 0; i < 100; i++) {
+            timer.record(Duration.ofMillis(100L));
+        }
+        batchController.onLag(CATCHING_UP);
+
+        batchController.adapt(10);
+        assertThat(batchController.getBatchSize()).isEqualTo(20);
+
+        // The recent files take longer to parse than to close even though the mean of all the files doesn't
+        for (int i = 0; i < 10; i++) {
+            timer.record(Duration.ofSeconds(5L));
+        }
+
+        batchController.adapt(20);
+        assertThat(batchController.getBatchSize()).isEqualTo(10);
+        assertThat(batchController.isCatchingUp()).isTrue();
+    }
+
+    private Timer parseTimer() {
+        return Timer.builder(STREAM_PARSE_DURATION_METRIC_NAME)
+                .tag("type", StreamType.RECORD.toString())
+                .tag("success", "true")
+                .register(meterRegistry);
+    }
+}
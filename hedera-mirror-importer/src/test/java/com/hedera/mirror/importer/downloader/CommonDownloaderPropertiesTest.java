@@ -27,6 +27,7 @@ import java.net.URI;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.util.unit.DataSize;
 
 class CommonDownloaderPropertiesTest {
 
@@ -53,6 +54,19 @@ class CommonDownloaderPropertiesTest {
         assertThrows(IllegalArgumentException.class, () -> properties.init());
     }
 
+    @Test
+    void initSpoolMaxSize() {
+        var properties = new CommonDownloaderProperties(new MirrorProperties());
+        properties.getSpool().setSegmentSize(DataSize.ofMegabytes(64L));
+
+        properties.getSpool().setMaxSize(DataSize.ofMegabytes(128L));
+        assertThrows(IllegalArgumentException.class, properties::init);
+
+        properties.getSpool().setMaxSize(DataSize.ofMegabytes(129L));
+        properties.init();
+        assertThat(properties.getSpool().getMaxSize()).isEqualTo(DataSize.ofMegabytes(129L));
+    }
+
     @Test
     void isAnonymousCredentials() {
         var mirrorProperties = new MirrorProperties();
@@ -206,6 +206,43 @@ class ConsensusValidatorImplTest {
         assertConsensusNotReached(signatures);
     }
 
+    @Test
+    void isConsensusReached() {
+        var signatures = signatures(1, 1, 1);
+        signatures.get(1).setStatus(DOWNLOADED);
+        signatures.get(2).setStatus(DOWNLOADED);
+        assertThat(consensusValidator.isConsensusReached(signatures)).isTrue();
+        assertThat(signatures).map(StreamFileSignature::getStatus).doesNotContain(CONSENSUS_REACHED);
+    }
+
+    @Test
+    void isConsensusReachedInsufficientStake() {
+        var signatures = signatures(1, 3, 3);
+        signatures.get(1).setStatus(DOWNLOADED);
+        signatures.get(2).setStatus(DOWNLOADED);
+        assertThat(consensusValidator.isConsensusReached(signatures)).isFalse();
+    }
+
+    @Test
+    void isConsensusReachedMultipleFileHashes() {
+        var signatures = signatures(1, 1, 1, 1, 1, 1);
+        signatures.get(1).setFileHash(domainBuilder.bytes(256));
+        signatures.get(2).setFileHash(domainBuilder.bytes(256));
+        signatures.get(3).setFileHash(domainBuilder.bytes(256));
+        signatures.get(4).setStatus(DOWNLOADED);
+        signatures.get(5).setStatus(DOWNLOADED);
+        assertThat(consensusValidator.isConsensusReached(signatures)).isFalse();
+    }
+
+    @Test
+    void isConsensusReachedSkipConsensus() {
+        commonDownloaderProperties.setConsensusRatio(BigDecimal.ZERO);
+        var signatures = signatures(1, 7);
+        signatures.get(1).setStatus(DOWNLOADED);
+        assertThat(consensusValidator.isConsensusReached(signatures)).isTrue();
+        assertThat(consensusValidator.isConsensusReached(List.of())).isFalse();
+    }
+
     private void assertConsensusNotReached(List<StreamFileSignature> signatures) {
         assertThatThrownBy(() -> consensusValidator.validate(signatures))
                 .isInstanceOf(SignatureVerificationException.class)
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.downloader;
+
+import static com.hedera.mirror.common.domain.entity.EntityType.ACCOUNT;
+import static com.hedera.mirror.importer.domain.StreamFileSignature.SignatureStatus.CONSENSUS_REACHED;
+import static com.hedera.mirror.importer.domain.StreamFileSignature.SignatureStatus.DOWNLOADED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Stopwatch;
+import com.hedera.mirror.common.domain.StreamType;
+import com.hedera.mirror.common.domain.entity.EntityId;
+import com.hedera.mirror.importer.MirrorProperties;
+import com.hedera.mirror.importer.TestUtils;
+import com.hedera.mirror.importer.domain.ConsensusNodeStub;
+import com.hedera.mirror.importer.domain.StreamFileSignature;
+import com.hedera.mirror.importer.domain.StreamFileSignature.SignatureType;
+import com.hedera.mirror.importer.domain.StreamFilename;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.CustomLog;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@CustomLog
+@Tag("performance")
+class NodeSignatureVerifierPerformanceTest {
+
+    private static final int FILES = 500;
+    private static final int NODES = 30;
+
+    private static List<KeyPair> keyPairs;
+
+    @BeforeAll
+    @SneakyThrows
+    static void generateKeys() {
+        var keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairs = new ArrayList<>(NODES);
+        for (int i = 0; i < NODES; i++) {
+            keyPairs.add(keyPairGenerator.generateKeyPair());
+        }
+    }
+
+    @Test
+    void verify() {
+        var files = new ArrayList<List<StreamFileSignature>>(FILES);
+        for (int i = 0; i < FILES; i++) {
+            files.add(signatures());
+        }
+
+        var uncached = verifyUncached(files);
+        var serial = verify(files, 1, false);
+        var parallel = verify(files, Runtime.getRuntime().availableProcessors(), true);
+        log.info(
+                "Verified {} files with {} signatures each: uncached serial {}, cached serial {}, "
+                        + "cached parallel with lazy verification {}",
+                FILES,
+                NODES,
+                uncached,
+                serial,
+                parallel);
+    }
+
+    /**
+     * Verifies every signature the way NodeSignatureVerifier did before the cached and concurrent verification, with a
+     * new Signature instance and initVerify() per signature.
+     */
+    @SneakyThrows
+    private Duration verifyUncached(List<List<StreamFileSignature>> files) {
+        var stopwatch = Stopwatch.createStarted();
+
+        for (var signatures : files) {
+            for (var signature : signatures) {
+                var signatureType = signature.getSignatureType();
+                var sig = Signature.getInstance(signatureType.getAlgorithm(), signatureType.getProvider());
+                sig.initVerify(signature.getNode().getPublicKey());
+                sig.update(signature.getFileHash());
+                assertThat(sig.verify(signature.getFileHashSignature())).isTrue();
+                sig.update(signature.getMetadataHash());
+                assertThat(sig.verify(signature.getMetadataHashSignature())).isTrue();
+            }
+        }
+
+        return stopwatch.elapsed();
+    }
+
+    private Duration verify(List<List<StreamFileSignature>> files, int threads, boolean lazy) {
+        var properties = new CommonDownloaderProperties(new MirrorProperties());
+        properties.setLazyVerification(lazy);
+        properties.setVerificationThreads(threads);
+        var consensusValidator = new ConsensusValidatorImpl(properties);
+        var stopwatch = Stopwatch.createUnstarted();
+
+        try (var nodeSignatureVerifier = new NodeSignatureVerifier(properties, consensusValidator)) {
+            for (var signatures : files) {
+                signatures.forEach(s -> s.setStatus(DOWNLOADED));
+                stopwatch.start();
+                nodeSignatureVerifier.verify(signatures);
+                stopwatch.stop();
+                assertThat(signatures).map(StreamFileSignature::getStatus).contains(CONSENSUS_REACHED);
+            }
+        }
+
+        return stopwatch.elapsed();
+    }
+
+    @SneakyThrows
+    private List<StreamFileSignature> signatures() {
+        var fileHash = TestUtils.generateRandomByteArray(48);
+        var metadataHash = TestUtils.generateRandomByteArray(48);
+        var signatures = new ArrayList<StreamFileSignature>(NODES);
+
+        for (int i = 0; i < NODES; i++) {
+            var keyPair = keyPairs.get(i);
+            var node = ConsensusNodeStub.builder()
+                    .nodeAccountId(EntityId.of(0L, 0L, i + 3L, ACCOUNT))
+                    .nodeId(i)
+                    .publicKey(keyPair.getPublic())
+                    .stake(1L)
+                    .totalStake(NODES)
+                    .build();
+
+            var signer = Signature.getInstance("SHA384withRSA", "SunRsaSign");
+            signer.initSign(keyPair.getPrivate());
+            signer.update(fileHash);
+            var fileHashSignature = signer.sign();
+            signer.update(metadataHash);
+            var metadataHashSignature = signer.sign();
+
+            var signature = new StreamFileSignature();
+            signature.setFileHash(fileHash);
+            signature.setFileHashSignature(fileHashSignature);
+            signature.setFilename(StreamFilename.EPOCH);
+            signature.setMetadataHash(metadataHash);
+            signature.setMetadataHashSignature(metadataHashSignature);
+            signature.setNode(node);
+            signature.setSignatureType(SignatureType.SHA_384_WITH_RSA);
+            signature.setStreamType(StreamType.RECORD);
+            signatures.add(signature);
+        }
+
+        return signatures;
+    }
+}
@@ -37,10 +37,13 @@ package com.hedera.mirror.importer.downloader;
  */
 
 import static com.hedera.mirror.common.domain.entity.EntityType.ACCOUNT;
+import static com.hedera.mirror.importer.domain.StreamFileSignature.SignatureStatus.CONSENSUS_REACHED;
+import static com.hedera.mirror.importer.domain.StreamFileSignature.SignatureStatus.DEFERRED;
 import static com.hedera.mirror.importer.domain.StreamFileSignature.SignatureStatus.DOWNLOADED;
 import static com.hedera.mirror.importer.domain.StreamFileSignature.SignatureStatus.VERIFIED;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
 
 import com.hedera.mirror.common.domain.StreamType;
 import com.hedera.mirror.common.domain.entity.EntityId;
@@ -59,6 +62,7 @@ import java.security.PublicKey;
 import java.security.Signature;
 import java.util.List;
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -96,12 +100,17 @@ class NodeSignatureVerifierTest {
         commonDownloaderProperties = new CommonDownloaderProperties(new MirrorProperties());
         commonDownloaderProperties.setConsensusRatio(
                 BigDecimal.ONE.divide(BigDecimal.valueOf(3), 19, RoundingMode.DOWN));
-        nodeSignatureVerifier = new NodeSignatureVerifier(consensusValidator);
+        nodeSignatureVerifier = new NodeSignatureVerifier(commonDownloaderProperties, consensusValidator);
         signer = Signature.getInstance("SHA384withRSA", "SunRsaSign");
         signer.initSign(privateKey);
         consensusValidator.validate(any());
     }
 
+    @AfterEach
+    void teardown() {
+        nodeSignatureVerifier.close();
+    }
+
     @Test
     void v2() {
         var signature = streamFileSignature();
@@ -209,6 +218,70 @@ class NodeSignatureVerifierTest {
                 .doesNotContain(VERIFIED);
     }
 
+    @Test
+    void lazyVerification() {
+        commonDownloaderProperties.setLazyVerification(true);
+        when(consensusValidator.isConsensusReached(any())).thenReturn(true);
+        var signatures = List.of(streamFileSignature(), streamFileSignature(), streamFileSignature());
+
+        nodeSignatureVerifier.verify(signatures);
+        assertThat(signatures)
+                .extracting(StreamFileSignature::getStatus)
+                .containsOnly(VERIFIED, DEFERRED)
+                .containsOnlyOnce(VERIFIED);
+    }
+
+    @Test
+    void lazyVerificationNoConsensus() {
+        commonDownloaderProperties.setLazyVerification(true);
+        when(consensusValidator.isConsensusReached(any())).thenReturn(false);
+        var signatures = List.of(streamFileSignature(), streamFileSignature(), streamFileSignature());
+
+        nodeSignatureVerifier.verify(signatures);
+        assertThat(signatures).extracting(StreamFileSignature::getStatus).containsOnly(VERIFIED);
+    }
+
+    @Test
+    void verifyDeferred() {
+        var consensusSignature = streamFileSignature();
+        consensusSignature.setStatus(CONSENSUS_REACHED);
+        var signature = streamFileSignature(consensusSignature.getFileHash());
+        signature.setStatus(DEFERRED);
+
+        assertThat(nodeSignatureVerifier.verifyDeferred(signature, consensusSignature)).isTrue();
+        assertThat(signature.getStatus()).isEqualTo(CONSENSUS_REACHED);
+    }
+
+    @Test
+    void verifyDeferredInvalidSignature() {
+        var consensusSignature = streamFileSignature();
+        var signature = streamFileSignature(consensusSignature.getFileHash());
+        signature.setFileHashSignature(corruptSignature(signature.getFileHashSignature()));
+        signature.setStatus(DEFERRED);
+
+        assertThat(nodeSignatureVerifier.verifyDeferred(signature, consensusSignature)).isFalse();
+        assertThat(signature.getStatus()).isEqualTo(DOWNLOADED);
+    }
+
+    @Test
+    void verifyDeferredHashMismatch() {
+        var consensusSignature = streamFileSignature();
+        var signature = streamFileSignature();
+        signature.setStatus(DEFERRED);
+
+        assertThat(nodeSignatureVerifier.verifyDeferred(signature, consensusSignature)).isFalse();
+        assertThat(signature.getStatus()).isEqualTo(DEFERRED);
+    }
+
+    @Test
+    void verifyDeferredNotDeferred() {
+        var consensusSignature = streamFileSignature();
+        var signature = streamFileSignature(consensusSignature.getFileHash());
+
+        assertThat(nodeSignatureVerifier.verifyDeferred(signature, consensusSignature)).isFalse();
+        assertThat(signature.getStatus()).isEqualTo(DOWNLOADED);
+    }
+
     @SneakyThrows
     @Test
     void signedWithWrongAlgorithm() {
@@ -224,7 +297,10 @@ class NodeSignatureVerifierTest {
     }
 
     private StreamFileSignature streamFileSignature() {
-        var fileHash = TestUtils.generateRandomByteArray(48);
+        return streamFileSignature(TestUtils.generateRandomByteArray(48));
+    }
+
+    private StreamFileSignature streamFileSignature(byte[] fileHash) {
         var metadataHash = TestUtils.generateRandomByteArray(48);
         var node = ConsensusNodeStub.builder()
                 .nodeAccountId(EntityId.of("0.0.3", ACCOUNT))
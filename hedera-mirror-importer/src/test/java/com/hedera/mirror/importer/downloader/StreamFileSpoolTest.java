@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.downloader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hedera.mirror.importer.domain.StreamFileData;
+import com.hedera.mirror.importer.downloader.CommonDownloaderProperties.SpoolProperties;
+import com.hedera.mirror.importer.downloader.StreamFileSpool.Entry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class StreamFileSpoolTest {
+
+    @TempDir
+    private Path directory;
+
+    private SpoolProperties properties;
+    private StreamFileSpool spool;
+
+    @BeforeEach
+    void setup() {
+        properties = new SpoolProperties();
+        properties.setEnabled(true);
+        spool = new StreamFileSpool(directory, properties);
+    }
+
+    @Test
+    void empty() {
+        assertThat(spool.peek()).isEmpty();
+        assertThat(spool.last()).isEmpty();
+        assertThat(spool.getSize()).isZero();
+        assertThat(spool.isFull()).isFalse();
+        assertThat(spool.isPrunable()).isFalse();
+    }
+
+    @Test
+    void appendAndConsume() {
+        var entry1 = entry(1L);
+        var entry2 = entry(2L);
+        spool.append(entry1);
+        spool.append(entry2);
+
+        var peeked = spool.peek();
+        assertThat(peeked).get().satisfies(e -> assertEntry(e, entry1));
+        assertThat(spool.peek()).get().satisfies(e -> assertEntry(e, entry1));
+        spool.commit(peeked.get());
+
+        peeked = spool.peek();
+        assertThat(peeked).get().satisfies(e -> assertEntry(e, entry2));
+        spool.commit(peeked.get());
+
+        assertThat(spool.peek()).isEmpty();
+        assertThat(spool.last()).get().satisfies(e -> assertEntry(e, entry2));
+    }
+
+    @Test
+    void reopen() {
+        var entry1 = entry(1L);
+        var entry2 = entry(2L);
+        spool.append(entry1);
+        spool.append(entry2);
+
+        var reopened = new StreamFileSpool(directory, properties);
+        assertThat(reopened.last()).get().satisfies(e -> assertEntry(e, entry2));
+        reopened.seek(entry1.consensusEnd());
+        assertThat(reopened.peek()).get().satisfies(e -> assertEntry(e, entry2));
+
+        var entry3 = entry(3L);
+        reopened.append(entry3);
+        assertThat(reopened.last()).get().satisfies(e -> assertEntry(e, entry3));
+    }
+
+    @Test
+    void recoverTruncated() throws IOException {
+        var entry1 = entry(1L);
+        spool.append(entry1);
+        spool.append(entry(2L));
+        var segment = segments().get(0);
+        long size = Files.size(segment);
+
+        try (var channel = Files.newByteChannel(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 10);
+        }
+
+        var reopened = new StreamFileSpool(directory, properties);
+        assertThat(reopened.last()).get().satisfies(e -> assertEntry(e, entry1));
+        assertThat(reopened.getSize()).isLessThan(size - 10);
+        assertThat(Files.size(segment)).isEqualTo(reopened.getSize());
+    }
+
+    @Test
+    void recoverCorrupted() throws IOException {
+        var entry1 = entry(1L);
+        spool.append(entry1);
+        spool.append(entry(2L));
+        var segment = segments().get(0);
+        var bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 10] ^= 1;
+        Files.write(segment, bytes);
+
+        var reopened = new StreamFileSpool(directory, properties);
+        assertThat(reopened.last()).get().satisfies(e -> assertEntry(e, entry1));
+    }
+
+    @Test
+    void seek() {
+        spool.append(entry(1L));
+        spool.append(entry(2L));
+        var entry3 = entry(3L);
+        spool.append(entry3);
+
+        spool.seek(entry(2L).consensusEnd());
+        assertThat(spool.peek()).get().satisfies(e -> assertEntry(e, entry3));
+
+        spool.seek(entry3.consensusEnd());
+        assertThat(spool.peek()).isEmpty();
+
+        spool.seek(Long.MIN_VALUE);
+        assertThat(spool.peek()).get().extracting(Entry::consensusStart).isEqualTo(entry(1L).consensusStart());
+    }
+
+    @Test
+    void full() {
+        spool.append(entry(1L));
+        properties.setMaxSize(DataSize.ofBytes(spool.getSize() + 1));
+        assertThat(spool.isFull()).isFalse();
+
+        spool.append(entry(2L));
+        assertThat(spool.isFull()).isTrue();
+    }
+
+    @Test
+    void rollAndPrune() throws IOException {
+        properties.setSegmentSize(DataSize.ofBytes(1L));
+        var entry1 = entry(1L);
+        var entry2 = entry(2L);
+        var entry3 = entry(3L);
+        spool.append(entry1);
+        spool.append(entry2);
+        spool.append(entry3);
+        assertThat(segments()).hasSize(3);
+        assertThat(spool.isPrunable()).isFalse();
+
+        spool.commit(spool.peek().get());
+        spool.commit(spool.peek().get());
+        assertThat(spool.peek()).get().satisfies(e -> assertEntry(e, entry3));
+        assertThat(spool.isPrunable()).isTrue();
+
+        // Not parsed yet
+        spool.prune(Long.MIN_VALUE);
+        assertThat(segments()).hasSize(3);
+
+        spool.prune(entry1.consensusEnd());
+        assertThat(segments()).hasSize(2);
+        assertThat(spool.isPrunable()).isTrue();
+
+        spool.prune(entry2.consensusEnd());
+        assertThat(segments()).hasSize(1);
+        assertThat(spool.isPrunable()).isFalse();
+        assertThat(spool.peek()).get().satisfies(e -> assertEntry(e, entry3));
+    }
+
+    @Test
+    void pruneExpiredNotParsed() throws IOException {
+        properties.setSegmentSize(DataSize.ofBytes(1L));
+        properties.setMaxAge(Duration.ZERO);
+        spool.append(entry(1L));
+        spool.append(entry(2L));
+        spool.commit(spool.peek().get());
+        assertThat(spool.peek()).isPresent();
+
+        spool.prune(Long.MIN_VALUE);
+        assertThat(segments()).hasSize(2);
+    }
+
+    @Test
+    void discardExpired() throws IOException {
+        spool.append(entry(1L));
+        var segment = segments().get(0);
+        Files.setLastModifiedTime(segment, FileTime.from(Instant.now().minus(Duration.ofDays(1L))));
+
+        var reopened = new StreamFileSpool(directory, properties);
+        assertThat(reopened.last()).isEmpty();
+        assertThat(segments()).isEmpty();
+    }
+
+    @Test
+    void clear() throws IOException {
+        spool.append(entry(1L));
+        spool.append(entry(2L));
+        spool.clear();
+
+        assertThat(spool.peek()).isEmpty();
+        assertThat(spool.getSize()).isZero();
+        assertThat(segments()).isEmpty();
+
+        var entry3 = entry(3L);
+        spool.append(entry3);
+        assertThat(spool.peek()).get().satisfies(e -> assertEntry(e, entry3));
+    }
+
+    private Entry entry(long second) {
+        var instant = Instant.parse("2022-07-13T08:46:00Z").plusSeconds(second);
+        var name = instant.toString().replace(':', '_');
+        var data = StreamFileData.from(name + ".rcd.gz", ("record" + second).getBytes(StandardCharsets.UTF_8));
+        var sidecar =
+                StreamFileData.from(name + "_01.rcd.gz", ("sidecar" + second).getBytes(StandardCharsets.UTF_8));
+        long consensusStart = instant.getEpochSecond() * 1_000_000_000L;
+        return new Entry(consensusStart, consensusStart + 1_000L, second, 3L, data, List.of(sidecar));
+    }
+
+    private void assertEntry(Entry actual, Entry expected) {
+        assertThat(actual)
+                .returns(expected.consensusStart(), Entry::consensusStart)
+                .returns(expected.consensusEnd(), Entry::consensusEnd)
+                .returns(expected.index(), Entry::index)
+                .returns(expected.nodeId(), Entry::nodeId)
+                .returns(expected.data(), Entry::data);
+        assertThat(actual.data().getBytes()).isEqualTo(expected.data().getBytes());
+        assertThat(actual.dependencies()).containsExactlyElementsOf(expected.dependencies());
+        assertThat(actual.dependencies().iterator().next().getBytes())
+                .isEqualTo(expected.dependencies().iterator().next().getBytes());
+    }
+
+    private List<Path> segments() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
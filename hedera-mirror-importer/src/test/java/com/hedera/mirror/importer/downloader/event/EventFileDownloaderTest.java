@@ -47,7 +47,7 @@ class EventFileDownloaderTest extends AbstractLinkedStreamDownloaderTest<EventFi
 
     @Override
     protected Downloader<EventFile, EventItem> getDownloader() {
-        var streamFileProvider = new S3StreamFileProvider(commonDownloaderProperties, s3AsyncClient);
+        var streamFileProvider = new S3StreamFileProvider(commonDownloaderProperties, meterRegistry, s3AsyncClient);
         return new EventFileDownloader(
                 consensusNodeService,
                 (EventDownloaderProperties) downloaderProperties,
@@ -82,6 +82,59 @@ class LocalStreamFileProviderTest extends AbstractStreamFileProviderTest {
                 .isTrue();
     }
 
+    @Test
+    void listAfterDeleteUsesIndex() throws Exception {
+        var node = node("0.0.3");
+        getFileCopier(node).copy();
+        var nodePath = fileCopier.getTo().resolve(nodePath(node));
+        var filename = "2022-07-13T08_46_11.304284003Z.rcd_sig";
+        var data = streamFileData(node, filename);
+        var lastFilename = StreamFilename.from("2022-07-13T08_46_08.041986003Z.rcd_sig");
+        StepVerifier.withVirtualTime(() -> streamFileProvider.list(node, StreamFilename.EPOCH))
+                .thenAwait(Duration.ofSeconds(10L))
+                .expectNextCount(2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+
+        // Deletes the processed files
+        StepVerifier.withVirtualTime(() -> streamFileProvider.list(node, lastFilename))
+                .thenAwait(Duration.ofSeconds(10L))
+                .expectNext(data)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+        assertThat(nodePath.resolve("2022-07-13T08_46_08.041986003Z.rcd_sig")).doesNotExist();
+
+        // A file added without changing the last modified time of the directory is only seen if it's listed again
+        var lastModified = Files.getLastModifiedTime(nodePath);
+        Files.copy(nodePath.resolve(filename), nodePath.resolve("2022-07-13T08_46_20.000000000Z.rcd_sig"));
+        Files.setLastModifiedTime(nodePath, lastModified);
+        StepVerifier.withVirtualTime(() -> streamFileProvider.list(node, lastFilename))
+                .thenAwait(Duration.ofSeconds(10L))
+                .expectNext(data)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+    }
+
+    @Test
+    void listAfterFilesAdded() {
+        var node = node("0.0.3");
+        StepVerifier.withVirtualTime(() -> streamFileProvider.list(node, StreamFilename.EPOCH))
+                .thenAwait(Duration.ofSeconds(10L))
+                .expectNextCount(0)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+
+        getFileCopier(node).copy();
+        var data1 = streamFileData(node, "2022-07-13T08_46_08.041986003Z.rcd_sig");
+        var data2 = streamFileData(node, "2022-07-13T08_46_11.304284003Z.rcd_sig");
+        StepVerifier.withVirtualTime(() -> streamFileProvider.list(node, StreamFilename.EPOCH))
+                .thenAwait(Duration.ofSeconds(10L))
+                .expectNext(data1)
+                .expectNext(data2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+    }
+
     @ParameterizedTest
     @EnumSource(PathType.class)
     void listAllPathTypes(PathType pathType) {
@@ -16,6 +16,8 @@
 
 package com.hedera.mirror.importer.downloader.provider;
 
+import static com.hedera.mirror.importer.domain.StreamFilename.FileType.SIGNATURE;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 import static software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR;
 
@@ -23,9 +25,15 @@ import com.hedera.mirror.common.domain.StreamType;
 import com.hedera.mirror.importer.FileCopier;
 import com.hedera.mirror.importer.TestUtils;
 import com.hedera.mirror.importer.addressbook.ConsensusNode;
+import com.hedera.mirror.importer.domain.StreamFileData;
+import com.hedera.mirror.importer.domain.StreamFilename;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.net.URI;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Properties;
 import java.util.concurrent.ForkJoinPool;
 import org.gaul.s3proxy.S3Proxy;
@@ -34,6 +42,10 @@ import org.jclouds.ContextBuilder;
 import org.jclouds.blobstore.BlobStoreContext;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.test.StepVerifier;
 import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
@@ -42,6 +54,7 @@ class S3StreamFileProviderTest extends AbstractStreamFileProviderTest {
 
     private static final int S3_PROXY_PORT = 8001;
 
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
     private S3Proxy s3Proxy;
 
     @Override
@@ -64,10 +77,142 @@ class S3StreamFileProviderTest extends AbstractStreamFileProviderTest {
                 .forcePathStyle(true)
                 .region(Region.of(properties.getRegion()))
                 .build();
-        streamFileProvider = new S3StreamFileProvider(properties, s3AsyncClient);
+        streamFileProvider = new S3StreamFileProvider(properties, meterRegistry, s3AsyncClient);
         startS3Proxy();
     }
 
+    @Test
+    void predictiveBeforeFileClose() {
+        properties.setPredictive(true);
+        fileCopier.copy();
+        var node = node("0.0.3");
+        var lastFilename = StreamFilename.from(StreamFilename.getFilename(StreamType.RECORD, SIGNATURE, Instant.now()));
+        StepVerifier.create(streamFileProvider.list(node, lastFilename))
+                .expectNextCount(0)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+        assertThat(counter("hedera.mirror.download.list.saved")).isOne();
+    }
+
+    @Test
+    void predictiveHit() {
+        properties.setPredictive(true);
+        fileCopier.copy();
+        var node1 = node("0.0.3");
+        var node2 = node("0.0.4");
+        var lastFilename = StreamFilename.from("2022-07-13T08_46_08.041986003Z.rcd_sig");
+        var data1 = streamFileData(node1, "2022-07-13T08_46_11.304284003Z.rcd_sig");
+        var data2 = streamFileData(node2, "2022-07-13T08_46_11.304284003Z.rcd_sig");
+
+        StepVerifier.create(streamFileProvider.list(node1, lastFilename))
+                .expectNext(data1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+        StepVerifier.create(streamFileProvider.list(node2, lastFilename))
+                .expectNext(data2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+
+        assertThat(counter("hedera.mirror.download.prediction", "hit")).isOne();
+        assertThat(counter("hedera.mirror.download.list.saved")).isOne();
+    }
+
+    @Test
+    void predictiveMiss() throws Exception {
+        properties.setPredictive(true);
+        fileCopier.copy();
+        var node1 = node("0.0.3");
+        var node2 = node("0.0.4");
+        var filename = "2022-07-13T08_46_11.304284003Z.rcd_sig";
+        Files.delete(fileCopier.getTo().resolve(nodePath(node2)).resolve(filename));
+        var lastFilename = StreamFilename.from("2022-07-13T08_46_08.041986003Z.rcd_sig");
+        var data1 = streamFileData(node1, filename);
+
+        StepVerifier.create(streamFileProvider.list(node1, lastFilename))
+                .expectNext(data1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+        StepVerifier.create(streamFileProvider.list(node2, lastFilename))
+                .expectNextCount(0)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+
+        assertThat(counter("hedera.mirror.download.prediction", "miss")).isOne();
+        assertThat(meterRegistry.find("hedera.mirror.download.list.saved").counter()).isNull();
+    }
+
+    @Test
+    void predictiveAwaitsListing() {
+        properties.setPredictive(true);
+        fileCopier.copy();
+        var node1 = node("0.0.3");
+        var node2 = node("0.0.4");
+        var lastFilename = StreamFilename.from("2022-07-13T08_46_08.041986003Z.rcd_sig");
+        var data2 = streamFileData(node2, "2022-07-13T08_46_11.304284003Z.rcd_sig");
+
+        // The first node doesn't request its files, but the other nodes only need its listing
+        var subscriber = new BaseSubscriber<StreamFileData>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {}
+        };
+        streamFileProvider.list(node1, lastFilename).subscribe(subscriber);
+
+        StepVerifier.create(streamFileProvider.list(node2, lastFilename))
+                .expectNext(data2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+        subscriber.dispose();
+
+        assertThat(counter("hedera.mirror.download.prediction", "hit")).isOne();
+        assertThat(counter("hedera.mirror.download.list.saved")).isOne();
+    }
+
+    @Test
+    void predictiveNoProgress() throws Exception {
+        properties.setPredictive(true);
+        fileCopier.copy();
+        var node1 = node("0.0.3");
+        var node2 = node("0.0.4");
+        var filename1 = "2022-07-13T08_46_08.041986003Z.rcd_sig";
+        var filename2 = "2022-07-13T08_46_11.304284003Z.rcd_sig";
+        Files.delete(fileCopier.getTo().resolve(nodePath(node1)).resolve(filename1));
+        var lastFilename = StreamFilename.from("2022-07-13T08_46_00.000000000Z.rcd_sig");
+        var data1 = streamFileData(node1, filename2);
+
+        // The file missing from the first node is missing from the prediction
+        StepVerifier.create(streamFileProvider.list(node1, lastFilename))
+                .expectNext(data1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+        StepVerifier.create(streamFileProvider.list(node2, lastFilename))
+                .expectNext(streamFileData(node2, filename2))
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+
+        // Listed again after the same file, so each node lists itself
+        StepVerifier.create(streamFileProvider.list(node1, lastFilename))
+                .expectNext(data1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+        StepVerifier.create(streamFileProvider.list(node2, lastFilename))
+                .expectNext(streamFileData(node2, filename1))
+                .expectNext(streamFileData(node2, filename2))
+                .expectComplete()
+                .verify(Duration.ofSeconds(10L));
+
+        assertThat(counter("hedera.mirror.download.prediction", "hit")).isOne();
+        assertThat(meterRegistry.find("hedera.mirror.download.prediction").tag("result", "miss").counter())
+                .isNull();
+    }
+
+    private double counter(String name, String... result) {
+        var search = meterRegistry.find(name);
+        if (result.length > 0) {
+            search = search.tag("result", result[0]);
+        }
+        return search.counter().count();
+    }
+
     @Override
     protected FileCopier createFileCopier(Path dataPath) {
         var fromPath = Path.of("data", "recordstreams", "v6");
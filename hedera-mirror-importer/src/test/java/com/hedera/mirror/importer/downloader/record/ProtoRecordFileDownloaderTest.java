@@ -105,6 +105,11 @@ class ProtoRecordFileDownloaderTest extends AbstractRecordFileDownloaderTest {
     void sidecarTypesFilterSome() {
         sidecarProperties.setPersistBytes(true);
         sidecarProperties.setTypes(Set.of(SidecarType.CONTRACT_BYTECODE));
+        // Only the sidecar records of the accepted types are kept
+        var recordFile = recordFileMap.get(RECORD_FILE_WITH_SIDECAR);
+        recordFile.getSidecars().forEach(sidecar -> sidecar.setRecords(sidecar.getRecords().stream()
+                .filter(TransactionSidecarRecord::hasBytecode)
+                .toList()));
         fileCopier.copy();
         expectLastStreamFile(Instant.EPOCH);
         downloader.download();
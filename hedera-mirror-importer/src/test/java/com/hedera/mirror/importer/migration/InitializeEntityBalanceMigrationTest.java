@@ -106,6 +106,37 @@ class InitializeEntityBalanceMigrationTest extends IntegrationTest {
         assertThat(entityRepository.findAll()).containsExactlyInAnyOrder(account, accountDeleted, contract, topic);
     }
 
+    @Test
+    void migrateWhenAccountBalanceFileIsDelta() {
+        // given
+        setup();
+
+        // The delta account balance file only has the balance of account, the balance of contract is the one in the
+        // previous full account balance file
+        long accountBalanceTimestamp3 = timestamp(Duration.ofMinutes(1));
+        domainBuilder
+                .accountBalanceFile()
+                .customize(a -> a.consensusTimestamp(accountBalanceTimestamp3).delta(true))
+                .persist();
+        persistAccountBalance(800L, account.toEntityId(), accountBalanceTimestamp3);
+
+        var recordFile3 = domainBuilder
+                .recordFile()
+                .customize(r -> r.consensusStart(timestamp(Duration.ofSeconds(5)))
+                        .consensusEnd(timestamp(Duration.ofSeconds(2))))
+                .persist();
+        persistCryptoTransfer(10L, account.getId(), null, recordFile3.getConsensusStart());
+
+        // when
+        initializeEntityBalanceMigration.doMigrate();
+
+        // then
+        account.setBalance(810L);
+        accountDeleted.setBalance(0L);
+        contract.setBalance(450L);
+        assertThat(entityRepository.findAll()).containsExactlyInAnyOrder(account, accountDeleted, contract, topic);
+    }
+
     @Test
     void migrateWhenNoAccountBalance() {
         // given
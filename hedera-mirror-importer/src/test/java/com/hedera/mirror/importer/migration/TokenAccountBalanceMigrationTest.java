@@ -142,6 +142,48 @@ class TokenAccountBalanceMigrationTest extends IntegrationTest {
         assertThat(tokenAccountHistoryRepository.findAll()).isEmpty();
     }
 
+    @Test
+    void migrateWhenAccountBalanceFileIsDelta() {
+        // given
+        setup();
+
+        // The delta account balance file only has the changed token balance, the other token balances are the ones in
+        // the previous full account balance file and the token transfers before the delta file are already included
+        long deltaTimestamp = timestamp(Duration.ofMinutes(1));
+        domainBuilder
+                .accountBalanceFile()
+                .customize(a -> a.consensusTimestamp(deltaTimestamp).delta(true))
+                .persist();
+        var tokenBalanceId = new TokenBalance.Id(
+                deltaTimestamp,
+                tokenBalance.getId().getAccountId(),
+                tokenBalance.getId().getTokenId());
+        domainBuilder
+                .tokenBalance()
+                .customize(c -> c.id(tokenBalanceId).balance(500L))
+                .persist();
+        domainBuilder
+                .recordFile()
+                .customize(r -> r.consensusStart(timestamp(Duration.ofSeconds(5)))
+                        .consensusEnd(timestamp(Duration.ofSeconds(2))))
+                .persist();
+
+        // when
+        tokenAccountBalanceMigration.doMigrate();
+
+        // then
+        tokenAccount.setBalance(500L);
+        tokenAccount2.setBalance(33L);
+        deletedEntityTokenAccount4.setBalance(999999L);
+        assertThat(tokenAccountRepository.findAll())
+                .containsExactlyInAnyOrder(
+                        tokenAccount,
+                        tokenAccount2,
+                        tokenAccount3,
+                        deletedEntityTokenAccount4,
+                        disassociatedTokenAccount5);
+    }
+
     @Test
     void migrateWhenNoRecordFile() {
         // given
@@ -23,8 +23,10 @@ import com.hedera.mirror.importer.IntegrationTest;
 import com.hedera.mirror.importer.domain.StreamFileData;
 import com.hedera.mirror.importer.reader.balance.BalanceFileReader;
 import com.hedera.mirror.importer.repository.AccountBalanceFileRepository;
+import com.hedera.mirror.importer.repository.AccountBalanceRepository;
 import java.util.ArrayList;
 import java.util.List;
+import lombok.CustomLog;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Tag;
@@ -35,12 +37,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 
+@CustomLog
 @Tag("performance")
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 class AccountBalanceFileParserPerformanceTest extends IntegrationTest {
 
+    private static final int ACCOUNTS = 50_000;
+    private static final int FILES = 5;
+
+    private final AccountBalanceBuilder accountBalanceBuilder;
+    private final AccountBalanceFileBuilder accountBalanceFileBuilder;
     private final AccountBalanceFileRepository accountBalanceFileRepository;
+    private final AccountBalanceRepository accountBalanceRepository;
     private final AccountBalanceFileParser balanceFileParser;
     private final BalanceFileReader balanceFileReader;
     private final BalanceParserProperties balanceParserProperties;
@@ -66,4 +75,38 @@ class AccountBalanceFileParserPerformanceTest extends IntegrationTest {
         accountBalanceFiles.forEach(balanceFileParser::parse);
         assertThat(accountBalanceFileRepository.count()).isEqualTo(accountBalanceFiles.size());
     }
+
+    @Test
+    void delta() {
+        long fullRows = parseSnapshots(1L, false);
+        long deltaRows = parseSnapshots(FILES + 1L, true);
+
+        log.info("Persisted {} account balances in full mode and {} in delta mode", fullRows, deltaRows);
+        assertThat(deltaRows).isLessThan(fullRows);
+        balanceParserProperties.getDelta().setEnabled(false);
+    }
+
+    private long parseSnapshots(long startTimestamp, boolean delta) {
+        balanceParserProperties.getDelta().setEnabled(delta);
+        long rows = 0;
+
+        for (int i = 0; i < FILES; i++) {
+            long timestamp = startTimestamp + i;
+            var builder = accountBalanceFileBuilder.accountBalanceFile(timestamp);
+            for (int account = 1; account <= ACCOUNTS; account++) {
+                // About one percent of the accounts change between consecutive balance files
+                long balance = account % 100 == i ? account + i : account;
+                builder.accountBalance(accountBalanceBuilder
+                        .accountBalance(timestamp)
+                        .accountId(account)
+                        .balance(balance)
+                        .build());
+            }
+
+            balanceFileParser.parse(builder.build());
+            rows += accountBalanceRepository.findByIdConsensusTimestamp(timestamp).size();
+        }
+
+        return rows;
+    }
 }
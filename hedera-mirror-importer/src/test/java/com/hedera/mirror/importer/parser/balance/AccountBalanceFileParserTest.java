@@ -98,6 +98,104 @@ class AccountBalanceFileParserTest extends IntegrationTest {
         parserProperties.setBatchSize(batchSize);
     }
 
+    @Test
+    void copyConcurrency() {
+        // given
+        int batchSize = parserProperties.getBatchSize();
+        parserProperties.setBatchSize(2);
+        parserProperties.setCopyConcurrency(2);
+        var accountBalanceFile = accountBalanceFile(1);
+        var items = accountBalanceFile.getItems().collectList().block();
+
+        // when
+        accountBalanceFileParser.parse(accountBalanceFile);
+
+        // then
+        assertAccountBalanceFile(accountBalanceFile, items);
+        parserProperties.setBatchSize(batchSize);
+        parserProperties.setCopyConcurrency(1);
+    }
+
+    @Test
+    void delta() {
+        // given
+        parserProperties.getDelta().setEnabled(true);
+        var accountBalanceFile1 = accountBalanceFile(1);
+        var accountBalanceFile2 = accountBalanceFileBuilder
+                .accountBalanceFile(2)
+                .accountBalance(accountBalanceBuilder
+                        .accountBalance(2)
+                        .accountId(1000L)
+                        .balance(1000L)
+                        .tokenBalance(1, 10000L)
+                        .build())
+                .accountBalance(accountBalanceBuilder
+                        .accountBalance(2)
+                        .accountId(2000L)
+                        .balance(2500L)
+                        .tokenBalance(2, 20000L)
+                        .build())
+                .accountBalance(accountBalanceBuilder
+                        .accountBalance(2)
+                        .accountId(4000L)
+                        .balance(4000L)
+                        .tokenBalance(4, 40000L)
+                        .build())
+                .build();
+        var items1 = accountBalanceFile1.getItems().collectList().block();
+        var items2 = accountBalanceFile2.getItems().collectList().block();
+
+        // when
+        accountBalanceFileParser.parse(accountBalanceFile1);
+        accountBalanceFileParser.parse(accountBalanceFile2);
+
+        // then
+        var removed = accountBalanceBuilder
+                .accountBalance(2)
+                .accountId(3000L)
+                .balance(0L)
+                .tokenBalance(0L, 30000L)
+                .build();
+        var changed = List.of(items2.get(1), items2.get(2), removed);
+        assertThat(accountBalanceFile2.isDelta()).isTrue();
+        assertThat(accountBalanceFile1.getCount()).isEqualTo(items1.size());
+        assertThat(accountBalanceFile2.getCount()).isEqualTo(changed.size());
+        assertThat(accountBalanceFileRepository.findAll())
+                .extracting(AccountBalanceFile::isDelta)
+                .containsExactlyInAnyOrder(false, true);
+        assertThat(accountBalanceRepository.findByIdConsensusTimestamp(2)).containsExactlyInAnyOrderElementsOf(changed);
+        assertThat(accountBalanceRepository.findAsOf(2))
+                .containsExactlyInAnyOrder(items1.get(0), items2.get(1), removed, items2.get(2));
+        assertThat(tokenBalanceRepository.findAsOf(2))
+                .containsExactlyInAnyOrder(
+                        items1.get(0).getTokenBalances().get(0),
+                        items1.get(1).getTokenBalances().get(0),
+                        removed.getTokenBalances().get(0),
+                        items2.get(2).getTokenBalances().get(0));
+        parserProperties.getDelta().setEnabled(false);
+    }
+
+    @Test
+    void deltaFullSnapshotInterval() {
+        // given
+        var deltaProperties = parserProperties.getDelta();
+        int fullSnapshotInterval = deltaProperties.getFullSnapshotInterval();
+        deltaProperties.setEnabled(true);
+        deltaProperties.setFullSnapshotInterval(2);
+        var accountBalanceFiles = List.of(accountBalanceFile(1), accountBalanceFile(2), accountBalanceFile(3));
+
+        // when
+        accountBalanceFiles.forEach(accountBalanceFileParser::parse);
+
+        // then
+        assertThat(accountBalanceFiles).extracting(AccountBalanceFile::isDelta).containsExactly(false, true, false);
+        assertThat(accountBalanceRepository.findByIdConsensusTimestamp(2)).isEmpty();
+        assertThat(accountBalanceRepository.findByIdConsensusTimestamp(3)).hasSize(3);
+        assertThat(tokenBalanceRepository.findAsOf(2)).hasSize(3);
+        deltaProperties.setEnabled(false);
+        deltaProperties.setFullSnapshotInterval(fullSnapshotInterval);
+    }
+
     @Test
     void duplicateFile() {
         // given
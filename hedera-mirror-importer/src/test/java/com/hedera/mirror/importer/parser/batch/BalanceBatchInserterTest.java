@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hedera.mirror.importer.IntegrationTest;
+import com.hedera.mirror.importer.parser.CommonParserProperties;
+import com.hedera.mirror.importer.parser.balance.BalanceParserProperties;
+import com.hedera.mirror.importer.repository.AccountBalanceRepository;
+import com.hedera.mirror.importer.repository.TokenBalanceRepository;
+import com.hedera.mirror.importer.repository.upsert.EntityMetadataRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class BalanceBatchInserterTest extends IntegrationTest {
+
+    private static final int COUNT = 20;
+
+    private final AccountBalanceRepository accountBalanceRepository;
+    private final CommonParserProperties commonParserProperties;
+    private final DataSource dataSource;
+    private final EntityMetadataRegistry entityMetadataRegistry;
+    private final MeterRegistry meterRegistry;
+    private final TokenBalanceRepository tokenBalanceRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private BalanceBatchInserter balanceBatchInserter;
+
+    @BeforeEach
+    void setup() {
+        var balanceParserProperties = new BalanceParserProperties();
+        balanceParserProperties.setCopyConcurrency(4);
+        balanceBatchInserter = new BalanceBatchInserter(
+                balanceParserProperties, commonParserProperties, dataSource, entityMetadataRegistry, meterRegistry);
+    }
+
+    @Test
+    void persist() {
+        var accountBalances = Stream.generate(() -> domainBuilder.accountBalance().get()).limit(COUNT).toList();
+        var tokenBalances = Stream.generate(() -> domainBuilder.tokenBalance().get()).limit(COUNT).toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            balanceBatchInserter.persist(accountBalances);
+            balanceBatchInserter.persist(tokenBalances);
+
+            // Copied on other connections so not visible until the parent transaction commits
+            assertThat(accountBalanceRepository.count()).isZero();
+            assertThat(tokenBalanceRepository.count()).isZero();
+        });
+
+        assertThat(accountBalanceRepository.findAll()).containsExactlyInAnyOrderElementsOf(accountBalances);
+        assertThat(tokenBalanceRepository.findAll()).containsExactlyInAnyOrderElementsOf(tokenBalances);
+    }
+
+    @Test
+    void visibleAfterCommit() {
+        var accountBalances = Stream.generate(() -> domainBuilder.accountBalance().get()).limit(COUNT).toList();
+        var visible = new ArrayList<>();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            balanceBatchInserter.persist(accountBalances);
+
+            // Ordered like the listeners of the transactional events published by the parser
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return 0;
+                }
+
+                @Override
+                public void afterCommit() {
+                    visible.addAll(accountBalanceRepository.findAll());
+                }
+            });
+        });
+
+        assertThat(visible).containsExactlyInAnyOrderElementsOf(accountBalances);
+    }
+
+    @Test
+    void persistBatches() {
+        var batch1 = Stream.generate(() -> domainBuilder.accountBalance().get()).limit(COUNT).toList();
+        var batch2 = Stream.generate(() -> domainBuilder.accountBalance().get()).limit(COUNT).toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            balanceBatchInserter.persist(batch1);
+            balanceBatchInserter.persist(batch2);
+        });
+
+        assertThat(accountBalanceRepository.findAll())
+                .containsExactlyInAnyOrderElementsOf(Stream.concat(batch1.stream(), batch2.stream()).toList());
+    }
+
+    @Test
+    void rollback() {
+        var accountBalances = Stream.generate(() -> domainBuilder.accountBalance().get()).limit(COUNT).toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            balanceBatchInserter.persist(accountBalances);
+            status.setRollbackOnly();
+        });
+
+        assertThat(accountBalanceRepository.count()).isZero();
+    }
+
+    @Test
+    void persistEmpty() {
+        balanceBatchInserter.persist(null);
+        balanceBatchInserter.persist(List.of());
+        assertThat(accountBalanceRepository.count()).isZero();
+    }
+
+    @Test
+    void unsupported() {
+        var items = List.of(domainBuilder.entity().get());
+        assertThatThrownBy(() -> balanceBatchInserter.persist(items)).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -23,6 +23,7 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 
 import com.hedera.mirror.common.domain.entity.EntityId;
 import com.hedera.mirror.common.domain.entity.EntityType;
@@ -30,13 +31,17 @@ import com.hedera.mirror.common.domain.token.TokenTransfer;
 import com.hedera.mirror.common.domain.topic.TopicMessage;
 import com.hedera.mirror.common.domain.transaction.AssessedCustomFee;
 import com.hedera.mirror.common.domain.transaction.CryptoTransfer;
+import com.hedera.mirror.common.domain.transaction.ErrataType;
 import com.hedera.mirror.importer.IntegrationTest;
 import com.hedera.mirror.importer.domain.AssessedCustomFeeWrapper;
 import com.hedera.mirror.importer.exception.ParserException;
 import com.hedera.mirror.importer.parser.CommonParserProperties;
+import com.hedera.mirror.importer.parser.CommonParserProperties.CopyFormat;
 import com.hedera.mirror.importer.repository.CryptoTransferRepository;
 import com.hedera.mirror.importer.repository.TokenTransferRepository;
 import com.hedera.mirror.importer.repository.TopicMessageRepository;
+import com.hedera.mirror.importer.repository.TransactionRepository;
+import com.hedera.mirror.importer.repository.upsert.EntityMetadataRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
 import java.io.Reader;
@@ -45,10 +50,13 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.RandomUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.postgresql.PGConnection;
 import org.postgresql.copy.CopyManager;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -58,8 +66,11 @@ class BatchInserterTest extends IntegrationTest {
 
     private final BatchPersister batchInserter;
     private final CryptoTransferRepository cryptoTransferRepository;
+    private final DataSource dataSource;
+    private final EntityMetadataRegistry entityMetadataRegistry;
     private final TopicMessageRepository topicMessageRepository;
     private final TokenTransferRepository tokenTransferRepository;
+    private final TransactionRepository transactionRepository;
 
     @Test
     void persist() {
@@ -80,6 +91,103 @@ class BatchInserterTest extends IntegrationTest {
         assertThat(tokenTransferRepository.findAll()).containsExactlyInAnyOrderElementsOf(tokenTransfers);
     }
 
+    @Test
+    void persistTransactions() {
+        var nftTransfer = domainBuilder.nftTransfer().get();
+        var transaction1 = domainBuilder.transaction().get();
+        var transaction2 = domainBuilder
+                .transaction()
+                .customize(t -> t.errata(ErrataType.INSERT).nftTransfer(List.of(nftTransfer)))
+                .get();
+        var transactions = List.of(transaction1, transaction2);
+
+        batchInserter.persist(transactions);
+
+        assertThat(transactionRepository.findAll()).containsExactlyInAnyOrderElementsOf(transactions);
+    }
+
+    @Test
+    void persistBinary() {
+        var properties = new CommonParserProperties();
+        properties.setCopyFormat(CopyFormat.BINARY);
+        var entityMetadata = entityMetadataRegistry.lookupEntity(CryptoTransfer.class);
+        var binaryBatchInserter = new BatchInserter(
+                CryptoTransfer.class,
+                dataSource,
+                new SimpleMeterRegistry(),
+                properties,
+                CryptoTransfer.class.getSimpleName(),
+                entityMetadata);
+        var cryptoTransfers = List.of(
+                domainBuilder.cryptoTransfer().get(),
+                domainBuilder.cryptoTransfer().get());
+
+        binaryBatchInserter.persist(cryptoTransfers);
+
+        assertThat(cryptoTransferRepository.findAll()).containsExactlyInAnyOrderElementsOf(cryptoTransfers);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CopyFormat.class)
+    void stream(CopyFormat copyFormat) throws IOException {
+        var properties = new CommonParserProperties();
+        properties.setCopyFormat(copyFormat);
+        var entityMetadata = entityMetadataRegistry.lookupEntity(CryptoTransfer.class);
+        var streamingBatchInserter = new BatchInserter(
+                CryptoTransfer.class,
+                dataSource,
+                new SimpleMeterRegistry(),
+                properties,
+                CryptoTransfer.class.getSimpleName(),
+                entityMetadata);
+        var cryptoTransfers = Stream.generate(() -> domainBuilder.cryptoTransfer().get())
+                .limit(5)
+                .toList();
+        var stream = streamingBatchInserter.openStream(128);
+
+        // Rows are copied whenever the buffer is full
+        for (var cryptoTransfer : cryptoTransfers) {
+            stream.write(cryptoTransfer);
+        }
+        assertThat(cryptoTransferRepository.count()).isPositive();
+
+        stream.flush();
+        assertThat(cryptoTransferRepository.findAll()).containsExactlyInAnyOrderElementsOf(cryptoTransfers);
+
+        // Discarded rows are never copied
+        stream.write(domainBuilder.cryptoTransfer().get());
+        stream.clear();
+        stream.flush();
+        assertThat(cryptoTransferRepository.findAll()).containsExactlyInAnyOrderElementsOf(cryptoTransfers);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CopyFormat.class)
+    void streamFailedRow(CopyFormat copyFormat) throws IOException {
+        var properties = new CommonParserProperties();
+        properties.setCopyFormat(copyFormat);
+        var entityMetadata = entityMetadataRegistry.lookupEntity(TopicMessage.class);
+        var streamingBatchInserter = new BatchInserter(
+                TopicMessage.class,
+                dataSource,
+                new SimpleMeterRegistry(),
+                properties,
+                TopicMessage.class.getSimpleName(),
+                entityMetadata);
+        var exception = new IllegalStateException("row");
+        var failedTopicMessage = spy(topicMessage(10000));
+        doThrow(exception).when(failedTopicMessage).getValidStartTimestamp();
+        var topicMessage = topicMessage(100);
+        var stream = streamingBatchInserter.openStream(65536);
+
+        // The row is larger than what the writer holds, so part of it was already flushed to the buffer when it failed
+        assertThatThrownBy(() -> stream.write(failedTopicMessage)).isSameAs(exception);
+        stream.write(topicMessage);
+        stream.flush();
+
+        assertThat(topicMessageRepository.findAll()).containsExactly(topicMessage);
+    }
+
     @Test
     void throwsParserException() throws SQLException, IOException {
         // given
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hedera.mirror.importer.IntegrationTest;
+import com.hedera.mirror.importer.parser.CommonParserProperties;
+import com.hedera.mirror.importer.repository.CryptoTransferRepository;
+import com.hedera.mirror.importer.repository.TransactionRepository;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.unit.DataSize;
+
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class BatchStreamerTest extends IntegrationTest {
+
+    private final CompositeBatchPersister compositeBatchPersister;
+    private final CryptoTransferRepository cryptoTransferRepository;
+    private final TransactionOperations transactionOperations;
+    private final TransactionRepository transactionRepository;
+
+    private BatchStreamer batchStreamer;
+
+    @BeforeEach
+    void setup() {
+        var properties = new CommonParserProperties();
+        properties.setStreamBufferSize(DataSize.ofBytes(256L));
+        batchStreamer = new BatchStreamer(compositeBatchPersister, properties);
+    }
+
+    @Test
+    void commit() {
+        var cryptoTransfers = Stream.generate(() -> domainBuilder.cryptoTransfer().get())
+                .limit(10)
+                .toList();
+        var transaction = domainBuilder.transaction().get();
+
+        transactionOperations.executeWithoutResult(t -> {
+            cryptoTransfers.forEach(batchStreamer::write);
+            batchStreamer.write(transaction);
+
+            // Full buffers are copied as rows are written, using the connection of the transaction
+            assertThat(cryptoTransferRepository.count()).isPositive();
+            batchStreamer.flush();
+        });
+
+        assertThat(cryptoTransferRepository.findAll()).containsExactlyInAnyOrderElementsOf(cryptoTransfers);
+        assertThat(transactionRepository.findAll()).containsExactly(transaction);
+    }
+
+    @Test
+    void rollback() {
+        var cryptoTransfers = Stream.generate(() -> domainBuilder.cryptoTransfer().get())
+                .limit(10)
+                .toList();
+
+        transactionOperations.executeWithoutResult(t -> {
+            cryptoTransfers.forEach(batchStreamer::write);
+            t.setRollbackOnly();
+        });
+        batchStreamer.clear();
+
+        var transaction = domainBuilder.transaction().get();
+        transactionOperations.executeWithoutResult(t -> {
+            batchStreamer.write(transaction);
+            batchStreamer.flush();
+        });
+
+        assertThat(cryptoTransferRepository.findAll()).isEmpty();
+        assertThat(transactionRepository.findAll()).containsExactly(transaction);
+    }
+
+    @Test
+    void upsertable() {
+        var entity = domainBuilder.entity().get();
+        assertThatThrownBy(() -> batchStreamer.write(entity)).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
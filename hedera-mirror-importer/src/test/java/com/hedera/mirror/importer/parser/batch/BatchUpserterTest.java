@@ -45,6 +45,8 @@ import com.hedera.mirror.common.domain.token.TokenTransfer;
 import com.hedera.mirror.common.domain.token.TokenTypeEnum;
 import com.hedera.mirror.common.domain.transaction.TransactionType;
 import com.hedera.mirror.importer.IntegrationTest;
+import com.hedera.mirror.importer.parser.CommonParserProperties;
+import com.hedera.mirror.importer.parser.CommonParserProperties.TempTableMode;
 import com.hedera.mirror.importer.repository.CryptoAllowanceRepository;
 import com.hedera.mirror.importer.repository.EntityRepository;
 import com.hedera.mirror.importer.repository.NftAllowanceRepository;
@@ -57,11 +59,14 @@ import com.hedera.mirror.importer.repository.TokenRepository;
 import com.hedera.mirror.importer.repository.TokenTransferRepository;
 import com.hedera.mirror.importer.repository.TopicMessageLookupRepository;
 import com.hedera.mirror.importer.repository.TransactionRepository;
+import com.hedera.mirror.importer.repository.upsert.UpsertQueryGeneratorFactory;
 import com.hederahashgraph.api.proto.java.Key;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Stream;
+import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.apache.commons.codec.binary.Hex;
@@ -79,6 +84,7 @@ class BatchUpserterTest extends IntegrationTest {
             .build();
 
     private final BatchPersister batchPersister;
+    private final DataSource dataSource;
     private final CryptoAllowanceRepository cryptoAllowanceRepository;
     private final EntityRepository entityRepository;
     private final NftRepository nftRepository;
@@ -92,6 +98,7 @@ class BatchUpserterTest extends IntegrationTest {
     private final TopicMessageLookupRepository topicMessageLookupRepository;
     private final TransactionRepository transactionRepository;
     private final TransactionOperations transactionOperations;
+    private final UpsertQueryGeneratorFactory upsertQueryGeneratorFactory;
 
     @Qualifier(DELETED_TOKEN_DISSOCIATE_BATCH_PERSISTER)
     private final BatchPersister tokenDissociateTransferBatchUpserter;
@@ -121,6 +128,39 @@ class BatchUpserterTest extends IntegrationTest {
         assertThat(findHistory(Entity.class)).isEmpty();
     }
 
+    @Test
+    void entitySessionTempTable() {
+        var properties = new CommonParserProperties();
+        properties.setTempTableMode(TempTableMode.SESSION);
+        var batchUpserter = new BatchUpserter(
+                Entity.class,
+                dataSource,
+                new SimpleMeterRegistry(),
+                properties,
+                upsertQueryGeneratorFactory.get(Entity.class));
+        var entity1 = getEntity(1, 1L, 1L, "memo-1");
+        var entity2 = getEntity(2, 1L, 1L, "memo-2");
+        var entity3 = getEntity(3, 2L, 2L, "memo-3");
+
+        // Reuse the temp table within a transaction
+        persist(batchUpserter, List.of(entity1), List.of(entity2));
+        assertThat(entityRepository.findAll()).containsExactlyInAnyOrder(entity1, entity2);
+
+        // A rolled back transaction doesn't leave rows behind
+        var entity4 = getEntity(4, 2L, 2L, "memo-4");
+        transactionOperations.executeWithoutResult(t -> {
+            batchUpserter.persist(List.of(entity4));
+            t.setRollbackOnly();
+        });
+        assertThat(entityRepository.findAll()).containsExactlyInAnyOrder(entity1, entity2);
+
+        // Reuse the temp table across transactions
+        entity1.setMemo("memo-1-updated");
+        entity1.setTimestampLower(2L);
+        persist(batchUpserter, List.of(entity1, entity3));
+        assertThat(entityRepository.findAll()).containsExactlyInAnyOrder(entity1, entity2, entity3);
+    }
+
     @Test
     void entityInsertAndUpdate() {
         var entities = new ArrayList<Entity>();
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hedera.mirror.importer.IntegrationTest;
+import com.hedera.mirror.importer.parser.CommonParserProperties;
+import com.hedera.mirror.importer.repository.CryptoTransferRepository;
+import com.hedera.mirror.importer.repository.EntityRepository;
+import com.hedera.mirror.importer.repository.TransactionRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionOperations;
+
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class ConcurrentBatchPersisterTest extends IntegrationTest {
+
+    private final BatchPersister batchPersister;
+    private final ConcurrentBatchPersister concurrentBatchPersister;
+    private final CommonParserProperties commonParserProperties;
+    private final CryptoTransferRepository cryptoTransferRepository;
+    private final EntityRepository entityRepository;
+    private final TransactionOperations transactionOperations;
+    private final TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setup() {
+        commonParserProperties.setInsertConcurrency(2);
+    }
+
+    @AfterEach
+    void teardown() {
+        commonParserProperties.setInsertConcurrency(0);
+    }
+
+    @Test
+    void commit() {
+        var cryptoTransfers = List.of(domainBuilder.cryptoTransfer().get(), domainBuilder.cryptoTransfer().get());
+        var transactions = List.of(domainBuilder.transaction().get());
+        var entity = domainBuilder.entity().get();
+
+        transactionOperations.executeWithoutResult(t -> {
+            concurrentBatchPersister.persist(
+                    List.of(cryptoTransfers, transactions), 1L, () -> batchPersister.persist(List.of(entity)));
+            concurrentBatchPersister.persist(List.of(List.of(domainBuilder.transaction().get())), 1L, () -> {});
+
+            // The auxiliary transactions aren't committed yet
+            assertThat(cryptoTransferRepository.findAll()).isEmpty();
+            assertThat(transactionRepository.findAll()).isEmpty();
+            assertThat(entityRepository.findAll()).containsExactly(entity);
+        });
+
+        assertThat(cryptoTransferRepository.findAll()).containsExactlyInAnyOrderElementsOf(cryptoTransfers);
+        assertThat(transactionRepository.findAll()).hasSize(2).containsAll(transactions);
+        assertThat(entityRepository.findAll()).containsExactly(entity);
+    }
+
+    @Test
+    void rollback() {
+        var cryptoTransfers = List.of(domainBuilder.cryptoTransfer().get());
+        var entity = domainBuilder.entity().get();
+
+        transactionOperations.executeWithoutResult(t -> {
+            concurrentBatchPersister.persist(
+                    List.of(cryptoTransfers), 1L, () -> batchPersister.persist(List.of(entity)));
+            t.setRollbackOnly();
+        });
+
+        assertThat(cryptoTransferRepository.findAll()).isEmpty();
+        assertThat(entityRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void parentCommitFailure() {
+        var cryptoTransfers = List.of(domainBuilder.cryptoTransfer().get());
+        var entity = domainBuilder.entity().get();
+        var exception = new IllegalStateException("commit");
+        var failure = new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                throw exception;
+            }
+        };
+
+        assertThatThrownBy(() -> transactionOperations.executeWithoutResult(t -> {
+                    concurrentBatchPersister.persist(
+                            List.of(cryptoTransfers), 1L, () -> batchPersister.persist(List.of(entity)));
+                    TransactionSynchronizationManager.registerSynchronization(failure);
+                }))
+                .isSameAs(exception);
+        assertThat(cryptoTransferRepository.findAll()).isEmpty();
+        assertThat(entityRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void taskFailure() {
+        var cryptoTransfers = List.of(domainBuilder.cryptoTransfer().get());
+        var exception = new IllegalStateException("task");
+        Runnable task = () -> {
+            throw exception;
+        };
+
+        assertThatThrownBy(() -> transactionOperations.executeWithoutResult(
+                        t -> concurrentBatchPersister.persist(List.of(cryptoTransfers), 1L, task)))
+                .isSameAs(exception);
+        assertThat(cryptoTransferRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void withoutTransaction() {
+        var cryptoTransfers = List.of(domainBuilder.cryptoTransfer().get());
+        var transactions = List.of(domainBuilder.transaction().get());
+
+        concurrentBatchPersister.persist(List.of(cryptoTransfers), 1L, () -> batchPersister.persist(transactions));
+
+        assertThat(cryptoTransferRepository.findAll()).containsExactlyElementsOf(cryptoTransfers);
+        assertThat(transactionRepository.findAll()).containsExactlyElementsOf(transactions);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Stopwatch;
+import com.hedera.mirror.common.domain.transaction.CryptoTransfer;
+import com.hedera.mirror.common.domain.transaction.Transaction;
+import com.hedera.mirror.importer.IntegrationTest;
+import com.hedera.mirror.importer.repository.upsert.EntityMetadataRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import lombok.CustomLog;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Compares the throughput and allocations of the binary COPY writer against the Jackson CSV writer for the largest
+ * tables, without the database so that only the encoding is measured.
+ */
+@CustomLog
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@Tag("performance")
+class CopyWriterPerformanceTest extends IntegrationTest {
+
+    private static final int ITERATIONS = 20;
+    private static final int ROWS = 50_000;
+
+    private final EntityMetadataRegistry entityMetadataRegistry;
+
+    @ParameterizedTest
+    @ValueSource(classes = {CryptoTransfer.class, Transaction.class})
+    void write(Class<?> entityClass) throws IOException {
+        Supplier<Object> supplier = entityClass == CryptoTransfer.class
+                ? domainBuilder.cryptoTransfer()::get
+                : domainBuilder.transaction()::get;
+        var items = Stream.generate(supplier).limit(ROWS).toList();
+        var csvCopyWriter = new CsvCopyWriter(entityClass);
+        var entityMetadata = entityMetadataRegistry.lookupEntity(entityClass);
+        var binaryCopyWriter = BinaryCopyWriter.create(entityMetadata, csvCopyWriter.getColumns());
+
+        // Warm up both writers before measuring
+        measure("CSV", csvCopyWriter, items);
+        measure("binary", binaryCopyWriter, items);
+
+        long csv = measure("CSV", csvCopyWriter, items);
+        long binary = measure("binary", binaryCopyWriter, items);
+        assertThat(binary).isLessThan(csv);
+    }
+
+    private long measure(String name, CopyWriter copyWriter, List<?> items) throws IOException {
+        var threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        var outputStream = new CountingOutputStream();
+        var stopwatch = Stopwatch.createStarted();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            copyWriter.write(outputStream, items);
+        }
+
+        long elapsed = Math.max(1L, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        long rows = (long) ITERATIONS * items.size();
+        log.info(
+                "Wrote {} {} rows in {} at {} MB/s, {} bytes per row, allocating {} bytes per row",
+                rows,
+                name,
+                stopwatch,
+                outputStream.count * 1000 / elapsed / 1_000_000,
+                outputStream.count / rows,
+                allocated / rows);
+        return allocated;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
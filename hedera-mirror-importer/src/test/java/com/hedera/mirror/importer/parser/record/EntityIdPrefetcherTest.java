@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.record;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.google.protobuf.GeneratedMessageV3;
+import com.hedera.mirror.importer.domain.EntityIdService;
+import com.hedera.mirror.importer.parser.domain.RecordItemBuilder;
+import com.hederahashgraph.api.proto.java.AccountAmount;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.ContractID;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class EntityIdPrefetcherTest {
+
+    private final RecordItemBuilder recordItemBuilder = new RecordItemBuilder();
+
+    @Captor
+    private ArgumentCaptor<Collection<? extends GeneratedMessageV3>> entityIds;
+
+    @Mock
+    private EntityIdService entityIdService;
+
+    private EntityIdPrefetcher entityIdPrefetcher;
+
+    @BeforeEach
+    void setup() {
+        entityIdPrefetcher = new EntityIdPrefetcher(entityIdService);
+    }
+
+    @Test
+    void prefetch() {
+        // given
+        var alias = AccountID.newBuilder().setAlias(recordItemBuilder.bytes(33)).build();
+        var evmAddress = ContractID.newBuilder()
+                .setEvmAddress(recordItemBuilder.bytes(20))
+                .build();
+        var cryptoTransfer = recordItemBuilder
+                .cryptoTransfer()
+                .transactionBody(b -> b.getTransfersBuilder()
+                        .addAccountAmounts(AccountAmount.newBuilder()
+                                .setAccountID(alias)
+                                .setAmount(100L)))
+                .build();
+        var contractCall = recordItemBuilder.contractCall(evmAddress).build();
+
+        // when
+        entityIdPrefetcher.prefetch(List.of(cryptoTransfer, contractCall));
+
+        // then
+        verify(entityIdService).prefetch(entityIds.capture());
+        assertThat(List.<GeneratedMessageV3>copyOf(entityIds.getValue())).containsOnly(alias, evmAddress);
+    }
+
+    @Test
+    void prefetchNone() {
+        entityIdPrefetcher.prefetch(List.of(recordItemBuilder.cryptoTransfer().build()));
+        verifyNoInteractions(entityIdService);
+    }
+
+    @Test
+    void prefetchError() {
+        // given
+        var alias = AccountID.newBuilder().setAlias(recordItemBuilder.bytes(33)).build();
+        var recordItem = recordItemBuilder
+                .cryptoTransfer()
+                .transactionBody(b -> b.getTransfersBuilder()
+                        .addAccountAmounts(AccountAmount.newBuilder()
+                                .setAccountID(alias)
+                                .setAmount(100L)))
+                .build();
+        doThrow(new IllegalStateException("error")).when(entityIdService).prefetch(any());
+
+        // when
+        entityIdPrefetcher.prefetch(List.of(recordItem));
+
+        // then the error is left to the regular lookups
+        verify(entityIdService).prefetch(any());
+    }
+}
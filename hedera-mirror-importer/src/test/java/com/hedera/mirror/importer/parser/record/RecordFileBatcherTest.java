@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.record;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.hedera.mirror.common.domain.DomainBuilder;
+import com.hedera.mirror.common.domain.transaction.RecordFile;
+import com.hedera.mirror.common.util.DomainUtils;
+import com.hedera.mirror.importer.exception.ParserException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.util.unit.DataSize;
+
+@ExtendWith(MockitoExtension.class)
+class RecordFileBatcherTest {
+
+    private final DomainBuilder domainBuilder = new DomainBuilder();
+    private final QueueChannel channel = new QueueChannel();
+    private final RecordParserProperties properties = new RecordParserProperties();
+
+    @Mock
+    private RecordFileParser parser;
+
+    private RecordFileBatcher recordFileBatcher;
+
+    @BeforeEach
+    void setup() {
+        properties.getBatch().setEnabled(true);
+        properties.getBatch().setMaxWait(Duration.ZERO);
+        recordFileBatcher = new RecordFileBatcher(channel, parser, properties);
+    }
+
+    @Test
+    void batch() {
+        var recordFile1 = recordFile(Duration.ofHours(1L));
+        var recordFile2 = recordFile(Duration.ofHours(1L));
+        var recordFile3 = recordFile(Duration.ofHours(1L));
+        send(recordFile2, recordFile3);
+
+        recordFileBatcher.accept(recordFile1);
+
+        verify(parser).parse(List.of(recordFile1, recordFile2, recordFile3));
+        verify(parser, never()).parse(any(RecordFile.class));
+    }
+
+    @Test
+    void maxFiles() {
+        properties.getBatch().setMaxFiles(2);
+        var recordFile1 = recordFile(Duration.ofHours(1L));
+        var recordFile2 = recordFile(Duration.ofHours(1L));
+        var recordFile3 = recordFile(Duration.ofHours(1L));
+        send(recordFile2, recordFile3);
+
+        recordFileBatcher.accept(recordFile1);
+
+        verify(parser).parse(List.of(recordFile1, recordFile2));
+    }
+
+    @Test
+    void maxItems() {
+        var recordFile1 = recordFile(Duration.ofHours(1L));
+        var recordFile2 = recordFile(Duration.ofHours(1L));
+        var recordFile3 = recordFile(Duration.ofHours(1L));
+        properties.getBatch().setMaxItems(recordFile1.getCount() + recordFile2.getCount());
+        send(recordFile2, recordFile3);
+
+        recordFileBatcher.accept(recordFile1);
+
+        verify(parser).parse(List.of(recordFile1, recordFile2));
+        verify(parser).parse(List.of(recordFile3));
+    }
+
+    @Test
+    void maxSize() {
+        var recordFile1 = recordFile(Duration.ofHours(1L));
+        var recordFile2 = recordFile(Duration.ofHours(1L));
+        var recordFile3 = recordFile(Duration.ofHours(1L));
+        properties.getBatch().setMaxSize(DataSize.ofBytes(recordFile1.getSize() + recordFile2.getSize()));
+        send(recordFile2, recordFile3);
+
+        recordFileBatcher.accept(recordFile1);
+
+        verify(parser).parse(List.of(recordFile1, recordFile2));
+        verify(parser).parse(List.of(recordFile3));
+    }
+
+    @Test
+    void parseFailure() {
+        var recordFile1 = recordFile(Duration.ofHours(1L));
+        var recordFile2 = recordFile(Duration.ofHours(1L));
+        properties.getBatch().setMaxSize(DataSize.ofBytes(recordFile1.getSize()));
+        var exception = new IllegalStateException("parse");
+        doThrow(exception).when(parser).parse(List.of(recordFile1));
+        send(recordFile2);
+
+        assertThatThrownBy(() -> recordFileBatcher.accept(recordFile1))
+                .isInstanceOf(ParserException.class)
+                .hasCause(exception)
+                .hasMessageContaining(recordFile1.getName())
+                .hasMessageContaining(recordFile2.getName());
+        verify(parser, never()).parse(List.of(recordFile2));
+    }
+
+    @Test
+    void unexpectedPayload() {
+        var recordFile = recordFile(Duration.ofHours(1L));
+        channel.send(new GenericMessage<>("payload"));
+
+        assertThatThrownBy(() -> recordFileBatcher.accept(recordFile))
+                .isInstanceOf(ParserException.class)
+                .hasMessageContaining("payload");
+        verify(parser).parse(List.of(recordFile));
+    }
+
+    @Test
+    void caughtUp() {
+        var recordFile1 = recordFile(Duration.ZERO);
+        var recordFile2 = recordFile(Duration.ZERO);
+        send(recordFile2);
+
+        recordFileBatcher.accept(recordFile1);
+
+        verify(parser).parse(recordFile1);
+        verify(parser, never()).parse(anyList());
+    }
+
+    @Test
+    void disabled() {
+        properties.getBatch().setEnabled(false);
+        var recordFile = recordFile(Duration.ofHours(1L));
+
+        recordFileBatcher.accept(recordFile);
+
+        verify(parser).parse(recordFile);
+        verify(parser, never()).parse(anyList());
+    }
+
+    @Test
+    void notPollable() {
+        var recordFile = recordFile(Duration.ofHours(1L));
+
+        new RecordFileBatcher(new DirectChannel(), parser, properties).accept(recordFile);
+
+        verify(parser).parse(recordFile);
+        verify(parser, never()).parse(anyList());
+    }
+
+    private RecordFile recordFile(Duration lag) {
+        long consensusEnd = DomainUtils.convertToNanosMax(Instant.now().minus(lag));
+        return domainBuilder
+                .recordFile()
+                .customize(r -> r.consensusEnd(consensusEnd).size(100))
+                .get();
+    }
+
+    private void send(RecordFile... recordFiles) {
+        for (var recordFile : recordFiles) {
+            channel.send(new GenericMessage<>(recordFile));
+        }
+    }
+}
@@ -31,6 +31,7 @@ import com.hedera.mirror.importer.repository.TransactionRepository;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -80,6 +81,40 @@ class RecordFileParserIntegrationTest extends IntegrationTest {
         verifyFinalDatabaseState(recordFileDescriptor1, recordFileDescriptor2);
     }
 
+    @Test
+    void parseBatch() {
+        // when
+        recordFileParser.parse(List.of(recordFileDescriptor1.recordFile(), recordFileDescriptor2.recordFile()));
+
+        // then
+        verifyFinalDatabaseState(recordFileDescriptor1, recordFileDescriptor2);
+    }
+
+    @Test
+    void parseBatchSkipsParsed() {
+        // given
+        recordFileParser.parse(recordFileDescriptor1.recordFile());
+
+        // when
+        recordFileParser.parse(List.of(recordFileDescriptor1.recordFile(), recordFileDescriptor2.recordFile()));
+
+        // then
+        verifyFinalDatabaseState(recordFileDescriptor1, recordFileDescriptor2);
+    }
+
+    @Test
+    void rollbackBatch() {
+        // when
+        var recordFile1 = recordFileDescriptor1.recordFile();
+        var recordFile2 = recordFileDescriptor2.recordFile();
+        recordFile2.setItems(recordFile1.getItems()); // Re-processing same transactions should result in duplicate keys
+        var recordFiles = List.of(recordFile1, recordFile2);
+        Assertions.assertThrows(ParserException.class, () -> recordFileParser.parse(recordFiles));
+
+        // then
+        verifyFinalDatabaseState();
+    }
+
     @Test
     void rollback() {
         // when
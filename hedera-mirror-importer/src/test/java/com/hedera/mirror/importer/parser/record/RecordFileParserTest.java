@@ -16,11 +16,14 @@
 
 package com.hedera.mirror.importer.parser.record;
 
+import static com.hedera.mirror.importer.parser.AbstractStreamFileParser.STREAM_PARSE_DURATION_METRIC_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mock.Strictness.LENIENT;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -50,8 +53,12 @@ import com.hederahashgraph.api.proto.java.Transaction;
 import com.hederahashgraph.api.proto.java.TransactionBody;
 import com.hederahashgraph.api.proto.java.TransactionID;
 import com.hederahashgraph.api.proto.java.TransactionRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -76,6 +83,11 @@ class RecordFileParserTest extends AbstractStreamFileParserTest<RecordFile, Reco
     @Mock(strictness = LENIENT)
     private MirrorDateRangePropertiesProcessor mirrorDateRangePropertiesProcessor;
 
+    @Mock
+    private EntityIdPrefetcher entityIdPrefetcher;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private long count = 0;
 
     private RecordItem recordItem;
@@ -105,12 +117,13 @@ class RecordFileParserTest extends AbstractStreamFileParserTest<RecordFile, Reco
         when(mirrorDateRangePropertiesProcessor.getDateRangeFilter(parserProperties.getStreamType()))
                 .thenReturn(DateRangeFilter.all());
         return new RecordFileParser(
-                new SimpleMeterRegistry(),
+                meterRegistry,
                 parserProperties,
                 recordFileRepository,
                 recordItemListener,
                 recordStreamFileListener,
-                mirrorDateRangePropertiesProcessor);
+                mirrorDateRangePropertiesProcessor,
+                entityIdPrefetcher);
     }
 
     @Override
@@ -140,6 +153,104 @@ class RecordFileParserTest extends AbstractStreamFileParserTest<RecordFile, Reco
         verify(recordStreamFileListener).onEnd(recordFile);
     }
 
+    @Test
+    void decode() {
+        // given
+        var properties = new RecordParserProperties();
+        properties.getDecode().setChunkSize(2);
+        properties.getDecode().setConcurrency(2);
+        var decodingParser = new RecordFileParser(
+                new SimpleMeterRegistry(),
+                properties,
+                recordFileRepository,
+                recordItemListener,
+                recordStreamFileListener,
+                mirrorDateRangePropertiesProcessor,
+                entityIdPrefetcher);
+        when(mirrorDateRangePropertiesProcessor.getDateRangeFilter(properties.getStreamType()))
+                .thenReturn(DateRangeFilter.all());
+        var recordItems = new ArrayList<RecordItem>();
+        for (int i = 1; i <= 5; i++) {
+            recordItems.add(cryptoTransferRecordItem(i));
+        }
+        var recordFile = getStreamFile(Flux.fromIterable(recordItems), 1L);
+        var processed = new ArrayList<RecordItem>();
+        var thread = Thread.currentThread();
+        doAnswer(invocation -> {
+                    assertThat(Thread.currentThread()).isSameAs(thread);
+                    processed.add(invocation.getArgument(0));
+                    return null;
+                })
+                .when(recordItemListener)
+                .onItem(any());
+
+        // when
+        decodingParser.parse(recordFile);
+
+        // then
+        assertThat(processed).containsExactlyElementsOf(recordItems);
+        assertEquals(5L, recordFile.getCount());
+        verify(entityIdPrefetcher, times(3)).prefetch(any());
+        verify(recordStreamFileListener).onEnd(recordFile);
+    }
+
+    @Test
+    void prefetch() {
+        // given
+        var recordFile = getStreamFile();
+
+        // when
+        parser.parse(recordFile);
+
+        // then
+        verify(entityIdPrefetcher).prefetch(List.of(recordItem));
+        verify(recordItemListener).onItem(recordItem);
+        verify(recordStreamFileListener).onEnd(recordFile);
+    }
+
+    @Test
+    void parseBatch() {
+        // given
+        var recordFile1 = getStreamFile();
+        var recordItem1 = recordItem;
+        var recordFile2 = getStreamFile();
+        recordFile2.setPreviousHash(recordFile1.getHash());
+
+        // when
+        parser.parse(List.of(recordFile1, recordFile2));
+
+        // then
+        verify(recordStreamFileListener).onStart();
+        verify(recordItemListener).onItem(recordItem1);
+        verify(recordItemListener).onItem(recordItem);
+        verify(recordStreamFileListener).onIntermediateEnd(recordFile1);
+        verify(recordStreamFileListener, never()).onEnd(recordFile1);
+        verify(recordStreamFileListener).onEnd(recordFile2);
+        verify(recordStreamFileListener, never()).onError();
+        assertEquals(1L, recordFile1.getCount());
+        assertEquals(1L, recordFile2.getCount());
+        assertThat(meterRegistry
+                        .find(STREAM_PARSE_DURATION_METRIC_NAME)
+                        .tag("success", "true")
+                        .timer())
+                .returns(2L, Timer::count);
+    }
+
+    @Test
+    void parseBatchHashMismatch() {
+        // given
+        var recordFile1 = getStreamFile();
+        var recordFile2 = getStreamFile();
+        var recordFiles = List.of(recordFile1, recordFile2);
+
+        // when
+        assertThatThrownBy(() -> parser.parse(recordFiles)).isInstanceOf(HashMismatchException.class);
+
+        // then
+        verifyNoInteractions(recordItemListener);
+        verify(recordStreamFileListener, never()).onStart();
+    }
+
     @ParameterizedTest(name = "endDate with offset {0}ns")
     @CsvSource({"-1", "0", "1"})
     void endDate(long offset) {
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.record.entity.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Stopwatch;
+import com.hedera.mirror.common.domain.entity.Entity;
+import com.hedera.mirror.common.domain.token.AbstractTokenAccount;
+import com.hedera.mirror.common.domain.token.TokenAccount;
+import com.hedera.mirror.common.domain.transaction.RecordItem;
+import com.hedera.mirror.importer.IntegrationTest;
+import com.hedera.mirror.importer.parser.domain.RecordItemBuilder;
+import com.hedera.mirror.importer.parser.record.RecordStreamFileListener;
+import com.hedera.mirror.importer.parser.record.entity.EntityRecordItemListener;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.CustomLog;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Measures the bytes allocated per record item by the entity listeners on the parser thread, excluding the flush to
+ * the database, for a mix of crypto transfers, NFT mints and token associations. The state maps of the SQL entity
+ * listener are also compared with the boxed maps they replaced.
+ */
+@CustomLog
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@Tag("performance")
+class EntityRecordItemListenerAllocationPerformanceTest extends IntegrationTest {
+
+    private static final int ITERATIONS = 20;
+    private static final int ITEMS = 10_000;
+
+    private final EntityRecordItemListener entityRecordItemListener;
+    private final RecordItemBuilder recordItemBuilder = new RecordItemBuilder();
+    private final RecordStreamFileListener recordStreamFileListener;
+
+    @Test
+    void onItem() {
+        var recordItems = new ArrayList<RecordItem>(ITEMS);
+        for (int i = 0; i < ITEMS / 3; i++) {
+            recordItems.add(recordItemBuilder.cryptoTransfer().build());
+            recordItems.add(recordItemBuilder.tokenMint().build());
+            recordItems.add(recordItemBuilder.tokenAssociate().build());
+        }
+
+        // Warm up before measuring
+        measure(recordItems);
+
+        long allocated = measure(recordItems);
+        assertThat(allocated).isPositive();
+    }
+
+    @Test
+    void stateMaps() {
+        var entities = new ArrayList<Entity>(ITEMS);
+        var tokenAccounts = new ArrayList<TokenAccount>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            entities.add(domainBuilder.entity().get());
+            tokenAccounts.add(domainBuilder.tokenAccount().get());
+        }
+
+        // The maps and merges SqlEntityListener used before and uses now, with the same merge function
+        Map<Long, Entity> boxedEntityState = new HashMap<>();
+        Map<AbstractTokenAccount.Id, TokenAccount> boxedTokenAccountState = new HashMap<>();
+        Runnable boxed = () -> {
+            boxedEntityState.clear();
+            boxedTokenAccountState.clear();
+            for (int i = 0; i < ITEMS; i++) {
+                var entity = entities.get(i);
+                var tokenAccount = tokenAccounts.get(i);
+                boxedEntityState.merge(entity.getId(), entity, (p, c) -> c);
+                boxedTokenAccountState.merge(tokenAccount.getId(), tokenAccount, (p, c) -> c);
+            }
+        };
+
+        var entityState = new Long2ObjectOpenHashMap<Entity>();
+        var tokenAccountState = new PairKeyMap<AbstractTokenAccount.Id, TokenAccount>(TokenAccount::getId);
+        Runnable primitive = () -> {
+            entityState.clear();
+            tokenAccountState.clear();
+            for (int i = 0; i < ITEMS; i++) {
+                var entity = entities.get(i);
+                var tokenAccount = tokenAccounts.get(i);
+                entityState.merge(entity.getId().longValue(), entity, (p, c) -> c);
+                tokenAccountState.merge(
+                        tokenAccount.getTokenId(), tokenAccount.getAccountId(), tokenAccount, (p, c) -> c);
+            }
+        };
+
+        // Warm up before measuring
+        allocated(boxed);
+        allocated(primitive);
+
+        long boxedAllocated = allocated(boxed);
+        long primitiveAllocated = allocated(primitive);
+        long merges = (long) ITERATIONS * ITEMS * 2;
+        log.info(
+                "Allocated {} bytes per merge with boxed maps and {} bytes per merge with primitive maps",
+                boxedAllocated / merges,
+                primitiveAllocated / merges);
+        assertThat(primitiveAllocated).isLessThan(boxedAllocated);
+    }
+
+    private long allocated(Runnable runnable) {
+        var threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            runnable.run();
+        }
+
+        return threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+    }
+
+    private long measure(List<RecordItem> recordItems) {
+        var stopwatch = Stopwatch.createStarted();
+        long allocated = allocated(() -> {
+            recordStreamFileListener.onStart();
+            recordItems.forEach(entityRecordItemListener::onItem);
+        });
+
+        recordStreamFileListener.onStart();
+        long items = (long) ITERATIONS * recordItems.size();
+        log.info("Processed {} record items in {}, allocating {} bytes per item", items, stopwatch, allocated / items);
+        return allocated;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.record.entity.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hedera.mirror.common.domain.token.AbstractTokenAccount;
+import com.hedera.mirror.common.domain.token.TokenAccount;
+import org.junit.jupiter.api.Test;
+
+class PairKeyMapTest {
+
+    private final PairKeyMap<AbstractTokenAccount.Id, TokenAccount> map = new PairKeyMap<>(TokenAccount::getId);
+
+    @Test
+    void merge() {
+        var tokenAccount1 = tokenAccount(1L, 2L);
+        var tokenAccount2 = tokenAccount(2L, 1L);
+        var tokenAccount3 = tokenAccount(1L, 2L);
+
+        assertThat(merge(tokenAccount1)).isSameAs(tokenAccount1);
+        assertThat(merge(tokenAccount2)).isSameAs(tokenAccount2);
+        assertThat(merge(tokenAccount3)).isSameAs(tokenAccount1);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void mergeLargeIds() {
+        long tokenId = 1L << 32;
+        var tokenAccount1 = tokenAccount(tokenId, 1L);
+        var tokenAccount2 = tokenAccount(0L, 1L);
+        var tokenAccount3 = tokenAccount(tokenId, 1L);
+
+        assertThat(merge(tokenAccount1)).isSameAs(tokenAccount1);
+        assertThat(merge(tokenAccount2)).isSameAs(tokenAccount2);
+        assertThat(merge(tokenAccount3)).isSameAs(tokenAccount1);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void clear() {
+        merge(tokenAccount(1L, 2L));
+        merge(tokenAccount(1L << 32, 2L));
+        assertThat(map.size()).isEqualTo(2);
+
+        map.clear();
+        assertThat(map.size()).isZero();
+
+        var tokenAccount = tokenAccount(1L, 2L);
+        assertThat(merge(tokenAccount)).isSameAs(tokenAccount);
+    }
+
+    private TokenAccount merge(TokenAccount tokenAccount) {
+        return map.merge(tokenAccount.getTokenId(), tokenAccount.getAccountId(), tokenAccount, (p, c) -> p);
+    }
+
+    private TokenAccount tokenAccount(long tokenId, long accountId) {
+        var tokenAccount = new TokenAccount();
+        tokenAccount.setAccountId(accountId);
+        tokenAccount.setTokenId(tokenId);
+        return tokenAccount;
+    }
+}
@@ -40,6 +40,7 @@ import com.hedera.mirror.common.domain.entity.NftAllowance;
 import com.hedera.mirror.common.domain.entity.TokenAllowance;
 import com.hedera.mirror.common.domain.schedule.Schedule;
 import com.hedera.mirror.common.domain.token.Nft;
+import com.hedera.mirror.common.domain.token.NftTransfer;
 import com.hedera.mirror.common.domain.token.Token;
 import com.hedera.mirror.common.domain.token.TokenAccount;
 import com.hedera.mirror.common.domain.token.TokenFreezeStatusEnum;
@@ -57,6 +58,7 @@ import com.hedera.mirror.common.domain.transaction.TransactionType;
 import com.hedera.mirror.common.util.DomainUtils;
 import com.hedera.mirror.importer.IntegrationTest;
 import com.hedera.mirror.importer.TestUtils;
+import com.hedera.mirror.importer.parser.CommonParserProperties;
 import com.hedera.mirror.importer.parser.record.entity.EntityProperties;
 import com.hedera.mirror.importer.repository.AssessedCustomFeeRepository;
 import com.hedera.mirror.importer.repository.ContractActionRepository;
@@ -116,6 +118,7 @@ class SqlEntityListenerTest extends IntegrationTest {
     private static final EntityId TRANSACTION_PAYER = EntityId.of("0.0.1000", ACCOUNT);
 
     private final AssessedCustomFeeRepository assessedCustomFeeRepository;
+    private final CommonParserProperties commonParserProperties;
     private final ContractActionRepository contractActionRepository;
     private final ContractLogRepository contractLogRepository;
     private final ContractRepository contractRepository;
@@ -166,6 +169,8 @@ class SqlEntityListenerTest extends IntegrationTest {
     @AfterEach
     void afterEach() {
         entityProperties.getPersist().setTransactionHashTypes(defaultTransactionHashTypes);
+        commonParserProperties.setInsertConcurrency(0);
+        sqlProperties.setStreaming(false);
     }
 
     @Test
@@ -185,6 +190,31 @@ class SqlEntityListenerTest extends IntegrationTest {
         assertThat(findHistory(Entity.class)).isEmpty();
     }
 
+    @Test
+    void streaming() {
+        // given
+        sqlProperties.setStreaming(true);
+        var contractAction = domainBuilder.contractAction().get();
+        var cryptoTransfer = domainBuilder.cryptoTransfer().get();
+        var entity = domainBuilder.entity().get();
+        var transaction1 = domainBuilder.transaction().get();
+        var transaction2 = domainBuilder.transaction().get();
+
+        // when
+        sqlEntityListener.onContractAction(contractAction);
+        sqlEntityListener.onCryptoTransfer(cryptoTransfer);
+        sqlEntityListener.onEntity(entity);
+        sqlEntityListener.onTransaction(transaction1);
+        sqlEntityListener.onTransaction(transaction2);
+        completeFileAndCommit();
+
+        // then
+        assertThat(contractActionRepository.findAll()).containsExactly(contractAction);
+        assertThat(cryptoTransferRepository.findAll()).containsExactly(cryptoTransfer);
+        assertThat(entityRepository.findById(entity.getId())).get().isEqualTo(entity);
+        assertThat(transactionRepository.findAll()).containsExactlyInAnyOrder(transaction1, transaction2);
+    }
+
     @Test
     void isEnabled() {
         sqlProperties.setEnabled(false);
@@ -2190,6 +2220,53 @@ class SqlEntityListenerTest extends IntegrationTest {
                 .containsExactlyInAnyOrder(tokenTransfer1, tokenTransfer2, tokenTransfer3);
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {0, 2})
+    void onTokenTransferDeletedTokenDissociateNft(int insertConcurrency) {
+        // given
+        commonParserProperties.setInsertConcurrency(insertConcurrency);
+        entityProperties.getPersist().setTrackBalance(false);
+        var accountId = domainBuilder.entityId(ACCOUNT);
+        var tokenId = domainBuilder.entityId(TOKEN);
+        var nft = domainBuilder
+                .nft()
+                .customize(n -> n.accountId(accountId).tokenId(tokenId.getId()))
+                .persist();
+        var transaction = domainBuilder
+                .transaction()
+                .customize(t -> t.type(TransactionType.TOKENDISSOCIATE.getProtoId()))
+                .get();
+        long dissociateTimestamp = transaction.getConsensusTimestamp();
+        var tokenTransfer = domainBuilder
+                .tokenTransfer()
+                .customize(t -> t.amount(-1)
+                        .id(new TokenTransfer.Id(dissociateTimestamp, tokenId, accountId))
+                        .isApproval(false)
+                        .payerAccountId(accountId)
+                        .deletedTokenDissociate(true))
+                .get();
+
+        // when
+        sqlEntityListener.onTransaction(transaction);
+        sqlEntityListener.onTokenTransfer(tokenTransfer);
+        completeFileAndCommit();
+
+        // then
+        nft.setAccountId(null);
+        nft.setDeleted(true);
+        nft.setTimestampLower(dissociateTimestamp);
+        transaction.setNftTransfer(List.of(NftTransfer.builder()
+                .isApproval(false)
+                .receiverAccountId(null)
+                .senderAccountId(accountId)
+                .serialNumber(-1L)
+                .tokenId(tokenId)
+                .build()));
+        assertThat(nftRepository.findAll()).containsExactly(nft);
+        assertThat(tokenTransferRepository.findAll()).isEmpty();
+        assertThat(transactionRepository.findAll()).containsExactly(transaction);
+    }
+
     @ValueSource(ints = {1, 2, 3, 4, 5})
     @ParameterizedTest
     void onTokenTransferTokenAccountBalance(int commitIndex) {
@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.parser.record.entity.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hedera.mirror.common.domain.entity.Entity;
+import com.hedera.mirror.common.domain.token.TokenAccount;
+import com.hedera.mirror.importer.IntegrationTest;
+import com.hedera.mirror.importer.TestUtils;
+import com.hedera.mirror.importer.parser.batch.BatchPersister;
+import com.hedera.mirror.importer.parser.batch.CompositeBatchPersister;
+import com.hedera.mirror.importer.repository.EntityRepository;
+import com.hedera.mirror.importer.repository.TokenAccountRepository;
+import com.hedera.mirror.importer.repository.TokenRepository;
+import com.hedera.mirror.importer.repository.upsert.EntityMetadataRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionOperations;
+
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class UpsertableStateCacheTest extends IntegrationTest {
+
+    private static final int UPDATES = 4;
+
+    private final BatchPersister batchPersister;
+    private final CompositeBatchPersister compositeBatchPersister;
+    private final EntityMetadataRegistry entityMetadataRegistry;
+    private final EntityRepository entityRepository;
+    private final TokenAccountRepository tokenAccountRepository;
+    private final TokenRepository tokenRepository;
+    private final TransactionOperations transactionOperations;
+
+    private UpsertableStateCache upsertableStateCache;
+
+    @BeforeEach
+    void setup() {
+        var sqlProperties = new SqlProperties();
+        sqlProperties.setStateCacheSize(100);
+        upsertableStateCache = new UpsertableStateCache(
+                batchPersister,
+                compositeBatchPersister,
+                entityMetadataRegistry,
+                entityRepository,
+                sqlProperties,
+                tokenAccountRepository,
+                tokenRepository);
+    }
+
+    @Test
+    void entity() {
+        // given
+        var entity = domainBuilder.entity().persist();
+        var expected = TestUtils.clone(entity);
+        var expectedHistory = new ArrayList<Entity>();
+
+        // when the entity is updated in consecutive transactions, it's cached after the second one
+        for (int i = 1; i <= UPDATES; i++) {
+            var update = entityUpdate(entity, i);
+            expectedHistory.add(close(expected, update));
+            expected.setBalance(expected.getBalance() + update.getBalance());
+            expected.setMemo(update.getMemo());
+            expected.setTimestampRange(update.getTimestampRange());
+            persist(List.of(update));
+        }
+
+        // then
+        assertThat(entityRepository.findAll()).containsExactly(expected);
+        assertThat(findHistory(Entity.class)).containsExactlyInAnyOrderElementsOf(expectedHistory);
+    }
+
+    @Test
+    void entityWithHistoryInBatch() {
+        // given
+        var entity = domainBuilder.entity().persist();
+        var expected = TestUtils.clone(entity);
+        var expectedHistory = new ArrayList<Entity>();
+
+        // when each transaction has a closed and a current row of the entity
+        for (int i = 1; i <= UPDATES; i++) {
+            var closed = entityUpdate(entity, 2 * i - 1);
+            var current = entityUpdate(entity, 2 * i);
+            closed.setTimestampUpper(current.getTimestampLower());
+            // The listener merges the earlier rows of an entity into its later rows
+            current.setBalance(closed.getBalance() + current.getBalance());
+            expectedHistory.add(close(expected, closed));
+            var expectedClosed = TestUtils.clone(expected);
+            expectedClosed.setBalance(expected.getBalance() + closed.getBalance());
+            expectedClosed.setMemo(closed.getMemo());
+            expectedClosed.setTimestampRange(closed.getTimestampRange());
+            expectedHistory.add(expectedClosed);
+            expected.setBalance(expected.getBalance() + current.getBalance());
+            expected.setMemo(current.getMemo());
+            expected.setTimestampRange(current.getTimestampRange());
+            persist(List.of(closed, current));
+        }
+
+        // then
+        assertThat(entityRepository.findAll()).containsExactly(expected);
+        assertThat(findHistory(Entity.class)).containsExactlyInAnyOrderElementsOf(expectedHistory);
+    }
+
+    @Test
+    void rollback() {
+        // given
+        var entity = domainBuilder.entity().persist();
+        var expected = TestUtils.clone(entity);
+        for (int i = 1; i < UPDATES; i++) {
+            var update = entityUpdate(entity, i);
+            expected.setBalance(expected.getBalance() + update.getBalance());
+            expected.setMemo(update.getMemo());
+            expected.setTimestampRange(update.getTimestampRange());
+            persist(List.of(update));
+        }
+
+        // when
+        var rolledBack = entityUpdate(entity, UPDATES);
+        assertThatThrownBy(() -> transactionOperations.executeWithoutResult(t -> {
+                    upsertableStateCache.persist(List.of(rolledBack));
+                    throw new IllegalStateException("rollback");
+                }))
+                .isInstanceOf(IllegalStateException.class);
+
+        var update = entityUpdate(entity, UPDATES + 1);
+        expected.setBalance(expected.getBalance() + update.getBalance());
+        expected.setMemo(update.getMemo());
+        expected.setTimestampRange(update.getTimestampRange());
+        persist(List.of(update));
+
+        // then
+        assertThat(entityRepository.findAll()).containsExactly(expected);
+    }
+
+    @Test
+    void evict() {
+        // given
+        var entity = domainBuilder.entity().persist();
+        for (int i = 1; i < UPDATES; i++) {
+            persist(List.of(entityUpdate(entity, i)));
+        }
+
+        // when the row is updated outside the upsert path and evicted
+        jdbcOperations.update("update entity set memo = 'external' where id = ?", entity.getId());
+        upsertableStateCache.evict(Entity.class, List.of(entity.getId()));
+        var update = entityUpdate(entity, UPDATES);
+        update.setMemo(null);
+        persist(List.of(update));
+
+        // then
+        assertThat(entityRepository.findById(entity.getId()))
+                .get()
+                .returns("external", Entity::getMemo)
+                .returns(update.getTimestampRange(), Entity::getTimestampRange);
+    }
+
+    @Test
+    void tokenAccount() {
+        // given
+        var token = domainBuilder.token().persist();
+        var tokenAccount = domainBuilder
+                .tokenAccount()
+                .customize(ta -> ta.balance(100L).tokenId(token.getTokenId()))
+                .persist();
+        var expected = TestUtils.clone(tokenAccount);
+        var expectedHistory = new ArrayList<TokenAccount>();
+
+        // when
+        for (int i = 1; i <= UPDATES; i++) {
+            var update = new TokenAccount();
+            update.setAccountId(tokenAccount.getAccountId());
+            update.setBalance(-10L);
+            update.setTokenId(tokenAccount.getTokenId());
+            update.setTimestampLower(tokenAccount.getTimestampLower() + i);
+            var closed = TestUtils.clone(expected);
+            closed.setTimestampUpper(update.getTimestampLower());
+            expectedHistory.add(closed);
+            expected.setBalance(expected.getBalance() + update.getBalance());
+            expected.setTimestampRange(update.getTimestampRange());
+            persist(List.of(update));
+        }
+
+        // then
+        assertThat(tokenAccountRepository.findAll()).containsExactly(expected);
+        assertThat(findHistory(TokenAccount.class, "account_id, token_id"))
+                .containsExactlyInAnyOrderElementsOf(expectedHistory);
+    }
+
+    @Test
+    void disabled() {
+        // given
+        var sqlProperties = new SqlProperties();
+        upsertableStateCache = new UpsertableStateCache(
+                batchPersister,
+                compositeBatchPersister,
+                entityMetadataRegistry,
+                entityRepository,
+                sqlProperties,
+                tokenAccountRepository,
+                tokenRepository);
+        var entity = domainBuilder.entity().persist();
+        var update = entityUpdate(entity, 1);
+
+        // when
+        persist(List.of(update));
+
+        // then
+        assertThat(entityRepository.findById(entity.getId()))
+                .get()
+                .returns(entity.getBalance() + update.getBalance(), Entity::getBalance)
+                .returns(update.getMemo(), Entity::getMemo);
+    }
+
+    private Entity close(Entity expected, Entity update) {
+        var closed = TestUtils.clone(expected);
+        closed.setTimestampUpper(update.getTimestampLower());
+        return closed;
+    }
+
+    private Entity entityUpdate(Entity entity, int index) {
+        var update = entity.toEntityId().toEntity();
+        update.setBalance(10L * index);
+        update.setMemo("update" + index);
+        update.setTimestampLower(entity.getTimestampLower() + index);
+        return update;
+    }
+
+    private void persist(Collection<?> items) {
+        transactionOperations.executeWithoutResult(t -> upsertableStateCache.persist(items));
+    }
+}
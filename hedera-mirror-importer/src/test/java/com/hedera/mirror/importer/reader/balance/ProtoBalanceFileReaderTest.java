@@ -31,13 +31,18 @@ import com.hedera.mirror.importer.domain.StreamFileData;
 import com.hedera.mirror.importer.exception.InvalidStreamFileException;
 import com.hedera.services.stream.proto.AllAccountBalances;
 import com.hedera.services.stream.proto.SingleAccountBalances;
+import com.hederahashgraph.api.proto.java.AccountID;
 import com.hederahashgraph.api.proto.java.Timestamp;
+import com.hederahashgraph.api.proto.java.TokenID;
+import com.hederahashgraph.api.proto.java.TokenUnitBalance;
 import java.io.File;
 import java.nio.file.Paths;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -110,6 +115,40 @@ class ProtoBalanceFileReaderTest {
         assertThat(accountBalanceFile.getItems().count().block()).isEqualTo(1L);
     }
 
+    @Test
+    void readMultipleChunks() {
+        var timestamp = Timestamp.newBuilder().setSeconds(1L).build();
+        long consensusTimestamp = DomainUtils.timestampInNanosMax(timestamp);
+        var builder = AllAccountBalances.newBuilder().setConsensusTimestamp(timestamp);
+        var expectedItems = new ArrayList<AccountBalance>();
+
+        for (int i = 1; i <= 1000; i++) {
+            var accountId = EntityId.of(0, 0, i, EntityType.ACCOUNT);
+            var tokenId = EntityId.of(0, 0, i + 1L, EntityType.TOKEN);
+            builder.addAllAccounts(SingleAccountBalances.newBuilder()
+                    .setAccountID(AccountID.newBuilder().setAccountNum(i))
+                    .setHbarBalance(i * 10L)
+                    .addTokenUnitBalances(TokenUnitBalance.newBuilder()
+                            .setTokenId(TokenID.newBuilder().setTokenNum(i + 1L))
+                            .setBalance(i)));
+            var tokenBalance = new TokenBalance(i, new TokenBalance.Id(consensusTimestamp, accountId, tokenId));
+            expectedItems.add(new AccountBalance(
+                    i * 10L, List.of(tokenBalance), new AccountBalance.Id(consensusTimestamp, accountId)));
+        }
+
+        byte[] bytes = builder.build().toByteArray();
+        int chunkSize = 1024;
+        assertThat(bytes.length).isGreaterThan(2 * chunkSize);
+        var streamFileData = StreamFileData.from(TIMESTAMP + "_Balances.pb", bytes);
+        var accountBalanceFile = new ProtoBalanceFileReader(chunkSize).read(streamFileData);
+
+        assertThat(accountBalanceFile.getConsensusTimestamp()).isEqualTo(consensusTimestamp);
+        assertThat(accountBalanceFile.getFileHash()).isEqualTo(DigestUtils.sha384Hex(bytes));
+        assertThat(accountBalanceFile.getItems().collectList().block()).containsExactlyElementsOf(expectedItems);
+        // The items are read again when subscribed to again, as when parsing is retried
+        assertThat(accountBalanceFile.getItems().collectList().block()).containsExactlyElementsOf(expectedItems);
+    }
+
     @Test
     void readCorruptedBytes() {
         corrupt(streamFileData.getBytes());
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.reader.record;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Stopwatch;
+import com.hedera.mirror.common.domain.transaction.RecordItem;
+import com.hedera.mirror.importer.domain.StreamFileData;
+import com.hedera.mirror.importer.reader.record.ProtoRecordFileReader.RecordStreamItemBytes;
+import com.hedera.services.stream.proto.RecordStreamFile;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import lombok.CustomLog;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Compares building the record items of the v6 record files in the test resources from the raw item bytes captured by
+ * ProtoRecordFileReader against the previous approach of parsing the whole RecordStreamFile and then serializing and
+ * parsing each item again. Both paths decompress the file, parse the same file fields and build the same items.
+ */
+@CustomLog
+@Tag("performance")
+class ProtoRecordFileReaderPerformanceTest {
+
+    private static final int ITERATIONS = 2000;
+
+    private final ProtoRecordFileReader protoRecordFileReader = new ProtoRecordFileReader();
+
+    @Test
+    void read() throws IOException {
+        var files = new ClassPathResource("data/recordstreams/v6/record0.0.3").getFile().listFiles();
+        var streamFileData = Arrays.stream(files)
+                .map(File::getName)
+                .filter(name -> name.endsWith(".rcd.gz"))
+                .sorted()
+                .map(name -> StreamFileData.from(new File(files[0].getParentFile(), name)))
+                .toList();
+        assertThat(streamFileData).isNotEmpty();
+
+        // Both paths decompress the same files and build the same record items
+        for (var data : streamFileData) {
+            assertThat(readItems(data))
+                    .usingRecursiveFieldByFieldElementComparatorOnFields(
+                            "recordBytes", "transactionBytes", "transactionIndex")
+                    .containsExactlyElementsOf(reparseItems(data));
+        }
+
+        // Warm up both paths before measuring
+        measure("reparse", streamFileData, this::reparseItems);
+        measure("single parse", streamFileData, this::readItems);
+
+        var reparse = measure("reparse", streamFileData, this::reparseItems);
+        var singleParse = measure("single parse", streamFileData, this::readItems);
+        assertThat(singleParse).isLessThan(reparse);
+    }
+
+    private long measure(String name, List<StreamFileData> streamFileData, Function<StreamFileData, List<?>> reader) {
+        var threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        var stopwatch = Stopwatch.createStarted();
+        long count = 0;
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (var data : streamFileData) {
+                count += reader.apply(data).size();
+            }
+        }
+
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        log.info(
+                "Read {} record items with {} in {}, allocating {} bytes per item",
+                count,
+                name,
+                stopwatch,
+                allocated / count);
+        return allocated;
+    }
+
+    /**
+     * Reads the items the way ProtoRecordFileReader does, capturing the raw bytes of each item while reading the file.
+     */
+    private List<RecordItem> readItems(StreamFileData streamFileData) {
+        try (var inputStream = streamFileData.getInputStream()) {
+            var items = new ArrayList<RecordStreamItemBytes>();
+            protoRecordFileReader.readRecordStreamFile(streamFileData.getFilename(), inputStream, items);
+            var recordItems = new ArrayList<RecordItem>(items.size());
+
+            for (var item : items) {
+                recordItems.add(RecordItem.builder()
+                        .transactionRecordBytes(item.recordBytes())
+                        .transactionBytes(item.transactionBytes())
+                        .transactionIndex(recordItems.size())
+                        .build());
+            }
+
+            return recordItems;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the items the way ProtoRecordFileReader previously did, parsing the items as part of the RecordStreamFile
+     * and then serializing each item again.
+     */
+    private List<RecordItem> reparseItems(StreamFileData streamFileData) {
+        try (var dataInputStream = new DataInputStream(streamFileData.getInputStream())) {
+            dataInputStream.readInt();
+            var recordStreamFile = RecordStreamFile.parseFrom(dataInputStream);
+            var recordItems = new ArrayList<RecordItem>(recordStreamFile.getRecordStreamItemsCount());
+
+            for (var recordStreamItem : recordStreamFile.getRecordStreamItemsList()) {
+                recordItems.add(RecordItem.builder()
+                        .transactionRecordBytes(recordStreamItem.getRecord().toByteArray())
+                        .transactionBytes(recordStreamItem.getTransaction().toByteArray())
+                        .transactionIndex(recordItems.size())
+                        .build());
+            }
+
+            return recordItems;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -26,8 +26,11 @@ import com.hedera.mirror.importer.TestRecordFiles;
 import com.hedera.mirror.importer.TestUtils;
 import com.hedera.mirror.importer.domain.StreamFileData;
 import com.hedera.mirror.importer.exception.InvalidStreamFileException;
+import com.hedera.services.stream.proto.SidecarType;
+import com.hedera.services.stream.proto.TransactionSidecarRecord;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Set;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
 import org.junit.jupiter.api.BeforeEach;
@@ -72,6 +75,32 @@ class SidecarFileReaderImplTest {
                 .isEqualTo(expected);
     }
 
+    @Test
+    void readTypes() {
+        var expected =
+                TestRecordFiles.getAll().get(RECORD_FILENAME).getSidecars().get(0);
+        var sidecar = expected.toBuilder()
+                .actualHash(null)
+                .bytes(null)
+                .count(null)
+                .size(null)
+                .records(null)
+                .build();
+        var streamFileData = StreamFileData.from(TestUtils.getResource(SIDECAR_FILE_PATH));
+
+        sidecarFileReader.read(sidecar, streamFileData, Set.of(SidecarType.CONTRACT_BYTECODE));
+
+        assertThat(sidecar.getRecords())
+                .isNotEmpty()
+                .containsExactlyElementsOf(expected.getRecords().stream()
+                        .filter(TransactionSidecarRecord::hasBytecode)
+                        .toList());
+        assertThat(sidecar)
+                .returns(expected.getActualHash(), SidecarFile::getActualHash)
+                .returns(expected.getCount(), SidecarFile::getCount)
+                .returns(expected.getSize(), SidecarFile::getSize);
+    }
+
     @Test
     void readCorruptedGzipFile() {
         var streamFileData = StreamFileData.from(SIDECAR_FILENAME, domainBuilder.bytes(256));
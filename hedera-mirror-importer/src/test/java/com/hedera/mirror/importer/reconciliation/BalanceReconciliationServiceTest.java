@@ -19,6 +19,7 @@ package com.hedera.mirror.importer.reconciliation;
 import static com.hedera.mirror.common.domain.job.ReconciliationStatus.FAILURE_CRYPTO_TRANSFERS;
 import static com.hedera.mirror.common.domain.job.ReconciliationStatus.FAILURE_FIFTY_BILLION;
 import static com.hedera.mirror.common.domain.job.ReconciliationStatus.FAILURE_TOKEN_TRANSFERS;
+import static com.hedera.mirror.common.domain.job.ReconciliationStatus.RUNNING;
 import static com.hedera.mirror.common.domain.job.ReconciliationStatus.SUCCESS;
 import static com.hedera.mirror.common.domain.job.ReconciliationStatus.UNKNOWN;
 import static com.hedera.mirror.importer.reconciliation.BalanceReconciliationService.FIFTY_BILLION_HBARS;
@@ -28,6 +29,7 @@ import static com.hedera.mirror.importer.reconciliation.ReconciliationProperties
 import static com.hedera.mirror.importer.reconciliation.ReconciliationProperties.RemediationStrategy.FAIL;
 import static com.hedera.mirror.importer.reconciliation.ReconciliationProperties.RemediationStrategy.RESET;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
 import com.hedera.mirror.common.domain.DomainBuilder;
 import com.hedera.mirror.common.domain.balance.AccountBalance;
@@ -48,9 +50,11 @@ import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import org.assertj.core.api.InstanceOfAssertFactories;
 import org.assertj.core.api.ObjectAssert;
+import org.awaitility.Durations;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -69,6 +73,7 @@ class BalanceReconciliationServiceTest extends IntegrationTest {
 
     @BeforeEach
     void setup() {
+        reconciliationProperties.setCheckpointInterval(10);
         reconciliationProperties.setDelay(Duration.ZERO);
         reconciliationProperties.setEnabled(true);
         reconciliationProperties.setEndDate(Utility.MAX_INSTANT_LONG);
@@ -159,6 +164,48 @@ class BalanceReconciliationServiceTest extends IntegrationTest {
         assertReconciliationJob(SUCCESS, balance2).returns(1L, ReconciliationJob::getCount);
     }
 
+    @Test
+    void cryptoAndTokenTransfersFailure() {
+        // given
+        tokenBalance(Map.of(new TokenAccountId(2, 100), 1L));
+        transfer(2, 3, 100);
+        tokenBalance(Map.of(new TokenAccountId(2, 100), 2L)); // Missing crypto and token transfers
+
+        // when
+        reconcile();
+
+        // then
+        assertReconciliationJob(FAILURE_CRYPTO_TRANSFERS, null)
+                .returns(0L, ReconciliationJob::getCount)
+                .extracting(ReconciliationJob::getError)
+                .asInstanceOf(InstanceOfAssertFactories.STRING)
+                .contains("Crypto transfers did not reconcile", "Token transfers did not reconcile");
+    }
+
+    @Test
+    void checkpointInterval() {
+        // given
+        reconciliationProperties.setCheckpointInterval(1);
+        reconciliationProperties.setDelay(Duration.ofSeconds(1L));
+        balance(Map.of(2L, FIFTY_BILLION_HBARS));
+        var balance2 = balance(Map.of(2L, FIFTY_BILLION_HBARS));
+        var balance3 = balance(Map.of(2L, FIFTY_BILLION_HBARS));
+
+        // when
+        var result = CompletableFuture.runAsync(reconciliationService::reconcile);
+
+        // then the progress is saved after each balance file while the job is still running
+        await().pollInterval(Durations.ONE_HUNDRED_MILLISECONDS)
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(reconciliationJobRepository.findLatest())
+                        .get()
+                        .returns(1L, ReconciliationJob::getCount)
+                        .returns(balance2.getConsensusTimestamp(), ReconciliationJob::getConsensusTimestamp)
+                        .returns(RUNNING, ReconciliationJob::getStatus));
+        result.join();
+        assertReconciliationJob(SUCCESS, balance3).returns(2L, ReconciliationJob::getCount);
+    }
+
     @Test
     void delay() {
         // given
@@ -288,6 +335,21 @@ class BalanceReconciliationServiceTest extends IntegrationTest {
         assertThat(reconciliationJobRepository.count()).isZero();
     }
 
+    @Test
+    void continuousEnabled() {
+        // given
+        reconciliationProperties.getContinuous().setEnabled(true);
+        balance(Map.of(2L, 1L)); // Would fail if checked
+
+        // when
+        reconcile();
+
+        // then
+        assertMetric(UNKNOWN);
+        assertThat(reconciliationJobRepository.count()).isZero();
+        reconciliationProperties.getContinuous().setEnabled(false);
+    }
+
     @Test
     void noBalanceFiles() {
         // when
@@ -0,0 +1,332 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.reconciliation;
+
+import static com.hedera.mirror.common.domain.job.ReconciliationStatus.FAILURE_CRYPTO_TRANSFERS;
+import static com.hedera.mirror.common.domain.job.ReconciliationStatus.FAILURE_TOKEN_TRANSFERS;
+import static com.hedera.mirror.common.domain.job.ReconciliationStatus.RUNNING;
+import static com.hedera.mirror.importer.reconciliation.BalanceReconciliationService.FIFTY_BILLION_HBARS;
+import static com.hedera.mirror.importer.reconciliation.ReconciliationProperties.RemediationStrategy.FAIL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.hedera.mirror.common.domain.DomainBuilder;
+import com.hedera.mirror.common.domain.balance.AccountBalance;
+import com.hedera.mirror.common.domain.balance.AccountBalanceFile;
+import com.hedera.mirror.common.domain.balance.TokenBalance;
+import com.hedera.mirror.common.domain.entity.EntityId;
+import com.hedera.mirror.common.domain.entity.EntityType;
+import com.hedera.mirror.common.domain.job.ReconciliationJob;
+import com.hedera.mirror.common.domain.token.TokenTransfer;
+import com.hedera.mirror.common.domain.transaction.CryptoTransfer;
+import com.hedera.mirror.importer.IntegrationTest;
+import com.hedera.mirror.importer.parser.CommonParserProperties;
+import com.hedera.mirror.importer.parser.balance.BalanceParserProperties;
+import com.hedera.mirror.importer.parser.batch.BalanceBatchInserter;
+import com.hedera.mirror.importer.repository.AccountBalanceFileRepository;
+import com.hedera.mirror.importer.repository.ReconciliationJobRepository;
+import com.hedera.mirror.importer.repository.upsert.EntityMetadataRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.awaitility.Durations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class ContinuousBalanceReconcilerTest extends IntegrationTest {
+
+    private static final long TOKEN_ID = 100L;
+
+    private final AccountBalanceFileRepository accountBalanceFileRepository;
+    private final BalanceReconciliationService balanceReconciliationService;
+    private final CommonParserProperties commonParserProperties;
+    private final DataSource dataSource;
+    private final DomainBuilder domainBuilder;
+    private final EntityMetadataRegistry entityMetadataRegistry;
+    private final MeterRegistry meterRegistry;
+    private final ReconciliationJobRepository reconciliationJobRepository;
+    private final ReconciliationProperties reconciliationProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private ContinuousBalanceReconciler reconciler;
+
+    @BeforeEach
+    void setup() {
+        reconciliationProperties.setCheckpointInterval(1);
+        reconciliationProperties.getContinuous().setEnabled(true);
+        reconciliationProperties.setRemediationStrategy(FAIL);
+        reconciliationProperties.setToken(true);
+        reconciler = new ContinuousBalanceReconciler(
+                accountBalanceFileRepository,
+                balanceReconciliationService,
+                reconciliationJobRepository,
+                reconciliationProperties);
+    }
+
+    @AfterEach
+    void teardown() {
+        reconciliationProperties.setCheckpointInterval(10);
+        reconciliationProperties.getContinuous().setEnabled(false);
+        reconciliationProperties.setToken(false);
+    }
+
+    @Test
+    void success() {
+        // given
+        long timestamp = base();
+        recordFile(timestamp, timestamp + 10, 3L, 10L, 5L);
+        var balanceFile = balance(timestamp + 10, Map.of(2L, FIFTY_BILLION_HBARS - 10, 3L, 10L), 15L);
+        recordFile(timestamp + 11, timestamp + 20, 3L, 1L, 1L);
+
+        // when
+        reconciler.onBalanceFileParsed();
+
+        // then
+        await().pollInterval(Durations.ONE_HUNDRED_MILLISECONDS)
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(reconciliationJobRepository.findLatest())
+                        .get()
+                        .returns(1L, ReconciliationJob::getCount)
+                        .returns(balanceFile.getConsensusTimestamp(), ReconciliationJob::getConsensusTimestamp)
+                        .returns("", ReconciliationJob::getError)
+                        .returns(RUNNING, ReconciliationJob::getStatus));
+    }
+
+    @Test
+    void concurrentBalanceCopies() {
+        // given
+        long timestamp = base();
+        recordFile(timestamp, timestamp + 10, 3L, 10L, 5L);
+        var balanceParserProperties = new BalanceParserProperties();
+        balanceParserProperties.setCopyConcurrency(4);
+        var balanceBatchInserter = new BalanceBatchInserter(
+                balanceParserProperties, commonParserProperties, dataSource, entityMetadataRegistry, meterRegistry);
+        long balanceTimestamp = timestamp + 10;
+        var accountBalances = List.of(
+                accountBalance(balanceTimestamp, 2L, FIFTY_BILLION_HBARS - 10),
+                accountBalance(balanceTimestamp, 3L, 10L));
+        var tokenBalance = domainBuilder
+                .tokenBalance()
+                .customize(t -> t.balance(15L)
+                        .id(new TokenBalance.Id(
+                                balanceTimestamp,
+                                EntityId.of(3L, EntityType.ACCOUNT),
+                                EntityId.of(TOKEN_ID, EntityType.TOKEN))))
+                .get();
+
+        // when the balances are copied over several connections and the balance file is reconciled right after commit
+        transactionTemplate.executeWithoutResult(s -> {
+            domainBuilder
+                    .accountBalanceFile()
+                    .customize(a -> a.consensusTimestamp(balanceTimestamp))
+                    .persist();
+            balanceBatchInserter.persist(accountBalances);
+            balanceBatchInserter.persist(List.of(tokenBalance));
+
+            // Ordered like the listeners of the transactional events published by the balance parser
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return 0;
+                }
+
+                @Override
+                public void afterCommit() {
+                    reconciler.onBalanceFileParsed();
+                    await().pollInterval(Durations.ONE_HUNDRED_MILLISECONDS)
+                            .atMost(Duration.ofSeconds(5))
+                            .until(() -> reconciliationJobRepository.findLatest().isPresent());
+                }
+            });
+        });
+
+        // then all the balances were visible to the reconciliation
+        assertThat(reconciliationJobRepository.findLatest())
+                .get()
+                .returns(1L, ReconciliationJob::getCount)
+                .returns(balanceTimestamp, ReconciliationJob::getConsensusTimestamp)
+                .returns("", ReconciliationJob::getError)
+                .returns(RUNNING, ReconciliationJob::getStatus);
+    }
+
+    @Test
+    void cryptoTransfersFailure() {
+        // given
+        long timestamp = base();
+        recordFile(timestamp, timestamp + 10, 3L, 10L, 5L);
+        balance(timestamp + 10, Map.of(2L, FIFTY_BILLION_HBARS - 11, 3L, 11L), 15L);
+
+        // when
+        reconciler.onBalanceFileParsed();
+
+        // then
+        await().pollInterval(Durations.ONE_HUNDRED_MILLISECONDS)
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(reconciliationJobRepository.findLatest())
+                        .get()
+                        .returns(FAILURE_CRYPTO_TRANSFERS, ReconciliationJob::getStatus)
+                        .satisfies(j -> assertThat(j.getTimestampEnd()).isNotNull()));
+        assertThat(balanceReconciliationService.status).hasValue(FAILURE_CRYPTO_TRANSFERS);
+    }
+
+    @Test
+    void tokenTransfersFailure() {
+        // given
+        long timestamp = base();
+        recordFile(timestamp, timestamp + 10, 3L, 10L, 5L);
+        balance(timestamp + 10, Map.of(2L, FIFTY_BILLION_HBARS - 10, 3L, 10L), 16L);
+
+        // when
+        reconciler.onBalanceFileParsed();
+
+        // then
+        await().pollInterval(Durations.ONE_HUNDRED_MILLISECONDS)
+                .atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(reconciliationJobRepository.findLatest())
+                        .get()
+                        .returns(FAILURE_TOKEN_TRANSFERS, ReconciliationJob::getStatus));
+    }
+
+    @Test
+    void notCovered() {
+        // given
+        long timestamp = domainBuilder.timestamp();
+        balance(timestamp, Map.of(2L, FIFTY_BILLION_HBARS), 10L);
+        reconciler.onBalanceFileParsed();
+
+        // The transfers after the balance file aren't all tracked, so it can't be the base
+        recordFile(timestamp + 2, timestamp + 10, 3L, 10L, 5L);
+        balance(timestamp + 10, Map.of(2L, FIFTY_BILLION_HBARS - 11, 3L, 11L), 15L);
+
+        // when
+        reconciler.onBalanceFileParsed();
+
+        // then
+        await().pollInterval(Durations.ONE_HUNDRED_MILLISECONDS)
+                .atMost(Duration.ofSeconds(5))
+                .until(() -> reconciler.balanceTimestamp == timestamp + 10);
+        assertThat(reconciliationJobRepository.count()).isZero();
+    }
+
+    @Test
+    void disabled() {
+        // given
+        reconciliationProperties.getContinuous().setEnabled(false);
+        long timestamp = base();
+        recordFile(timestamp, timestamp + 10, 3L, 10L, 5L);
+        balance(timestamp + 10, Map.of(2L, FIFTY_BILLION_HBARS - 11, 3L, 11L), 15L);
+
+        // when
+        reconciler.onBalanceFileParsed();
+
+        // then
+        assertThat(reconciler.isEnabled()).isFalse();
+        assertThat(reconciliationJobRepository.count()).isZero();
+    }
+
+    /*
+     * Persists the base balance file and waits for it to be used as the base before returning its timestamp
+     */
+    private long base() {
+        long timestamp = domainBuilder.timestamp();
+        balance(timestamp, Map.of(2L, FIFTY_BILLION_HBARS), 10L);
+
+        if (reconciler.isEnabled()) {
+            reconciler.onBalanceFileParsed();
+            recordFile(timestamp, timestamp, 2L, 0L, 0L);
+            await().pollInterval(Durations.ONE_HUNDRED_MILLISECONDS)
+                    .atMost(Duration.ofSeconds(5))
+                    .until(() -> reconciler.balanceTimestamp == timestamp);
+        }
+
+        return timestamp;
+    }
+
+    private AccountBalanceFile balance(long timestamp, Map<Long, Long> balances, long tokenBalance) {
+        var accountBalanceFile = domainBuilder
+                .accountBalanceFile()
+                .customize(a -> a.consensusTimestamp(timestamp))
+                .persist();
+
+        balances.forEach((accountId, balance) -> {
+            var entityId = EntityId.of(accountId, EntityType.ACCOUNT);
+            domainBuilder
+                    .accountBalance()
+                    .customize(a -> a.balance(balance).id(new AccountBalance.Id(timestamp, entityId)))
+                    .persist();
+        });
+
+        var accountId = EntityId.of(3L, EntityType.ACCOUNT);
+        var tokenId = EntityId.of(TOKEN_ID, EntityType.TOKEN);
+        domainBuilder
+                .tokenBalance()
+                .customize(t -> t.balance(tokenBalance).id(new TokenBalance.Id(timestamp, accountId, tokenId)))
+                .persist();
+        return accountBalanceFile;
+    }
+
+    private AccountBalance accountBalance(long timestamp, long accountId, long balance) {
+        var id = new AccountBalance.Id(timestamp, EntityId.of(accountId, EntityType.ACCOUNT));
+        return domainBuilder
+                .accountBalance()
+                .customize(a -> a.balance(balance).id(id))
+                .get();
+    }
+
+    /*
+     * Feeds a record file with a crypto transfer from account 0.0.2 and a token transfer to the account
+     */
+    private void recordFile(long consensusStart, long consensusEnd, long accountId, long amount, long tokenAmount) {
+        var recordFile = domainBuilder
+                .recordFile()
+                .customize(r -> r.consensusStart(consensusStart).consensusEnd(consensusEnd))
+                .get();
+        reconciler.onStart();
+
+        if (amount != 0L) {
+            reconciler.onCryptoTransfer(cryptoTransfer(consensusEnd, 2L, -amount));
+            reconciler.onCryptoTransfer(cryptoTransfer(consensusEnd, accountId, amount));
+        }
+
+        if (tokenAmount != 0L) {
+            var id = new TokenTransfer.Id(
+                    consensusEnd, EntityId.of(TOKEN_ID, EntityType.TOKEN), EntityId.of(accountId, EntityType.ACCOUNT));
+            reconciler.onTokenTransfer(domainBuilder
+                    .tokenTransfer()
+                    .customize(t -> t.amount(tokenAmount).id(id))
+                    .get());
+        }
+
+        reconciler.onEnd(recordFile);
+    }
+
+    private CryptoTransfer cryptoTransfer(long consensusTimestamp, long accountId, long amount) {
+        return domainBuilder
+                .cryptoTransfer()
+                .customize(c -> c.amount(amount).consensusTimestamp(consensusTimestamp).entityId(accountId))
+                .get();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2023 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.mirror.importer.reconciliation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hedera.mirror.importer.reconciliation.BalanceReconciliationService.TokenAccountId;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TokenBalanceMapTest {
+
+    private static final long LARGE_ID = 1L << 32;
+
+    private final TokenBalanceMap map = new TokenBalanceMap();
+
+    @Test
+    void add() {
+        map.put(2L, 100L, 10L);
+        map.add(2L, 100L, 5L);
+        map.add(3L, 100L, 1L);
+        map.add(LARGE_ID, 100L, 7L);
+        map.add(LARGE_ID, 100L, -2L);
+
+        assertThat(map.size()).isEqualTo(3);
+        assertThat(map.toMap()).containsOnly(entry(2L, 100L, 15L), entry(3L, 100L, 1L), entry(LARGE_ID, 100L, 5L));
+    }
+
+    @Test
+    void addOverflow() {
+        map.put(2L, 100L, Long.MAX_VALUE);
+        assertThatThrownBy(() -> map.add(2L, 100L, 1L)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void matches() {
+        var other = new TokenBalanceMap();
+        map.put(2L, 100L, 10L);
+        map.put(2L, LARGE_ID, 20L);
+        other.put(2L, 100L, 10L);
+        other.put(2L, LARGE_ID, 20L);
+        other.put(3L, 100L, 0L);
+
+        assertThat(map.matches(other)).isTrue();
+        assertThat(other.matches(map)).isTrue();
+
+        other.put(2L, LARGE_ID, 21L);
+        assertThat(map.matches(other)).isFalse();
+        assertThat(other.matches(map)).isFalse();
+    }
+
+    @Test
+    void matchesMissing() {
+        var other = new TokenBalanceMap();
+        map.put(2L, 100L, 10L);
+
+        assertThat(map.matches(other)).isFalse();
+        assertThat(other.matches(map)).isFalse();
+        assertThat(new TokenBalanceMap().matches(other)).isTrue();
+    }
+
+    private static Map.Entry<TokenAccountId, Long> entry(long accountId, long tokenId, long balance) {
+        return Map.entry(new TokenAccountId(accountId, tokenId), balance);
+    }
+}
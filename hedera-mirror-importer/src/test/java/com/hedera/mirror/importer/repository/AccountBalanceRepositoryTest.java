@@ -43,6 +43,22 @@ class AccountBalanceRepositoryTest extends AbstractRepositoryTest {
         assertThat(result).containsExactlyInAnyOrder(accountBalance1, accountBalance2);
     }
 
+    @Test
+    void findAsOf() {
+        persistBalanceFile(1L, false);
+        persistBalanceFile(2L, true);
+        persistBalanceFile(3L, false);
+        var accountBalance1 = create(1L, 1, 100, 0);
+        var accountBalance2 = create(1L, 2, 200, 0);
+        var accountBalance3 = create(2L, 1, 150, 0);
+        var accountBalance4 = create(3L, 1, 150, 0);
+
+        assertThat(accountBalanceRepository.findAsOf(1L)).containsExactlyInAnyOrder(accountBalance1, accountBalance2);
+        assertThat(accountBalanceRepository.findAsOf(2L)).containsExactlyInAnyOrder(accountBalance2, accountBalance3);
+        assertThat(accountBalanceRepository.findAsOf(3L)).containsExactly(accountBalance4);
+        assertThat(accountBalanceRepository.findAsOf(0L)).isEmpty();
+    }
+
     @Test
     void prune() {
         domainBuilder.accountBalance().persist();
@@ -54,6 +70,33 @@ class AccountBalanceRepositoryTest extends AbstractRepositoryTest {
         assertThat(accountBalanceRepository.findAll()).containsExactly(accountBalance3);
     }
 
+    @Test
+    void pruneDelta() {
+        persistBalanceFile(1L, false);
+        persistBalanceFile(2L, true);
+        persistBalanceFile(3L, true);
+        var accountBalance1 = create(1L, 1, 100, 1);
+        var accountBalance2 = create(2L, 1, 150, 0);
+        var accountBalance3 = create(3L, 2, 0, 0);
+
+        // The next file is a delta so the full snapshot it depends on is retained
+        accountBalanceRepository.prune(2L);
+        assertThat(accountBalanceRepository.findAll())
+                .containsExactlyInAnyOrder(accountBalance1, accountBalance2, accountBalance3);
+
+        persistBalanceFile(4L, false);
+        var accountBalance4 = create(4L, 1, 150, 0);
+        accountBalanceRepository.prune(3L);
+        assertThat(accountBalanceRepository.findAll()).containsExactly(accountBalance4);
+    }
+
+    private void persistBalanceFile(long consensusTimestamp, boolean delta) {
+        domainBuilder
+                .accountBalanceFile()
+                .customize(f -> f.consensusTimestamp(consensusTimestamp).delta(delta))
+                .persist();
+    }
+
     private AccountBalance create(long consensusTimestamp, int accountNum, long balance, int numberOfTokenBalances) {
         AccountBalance.Id id = new AccountBalance.Id();
         id.setConsensusTimestamp(consensusTimestamp);
@@ -16,8 +16,12 @@
 
 package com.hedera.mirror.importer.repository;
 
+import static com.hedera.mirror.common.domain.entity.EntityType.ACCOUNT;
+import static com.hedera.mirror.common.domain.entity.EntityType.TOKEN;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.hedera.mirror.common.domain.balance.TokenBalance;
+import com.hedera.mirror.common.domain.entity.EntityId;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
@@ -39,6 +43,36 @@ class TokenBalanceRepositoryTest extends AbstractRepositoryTest {
         assertThat(tokenBalanceRepository.findAll()).containsExactly(tokenBalance3);
     }
 
+    @Test
+    void findAsOf() {
+        persistBalanceFile(1L, false);
+        persistBalanceFile(2L, true);
+        var accountId = domainBuilder.entityId(ACCOUNT);
+        var tokenId1 = domainBuilder.entityId(TOKEN);
+        var tokenId2 = domainBuilder.entityId(TOKEN);
+        var tokenBalance1 = persistTokenBalance(1L, accountId, tokenId1, 10L);
+        var tokenBalance2 = persistTokenBalance(1L, accountId, tokenId2, 20L);
+        var tokenBalance3 = persistTokenBalance(2L, accountId, tokenId1, 0L);
+
+        assertThat(tokenBalanceRepository.findAsOf(1L)).containsExactlyInAnyOrder(tokenBalance1, tokenBalance2);
+        assertThat(tokenBalanceRepository.findAsOf(2L)).containsExactlyInAnyOrder(tokenBalance2, tokenBalance3);
+    }
+
+    @Test
+    void pruneDelta() {
+        persistBalanceFile(1L, false);
+        persistBalanceFile(2L, true);
+        persistBalanceFile(3L, true);
+        var accountId = domainBuilder.entityId(ACCOUNT);
+        var tokenId = domainBuilder.entityId(TOKEN);
+        var tokenBalance1 = persistTokenBalance(1L, accountId, tokenId, 10L);
+        var tokenBalance2 = persistTokenBalance(2L, accountId, tokenId, 20L);
+
+        tokenBalanceRepository.prune(2L);
+
+        assertThat(tokenBalanceRepository.findAll()).containsExactlyInAnyOrder(tokenBalance1, tokenBalance2);
+    }
+
     @Test
     void save() {
         var tokenBalance1 = domainBuilder.tokenBalance().get();
@@ -50,4 +84,19 @@ class TokenBalanceRepositoryTest extends AbstractRepositoryTest {
         assertThat(tokenBalanceRepository.findAll())
                 .containsExactlyInAnyOrder(tokenBalance1, tokenBalance2, tokenBalance3);
     }
+
+    private void persistBalanceFile(long consensusTimestamp, boolean delta) {
+        domainBuilder
+                .accountBalanceFile()
+                .customize(f -> f.consensusTimestamp(consensusTimestamp).delta(delta))
+                .persist();
+    }
+
+    private TokenBalance persistTokenBalance(
+            long consensusTimestamp, EntityId accountId, EntityId tokenId, long balance) {
+        return domainBuilder
+                .tokenBalance()
+                .customize(t -> t.balance(balance).id(new TokenBalance.Id(consensusTimestamp, accountId, tokenId)))
+                .persist();
+    }
 }
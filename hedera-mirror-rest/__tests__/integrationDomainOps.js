@@ -718,7 +718,7 @@ const addCustomFee = async (customFee) => {
 };
 
 const setAccountBalance = async (balance) => {
-  balance = {timestamp: 0, id: null, balance: 0, realm_num: 0, ...balance};
+  balance = {timestamp: 0, id: null, balance: 0, delta: false, realm_num: 0, ...balance};
   const accountId = EntityId.of(BigInt(config.shard), BigInt(balance.realm_num), BigInt(balance.id)).getEncodedId();
   await pool.query(
     `insert into account_balance (consensus_timestamp, account_id, balance)
@@ -728,9 +728,17 @@ const setAccountBalance = async (balance) => {
 
   await pool.query(
     `insert into account_balance_file
-    (consensus_timestamp, count, load_start, load_end, name, node_id)
-    values ($1, $2, $3, $4, $5, $6) on CONFLICT DO NOTHING;`,
-    [balance.timestamp, 1, balance.timestamp, balance.timestamp, `${balance.timestamp}_Balances.pb.gz`, 0]
+    (consensus_timestamp, count, delta, load_start, load_end, name, node_id)
+    values ($1, $2, $3, $4, $5, $6, $7) on CONFLICT DO NOTHING;`,
+    [
+      balance.timestamp,
+      1,
+      balance.delta,
+      balance.timestamp,
+      balance.timestamp,
+      `${balance.timestamp}_Balances.pb.gz`,
+      0,
+    ]
   );
 
   if (balance.tokens) {
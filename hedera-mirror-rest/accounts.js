@@ -23,7 +23,7 @@ import * as utils from './utils';
 import {EntityService} from './service';
 import transactions from './transactions';
 import {InvalidArgumentError, NotFoundError} from './errors';
-import {Entity} from './model';
+import {AccountBalanceFile, Entity} from './model';
 import balances from './balances';
 import {opsMap, parseInteger} from './utils';
 import {filterKeys} from './constants';
@@ -178,10 +178,11 @@ const getEntityBalanceQuery = (
   ];
 
   if (accountBalanceQuery.query) {
+    const balanceTimestamp = accountBalanceQuery.timestamp ?? 'ab.consensus_timestamp';
     const consensusTimestampSelect = `(case 
             when upper(e.timestamp_range) is null
-              then COALESCE(ab.consensus_timestamp, (select max(consensus_end) from record_file)) 
-            else COALESCE(ab.consensus_timestamp, upper(e.timestamp_range))
+              then COALESCE(${balanceTimestamp}, (select max(consensus_end) from record_file)) 
+            else COALESCE(${balanceTimestamp}, upper(e.timestamp_range))
           end) as consensus_timestamp`;
     const balanceSelect = 'COALESCE(ab.balance, e.balance) as balance';
 
@@ -361,6 +362,25 @@ const getAccounts = async (req, res) => {
   res.locals[constants.responseDataLabel] = ret;
 };
 
+/**
+ * Gets the condition selecting the latest balance row at or before the delta balance file since the full snapshot
+ *
+ * @param {string} table the balance table
+ * @param {string} alias the alias of the balance table in the query
+ * @param {string} timestamp the balance file timestamp parameter
+ * @return {string}
+ */
+const getBalanceAsOfQuery = (table, alias, timestamp) => {
+  const keyCondition = table === 'token_balance' ? `and b.token_id = ${alias}.token_id` : '';
+  return `${alias}.consensus_timestamp = (
+      select max(b.consensus_timestamp)
+      from ${table} b
+      where b.account_id = ${alias}.account_id ${keyCondition}
+        and b.consensus_timestamp <= ${timestamp}
+        and b.consensus_timestamp >= ${AccountBalanceFile.getFullSnapshotTimestampQuery(timestamp)}
+    )`;
+};
+
 /**
  * Handler function for /account/:idOrAliasOrEvmAddress API.
  * @param {Request} req HTTP request object
@@ -397,8 +417,7 @@ const getOneAccount = async (req, res) => {
 
   const accountBalanceQuery = {query: '', params: []};
   if (transactionTsQuery) {
-    let tokenBalanceTsQuery = `consensus_timestamp ${opsMap.eq} $${++paramCount}`;
-    tokenBalanceQuery.query += ` and ${tokenBalanceTsQuery} `;
+    const tokenBalanceTsParam = `$${++paramCount}`;
 
     const [entityTsQuery, entityTsParams] = utils.buildTimestampRangeQuery(
       tsRange,
@@ -416,11 +435,12 @@ const getOneAccount = async (req, res) => {
       eqValues,
       false
     );
-    const balanceFileTs = await balances.getAccountBalanceTimestamp(
+    const balanceFile = await balances.getAccountBalanceFile(
       balanceFileTsQuery.replaceAll(opsMap.eq, opsMap.lte),
       balanceFileTsParams,
       order
     );
+    const balanceFileTs = balanceFile?.consensus_timestamp;
     //Setting the timestamp to be the account balance timestamp
     tokenBalanceQuery.params = tokenBalanceQuery.params.concat(balanceFileTs);
 
@@ -431,7 +451,18 @@ const getOneAccount = async (req, res) => {
       throw new NotFoundError('Not found');
     }
 
-    accountBalanceQuery.query = `ab.account_id = e.id and ab.consensus_timestamp = $${++paramCount}`;
+    const accountBalanceTsParam = `$${++paramCount}`;
+    if (balanceFile?.delta) {
+      // The balances as of a delta balance file are the latest since the full snapshot
+      const tokenBalanceAsOfQuery = getBalanceAsOfQuery('token_balance', 'latest_token_balance', tokenBalanceTsParam);
+      const accountBalanceAsOfQuery = getBalanceAsOfQuery('account_balance', 'ab', accountBalanceTsParam);
+      tokenBalanceQuery.query += ` and ${tokenBalanceAsOfQuery}`;
+      accountBalanceQuery.query = `ab.account_id = e.id and ${accountBalanceAsOfQuery}`;
+      accountBalanceQuery.timestamp = `(case when ab.account_id is not null then ${accountBalanceTsParam}::bigint end)`;
+    } else {
+      tokenBalanceQuery.query += ` and consensus_timestamp ${opsMap.eq} ${tokenBalanceTsParam} `;
+      accountBalanceQuery.query = `ab.account_id = e.id and ab.consensus_timestamp = ${accountBalanceTsParam}`;
+    }
     accountBalanceQuery.params = [balanceFileTs ?? null];
   }
 
@@ -21,6 +21,7 @@ import EntityId from './entityId';
 import {EntityService} from './service/index.js';
 import {EvmAddressType} from './constants';
 import {InvalidArgumentError} from './errors/index.js';
+import {AccountBalanceFile} from './model';
 import * as utils from './utils';
 
 const {tokenBalance: tokenBalanceLimit} = getResponseLimit();
@@ -68,6 +69,16 @@ const formatBalancesResult = (req, result, limit, order) => {
   return ret;
 };
 
+/**
+ * The balance of each account as of a delta balance file, which is its latest balance since the full snapshot
+ */
+const accountBalanceAsOfQuery = `
+  select distinct on (account_id) account_id, balance, ?timestamp::bigint as consensus_timestamp
+  from account_balance b
+  where b.consensus_timestamp <= ?timestamp
+    and b.consensus_timestamp >= ${AccountBalanceFile.getFullSnapshotTimestampQuery('?timestamp')}
+  order by account_id, b.consensus_timestamp desc`;
+
 const entityJoin = `join (select id, public_key from entity where type in ('ACCOUNT', 'CONTRACT')) ac on ac.id = ab.account_id`;
 
 /**
@@ -104,24 +115,26 @@ const getBalances = async (req, res) => {
   };
 
   if (tsQuery) {
-    const balanceTimestamp = await getAccountBalanceTimestamp(tsQuery, tsParams);
-    if (balanceTimestamp === undefined) {
+    const balanceFile = await getAccountBalanceFile(tsQuery, tsParams);
+    if (balanceFile === undefined) {
       return;
     }
 
     // Only need to join entity if we're selecting on publickey
     const joinEntityClause = pubKeyQuery ? entityJoin : '';
-    const tokenBalanceSubQuery = getTokenBalanceSubQuery(order);
-    const whereClause = `
-      where ${[`ab.consensus_timestamp = ?`, accountQuery, pubKeyQuery, balanceQuery].filter(Boolean).join(' and ')}`;
+    const {consensus_timestamp: balanceTimestamp, delta} = balanceFile;
+    const tokenBalanceSubQuery = getTokenBalanceSubQuery(order, delta);
+    const timestampQuery = delta ? '' : 'ab.consensus_timestamp = ?';
+    const conditions = [timestampQuery, accountQuery, pubKeyQuery, balanceQuery].filter(Boolean).join(' and ');
+    const whereClause = conditions && `where ${conditions}`;
     sqlQuery = `
       select ab.*, (${tokenBalanceSubQuery}) as token_balances
-      from account_balance ab
+      from ${delta ? `(${accountBalanceAsOfQuery})` : 'account_balance'} ab
       ${joinEntityClause}
       ${whereClause}
       order by ab.account_id ${order}
       ${limitQuery}`;
-    tsParams = [balanceTimestamp, balanceTimestamp];
+    tsParams = delta ? [balanceTimestamp] : [balanceTimestamp, balanceTimestamp];
   } else {
     // use current balance from entity table when there's no timestamp query filter
     const conditions = [accountQuery, pubKeyQuery, balanceQuery].filter(Boolean).join(' and ');
@@ -154,9 +167,17 @@ const getBalances = async (req, res) => {
   logger.debug(`getBalances returning ${result.rows.length} entries`);
 };
 
-const getAccountBalanceTimestamp = async (tsQuery, tsParams, order = 'desc') => {
+/**
+ * Gets the first account balance file in the order matching the timestamp query
+ *
+ * @param {string} tsQuery the timestamp query
+ * @param {[]} tsParams the timestamp query params
+ * @param {string} order the order of the balance files
+ * @return {Promise<{consensus_timestamp, delta}|undefined>}
+ */
+const getAccountBalanceFile = async (tsQuery, tsParams, order = 'desc') => {
   const query = `
-    select consensus_timestamp
+    select consensus_timestamp, delta
     from account_balance_file
      ${tsQuery ? ' where ' : ''} ${tsQuery}
     order by consensus_timestamp ${order}
@@ -164,10 +185,24 @@ const getAccountBalanceTimestamp = async (tsQuery, tsParams, order = 'desc') =>
 
   const pgSqlQuery = utils.convertMySqlStyleQueryToPostgres(query);
   const {rows} = await pool.queryQuietly(pgSqlQuery, tsParams);
-  return rows[0]?.consensus_timestamp;
+  return rows[0];
 };
 
-const getTokenBalanceSubQuery = (order) => {
+const getTokenBalanceSubQuery = (order, delta) => {
+  if (delta) {
+    return `
+    select json_agg(json_build_object('token_id', token_id, 'balance', balance))
+    from (
+      select distinct on (token_id) token_id, balance
+      from token_balance tb
+      where tb.account_id = ab.account_id
+        and tb.consensus_timestamp <= ?timestamp
+        and tb.consensus_timestamp >= ${AccountBalanceFile.getFullSnapshotTimestampQuery('?timestamp')}
+      order by token_id ${order}, tb.consensus_timestamp desc
+      limit ${tokenBalanceLimit.multipleAccounts}
+    ) as account_token_balance`;
+  }
+
   return `
     select json_agg(json_build_object('token_id', token_id, 'balance', balance))
     from (
@@ -248,5 +283,5 @@ const acceptedBalancesParameters = new Set([
 
 export default {
   getBalances,
-  getAccountBalanceTimestamp,
+  getAccountBalanceFile,
 };
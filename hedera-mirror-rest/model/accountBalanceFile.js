@@ -17,6 +17,22 @@
 class AccountBalanceFile {
   static tableName = 'account_balance_file';
   static CONSENSUS_TIMESTAMP = 'consensus_timestamp';
+  static DELTA = 'delta';
+
+  /**
+   * Gets the query of the timestamp of the last full snapshot at or before the balance file. A delta balance file only
+   * has the balances changed since the previous file, so the balances as of it are the latest since the full snapshot.
+   *
+   * @param {string} timestamp the balance file timestamp column or parameter
+   * @return {string}
+   */
+  static getFullSnapshotTimestampQuery(timestamp) {
+    return `coalesce((
+      select max(${this.CONSENSUS_TIMESTAMP})
+      from ${this.tableName}
+      where ${this.CONSENSUS_TIMESTAMP} <= ${timestamp} and ${this.DELTA} is false
+    ), 0)`;
+  }
 }
 
 export default AccountBalanceFile;
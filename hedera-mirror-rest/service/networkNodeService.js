@@ -17,6 +17,7 @@
 import BaseService from './baseService';
 import config from '../config.js';
 import {
+  AccountBalanceFile,
   AddressBook,
   AddressBookEntry,
   AddressBookServiceEndpoint,
@@ -111,14 +112,17 @@ class NetworkNodeService extends BaseService {
     select unreleased_supply, (select max(consensus_end) from record_file) as consensus_timestamp
     from unreleased`;
 
+  // The balances as of a delta balance file are the latest since the full snapshot
   static networkSupplyByTimestampQuery = `
     select coalesce(sum(balance), 0) as unreleased_supply, max(consensus_timestamp) as consensus_timestamp
-    from account_balance
-    where (${NetworkNodeService.unreleasedSupplyAccounts('account_id')})
-      and consensus_timestamp = (
-      select max(consensus_timestamp)
-      from account_balance_file abf
-      where `;
+    from (
+      select distinct on (ab.account_id) ab.balance, bf.consensus_timestamp
+      from account_balance ab, balance_file bf
+      where (${NetworkNodeService.unreleasedSupplyAccounts('ab.account_id')})
+        and ab.consensus_timestamp <= bf.consensus_timestamp
+        and ab.consensus_timestamp >= ${AccountBalanceFile.getFullSnapshotTimestampQuery('bf.consensus_timestamp')}
+      order by ab.account_id, ab.consensus_timestamp desc
+    ) as balance_as_of`;
 
   getNetworkNodes = async (whereConditions, whereParams, order, limit) => {
     const [query, params] = this.getNetworkNodesWithFiltersQuery(whereConditions, whereParams, order, limit);
@@ -149,7 +153,12 @@ class NetworkNodeService extends BaseService {
     let query = NetworkNodeService.networkSupplyQuery;
 
     if (conditions.length > 0) {
-      query = `${NetworkNodeService.networkSupplyByTimestampQuery} ${conditions.join(' and ')})`;
+      query = `with balance_file as (
+          select max(consensus_timestamp) as consensus_timestamp
+          from account_balance_file abf
+          where ${conditions.join(' and ')}
+        )
+        ${NetworkNodeService.networkSupplyByTimestampQuery}`;
     }
 
     return await super.getSingleRow(query, params, 'getSupply');
@@ -46,6 +46,7 @@ const (
                                   entity_id = @account_id and
                                   (errata is null or errata <> 'DELETE')
                               ), 0) as value`
+	// the balance as of a delta balance file is the latest since the last full snapshot at or before it
 	latestBalanceBeforeConsensus = "with" + genesisTimestampCte + `, abm as (
                                       select
                                         consensus_timestamp max, (consensus_timestamp + time_offset) adjusted_timestamp
@@ -53,13 +54,23 @@ const (
                                       where consensus_timestamp + time_offset <= @timestamp
                                       order by consensus_timestamp desc
                                       limit 1
+                                    ), full_snapshot as (
+                                      select coalesce(max(consensus_timestamp), 0) as timestamp
+                                      from account_balance_file
+                                      where consensus_timestamp <= (select abm.max from abm) and delta is false
                                     )
                                     select
                                       adjusted_timestamp as consensus_timestamp,
-                                      coalesce(ab.balance, 0) balance
-                                    from abm
-                                    left join account_balance ab
-                                      on ab.consensus_timestamp = abm.max and ab.account_id = @account_id`
+                                      coalesce((
+                                        select balance
+                                        from account_balance ab
+                                        where ab.account_id = @account_id and
+                                          ab.consensus_timestamp <= abm.max and
+                                          ab.consensus_timestamp >= (select timestamp from full_snapshot)
+                                        order by ab.consensus_timestamp desc
+                                        limit 1
+                                      ), 0) balance
+                                    from abm`
 	selectCryptoEntityWithAliasById = "select alias, id from entity where id = @id"
 	selectCryptoEntityByAlias       = `select id, deleted, timestamp_range
                                  from entity
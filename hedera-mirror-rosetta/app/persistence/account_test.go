@@ -303,6 +303,33 @@ func (suite *accountRepositorySuite) TestRetrieveBalanceAtBlockAfterSecondSnapsh
 	assert.ElementsMatch(suite.T(), expectedAmount, actualAmounts)
 }
 
+func (suite *accountRepositorySuite) TestRetrieveBalanceAtBlockAfterDeltaSnapshot() {
+	// given
+	// the second snapshot is a delta without account1's balance since it didn't change, so the balance is the latest
+	// one since the first snapshot, which is the last full snapshot
+	accountId := suite.accountId
+	db.ExecSql(dbClient, truncateCryptoTransferFileSql)
+	tdomain.NewAccountBalanceFileBuilder(dbClient, secondSnapshotTimestamp).
+		AddAccountBalance(treasury, 100).
+		Delta().
+		Persist()
+	hbarAmount := &types.HbarAmount{Value: initialAccountBalance}
+	expectedAmount := types.AmountSlice{hbarAmount}
+	repo := NewAccountRepository(dbClient)
+
+	// when
+	actualAmounts, accountIdString, err := repo.RetrieveBalanceAtBlock(
+		defaultContext,
+		accountId,
+		secondSnapshotTimestamp+6,
+	)
+
+	// then
+	assert.Nil(suite.T(), err)
+	assert.Equal(suite.T(), suite.accountIdString, accountIdString)
+	assert.ElementsMatch(suite.T(), expectedAmount, actualAmounts)
+}
+
 func (suite *accountRepositorySuite) TestRetrieveBalanceAtBlockForDeletedAccount() {
 	// given
 	accountId := suite.accountId
@@ -26,6 +26,7 @@ type AccountBalanceFile struct {
 	Bytes              []byte
 	ConsensusTimestamp int64 `gorm:"primaryKey"`
 	Count              int64
+	Delta              bool
 	FileHash           string
 	LoadEnd            int64
 	LoadStart          int64
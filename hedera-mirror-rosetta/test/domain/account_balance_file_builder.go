@@ -31,6 +31,7 @@ type AccountBalanceFileBuilder struct {
 	accountBalances    []domain.AccountBalance
 	consensusTimestamp int64
 	dbClient           interfaces.DbClient
+	delta              bool
 	timeOffset         int32
 }
 
@@ -43,6 +44,12 @@ func (b *AccountBalanceFileBuilder) AddAccountBalance(accountId, balance int64)
 	return b
 }
 
+// Delta marks the balance file as a delta of the previous one, which only has the balances that changed
+func (b *AccountBalanceFileBuilder) Delta() *AccountBalanceFileBuilder {
+	b.delta = true
+	return b
+}
+
 func (b *AccountBalanceFileBuilder) TimeOffset(timeOffset int32) *AccountBalanceFileBuilder {
 	b.timeOffset = timeOffset
 	return b
@@ -53,6 +60,7 @@ func (b *AccountBalanceFileBuilder) Persist() {
 
 	accountBalanceFile := domain.AccountBalanceFile{
 		ConsensusTimestamp: b.consensusTimestamp,
+		Delta:              b.delta,
 		FileHash:           fmt.Sprintf("%d", b.consensusTimestamp),
 		Name:               fmt.Sprintf("account_balance_file_%d", b.consensusTimestamp),
 		TimeOffset:         b.timeOffset,